@@ -0,0 +1,122 @@
+package benchmark;
+
+import aot.AotCompiler;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import semantic.TypeChecker;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Prevedeni JAR protiv pokretanja izvornog koda (Application --run), svaki put u novom JVM-u.
+// Kratak program meri pokretanje, a petlja sa N poziva propusnost posle zagrevanja JIT-a.
+// Deca dobijaju iste opcije JVM-a (--add-modules, --enable-preview) kao i benchmark.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.AotBenchmark [broj poziva]
+public final class AotBenchmark {
+
+    private static final int WARMUP = 1;
+    private static final int MEASURED = 5;
+
+    private static final String STARTUP = """
+            broj faktorijel(broj n) {
+                moj broj rez = 1;
+                radi (n > 1) {
+                    rez = rez * n;
+                    n = n - 1;
+                }
+                vrati rez;
+            }
+            zapocni_igru
+            napisi(faktorijel(10));
+            zavrsi_igru;
+            """;
+
+    private static final String THROUGHPUT = """
+            broj f1(broj x, broj y) {
+                vrati x + y;
+            }
+            zapocni_igru
+            moj broj s = 0;
+            moj broj k = 0;
+            radi (k < %d) {
+                s = f1(s, k) %% 1000003;
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) throws Exception {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 200_000_000;
+        Path dir = Files.createTempDirectory("aot");
+
+        System.out.println("pokretanje (najbolje od " + MEASURED + "):");
+        compare(dir, "Pokretanje", STARTUP);
+        System.out.println("propusnost, " + calls + " poziva (najbolje od " + MEASURED + "):");
+        compare(dir, "Propusnost", String.format(THROUGHPUT, calls));
+    }
+
+    private static void compare(Path dir, String name, String code) throws Exception {
+        Path source = dir.resolve(name + ".slang");
+        Path jar = dir.resolve(name + ".jar");
+        Files.writeString(source, code);
+
+        long start = System.nanoTime();
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        new AotCompiler(name, source.getFileName().toString()).writeJar(program, jar);
+        long compileNanos = System.nanoTime() - start;
+
+        List<String> interpreted = java();
+        interpreted.addAll(List.of("-cp", System.getProperty("java.class.path"),
+                "application.Application", "--run", source.toString()));
+        List<String> compiled = java();
+        compiled.addAll(List.of("-jar", jar.toString()));
+
+        String expected = run(interpreted);
+        String actual = run(compiled);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("različit izlaz: interpreter '" + expected.trim() + "', JAR '" + actual.trim() + "'");
+        }
+
+        long sourceNanos = best(interpreted);
+        long jarNanos = best(compiled);
+        System.out.printf("  prevođenje u JAR: %.1f ms, %d B%n", compileNanos / 1e6, Files.size(jar));
+        System.out.printf("  izvorni kod:      %.1f ms%n", sourceNanos / 1e6);
+        System.out.printf("  JAR:              %.1f ms (%.2fx)%n", jarNanos / 1e6, (double) sourceNanos / jarNanos);
+    }
+
+    private static List<String> java() {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("--add-modules") || arg.startsWith("--enable-preview")) cmd.add(arg);
+        }
+        return cmd;
+    }
+
+    private static long best(List<String> cmd) throws IOException, InterruptedException {
+        for (int r = 0; r < WARMUP; r++) run(cmd);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(cmd);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+
+    private static String run(List<String> cmd) throws IOException, InterruptedException {
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+        p.getOutputStream().close();
+        String output = new String(p.getInputStream().readAllBytes());
+        if (p.waitFor() != 0) throw new IllegalStateException(String.join(" ", cmd) + ":\n" + output);
+        return output;
+    }
+}
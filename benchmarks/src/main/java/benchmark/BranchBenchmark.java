@@ -0,0 +1,95 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+// Blok paralelno sa 1, 2, 4 i 8 nezavisnih grana koje računaju isto, prema istim naredbama
+// u običnom bloku.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.BranchBenchmark [broj koraka po grani]
+public final class BranchBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+
+    private static final String PROGRAM = """
+            broj racunaj(broj seme, broj koraci) {
+                moj broj x = seme;
+                moj broj k = 0;
+                radi (k < koraci) {
+                    x = (x * 1103515245 + 12345) %% 2147483647;
+                    k = k + 1;
+                }
+                vrati x;
+            }
+            zapocni_igru
+            %s
+            %s {
+            %s
+            }
+            napisi(%s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int steps = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        System.out.printf("%-16s|%14s|%14s|%10s%n", "BRANCHES", "BLOCK ms", "PARALELNO ms", "SPEEDUP");
+        System.out.println("-".repeat(58));
+        for (int branches = 1; branches <= 8; branches *= 2) {
+            IrModule block = compile(source(branches, steps, ""));
+            IrModule parallel = compile(source(branches, steps, "paralelno"));
+            if (!run(block).equals(run(parallel))) throw new IllegalStateException("rezultati se razlikuju");
+            double b = best(block);
+            double p = best(parallel);
+            System.out.printf("%-16d|%14.2f|%14.2f|%9.2fx%n", branches, b, p, b / p);
+        }
+    }
+
+    private static String source(int branches, int steps, String keyword) {
+        StringBuilder decls = new StringBuilder();
+        StringBuilder body = new StringBuilder();
+        StringBuilder sum = new StringBuilder();
+        for (int k = 0; k < branches; k++) {
+            decls.append("moj broj r").append(k).append(" = 0;\n");
+            body.append("    r").append(k).append(" = racunaj(").append(k + 1).append(", ").append(steps).append(");\n");
+            if (k > 0) sum.append(" + ");
+            sum.append("r").append(k);
+        }
+        return String.format(PROGRAM, decls, keyword, body, sum);
+    }
+
+    private static double best(IrModule module) {
+        for (int r = 0; r < WARMUP; r++) run(module);
+        long bestNanos = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos / 1e6;
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static String run(IrModule module) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Interpreter(module, new ByteArrayInputStream(new byte[0]), new PrintStream(out)).run();
+        return out.toString();
+    }
+}
@@ -0,0 +1,86 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.CopyPropagation;
+import ir.pass.DeadCodeElimination;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+// Cena poziva u interpreteru: petlja koja zove f1 N puta. Ubacivanje funkcija je isključeno,
+// da bi svaki poziv zaista prošao kroz stek okvira.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.CallBenchmark [broj poziva]
+public final class CallBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int MEASURED = 5;
+
+    private static final String SOURCE = """
+            broj f1(broj x, broj y) {
+                vrati x + y;
+            }
+            zapocni_igru
+            moj broj s = 0;
+            moj broj k = 0;
+            radi (k < %d) {
+                s = f1(s, k) %% 1000003;
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int calls = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        IrModule module = compile(String.format(SOURCE, calls));
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+
+        for (int r = 0; r < WARMUP; r++) run(module);
+
+        long bestNanos = Long.MAX_VALUE;
+        long bytes = 0;
+        String output = null;
+        for (int r = 0; r < MEASURED; r++) {
+            long allocated = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            output = run(module);
+            long nanos = System.nanoTime() - start;
+            bytes += threads.getThreadAllocatedBytes(thread) - allocated;
+            bestNanos = Math.min(bestNanos, nanos);
+        }
+
+        System.out.printf("poziva:          %d (rezultat %s)%n", calls, output.trim());
+        System.out.printf("najbolje vreme:  %.1f ms%n", bestNanos / 1e6);
+        System.out.printf("ns po pozivu:    %.2f%n", (double) bestNanos / calls);
+        System.out.printf("B po pozivu:     %.2f%n", (double) bytes / MEASURED / calls);
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        new PassManager()
+                .add(new CopyPropagation())
+                .add(new DeadCodeElimination())
+                .run(module);
+        return module;
+    }
+
+    private static String run(IrModule module) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Interpreter(module, new ByteArrayInputStream(new byte[0]), new PrintStream(out)).run();
+        return out.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+// Propusnost enkriptuj i dekriptuj nad nizom brojeva i tekstom od 1 KB do 16 MB. Jedan krug je
+// enkriptuj pa dekriptuj istog podatka; MB/s računa oba prolaza.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.CryptoBenchmark [MB obrađenih po merenju]
+public final class CryptoBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+
+    private static final String ARRAY = """
+            zapocni_igru
+            moj broj n = 0;
+            moj broj krugova = 0;
+            upisi(n);
+            upisi(krugova);
+            moj niz a[n];
+            moj broj k = 0;
+            radi (k < n) {
+                a[k] = k * 31;
+                k = k + 1;
+            }
+            k = 0;
+            radi (k < krugova) {
+                moj niz c = enkriptuj(a, "kljuc");
+                a = dekriptuj(c, "kljuc");
+                k = k + 1;
+            }
+            napisi(a[n - 1]);
+            zavrsi_igru;
+            """;
+
+    // tekst od 2^n slova se pravi udvostručavanjem
+    private static final String TEXT = """
+            zapocni_igru
+            moj broj n = 0;
+            moj broj krugova = 0;
+            upisi(n);
+            upisi(krugova);
+            moj tekst t = "a";
+            moj broj k = 0;
+            radi (k < n) {
+                t = t + t;
+                k = k + 1;
+            }
+            k = 0;
+            radi (k < krugova) {
+                moj tekst c = enkriptuj(t, "kljuc");
+                t = dekriptuj(c, "kljuc");
+                k = k + 1;
+            }
+            napisi(t == "a");
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        long volume = (args.length > 0 ? Long.parseLong(args[0]) : 256) << 20;
+        IrModule array = compile(ARRAY);
+        IrModule text = compile(TEXT);
+
+        System.out.printf("%-16s|%12s|%12s|%12s%n", "PAYLOAD", "BYTES", "niz MB/s", "tekst MB/s");
+        System.out.println("-".repeat(56));
+        for (int log = 10; log <= 24; log += 2) {
+            long bytes = 1L << log;
+            int rounds = (int) Math.max(1, volume / (2 * bytes));
+            double a = throughput(array, bytes, String.valueOf(bytes / 4), rounds);
+            double t = throughput(text, bytes, String.valueOf(log - 1), rounds);
+            System.out.printf("%-16s|%12d|%12.1f|%12.1f%n", size(bytes), bytes, a, t);
+        }
+    }
+
+    // podatak se pravi i u praznom programu sa 0 krugova, pa se to vreme oduzima
+    private static double throughput(IrModule module, long bytes, String n, int rounds) {
+        double setup = best(module, n + "\n0\n");
+        double full = best(module, n + "\n" + rounds + "\n");
+        return 2.0 * bytes * rounds / Math.max(full - setup, 1e-6) / (1 << 20);
+    }
+
+    private static double best(IrModule module, String input) {
+        for (int r = 0; r < WARMUP; r++) run(module, input);
+        long bestNanos = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module, input);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos / 1e9;
+    }
+
+    private static String size(long bytes) {
+        return bytes >= 1 << 20 ? (bytes >> 20) + " MB" : (bytes >> 10) + " KB";
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static void run(IrModule module, String input) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = input.getBytes(StandardCharsets.UTF_8);
+        new Interpreter(module, new ByteArrayInputStream(in), new PrintStream(out)).run();
+    }
+}
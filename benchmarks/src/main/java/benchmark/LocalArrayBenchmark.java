@@ -0,0 +1,121 @@
+package benchmark;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrBuilder;
+import ir.IrFunction;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Budget;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Funkcija sa privremenim nizom pozvana u petlji, i niz napravljen u telu petlje. Sa oznakama
+// iz EscapeAnalysis niz se oslobađa na povratku ili ponovo koristi, pa zauzeće ostaje malo;
+// bez njih se svaki niz naplaćuje do kraja izvršavanja.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.LocalArrayBenchmark [krugova]
+public final class LocalArrayBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+
+    private static final String PROGRAM = """
+            broj prozor(niz a, broj od, broj n) {
+                moj niz t[n];
+                moj broj k = 0;
+                radi (k < n) {
+                    t[k] = a[(od + k) % 4096] * 3;
+                    k = k + 1;
+                }
+                moj broj s = 0;
+                k = 0;
+                radi (k < n) {
+                    s = s + t[k] % 7;
+                    k = k + 1;
+                }
+                vrati s;
+            }
+
+            zapocni_igru
+            moj broj krugova = 0;
+            upisi(krugova);
+            moj niz a[4096];
+            moj broj k = 0;
+            radi (k < 4096) {
+                a[k] = k * 31;
+                k = k + 1;
+            }
+            moj broj s = 0;
+            k = 0;
+            radi (k < krugova) {
+                s = s + prozor(a, k, 256 + k % 2);
+                moj niz:realan r[64];
+                r[k % 64] = 1.5;
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        String input = rounds + "\n";
+        IrModule local = compile(PROGRAM, true);
+        IrModule shared = compile(PROGRAM, false);
+
+        System.out.printf("%-16s|%10s|%16s%n", "ARRAYS", "ms", "PEAK BYTES");
+        System.out.println("-".repeat(44));
+        String a = report("local", local, input);
+        String b = report("unmarked", shared, input);
+        if (!a.equals(b)) throw new IllegalStateException("rezultati se razlikuju");
+    }
+
+    private static String report(String name, IrModule module, String input) {
+        String expected = run(module, input, null);
+        for (int r = 0; r < WARMUP; r++) run(module, input, null);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module, input, null);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        Budget budget = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofHours(1));
+        if (!run(module, input, budget).equals(expected)) throw new IllegalStateException("rezultati se razlikuju");
+        System.out.printf("%-16s|%10.1f|%16d%n", name, best / 1e6, budget.memoryUsed());
+        return expected;
+    }
+
+    private static IrModule compile(String code, boolean local) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        if (!local) {
+            for (IrFunction f : module.functions()) {
+                for (BasicBlock b : f.blocks) {
+                    for (Instr i : b.instrs) i.local = false;
+                }
+            }
+        }
+        return module;
+    }
+
+    private static String run(IrModule module, String input, Budget budget) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = input.getBytes(StandardCharsets.UTF_8);
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(in), new PrintStream(out));
+        if (budget != null) interpreter.setBudget(budget);
+        interpreter.run();
+        return out.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package benchmark;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Velika matrica realnih brojeva živi ceo program, a petlja za to vreme pravi kratkotrajne nizove,
+// pa se GC pokreće često. Poredi matricu na heap-u i van njega: broj pauza, ukupno i najduže.
+// Pokretanje: java -Xmx1g -cp benchmarks/target/benchmarks.jar benchmark.OffHeapBenchmark [n] [krugova]
+public final class OffHeapBenchmark {
+
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj broj n = 0;
+            moj broj krugova = 0;
+            upisi(n);
+            upisi(krugova);
+            moj niz:realan m[n][n];
+            moj realan v = 0.0;
+            moj broj r = 0;
+            radi (r < n) {
+                moj broj c = 0;
+                radi (c < n) {
+                    m[r][c] = v;
+                    v = v + 0.5;
+                    c = c + 1;
+                }
+                r = r + 1;
+            }
+            moj realan s = 0.0;
+            moj broj k = 0;
+            radi (k < krugova) {
+                moj niz:realan t[4096];
+                t[k % 4096] = m[k % n][(k * 7) % n];
+                s = s + t[k % 4096];
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    private static final AtomicLong maxPause = new AtomicLong();
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        if (!Interpreter.offHeapAvailable()) throw new IllegalStateException("java.lang.foreign nije dostupan");
+        listen();
+        IrModule module = compile(PROGRAM);
+        String input = n + "\n" + rounds + "\n";
+
+        System.out.printf("%-16s|%10s|%10s|%12s|%14s%n", "MATRIX", "ms", "GC COUNT", "GC TOTAL ms", "MAX PAUSE ms");
+        System.out.println("-".repeat(66));
+        String heap = measure("heap", module, input, 0);
+        String offHeap = measure("off-heap", module, input, 1 << 20);
+        if (!heap.equals(offHeap)) throw new IllegalStateException("rezultati se razlikuju");
+        System.out.printf("matrica %dx%d realan (%d MB)%n", n, n, 8L * n * n >> 20);
+    }
+
+    private static String measure(String name, IrModule module, String input, long threshold) {
+        run(module, input, threshold);
+        System.gc();
+        long gcBefore = gcMillis();
+        long countBefore = gcCount();
+        maxPause.set(0);
+        long start = System.nanoTime();
+        String out = run(module, input, threshold);
+        long nanos = System.nanoTime() - start;
+        System.out.printf("%-16s|%10.1f|%10d|%12d|%14d%n", name, nanos / 1e6,
+                gcCount() - countBefore, gcMillis() - gcBefore, maxPause.get());
+        return out;
+    }
+
+    // trajanje svake pauze stiže kao JMX obaveštenje posle sakupljanja
+    private static void listen() {
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (!(gc instanceof NotificationEmitter emitter)) continue;
+            emitter.addNotificationListener((notification, handback) -> {
+                if (!notification.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) return;
+                GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+                if (info.getGcName().contains("Concurrent")) return;   // konkurentni ciklusi ne zaustavljaju program
+                maxPause.accumulateAndGet(info.getGcInfo().getDuration(), Math::max);
+            }, null, null);
+        }
+    }
+
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += Math.max(gc.getCollectionTime(), 0);
+        return total;
+    }
+
+    private static long gcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) total += Math.max(gc.getCollectionCount(), 0);
+        return total;
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static String run(IrModule module, String input, long threshold) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = input.getBytes(StandardCharsets.UTF_8);
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(in), new PrintStream(out));
+        interpreter.setOffHeapThreshold(threshold);
+        interpreter.run();
+        return out.toString();
+    }
+}
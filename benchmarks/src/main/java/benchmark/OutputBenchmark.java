@@ -0,0 +1,94 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+// Propusnost napisi i upisi: milion brojeva, realnih brojeva i slova na izlaz koji sve odbacuje,
+// i milion brojeva sa ulaza u memoriji.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.OutputBenchmark [broj vrednosti]
+public final class OutputBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+
+    private static final String PRINT = """
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            moj broj k = 0;
+            moj realan r = 0.0;
+            radi (k < n) {
+                napisi(%s);
+                r = r + 0.25;
+                k = k + 1;
+            }
+            zavrsi_igru;
+            """;
+
+    private static final String READ = """
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            moj broj s = 0;
+            moj broj x = 0;
+            moj broj k = 0;
+            radi (k < n) {
+                upisi(x);
+                s = s + x;
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int n = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        StringBuilder numbers = new StringBuilder().append(n).append('\n');
+        for (int k = 0; k < n; k++) numbers.append(k * 7919 - 5_000_000).append('\n');
+        byte[] input = numbers.toString().getBytes(StandardCharsets.UTF_8);
+        byte[] count = (n + "\n").getBytes(StandardCharsets.UTF_8);
+
+        System.out.printf("%-16s|%12s|%14s%n", "CASE", "ms", "values/s");
+        System.out.println("-".repeat(44));
+        report("napisi broj", n, compile(String.format(PRINT, "k * 7919 - 5000000")), count);
+        report("napisi realan", n, compile(String.format(PRINT, "r")), count);
+        report("napisi slovo", n, compile(String.format(PRINT, "'a'")), count);
+        report("upisi broj", n, compile(READ), input);
+    }
+
+    private static void report(String name, int n, IrModule module, byte[] input) {
+        for (int r = 0; r < WARMUP; r++) run(module, input);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module, input);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-16s|%12.2f|%14.0f%n", name, best / 1e6, n / (best / 1e9));
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static void run(IrModule module, byte[] input) {
+        PrintStream out = new PrintStream(OutputStream.nullOutputStream(), false, StandardCharsets.UTF_8);
+        new Interpreter(module, new ByteArrayInputStream(input), out).run();
+    }
+}
@@ -0,0 +1,102 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+// Skaliranje paralelnih petlji: popunjavanje i transponovanje velike matrice sa 1, 2, 4, ...
+// jezgara, do broja dostupnih procesora.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.ParallelBenchmark [dimenzija matrice]
+public final class ParallelBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 5;
+
+    private static final String SOURCE = """
+            niz napravi2D(broj r, broj c) {
+                moj niz mat[r][c];
+                moj broj rr = 0;
+                radi (rr < r) {
+                    moj broj cc = 0;
+                    radi (cc < c) {
+                        mat[rr][cc] = rr + cc;
+                        cc = cc + 1;
+                    }
+                    rr = rr + 1;
+                }
+                vrati mat;
+            }
+            niz transponuj(niz a, broj n, broj m) {
+                moj niz t[m][n];
+                moj broj r = 0;
+                radi (r < n) {
+                    moj broj c = 0;
+                    radi (c < m) {
+                        t[c][r] = a[r][c];
+                        c = c + 1;
+                    }
+                    r = r + 1;
+                }
+                vrati t;
+            }
+            zapocni_igru
+            moj niz m = napravi2D(%1$d, %1$d);
+            moj niz t = transponuj(m, %1$d, %1$d);
+            napisi(t[%1$d - 1][0]);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int size = args.length > 0 ? Integer.parseInt(args[0]) : 1500;
+        IrModule module = compile(String.format(SOURCE, size));
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        System.out.printf("%-16s|%14s|%10s%n", "THREADS", "ms", "SPEEDUP");
+        System.out.println("-".repeat(42));
+        String expected = run(module, 1);
+        double sequential = 0;
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            if (!expected.equals(run(module, threads))) throw new IllegalStateException("rezultati se razlikuju");
+            double ms = best(module, threads);
+            if (threads == 1) sequential = ms;
+            System.out.printf("%-16d|%14.2f|%9.2fx%n", threads, ms, sequential / ms);
+        }
+    }
+
+    private static double best(IrModule module, int threads) {
+        for (int r = 0; r < WARMUP; r++) run(module, threads);
+        long bestNanos = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module, threads);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos / 1e6;
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static String run(IrModule module, int threads) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(new byte[0]), new PrintStream(out));
+        interpreter.setThreads(threads);
+        interpreter.run();
+        return out.toString();
+    }
+}
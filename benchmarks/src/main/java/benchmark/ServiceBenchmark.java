@@ -0,0 +1,134 @@
+package benchmark;
+
+import service.ExecutionService;
+import service.RunResult;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+
+// Opterećenje ExecutionService-a: zadati broj klijenata istovremeno šalje male programe, među
+// kojima su i oni koji troše previše goriva, memorije ili vremena. Kašnjenje se meri od slanja
+// do rezultata, po ishodu.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.ServiceBenchmark [klijenata] [izvršavanja po klijentu]
+public final class ServiceBenchmark {
+
+    private static final String SUM = """
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            moj broj s = 0;
+            moj broj k = 0;
+            radi (k < n) {
+                s = s + k * k;
+                k = k + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    private static final String FIB = """
+            broj fib(broj n) {
+                ako (n < 2) { vrati n; }
+                vrati fib(n - 1) + fib(n - 2);
+            }
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            napisi(fib(n));
+            zavrsi_igru;
+            """;
+
+    private static final String SPIN = """
+            zapocni_igru
+            moj broj k = 0;
+            radi (k >= 0) {
+                k = (k + 1) % 1000;
+            }
+            zavrsi_igru;
+            """;
+
+    private static final String HOG = """
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            moj niz a[n][n];
+            napisi(a[0][0]);
+            zavrsi_igru;
+            """;
+
+    private record Job(String source, String input) {}
+
+    private record Sample(RunResult.Status status, long nanos) {}
+
+    public static void main(String[] args) throws InterruptedException {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        // mešavina: uglavnom kratki programi, povremeno beskonačna petlja ili prevelik niz
+        List<Job> jobs = new ArrayList<>();
+        for (int k = 0; k < 90; k++) jobs.add(new Job(SUM, String.valueOf(100 + k * 10)));
+        for (int k = 0; k < 8; k++) jobs.add(new Job(FIB, String.valueOf(12 + k)));
+        jobs.add(new Job(SPIN, ""));
+        jobs.add(new Job(HOG, "100000"));
+
+        ExecutionService.Limits limits = new ExecutionService.Limits(2_000_000, 16L << 20, Duration.ofMillis(200), 1_000);
+        try (ExecutionService service = new ExecutionService(limits)) {
+            // zagrevanje, da JIT prevođenje interpretera ne uđe u merenje
+            for (int r = 0; r < 3; r++) load(service, jobs, clients, runs);
+            long start = System.nanoTime();
+            List<Sample> samples = load(service, jobs, clients, runs);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-16s|%8s|%10s|%10s|%10s|%10s%n", "STATUS", "RUNS", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+            System.out.println("-".repeat(70));
+            Map<RunResult.Status, List<Sample>> byStatus = new EnumMap<>(RunResult.Status.class);
+            for (Sample s : samples) byStatus.computeIfAbsent(s.status, k -> new ArrayList<>()).add(s);
+            for (Map.Entry<RunResult.Status, List<Sample>> e : byStatus.entrySet()) {
+                print(e.getKey().name().toLowerCase(), e.getValue());
+            }
+            System.out.println("-".repeat(70));
+            print("total", samples);
+            System.out.printf("%d klijenata, %d izvršavanja za %.2f s: %.0f izvršavanja/s, %d prevedenih programa%n",
+                    clients, samples.size(), seconds, samples.size() / seconds, service.cachedPrograms());
+        }
+    }
+
+    private static List<Sample> load(ExecutionService service, List<Job> jobs, int clients, int runs)
+            throws InterruptedException {
+        ConcurrentLinkedQueue<Sample> samples = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(clients);
+        for (int c = 0; c < clients; c++) {
+            int client = c;
+            Thread.ofVirtual().start(() -> {
+                for (int r = 0; r < runs; r++) {
+                    Job job = jobs.get((client * 31 + r * 7) % jobs.size());
+                    long t0 = System.nanoTime();
+                    RunResult result = service.submit(job.source, job.input).join();
+                    samples.add(new Sample(result.status(), System.nanoTime() - t0));
+                }
+                done.countDown();
+            });
+        }
+        done.await();
+        return new ArrayList<>(samples);
+    }
+
+    private static void print(String name, List<Sample> samples) {
+        long[] nanos = new long[samples.size()];
+        for (int k = 0; k < nanos.length; k++) nanos[k] = samples.get(k).nanos;
+        Arrays.sort(nanos);
+        System.out.printf("%-16s|%8d|%10.2f|%10.2f|%10.2f|%10.2f%n", name, nanos.length,
+                percentile(nanos, 0.5), percentile(nanos, 0.99), percentile(nanos, 0.999), nanos[nanos.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int k = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(k, 0)] / 1e6;
+    }
+}
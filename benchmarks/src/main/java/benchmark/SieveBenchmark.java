@@ -0,0 +1,127 @@
+package benchmark;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Budget;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Eratostenovo sito nad niz:pogodak (bit po elementu) i nad niz:broj (int po elementu). Memorija je
+// ono što interpreter naplaćuje za niz i najveće zauzeće heap-a tokom izvršavanja.
+// Pokretanje: java -cp benchmarks/target/benchmarks.jar benchmark.SieveBenchmark [najveće n]
+public final class SieveBenchmark {
+
+    private static final int WARMUP = 2;
+    private static final int MEASURED = 3;
+
+    private static final String SIEVE = """
+            zapocni_igru
+            moj broj n = 0;
+            upisi(n);
+            moj niz:%s slozen[n + 1];
+            moj broj p = 2;
+            radi (p * p <= n) {
+                ako (slozen[p] == %s) {
+                    moj broj j = p * p;
+                    radi (j <= n) {
+                        slozen[j] = %s;
+                        j = j + p;
+                    }
+                }
+                p = p + 1;
+            }
+            moj broj br = 0;
+            p = 2;
+            radi (p <= n) {
+                ako (slozen[p] == %2$s) { br = br + 1; }
+                p = p + 1;
+            }
+            napisi(br);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int max = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        IrModule bits = compile(String.format(SIEVE, "pogodak", "netacno", "tacno"));
+        IrModule ints = compile(String.format(SIEVE, "broj", "0", "1"));
+
+        System.out.printf("%-16s|%12s|%10s|%14s|%12s|%14s%n", "LAYOUT", "N", "ms", "ARRAY BYTES", "BYTES/ELEM", "PEAK HEAP MB");
+        System.out.println("-".repeat(84));
+        for (int n = 1_000_000; n <= max; n *= n < 10_000_000 ? 10 : 5) {
+            report("pogodak", bits, n);
+            report("broj", ints, n);
+        }
+    }
+
+    private static void report(String name, IrModule module, int n) {
+        String input = n + "\n";
+        String expected = run(module, input, null);
+        for (int r = 0; r < WARMUP; r++) run(module, input, null);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module, input, null);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        Budget budget = new Budget(Long.MAX_VALUE, Long.MAX_VALUE, Duration.ofHours(1));
+        System.gc();
+        long before = heapUsed();
+        resetPeaks();
+        if (!run(module, input, budget).equals(expected)) throw new IllegalStateException("rezultati se razlikuju");
+        double peak = (peakHeap() - before) / (double) (1 << 20);
+        System.out.printf("%-16s|%12d|%10.2f|%14d|%12.3f|%14.1f%n", name, n, best / 1e6,
+                budget.memoryUsed(), budget.memoryUsed() / (double) (n + 1), peak);
+    }
+
+    private static long heapUsed() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) used += pool.getUsage().getUsed();
+        }
+        return used;
+    }
+
+    private static void resetPeaks() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) pool.resetPeakUsage();
+    }
+
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static String run(IrModule module, String input, Budget budget) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = input.getBytes(StandardCharsets.UTF_8);
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(in), new PrintStream(out));
+        if (budget != null) interpreter.setBudget(budget);
+        interpreter.run();
+        return out.toString();
+    }
+}
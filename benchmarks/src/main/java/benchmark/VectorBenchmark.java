@@ -0,0 +1,155 @@
+package benchmark;
+
+import ir.BasicBlock;
+import ir.IrBuilder;
+import ir.IrFunction;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+// Skalarne i vektorizovane petlje nad nizovima: isti program se izvršava jednom sa opisima
+// vektorskih petlji, a jednom bez njih.
+// Pokretanje: java --add-modules jdk.incubator.vector -cp benchmarks/target/benchmarks.jar benchmark.VectorBenchmark [dužina niza]
+public final class VectorBenchmark {
+
+    private static final int WARMUP = 3;
+    private static final int MEASURED = 5;
+    private static final int ROUNDS = 200;
+
+    private static final String FILL = """
+            broj napuni(niz a, broj n) {
+                moj broj k = 0;
+                radi (k < n) {
+                    a[k] = k * 2;
+                    k = k + 1;
+                }
+                vrati a[n - 1];
+            }
+            zapocni_igru
+            moj niz a[%1$d];
+            moj broj s = 0;
+            moj broj r = 0;
+            radi (r < %2$d) {
+                s = s + napuni(a, %1$d);
+                r = r + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    private static final String ADD = """
+            broj saberi(niz c, niz a, niz b, broj n) {
+                moj broj k = 0;
+                radi (k < n) {
+                    c[k] = a[k] + b[k];
+                    k = k + 1;
+                }
+                vrati c[n - 1];
+            }
+            zapocni_igru
+            moj niz a[%1$d];
+            moj niz b[%1$d];
+            moj niz c[%1$d];
+            moj broj k = 0;
+            radi (k < %1$d) {
+                a[k] = k;
+                b[k] = 3;
+                k = k + 1;
+            }
+            moj broj s = 0;
+            moj broj r = 0;
+            radi (r < %2$d) {
+                s = s + saberi(c, a, b, %1$d);
+                r = r + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    private static final String SAXPY = """
+            realan saxpy(niz:realan y, niz:realan x, realan a, broj n) {
+                moj broj k = 0;
+                radi (k < n) {
+                    y[k] = y[k] + a * x[k];
+                    k = k + 1;
+                }
+                vrati y[n - 1];
+            }
+            zapocni_igru
+            moj niz:realan x[%1$d];
+            moj niz:realan y[%1$d];
+            moj broj k = 0;
+            radi (k < %1$d) {
+                x[k] = 0.5;
+                k = k + 1;
+            }
+            moj realan s = 0.0;
+            moj broj r = 0;
+            radi (r < %2$d) {
+                s = saxpy(y, x, 0.25, %1$d);
+                r = r + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    public static void main(String[] args) {
+        int length = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        if (!Interpreter.vectorsAvailable()) {
+            System.out.println("napomena: modul jdk.incubator.vector nije učitan, obe kolone su skalarne");
+        }
+        System.out.printf("%-16s|%14s|%14s|%10s%n", "KERNEL", "SCALAR ms", "VECTOR ms", "SPEEDUP");
+        System.out.println("-".repeat(58));
+        measure("fill broj", String.format(FILL, length, ROUNDS));
+        measure("add broj", String.format(ADD, length, ROUNDS));
+        measure("saxpy realan", String.format(SAXPY, length, ROUNDS));
+    }
+
+    private static void measure(String name, String source) {
+        IrModule scalar = compile(source);
+        for (IrFunction f : scalar.functions()) {
+            for (BasicBlock b : f.blocks) b.vector = null;
+        }
+        IrModule vector = compile(source);
+
+        String expected = run(scalar);
+        if (!expected.equals(run(vector))) throw new IllegalStateException(name + ": rezultati se razlikuju");
+        double s = best(scalar);
+        double v = best(vector);
+        System.out.printf("%-16s|%14.2f|%14.2f|%9.2fx%n", name, s, v, s / v);
+    }
+
+    private static double best(IrModule module) {
+        for (int r = 0; r < WARMUP; r++) run(module);
+        long bestNanos = Long.MAX_VALUE;
+        for (int r = 0; r < MEASURED; r++) {
+            long start = System.nanoTime();
+            run(module);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos / 1e6;
+    }
+
+    private static IrModule compile(String code) {
+        Lexer lexer = new Lexer(code);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        IrModule module = new IrBuilder().build(program);
+        PassManager.standard().run(module);
+        return module;
+    }
+
+    private static String run(IrModule module) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Interpreter(module, new ByteArrayInputStream(new byte[0]), new PrintStream(out)).run();
+        return out.toString();
+    }
+}
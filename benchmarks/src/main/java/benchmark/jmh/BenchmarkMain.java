@@ -0,0 +1,49 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Ulaz benchmarks.jar: isti argumenti kao org.openjdk.jmh.Main, ali bez -prof se uključuje gc
+// profiler (gc.alloc.rate.norm je broj alociranih bajtova po operaciji), a bez -rf/-rff se
+// rezultat upisuje kao JSON u jmh-results/<vreme>.json, pa se dva pokretanja mogu uporediti.
+// Pokretanje:
+//   mvn install                            (u korenu, instalira PP_D1)
+//   mvn -f benchmarks/pom.xml package
+//   java -jar benchmarks/target/benchmarks.jar [JMH opcije, npr. LexerBenchmark -p input=1MB]
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException, IOException {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        if (cli.shouldHelp()) {
+            cli.showHelp();
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(cli);
+        if (cli.getProfilers().isEmpty()) options.addProfiler(GCProfiler.class);
+        if (!cli.getResultFormat().hasValue()) options.resultFormat(ResultFormatType.JSON);
+        if (!cli.getResult().hasValue()) {
+            Path dir = Files.createDirectories(Path.of("jmh-results"));
+            String name = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+            options.result(dir.resolve(name).toString());
+        }
+
+        Runner runner = new Runner(options.build());
+        if (cli.shouldList()) runner.list();
+        else runner.run();
+    }
+}
@@ -0,0 +1,44 @@
+package benchmark.jmh;
+
+import benchmark.CorpusGenerator;
+import lexer.Lexer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+// Ulazi benchmarkova: ime uzorka iz resursa PP_D1 (bigboi.slang, ...) ili veličina sintetičkog
+// programa (1KB, 64KB, 1MB, 16MB, 100MB) iz benchmark.CorpusGenerator sa podrazumevanim opcijama.
+final class Inputs {
+
+    // izvorni kod sa veličinom u MB (UTF-8) i brojem tokena, za brojače u Rates
+    record Source(String code, double megabytes, int tokens) {}
+
+    private Inputs() {}
+
+    static Source source(String input) {
+        String code = load(input);
+        double megabytes = code.getBytes(StandardCharsets.UTF_8).length / (double) (1 << 20);
+        return new Source(code, megabytes, new Lexer(code).scanTokens().size());
+    }
+
+    static String load(String input) {
+        if (input.endsWith(".slang")) return resource(input);
+        return synthetic(CorpusGenerator.bytes(input));
+    }
+
+    // isto seme za svaki ulaz, pa sva merenja istog ulaza rade nad istim programom
+    static String synthetic(long target) {
+        return new CorpusGenerator(CorpusGenerator.Options.DEFAULT).generate(target, 0).source();
+    }
+
+    private static String resource(String name) {
+        try (InputStream in = Inputs.class.getResourceAsStream("/" + name)) {
+            if (in == null) throw new IllegalArgumentException("nema uzorka " + name + " u PP_D1");
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
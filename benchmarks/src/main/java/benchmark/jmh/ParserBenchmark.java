@@ -0,0 +1,51 @@
+package benchmark.jmh;
+
+import lexer.Lexer;
+import lexer.token.Token;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.Ast;
+import parser.ParserAST;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// ParserAST.parseProgram() nad unapred napravljenim tokenima; MB/s se računa po izvornom kodu.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({"bigboi.slang", "bubble_sort.slang", "faktorijel.slang", "proba.slang", "prost_broj.slang",
+            "transpoziranje.slang", "while.slang", "1KB", "64KB", "1MB", "16MB", "100MB"})
+    public String input;
+
+    private Inputs.Source source;
+    private List<Token> tokens;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = Inputs.source(input);
+        tokens = new Lexer(source.code()).scanTokens();
+    }
+
+    @Benchmark
+    public Ast.Program parseProgram(Rates rates) {
+        Ast.Program program = new ParserAST(tokens).parseProgram();
+        rates.count(source);
+        return program;
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark.jmh;
+
+import lexer.Lexer;
+import lexer.token.Token;
+import lexer.token.TokenFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import parser.Ast;
+import parser.JsonAstPrinter;
+import parser.ParserAST;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// TokenFormatter.formatList() i JsonAstPrinter.print(). Tabela tokena je oko 18 puta, a JSON oko
+// 7 puta duži od izvornog koda; za 100 MB tabela bi prešla najveću dužinu String-a, pa sintetički
+// ulazi ovde staju na 16 MB.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class PrinterBenchmark {
+
+    @Param({"bigboi.slang", "bubble_sort.slang", "faktorijel.slang", "proba.slang", "prost_broj.slang",
+            "transpoziranje.slang", "while.slang", "1KB", "64KB", "1MB", "16MB"})
+    public String input;
+
+    private Inputs.Source source;
+    private List<Token> tokens;
+    private Ast.Program program;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = Inputs.source(input);
+        tokens = new Lexer(source.code()).scanTokens();
+        program = new ParserAST(tokens).parseProgram();
+    }
+
+    @Benchmark
+    public String formatList(Rates rates) {
+        String table = TokenFormatter.formatList(tokens);
+        rates.count(source);
+        return table;
+    }
+
+    @Benchmark
+    public String jsonPrint(Rates rates) {
+        String json = new JsonAstPrinter().print(program);
+        rates.count(source);
+        return json;
+    }
+}
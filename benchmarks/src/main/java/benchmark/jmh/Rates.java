@@ -0,0 +1,28 @@
+package benchmark.jmh;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+// Pomoćni brojači: JMH ih deli trajanjem iteracije, pa se pored ops/s ispisuju i MB izvornog
+// koda u sekundi (megabytes) i tokeni u sekundi (tokens), i u JSON rezultatu kao secondaryMetrics.
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class Rates {
+
+    public double megabytes;
+    public long tokens;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        megabytes = 0;
+        tokens = 0;
+    }
+
+    void count(Inputs.Source source) {
+        megabytes += source.megabytes();
+        tokens += source.tokens();
+    }
+}
@@ -0,0 +1,864 @@
+package aot;
+
+import aot.Code.Label;
+import ir.IrModule;
+import lexer.SymbolTable;
+import lexer.token.TokenType;
+import parser.Ast;
+import parser.Ast.Type.Kind;
+import parser.Expr;
+import parser.Stmt;
+import parser.Symbol;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+// Prevodi tipizovan AST (posle semantic.TypeChecker) u JVM klasu: statička metoda po funkciji,
+// statičko polje po globalnoj promenljivoj i metoda zapocni_igru za glavni blok, koju main pokreće
+// preko runtime.Launcher. Vrednosti su JVM tipovi: broj int, realan double, slovo char, pogodak
+// boolean, tekst String, a niz je int[], double[], char[], boolean[] ili String[] kada mu je poznata
+// jedna dimenzija, Object[] kada ih ima više i Object kada broj dimenzija nije poznat. Tabela
+// linija svake metode prati Token.line, pa su linije u greškama i na steku linije .slang fajla.
+// Grana bloka paralelno je statička metoda sa ulazima kao parametrima i izlazima u povratnom nizu,
+// a pokreće je mala klasa koja implementira runtime.Paralelno.Branch.
+public final class AotCompiler implements Expr.Visitor<String>, Stmt.Visitor<Void> {
+
+    private static final String OBJECT = "Ljava/lang/Object;";
+    private static final String OBJECTS = "[Ljava/lang/Object;";
+    private static final String STRING = "Ljava/lang/String;";
+    private static final String RESULTS = "[[Ljava/lang/Object;";
+    private static final String BRANCH = "runtime/Paralelno$Branch";
+
+    // pomoćne klase iz paketa runtime koje prevedeni kod poziva, sa klasama koje one koriste
+    private static final Map<String, List<String>> HELPERS = Map.of(
+            "Launcher", List.of("Launcher", "Console", "OutputBuffer", "InputReader", "SlangRuntimeError"),
+            "Niz", List.of("Niz"),
+            "Crypt", List.of("Crypt", "StreamCipher", "SlangRuntimeError"),
+            "Paralelno", List.of("Paralelno", "Paralelno$Branch"));
+
+    private final String className;
+    private final String sourceFile;
+    private ClassFile cls;
+    private final Map<String, byte[]> classes = new LinkedHashMap<>();
+    private final Set<String> helpers = new TreeSet<>();
+    private int parallelBlocks;
+
+    // stanje metode koja se trenutno prevodi
+    private Code code;
+    private String method;
+    private Ast.FuncDef function;       // null za glavni blok i grane bloka paralelno
+    private Label start;
+    private final Map<Symbol, Integer> slots = new HashMap<>();
+
+    public AotCompiler(String className, String sourceFile) {
+        this.className = className;
+        this.sourceFile = sourceFile;
+    }
+
+    // ime klase iz imena .slang fajla: ono što nije deo Java identifikatora postaje '_'
+    public static String classNameFor(Path source) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        if (dot > 0) name = name.substring(0, dot);
+        StringBuilder sb = new StringBuilder();
+        for (char c : name.toCharArray()) sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+        if (sb.isEmpty() || !Character.isJavaIdentifierStart(sb.charAt(0))) sb.insert(0, '_');
+        return sb.toString();
+    }
+
+    // prevedene klase po internom imenu; glavna je prva
+    public Map<String, byte[]> compile(Ast.Program program) {
+        classes.clear();
+        helpers.clear();
+        parallelBlocks = 0;
+        helpers.add("Launcher");
+
+        cls = new ClassFile(className, "java/lang/Object", "java/lang/Runnable");
+        cls.sourceFile(sourceFile);
+        classes.put(className, null);
+
+        List<Stmt.VarDecl> globals = new ArrayList<>();
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopVarDecl g) {
+                globals.add(g.decl);
+                cls.addField(ClassFile.PUBLIC | ClassFile.STATIC, g.decl.name.lexeme, descriptor(g.decl.varType));
+            }
+        }
+
+        entryPoints();
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.FuncDef f) compileFunction(f);
+        }
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopStmt ts) compileMain(globals, ts.stmt);
+        }
+
+        classes.put(className, cls.toBytes());
+        return classes;
+    }
+
+    // klase iz paketa runtime koje prevedeni program koristi, kao imena .class fajlova
+    public Set<String> runtimeClasses() {
+        Set<String> files = new TreeSet<>();
+        for (String h : helpers) {
+            for (String c : HELPERS.get(h)) files.add("runtime/" + c + ".class");
+        }
+        return files;
+    }
+
+    // izvršni JAR: prevedene klase, korišćene pomoćne klase i Main-Class u manifestu
+    public void writeJar(Ast.Program program, Path jar) throws IOException {
+        Map<String, byte[]> compiled = compile(program);
+
+        Manifest manifest = new Manifest();
+        manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        manifest.getMainAttributes().put(Attributes.Name.MAIN_CLASS, className);
+
+        try (OutputStream file = Files.newOutputStream(jar);
+             JarOutputStream out = new JarOutputStream(file, manifest)) {
+            for (Map.Entry<String, byte[]> e : compiled.entrySet()) {
+                out.putNextEntry(new JarEntry(e.getKey() + ".class"));
+                out.write(e.getValue());
+                out.closeEntry();
+            }
+            for (String helper : runtimeClasses()) {
+                try (InputStream in = AotCompiler.class.getClassLoader().getResourceAsStream(helper)) {
+                    if (in == null) throw new IOException("nije pronađena pomoćna klasa " + helper);
+                    out.putNextEntry(new JarEntry(helper));
+                    in.transferTo(out);
+                    out.closeEntry();
+                }
+            }
+        }
+    }
+
+    // ---------- metode ----------
+
+    // konstruktor, run() za runtime.Launcher i main
+    private void entryPoints() {
+        Code init = cls.addMethod(ClassFile.PUBLIC, "<init>", "()V", 1);
+        init.load(OBJECT, 0);
+        init.invoke(Code.INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        init.ret("V");
+
+        Code run = cls.addMethod(ClassFile.PUBLIC, "run", "()V", 1);
+        run.invoke(Code.INVOKESTATIC, className, IrModule.MAIN, "()V");
+        run.ret("V");
+
+        Code main = cls.addMethod(ClassFile.PUBLIC | ClassFile.STATIC, "main", "([Ljava/lang/String;)V", 1);
+        main.type(Code.NEW, className);
+        main.simple(Code.DUP, 1);
+        main.invoke(Code.INVOKESPECIAL, className, "<init>", "()V");
+        main.invoke(Code.INVOKESTATIC, "runtime/Launcher", "launch", "(Ljava/lang/Runnable;)V");
+        main.ret("V");
+    }
+
+    private void compileFunction(Ast.FuncDef f) {
+        StringBuilder desc = new StringBuilder("(");
+        int argSlots = 0;
+        for (Ast.Param p : f.params) {
+            String d = descriptor(p.type);
+            desc.append(d);
+            slots.put(p.symbol, argSlots);
+            argSlots += Code.slots(d);
+        }
+        String ret = descriptor(f.returnType);
+        desc.append(')').append(ret);
+
+        begin(methodName(f.name.lexeme), desc.toString(), argSlots, f);
+        code.line(f.name.line);
+        for (Stmt s : f.body) {
+            if (!code.reachable()) break;
+            s.accept(this);
+        }
+        if (code.reachable()) {
+            pushDefault(ret);
+            code.ret(ret);
+        }
+        end();
+    }
+
+    private void compileMain(List<Stmt.VarDecl> globals, Stmt body) {
+        begin(IrModule.MAIN, "()V", 0, null);
+        for (Stmt.VarDecl g : globals) {
+            code.line(g.name.line);
+            String desc = descriptor(g.varType);
+            initialValue(g, desc);
+            code.field(Code.PUTSTATIC, className, g.name.lexeme, desc);
+        }
+        body.accept(this);
+        if (code.reachable()) code.ret("V");
+        end();
+    }
+
+    // run i main su zauzeti ulaznim tačkama klase
+    private static String methodName(String name) {
+        return name.equals("run") || name.equals("main") ? name + "$" : name;
+    }
+
+    private void begin(String name, String descriptor, int argSlots, Ast.FuncDef f) {
+        method = name;
+        function = f;
+        code = cls.addMethod(ClassFile.PUBLIC | ClassFile.STATIC, name, descriptor, argSlots);
+        start = new Label();
+        code.bind(start);
+    }
+
+    private void end() {
+        slots.clear();
+        code = null;
+        method = null;
+        function = null;
+        start = null;
+    }
+
+    // ---------- tipovi ----------
+
+    static String descriptor(Ast.Type t) {
+        return switch (t.kind) {
+            case INT -> "I";
+            case REAL -> "D";
+            case CHAR -> "C";
+            case BOOL -> "Z";
+            case STRING -> STRING;
+            case VOID -> "V";
+            case ARRAY -> t.rank == 1 ? "[" + element(t.element) : t.rank == 0 ? OBJECT : OBJECTS;
+        };
+    }
+
+    private static String element(Kind k) {
+        return descriptor(Ast.Type.of(k));
+    }
+
+    // jedina implicitna konverzija u jeziku je broj -> realan; nizovi nepoznate dimenzije se proveravaju
+    private void convert(String from, String to) {
+        if (from.equals(to) || to.equals(OBJECT)) return;
+        if (from.equals("I") && to.equals("D")) {
+            code.simple(Code.I2D, 1);
+        } else if (to.equals(OBJECTS) && from.startsWith("[[")) {
+            // int[][] i slični su već Object[]
+        } else if (to.charAt(0) == '[' || to.charAt(0) == 'L') {
+            code.type(Code.CHECKCAST, internalName(to));
+        }
+    }
+
+    private static String internalName(String descriptor) {
+        return descriptor.charAt(0) == 'L' ? descriptor.substring(1, descriptor.length() - 1) : descriptor;
+    }
+
+    private void pushDefault(String desc) {
+        switch (desc.charAt(0)) {
+            case 'V' -> { }
+            case 'D' -> code.pushReal(0.0);
+            case 'I', 'C', 'Z' -> code.pushInt(0);
+            default -> {
+                if (desc.equals(STRING)) code.pushString("");
+                else code.pushNull();
+            }
+        }
+    }
+
+    private void box(String desc) {
+        switch (desc.charAt(0)) {
+            case 'I' -> code.invoke(Code.INVOKESTATIC, "java/lang/Integer", "valueOf", "(I)Ljava/lang/Integer;");
+            case 'D' -> code.invoke(Code.INVOKESTATIC, "java/lang/Double", "valueOf", "(D)Ljava/lang/Double;");
+            case 'C' -> code.invoke(Code.INVOKESTATIC, "java/lang/Character", "valueOf", "(C)Ljava/lang/Character;");
+            case 'Z' -> code.invoke(Code.INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;");
+            default -> { }
+        }
+    }
+
+    private void unbox(String desc) {
+        switch (desc.charAt(0)) {
+            case 'I' -> unbox("java/lang/Integer", "intValue", "()I");
+            case 'D' -> unbox("java/lang/Double", "doubleValue", "()D");
+            case 'C' -> unbox("java/lang/Character", "charValue", "()C");
+            case 'Z' -> unbox("java/lang/Boolean", "booleanValue", "()Z");
+            default -> convert(OBJECT, desc);
+        }
+    }
+
+    private void unbox(String owner, String name, String descriptor) {
+        code.type(Code.CHECKCAST, owner);
+        code.invoke(Code.INVOKEVIRTUAL, owner, name, descriptor);
+    }
+
+    // ---------- promenljive ----------
+
+    private String load(Symbol v) {
+        String desc = descriptor(v.type);
+        if (v.kind == Symbol.Kind.GLOBAL) code.field(Code.GETSTATIC, className, v.name, desc);
+        else code.load(desc, slot(v));
+        return desc;
+    }
+
+    private void store(Symbol v) {
+        String desc = descriptor(v.type);
+        if (v.kind == Symbol.Kind.GLOBAL) code.field(Code.PUTSTATIC, className, v.name, desc);
+        else code.store(desc, slot(v));
+    }
+
+    private int slot(Symbol v) {
+        Integer slot = slots.get(v);
+        if (slot == null) throw new IllegalStateException("promenljiva " + v.name + " nema mesto u metodi " + method);
+        return slot;
+    }
+
+    private void initialValue(Stmt.VarDecl d, String desc) {
+        if (d.initializer != null) {
+            convert(d.initializer.accept(this), desc);
+        } else if (d.varType.isArray() && !d.dims.isEmpty() && !d.dims.contains(null)) {
+            convert(newArray(d), desc);
+        } else {
+            pushDefault(desc);
+        }
+    }
+
+    // tekst počinje praznim tekstovima, pa takav niz pravi runtime.Niz; ostalo je newarray i multianewarray
+    private String newArray(Stmt.VarDecl d) {
+        int rank = d.dims.size();
+        String element = element(d.varType.element);
+        code.line(d.name.line);
+        if (d.varType.element == Kind.STRING) {
+            helpers.add("Niz");
+            code.pushInt(rank);
+            code.newArray("I");
+            for (int k = 0; k < rank; k++) {
+                code.simple(Code.DUP, 1);
+                code.pushInt(k);
+                convert(d.dims.get(k).accept(this), "I");
+                code.arrayStore("I");
+            }
+            code.invoke(Code.INVOKESTATIC, "runtime/Niz", "text", "([I)" + OBJECT);
+            return OBJECT;
+        }
+        for (Expr dim : d.dims) dim.accept(this);
+        if (rank == 1) {
+            code.newArray(element);
+            return "[" + element;
+        }
+        String desc = "[".repeat(rank) + element;
+        code.multiArray(desc, rank);
+        return desc;
+    }
+
+    // red niza u kojem je poslednji indeks: svi indeksi osim poslednjeg spuštaju se kroz dimenzije
+    private String row(Expr.Index e) {
+        String desc = load(e.symbol);
+        int last = e.indices.size() - 1;
+        for (int k = 0; k < last; k++) {
+            convert(desc, OBJECTS);
+            e.indices.get(k).accept(this);
+            code.arrayLoad(OBJECT);
+            desc = OBJECT;
+        }
+        String rowDesc = "[" + element(e.symbol.type.element);
+        convert(desc, rowDesc);
+        e.indices.get(last).accept(this);
+        return element(e.symbol.type.element);
+    }
+
+    // ---------- uslovi ----------
+
+    // skok na ifFalse kada uslov nije ispunjen; pogodak i broj različit od nule su tačni
+    private void jumpIfFalse(Expr e, Label ifFalse) {
+        if (e instanceof Expr.Grouping g) {
+            jumpIfFalse(g.inner, ifFalse);
+        } else if (e instanceof Expr.Unary u && u.operator.type != TokenType.SUBTRACT) {
+            jumpIfTrue(u.right, ifFalse);
+        } else if (e instanceof Expr.Binary b && b.op.type == TokenType.I) {
+            jumpIfFalse(b.left, ifFalse);
+            jumpIfFalse(b.right, ifFalse);
+        } else if (e instanceof Expr.Binary b && b.op.type == TokenType.ILI) {
+            Label ifTrue = new Label();
+            jumpIfTrue(b.left, ifTrue);
+            jumpIfFalse(b.right, ifFalse);
+            code.bind(ifTrue);
+        } else if (e instanceof Expr.Binary b && comparison(b.op.type) != 0) {
+            compare(b, negate(comparison(b.op.type)), ifFalse);
+        } else {
+            e.accept(this);
+            code.jump(Code.IFEQ, ifFalse);
+        }
+    }
+
+    private void jumpIfTrue(Expr e, Label ifTrue) {
+        if (e instanceof Expr.Grouping g) {
+            jumpIfTrue(g.inner, ifTrue);
+        } else if (e instanceof Expr.Unary u && u.operator.type != TokenType.SUBTRACT) {
+            jumpIfFalse(u.right, ifTrue);
+        } else if (e instanceof Expr.Binary b && b.op.type == TokenType.I) {
+            Label ifFalse = new Label();
+            jumpIfFalse(b.left, ifFalse);
+            jumpIfTrue(b.right, ifTrue);
+            code.bind(ifFalse);
+        } else if (e instanceof Expr.Binary b && b.op.type == TokenType.ILI) {
+            jumpIfTrue(b.left, ifTrue);
+            jumpIfTrue(b.right, ifTrue);
+        } else if (e instanceof Expr.Binary b && comparison(b.op.type) != 0) {
+            compare(b, comparison(b.op.type), ifTrue);
+        } else {
+            e.accept(this);
+            code.jump(Code.IFNE, ifTrue);
+        }
+    }
+
+    // if_icmp* za poređenje; 0 ako operator nije poređenje
+    private static int comparison(TokenType op) {
+        return switch (op) {
+            case LT -> Code.IF_ICMPLT;
+            case LE -> Code.IF_ICMPLE;
+            case GT -> Code.IF_ICMPGT;
+            case GE -> Code.IF_ICMPGE;
+            case EQ -> Code.IF_ICMPEQ;
+            case NEQ -> Code.IF_ICMPNE;
+            default -> 0;
+        };
+    }
+
+    private static int negate(int opcode) {
+        return switch (opcode) {
+            case Code.IF_ICMPLT -> Code.IF_ICMPGE;
+            case Code.IF_ICMPLE -> Code.IF_ICMPGT;
+            case Code.IF_ICMPGT -> Code.IF_ICMPLE;
+            case Code.IF_ICMPGE -> Code.IF_ICMPLT;
+            case Code.IF_ICMPEQ -> Code.IF_ICMPNE;
+            default -> Code.IF_ICMPEQ;
+        };
+    }
+
+    // realni brojevi se porede po IEEE pravilima, kao u interpreteru; tekst preko Objects.equals.
+    // dcmpg daje 1 za NaN, pa je < i <= netačno, a dcmpl -1, pa je > i >= netačno; isti izbor
+    // važi i za obrnut skok, jer se bira po operatoru iz izvornog koda
+    private void compare(Expr.Binary b, int opcode, Label target) {
+        String desc = b.left.accept(this);
+        b.right.accept(this);
+        if (desc.equals("D")) {
+            TokenType op = b.op.type;
+            code.simple(op == TokenType.LT || op == TokenType.LE ? Code.DCMPG : Code.DCMPL, -3);
+            code.jump(opcode - (Code.IF_ICMPEQ - Code.IFEQ), target);
+        } else if (desc.charAt(0) == 'L') {
+            code.invoke(Code.INVOKESTATIC, "java/util/Objects", "equals", "(" + OBJECT + OBJECT + ")Z");
+            code.jump(opcode == Code.IF_ICMPEQ ? Code.IFNE : Code.IFEQ, target);
+        } else {
+            code.jump(opcode, target);
+        }
+    }
+
+    private String bool(Expr e) {
+        Label ifFalse = new Label();
+        Label end = new Label();
+        jumpIfFalse(e, ifFalse);
+        code.pushInt(1);
+        code.jump(Code.GOTO, end);
+        code.bind(ifFalse);
+        code.pushInt(0);
+        code.bind(end);
+        return "Z";
+    }
+
+    // ---------- izrazi ----------
+
+    @Override
+    public String visitLiteral(Expr.Literal e) {
+        switch (e.type.kind) {
+            case INT -> code.pushInt((Integer) e.value);
+            case REAL -> code.pushReal((Double) e.value);
+            case CHAR -> code.pushInt((Character) e.value);
+            case BOOL -> code.pushInt((Boolean) e.value ? 1 : 0);
+            default -> code.pushString((String) e.value);
+        }
+        return descriptor(e.type);
+    }
+
+    @Override
+    public String visitIdent(Expr.Ident e) {
+        return load(e.symbol);
+    }
+
+    // granice proverava sama JVM instrukcija niza (JIT je uklanja gde dokaže indeks), pa oznake
+    // BoundsCheckElimination iz IR-a ovde nisu potrebne
+    @Override
+    public String visitIndex(Expr.Index e) {
+        String element = row(e);
+        code.line(e.name.line);
+        code.arrayLoad(element);
+        return element;
+    }
+
+    @Override
+    public String visitGrouping(Expr.Grouping e) {
+        return e.inner.accept(this);
+    }
+
+    @Override
+    public String visitCall(Expr.Call e) {
+        int id = e.callee.symbol;
+        int line = e.callee.line;
+
+        if (id == SymbolTable.NAPISI) {
+            String desc = e.args.get(0).accept(this);
+            if (desc.length() > 1 && !desc.equals(STRING)) {
+                helpers.add("Niz");
+                code.invoke(Code.INVOKESTATIC, "runtime/Niz", "format", "(" + OBJECT + ")" + STRING);
+                desc = STRING;
+            }
+            code.invoke(Code.INVOKESTATIC, "runtime/Console", "print", "(" + desc + ")V");
+            return "V";
+        }
+
+        if (id == SymbolTable.UPISI) {
+            Expr.Ident target = (Expr.Ident) e.args.get(0);
+            String desc = descriptor(target.symbol.type);
+            String name = switch (target.symbol.type.kind) {
+                case INT -> "readInt";
+                case REAL -> "readReal";
+                case CHAR -> "readChar";
+                case BOOL -> "readBool";
+                default -> "readText";
+            };
+            code.pushInt(line);
+            code.invoke(Code.INVOKESTATIC, "runtime/Console", name, "(I)" + desc);
+            store(target.symbol);
+            return "V";
+        }
+
+        if (id == SymbolTable.ENKRIPTUJ || id == SymbolTable.DEKRIPTUJ) {
+            helpers.add("Crypt");
+            e.args.get(0).accept(this);
+            e.args.get(1).accept(this);
+            code.pushInt(line);
+            String name = id == SymbolTable.ENKRIPTUJ ? "encrypt" : "decrypt";
+            code.invoke(Code.INVOKESTATIC, "runtime/Crypt", name, "(" + OBJECT + STRING + "I)" + OBJECT);
+            String desc = descriptor(e.type);
+            convert(OBJECT, desc);
+            return desc;
+        }
+
+        Ast.FuncDef f = e.symbol.function;
+        String desc = arguments(f, e.args);
+        code.line(line);
+        code.invoke(Code.INVOKESTATIC, className, methodName(f.name.lexeme), desc);
+        return descriptor(f.returnType);
+    }
+
+    private String arguments(Ast.FuncDef f, List<Expr> args) {
+        StringBuilder desc = new StringBuilder("(");
+        for (int k = 0; k < args.size(); k++) {
+            String param = descriptor(f.params.get(k).type);
+            convert(args.get(k).accept(this), param);
+            desc.append(param);
+        }
+        return desc.append(')').append(descriptor(f.returnType)).toString();
+    }
+
+    @Override
+    public String visitUnary(Expr.Unary e) {
+        if (e.operator.type != TokenType.SUBTRACT) return bool(e);
+        String desc = e.right.accept(this);
+        code.simple(desc.equals("D") ? Code.DNEG : Code.INEG, 0);
+        return desc;
+    }
+
+    @Override
+    public String visitBinary(Expr.Binary e) {
+        if (e.type.kind == Kind.BOOL) return bool(e);
+
+        String desc = e.left.accept(this);
+        e.right.accept(this);
+        if (desc.equals(STRING)) {
+            code.invoke(Code.INVOKEVIRTUAL, "java/lang/String", "concat", "(" + STRING + ")" + STRING);
+            return desc;
+        }
+        boolean real = desc.equals("D");
+        int opcode = switch (e.op.type) {
+            case ADD -> real ? Code.DADD : Code.IADD;
+            case SUBTRACT -> real ? Code.DSUB : Code.ISUB;
+            case MULTIPLY -> real ? Code.DMUL : Code.IMUL;
+            case DIVIDE -> real ? Code.DDIV : Code.IDIV;
+            case PERCENT -> real ? Code.DREM : Code.IREM;
+            default -> throw new IllegalStateException("Nepoznat operator: " + e.op.lexeme);
+        };
+        code.line(e.op.line);
+        code.simple(opcode, real ? -2 : -1);
+        return desc;
+    }
+
+    // ---------- naredbe ----------
+
+    @Override
+    public Void visitVarDecl(Stmt.VarDecl s) {
+        code.line(s.name.line);
+        String desc = descriptor(s.varType);
+        initialValue(s, desc);
+        int slot = code.local(desc);
+        slots.put(s.symbol, slot);
+        code.store(desc, slot);
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Stmt.Assign s) {
+        if (s.target instanceof Expr.Index idx) {
+            code.line(idx.name.line);
+            String element = row(idx);
+            convert(s.value.accept(this), element);
+            code.line(idx.name.line);
+            code.arrayStore(element);
+            return null;
+        }
+        Expr.Ident target = (Expr.Ident) s.target;
+        code.line(target.name.line);
+        convert(s.value.accept(this), descriptor(target.symbol.type));
+        store(target.symbol);
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Stmt.If s) {
+        Label otherwise = new Label();
+        code.line(lineOf(s.condition));
+        jumpIfFalse(s.condition, otherwise);
+        s.thenBranch.accept(this);
+        if (s.elseBranch == null) {
+            code.bind(otherwise);
+            return null;
+        }
+
+        Label end = new Label();
+        boolean thenLive = code.reachable();
+        if (thenLive) code.jump(Code.GOTO, end);
+        code.bind(otherwise);
+        s.elseBranch.accept(this);
+        if (thenLive) code.bind(end);
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Stmt.While s) {
+        Label head = new Label();
+        Label exit = new Label();
+        code.bind(head);
+        code.line(lineOf(s.condition));
+        jumpIfFalse(s.condition, exit);
+        s.body.accept(this);
+        if (code.reachable()) code.jump(Code.GOTO, head);
+        code.bind(exit);
+        return null;
+    }
+
+    // poziv same funkcije na mestu povratka ne raste stek: argumenti idu u parametre i skače se na početak
+    @Override
+    public Void visitReturn(Stmt.Return s) {
+        code.line(lineOf(s.value));
+        Expr value = s.value;
+        while (value instanceof Expr.Grouping g) value = g.inner;
+        if (value instanceof Expr.Call c && c.symbol.kind == Symbol.Kind.FUNCTION && c.symbol.function == function) {
+            arguments(function, c.args);
+            for (int k = function.params.size() - 1; k >= 0; k--) {
+                Ast.Param p = function.params.get(k);
+                code.store(descriptor(p.type), slot(p.symbol));
+            }
+            code.jump(Code.GOTO, start);
+            return null;
+        }
+
+        String ret = descriptor(function.returnType);
+        convert(s.value.accept(this), ret);
+        code.ret(ret);
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(Stmt.Block s) {
+        for (Stmt st : s.statements) {
+            if (!code.reachable()) break;
+            st.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitParallel(Stmt.Parallel s) {
+        if (s.branches.isEmpty()) return null;
+        helpers.add("Paralelno");
+        int n = ++parallelBlocks;
+        int line = s.keyword.line;
+
+        List<String> branchClasses = new ArrayList<>();
+        for (int k = 0; k < s.branches.size(); k++) {
+            String name = method + "$paralelno" + n + "$" + k;
+            compileBranch(name, s.branches.get(k), s.inputs.get(k), s.outputs.get(k), line);
+            branchClasses.add(branchClass(name, s.inputs.get(k)));
+        }
+
+        code.line(line);
+        code.pushInt(s.branches.size());
+        code.newArray("L" + BRANCH + ";");
+        for (int k = 0; k < s.branches.size(); k++) {
+            String branch = branchClasses.get(k);
+            code.simple(Code.DUP, 1);
+            code.pushInt(k);
+            code.type(Code.NEW, branch);
+            code.simple(Code.DUP, 1);
+            StringBuilder desc = new StringBuilder("(");
+            for (Symbol v : s.inputs.get(k)) desc.append(load(v));
+            code.invoke(Code.INVOKESPECIAL, branch, "<init>", desc.append(")V").toString());
+            code.arrayStore(OBJECT);
+        }
+        code.invoke(Code.INVOKESTATIC, "runtime/Paralelno", "run", "([L" + BRANCH + ";)" + RESULTS);
+
+        // rezultat je niz nizova: za svaku granu vrednosti njenih izlaza
+        int results = code.local(RESULTS);
+        code.store(RESULTS, results);
+        for (int k = 0; k < s.branches.size(); k++) {
+            List<Symbol> outputs = s.outputs.get(k);
+            for (int j = 0; j < outputs.size(); j++) {
+                code.load(RESULTS, results);
+                code.pushInt(k);
+                code.arrayLoad(OBJECT);
+                code.pushInt(j);
+                code.arrayLoad(OBJECT);
+                unbox(descriptor(outputs.get(j).type));
+                store(outputs.get(j));
+            }
+        }
+        return null;
+    }
+
+    // grana je statička metoda glavne klase: ulazi su parametri, izlazi se vraćaju u Object[]
+    private void compileBranch(String name, Stmt branch, List<Symbol> inputs, List<Symbol> outputs, int line) {
+        Code outerCode = code;
+        String outerMethod = method;
+        Ast.FuncDef outerFunction = function;
+        Label outerStart = start;
+        Map<Symbol, Integer> outerSlots = new HashMap<>(slots);
+        slots.clear();
+
+        StringBuilder desc = new StringBuilder("(");
+        int argSlots = 0;
+        for (Symbol v : inputs) {
+            String d = descriptor(v.type);
+            desc.append(d);
+            slots.put(v, argSlots);
+            argSlots += Code.slots(d);
+        }
+        begin(name, desc.append(")").append(OBJECTS).toString(), argSlots, null);
+        code.line(line);
+        for (Symbol v : outputs) {
+            if (slots.containsKey(v)) continue;
+            String d = descriptor(v.type);
+            int slot = code.local(d);
+            pushDefault(d);
+            code.store(d, slot);
+            slots.put(v, slot);
+        }
+
+        branch.accept(this);
+        if (code.reachable()) {
+            if (outputs.isEmpty()) {
+                code.pushNull();
+            } else {
+                code.pushInt(outputs.size());
+                code.newArray(OBJECT);
+                for (int j = 0; j < outputs.size(); j++) {
+                    code.simple(Code.DUP, 1);
+                    code.pushInt(j);
+                    box(load(outputs.get(j)));
+                    code.arrayStore(OBJECT);
+                }
+            }
+            code.ret(OBJECTS);
+        }
+
+        end();
+        code = outerCode;
+        method = outerMethod;
+        function = outerFunction;
+        start = outerStart;
+        slots.putAll(outerSlots);
+    }
+
+    // runtime.Paralelno.Branch koja čuva ulaze grane i poziva njenu metodu
+    private String branchClass(String branchMethod, List<Symbol> inputs) {
+        String name = className + "$" + branchMethod;
+        ClassFile branch = new ClassFile(name, "java/lang/Object", BRANCH);
+        branch.sourceFile(sourceFile);
+
+        StringBuilder desc = new StringBuilder("(");
+        int argSlots = 1;
+        for (int k = 0; k < inputs.size(); k++) {
+            String d = descriptor(inputs.get(k).type);
+            branch.addField(ClassFile.PRIVATE | ClassFile.FINAL, "v" + k, d);
+            desc.append(d);
+            argSlots += Code.slots(d);
+        }
+        desc.append(')');
+
+        Code init = branch.addMethod(ClassFile.PUBLIC, "<init>", desc + "V", argSlots);
+        init.load(OBJECT, 0);
+        init.invoke(Code.INVOKESPECIAL, "java/lang/Object", "<init>", "()V");
+        int slot = 1;
+        for (int k = 0; k < inputs.size(); k++) {
+            String d = descriptor(inputs.get(k).type);
+            init.load(OBJECT, 0);
+            init.load(d, slot);
+            init.field(Code.PUTFIELD, name, "v" + k, d);
+            slot += Code.slots(d);
+        }
+        init.ret("V");
+
+        Code run = branch.addMethod(ClassFile.PUBLIC, "run", "()" + OBJECTS, 1);
+        for (int k = 0; k < inputs.size(); k++) {
+            run.load(OBJECT, 0);
+            run.field(Code.GETFIELD, name, "v" + k, descriptor(inputs.get(k).type));
+        }
+        run.invoke(Code.INVOKESTATIC, className, branchMethod, desc + OBJECTS);
+        run.ret(OBJECTS);
+
+        classes.put(name, branch.toBytes());
+        return name;
+    }
+
+    @Override
+    public Void visitExprStmt(Stmt.ExpressionStmt s) {
+        code.line(lineOf(s.expression));
+        code.pop(s.expression.accept(this));
+        return null;
+    }
+
+    @Override
+    public Void visitEmpty(Stmt.Empty s) {
+        return null;
+    }
+
+    @Override
+    public Void visitFunDecl(Stmt.FunDecl s) {
+        throw new IllegalStateException("FunDecl se ne pojavljuje u Ast.Program");
+    }
+
+    private static int lineOf(Expr e) {
+        if (e instanceof Expr.Literal l) return l.token.line;
+        if (e instanceof Expr.Ident i) return i.name.line;
+        if (e instanceof Expr.Index i) return i.name.line;
+        if (e instanceof Expr.Call c) return c.callee.line;
+        if (e instanceof Expr.Unary u) return u.operator.line;
+        if (e instanceof Expr.Binary b) return b.op.line;
+        if (e instanceof Expr.Grouping g) return lineOf(g.inner);
+        return 0;
+    }
+}
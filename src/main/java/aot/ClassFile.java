@@ -0,0 +1,214 @@
+package aot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Jedan .class fajl: tabela konstanti, polja i metode. Verzija je 49 (Java 5), jer ona još nema
+// StackMapTable, pa JVM sam izvodi tipove na mestima spajanja, a prevodilac ne mora da ih računa.
+final class ClassFile {
+
+    static final int PUBLIC = 0x0001;
+    static final int PRIVATE = 0x0002;
+    static final int STATIC = 0x0008;
+    static final int FINAL = 0x0010;
+    static final int SUPER = 0x0020;
+
+    private static final int VERSION = 49;
+
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int DOUBLE = 6;
+    private static final int CLASS = 7;
+    private static final int STRING = 8;
+    private static final int FIELD = 9;
+    private static final int METHOD = 10;
+    private static final int INTERFACE_METHOD = 11;
+    private static final int NAME_AND_TYPE = 12;
+
+    private record Field(int access, int name, int descriptor) {}
+
+    private record Method(int access, int name, int descriptor, Code code) {}
+
+    final String name;
+    private final int thisClass;
+    private final int superClass;
+    private final List<Integer> interfaces = new ArrayList<>();
+    private final List<Field> fields = new ArrayList<>();
+    private final List<Method> methods = new ArrayList<>();
+    private int sourceFile;
+
+    // tabela konstanti: ulaz se pravi jednom, ključ je njegov zapis
+    private final ByteArrayOutputStream pool = new ByteArrayOutputStream();
+    private final DataOutputStream poolOut = new DataOutputStream(pool);
+    private final Map<String, Integer> entries = new HashMap<>();
+    private int poolSize = 1;
+
+    ClassFile(String name, String superName, String... interfaceNames) {
+        this.name = name;
+        this.thisClass = classRef(name);
+        this.superClass = classRef(superName);
+        for (String i : interfaceNames) interfaces.add(classRef(i));
+    }
+
+    // ---------- konstante ----------
+
+    int utf8(String s) {
+        return entry("U" + s, 1, out -> {
+            out.writeByte(UTF8);
+            out.writeUTF(s);
+        });
+    }
+
+    int classRef(String internalName) {
+        int n = utf8(internalName);
+        return entry("C" + internalName, 1, out -> {
+            out.writeByte(CLASS);
+            out.writeShort(n);
+        });
+    }
+
+    int string(String s) {
+        int n = utf8(s);
+        return entry("S" + s, 1, out -> {
+            out.writeByte(STRING);
+            out.writeShort(n);
+        });
+    }
+
+    int integer(int v) {
+        return entry("I" + v, 1, out -> {
+            out.writeByte(INTEGER);
+            out.writeInt(v);
+        });
+    }
+
+    // double zauzima dva mesta u tabeli
+    int real(double v) {
+        return entry("D" + Double.doubleToRawLongBits(v), 2, out -> {
+            out.writeByte(DOUBLE);
+            out.writeDouble(v);
+        });
+    }
+
+    int field(String owner, String fieldName, String descriptor) {
+        return member(FIELD, owner, fieldName, descriptor);
+    }
+
+    int method(String owner, String methodName, String descriptor) {
+        return member(METHOD, owner, methodName, descriptor);
+    }
+
+    int interfaceMethod(String owner, String methodName, String descriptor) {
+        return member(INTERFACE_METHOD, owner, methodName, descriptor);
+    }
+
+    private int member(int tag, String owner, String memberName, String descriptor) {
+        int c = classRef(owner);
+        int n = utf8(memberName);
+        int d = utf8(descriptor);
+        int nt = entry("N" + memberName + ":" + descriptor, 1, out -> {
+            out.writeByte(NAME_AND_TYPE);
+            out.writeShort(n);
+            out.writeShort(d);
+        });
+        return entry(tag + owner + "." + memberName + ":" + descriptor, 1, out -> {
+            out.writeByte(tag);
+            out.writeShort(c);
+            out.writeShort(nt);
+        });
+    }
+
+    private interface Writer {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private int entry(String key, int slots, Writer writer) {
+        Integer index = entries.get(key);
+        if (index != null) return index;
+        if (poolSize + slots > 0xFFFF) throw new IllegalStateException("previše konstanti u klasi " + name);
+        try {
+            writer.write(poolOut);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        int at = poolSize;
+        poolSize += slots;
+        entries.put(key, at);
+        return at;
+    }
+
+    // ---------- članovi ----------
+
+    void addField(int access, String fieldName, String descriptor) {
+        fields.add(new Field(access, utf8(fieldName), utf8(descriptor)));
+    }
+
+    Code addMethod(int access, String methodName, String descriptor, int argSlots) {
+        Code code = new Code(this, argSlots);
+        methods.add(new Method(access, utf8(methodName), utf8(descriptor), code));
+        return code;
+    }
+
+    void sourceFile(String file) {
+        sourceFile = utf8(file);
+    }
+
+    // ---------- zapis ----------
+
+    byte[] toBytes() {
+        int codeName = utf8("Code");
+        int linesName = utf8("LineNumberTable");
+        int sourceName = sourceFile != 0 ? utf8("SourceFile") : 0;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(VERSION);
+            out.writeShort(poolSize);
+            poolOut.flush();
+            pool.writeTo(out);
+
+            out.writeShort(PUBLIC | FINAL | SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(interfaces.size());
+            for (int i : interfaces) out.writeShort(i);
+
+            out.writeShort(fields.size());
+            for (Field f : fields) {
+                out.writeShort(f.access);
+                out.writeShort(f.name);
+                out.writeShort(f.descriptor);
+                out.writeShort(0);
+            }
+
+            out.writeShort(methods.size());
+            for (Method m : methods) {
+                out.writeShort(m.access);
+                out.writeShort(m.name);
+                out.writeShort(m.descriptor);
+                out.writeShort(1);
+                m.code.write(out, codeName, linesName);
+            }
+
+            if (sourceName != 0) {
+                out.writeShort(1);
+                out.writeShort(sourceName);
+                out.writeInt(2);
+                out.writeShort(sourceFile);
+            } else {
+                out.writeShort(0);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,406 @@
+package aot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Bajtkod jedne metode. Prati dubinu steka posle svake instrukcije i najveći broj lokalnih mesta,
+// pomeraje skokova unapred upisuje na kraju, a tabela linija beleži Token.line izvornog koda.
+final class Code {
+
+    static final int ACONST_NULL = 0x01;
+    static final int ICONST_0 = 0x03;
+    static final int BIPUSH = 0x10;
+    static final int SIPUSH = 0x11;
+    static final int LDC_W = 0x13;
+    static final int LDC2_W = 0x14;
+    static final int ILOAD = 0x15;
+    static final int DLOAD = 0x18;
+    static final int ALOAD = 0x19;
+    static final int IALOAD = 0x2E;
+    static final int DALOAD = 0x31;
+    static final int AALOAD = 0x32;
+    static final int BALOAD = 0x33;
+    static final int CALOAD = 0x34;
+    static final int ISTORE = 0x36;
+    static final int DSTORE = 0x39;
+    static final int ASTORE = 0x3A;
+    static final int IASTORE = 0x4F;
+    static final int DASTORE = 0x52;
+    static final int AASTORE = 0x53;
+    static final int BASTORE = 0x54;
+    static final int CASTORE = 0x55;
+    static final int POP = 0x57;
+    static final int POP2 = 0x58;
+    static final int DUP = 0x59;
+    static final int IADD = 0x60;
+    static final int DADD = 0x63;
+    static final int ISUB = 0x64;
+    static final int DSUB = 0x67;
+    static final int IMUL = 0x68;
+    static final int DMUL = 0x6B;
+    static final int IDIV = 0x6C;
+    static final int DDIV = 0x6F;
+    static final int IREM = 0x70;
+    static final int DREM = 0x73;
+    static final int INEG = 0x74;
+    static final int DNEG = 0x77;
+    static final int IXOR = 0x82;
+    static final int I2D = 0x87;
+    static final int DCMPL = 0x97;
+    static final int DCMPG = 0x98;
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IFLT = 0x9B;
+    static final int IFGE = 0x9C;
+    static final int IFGT = 0x9D;
+    static final int IFLE = 0x9E;
+    static final int IF_ICMPEQ = 0x9F;
+    static final int IF_ICMPNE = 0xA0;
+    static final int IF_ICMPLT = 0xA1;
+    static final int IF_ICMPGE = 0xA2;
+    static final int IF_ICMPGT = 0xA3;
+    static final int IF_ICMPLE = 0xA4;
+    static final int GOTO = 0xA7;
+    static final int IRETURN = 0xAC;
+    static final int DRETURN = 0xAF;
+    static final int ARETURN = 0xB0;
+    static final int RETURN = 0xB1;
+    static final int GETSTATIC = 0xB2;
+    static final int PUTSTATIC = 0xB3;
+    static final int GETFIELD = 0xB4;
+    static final int PUTFIELD = 0xB5;
+    static final int INVOKEVIRTUAL = 0xB6;
+    static final int INVOKESPECIAL = 0xB7;
+    static final int INVOKESTATIC = 0xB8;
+    static final int INVOKEINTERFACE = 0xB9;
+    static final int NEW = 0xBB;
+    static final int NEWARRAY = 0xBC;
+    static final int ANEWARRAY = 0xBD;
+    static final int CHECKCAST = 0xC0;
+    static final int WIDE = 0xC4;
+    static final int MULTIANEWARRAY = 0xC5;
+
+    // tip elementa za newarray
+    static final int T_BOOLEAN = 4;
+    static final int T_CHAR = 5;
+    static final int T_DOUBLE = 7;
+    static final int T_INT = 10;
+
+    static final class Label {
+        int offset = -1;
+        int depth = -1;                                 // dubina steka na oznaci
+        private final List<Integer> jumps = new ArrayList<>();  // mesta skokova koji čekaju pomeraj
+    }
+
+    private final ClassFile cls;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final List<int[]> lines = new ArrayList<>();   // {pc, linija}
+    private int lastLine = -1;
+    private int depth;
+    private int maxDepth;
+    private int maxLocals;
+    private boolean reachable = true;
+    private final List<Label> pending = new ArrayList<>();   // oznake na koje se skače unapred
+
+    Code(ClassFile cls, int argSlots) {
+        this.cls = cls;
+        this.maxLocals = argSlots;
+    }
+
+    int pc() {
+        return bytes.size();
+    }
+
+    boolean reachable() {
+        return reachable;
+    }
+
+    // novo lokalno mesto; realan zauzima dva
+    int local(String descriptor) {
+        int slot = maxLocals;
+        maxLocals += slots(descriptor);
+        return slot;
+    }
+
+    void line(int line) {
+        if (line <= 0 || line == lastLine) return;
+        lines.add(new int[]{pc(), line});
+        lastLine = line;
+    }
+
+    // ---------- stek ----------
+
+    private void op(int opcode, int delta) {
+        bytes.write(opcode);
+        stack(delta);
+    }
+
+    private void stack(int delta) {
+        depth += delta;
+        if (depth < 0) throw new IllegalStateException("negativna dubina steka u " + cls.name);
+        maxDepth = Math.max(maxDepth, depth);
+    }
+
+    private void u1(int v) {
+        bytes.write(v);
+    }
+
+    private void u2(int v) {
+        bytes.write(v >>> 8);
+        bytes.write(v);
+    }
+
+    static int slots(String descriptor) {
+        return switch (descriptor.charAt(0)) {
+            case 'V' -> 0;
+            case 'D', 'J' -> 2;
+            default -> 1;
+        };
+    }
+
+    // zbir mesta argumenata i mesta povratne vrednosti iz opisa metode
+    private static int[] signature(String descriptor) {
+        int args = 0;
+        int k = 1;
+        while (descriptor.charAt(k) != ')') {
+            int start = k;
+            while (descriptor.charAt(k) == '[') k++;
+            if (descriptor.charAt(k) == 'L') k = descriptor.indexOf(';', k);
+            args += slots(descriptor.substring(start));
+            k++;
+        }
+        return new int[]{args, slots(descriptor.substring(k + 1))};
+    }
+
+    // ---------- instrukcije ----------
+
+    void simple(int opcode, int delta) {
+        op(opcode, delta);
+    }
+
+    void pushInt(int v) {
+        if (v >= -1 && v <= 5) {
+            op(ICONST_0 + v, 1);
+        } else if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) {
+            op(BIPUSH, 1);
+            u1(v);
+        } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+            op(SIPUSH, 1);
+            u2(v);
+        } else {
+            op(LDC_W, 1);
+            u2(cls.integer(v));
+        }
+    }
+
+    void pushReal(double v) {
+        op(LDC2_W, 2);
+        u2(cls.real(v));
+    }
+
+    void pushString(String s) {
+        op(LDC_W, 1);
+        u2(cls.string(s));
+    }
+
+    void pushNull() {
+        op(ACONST_NULL, 1);
+    }
+
+    void load(String descriptor, int slot) {
+        switch (descriptor.charAt(0)) {
+            case 'D' -> localOp(DLOAD, slot, 2);
+            case 'L', '[' -> localOp(ALOAD, slot, 1);
+            default -> localOp(ILOAD, slot, 1);
+        }
+    }
+
+    void store(String descriptor, int slot) {
+        switch (descriptor.charAt(0)) {
+            case 'D' -> localOp(DSTORE, slot, -2);
+            case 'L', '[' -> localOp(ASTORE, slot, -1);
+            default -> localOp(ISTORE, slot, -1);
+        }
+    }
+
+    private void localOp(int opcode, int slot, int delta) {
+        if (slot <= 0xFF) {
+            op(opcode, delta);
+            u1(slot);
+            return;
+        }
+        if (slot > 0xFFFF) throw new IllegalStateException("previše lokalnih promenljivih u " + cls.name);
+        u1(WIDE);
+        op(opcode, delta);
+        u2(slot);
+    }
+
+    void arrayLoad(String element) {
+        switch (element.charAt(0)) {
+            case 'D' -> op(DALOAD, 0);
+            case 'C' -> op(CALOAD, -1);
+            case 'Z' -> op(BALOAD, -1);
+            case 'I' -> op(IALOAD, -1);
+            default -> op(AALOAD, -1);
+        }
+    }
+
+    void arrayStore(String element) {
+        switch (element.charAt(0)) {
+            case 'D' -> op(DASTORE, -4);
+            case 'C' -> op(CASTORE, -3);
+            case 'Z' -> op(BASTORE, -3);
+            case 'I' -> op(IASTORE, -3);
+            default -> op(AASTORE, -3);
+        }
+    }
+
+    void pop(String descriptor) {
+        int n = slots(descriptor);
+        if (n == 2) op(POP2, -2);
+        else if (n == 1) op(POP, -1);
+    }
+
+    void newArray(String element) {
+        switch (element.charAt(0)) {
+            case 'I' -> primitiveArray(T_INT);
+            case 'D' -> primitiveArray(T_DOUBLE);
+            case 'C' -> primitiveArray(T_CHAR);
+            case 'Z' -> primitiveArray(T_BOOLEAN);
+            default -> type(ANEWARRAY, element.charAt(0) == 'L' ? element.substring(1, element.length() - 1) : element);
+        }
+    }
+
+    private void primitiveArray(int type) {
+        op(NEWARRAY, 0);
+        u1(type);
+    }
+
+    void multiArray(String descriptor, int dims) {
+        op(MULTIANEWARRAY, 1 - dims);
+        u2(cls.classRef(descriptor));
+        u1(dims);
+    }
+
+    // new, anewarray i checkcast; internalName je ime klase ili opis niza
+    void type(int opcode, String internalName) {
+        op(opcode, opcode == NEW ? 1 : 0);
+        u2(cls.classRef(internalName));
+    }
+
+    void field(int opcode, String owner, String name, String descriptor) {
+        int size = slots(descriptor);
+        int delta = switch (opcode) {
+            case GETSTATIC -> size;
+            case PUTSTATIC -> -size;
+            case GETFIELD -> size - 1;
+            default -> -size - 1;
+        };
+        op(opcode, delta);
+        u2(cls.field(owner, name, descriptor));
+    }
+
+    void invoke(int opcode, String owner, String name, String descriptor) {
+        int[] sig = signature(descriptor);
+        int receiver = opcode == INVOKESTATIC ? 0 : 1;
+        op(opcode, sig[1] - sig[0] - receiver);
+        if (opcode == INVOKEINTERFACE) {
+            u2(cls.interfaceMethod(owner, name, descriptor));
+            u1(sig[0] + 1);
+            u1(0);
+        } else {
+            u2(cls.method(owner, name, descriptor));
+        }
+    }
+
+    void ret(String descriptor) {
+        switch (descriptor.charAt(0)) {
+            case 'V' -> op(RETURN, 0);
+            case 'D' -> op(DRETURN, -2);
+            case 'L', '[' -> op(ARETURN, -1);
+            default -> op(IRETURN, -1);
+        }
+        unreachable();
+    }
+
+    // ---------- skokovi ----------
+
+    // uslovni skok skida operande poređenja pre nego što se dubina zapiše na oznaci
+    void jump(int opcode, Label target) {
+        int operands = switch (opcode) {
+            case GOTO -> 0;
+            case IF_ICMPEQ, IF_ICMPNE, IF_ICMPLT, IF_ICMPGE, IF_ICMPGT, IF_ICMPLE -> 2;
+            default -> 1;
+        };
+        int at = pc();
+        op(opcode, -operands);
+        target.depth = depth;
+        if (target.offset >= 0) {
+            u2(offset(target.offset - at));
+        } else {
+            if (target.jumps.isEmpty()) pending.add(target);
+            target.jumps.add(at);
+            u2(0);
+        }
+        if (opcode == GOTO) unreachable();
+    }
+
+    void bind(Label label) {
+        label.offset = pc();
+        if (label.depth >= 0) depth = label.depth;
+        else label.depth = depth;
+        reachable = true;
+        lastLine = -1;
+    }
+
+    private void unreachable() {
+        reachable = false;
+        depth = 0;
+    }
+
+    // ---------- zapis ----------
+
+    private int offset(int offset) {
+        if (offset > Short.MAX_VALUE || offset < Short.MIN_VALUE) {
+            throw new IllegalStateException("skok je predaleko u " + cls.name);
+        }
+        return offset;
+    }
+
+    private byte[] code() {
+        byte[] code = bytes.toByteArray();
+        if (code.length > 0xFFFF) throw new IllegalStateException("metoda je prevelika za JVM u " + cls.name);
+        for (Label label : pending) {
+            if (label.offset < 0) throw new IllegalStateException("oznaka nije postavljena u " + cls.name);
+            for (int at : label.jumps) {
+                int offset = offset(label.offset - at);
+                code[at + 1] = (byte) (offset >>> 8);
+                code[at + 2] = (byte) offset;
+            }
+        }
+        return code;
+    }
+
+    void write(DataOutputStream out, int codeName, int linesName) throws IOException {
+        byte[] code = code();
+        int linesLength = 2 + 4 * lines.size();
+        out.writeShort(codeName);
+        out.writeInt(2 + 2 + 4 + code.length + 2 + 2 + 2 + 4 + linesLength);
+        out.writeShort(maxDepth);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);                  // nema tabele izuzetaka
+        out.writeShort(1);
+        out.writeShort(linesName);
+        out.writeInt(linesLength);
+        out.writeShort(lines.size());
+        for (int[] l : lines) {
+            out.writeShort(l[0]);
+            out.writeShort(l[1]);
+        }
+    }
+}
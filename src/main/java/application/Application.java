@@ -1,13 +1,25 @@
 package application;
 
 
+import aot.AotCompiler;
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.IrPrinter;
+import ir.pass.PassManager;
 import lexer.Lexer;
 import lexer.token.Token;
 import lexer.token.TokenFormatter;
+import metrics.Phase;
+import metrics.Probe;
 import parser.Ast;
 import parser.JsonAstPrinter;
 import parser.ParseError;
 import parser.ParserAST;
+import runtime.Interpreter;
+import runtime.SlangRuntimeError;
+import semantic.PurityAnalysis;
+import semantic.SemanticError;
+import semantic.TypeChecker;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -15,29 +27,166 @@ import java.util.List;
 
 public class Application {
 
+    private static final String USAGE =
+            "Usage: java application.Application [--run] [--stats] [--memo] [--call-sites] [--max-depth=N] [--threads=N] [--off-heap=MB] [--ir] [--dump-passes]"
+                    + " [--time-passes] [--loop-report] [--bounds-report] [--vector-report] [--parallel-report] [--inline-log] [--jar=OUT.jar] <source-file>"
+                    + "\n       java application.Application --train-cds [--cds-archive=FILE] [corpus-dir]";
+
     public static void main(String[] args) {
 
-        if (args.length != 1) {
-            System.err.println("Usage: java application.Application <source-file>");
-            System.exit(64);
+        String path = null;
+        boolean emitIr = false;
+        boolean dumpPasses = false;
+        boolean timePasses = false;
+        boolean loopReport = false;
+        boolean boundsReport = false;
+        boolean vectorReport = false;
+        boolean parallelReport = false;
+        boolean inlineLog = false;
+        boolean run = false;
+        boolean memo = false;
+        boolean callSites = false;
+        boolean stats = false;
+        int maxDepth = Interpreter.DEFAULT_MAX_DEPTH;
+        int threads = 0;
+        int offHeapMb = 0;
+        String jar = null;
+        boolean trainCds = false;
+        String cdsArchive = "target/cds/slang.jsa";
+
+        for (String arg : args) {
+            switch (arg) {
+                case "--ir" -> emitIr = true;
+                case "--dump-passes" -> dumpPasses = true;
+                case "--time-passes" -> timePasses = true;
+                case "--loop-report" -> loopReport = true;
+                case "--bounds-report" -> boundsReport = true;
+                case "--vector-report" -> vectorReport = true;
+                case "--parallel-report" -> parallelReport = true;
+                case "--inline-log" -> inlineLog = true;
+                case "--run" -> run = true;
+                case "--stats" -> stats = true;
+                case "--train-cds" -> trainCds = true;
+                case "--memo" -> {
+                    run = true;
+                    memo = true;
+                }
+                case "--call-sites" -> {
+                    run = true;
+                    callSites = true;
+                }
+                default -> {
+                    if (arg.startsWith("--max-depth=")) {
+                        maxDepth = positive(arg.substring("--max-depth=".length()));
+                        run = true;
+                        continue;
+                    }
+                    if (arg.startsWith("--threads=")) {
+                        threads = positive(arg.substring("--threads=".length()));
+                        run = true;
+                        continue;
+                    }
+                    if (arg.startsWith("--off-heap=")) {
+                        offHeapMb = positive(arg.substring("--off-heap=".length()));
+                        run = true;
+                        continue;
+                    }
+                    if (arg.startsWith("--cds-archive=") && arg.length() > "--cds-archive=".length()) {
+                        cdsArchive = arg.substring("--cds-archive=".length());
+                        continue;
+                    }
+                    if (arg.startsWith("--jar=") && arg.length() > "--jar=".length()) {
+                        jar = arg.substring("--jar=".length());
+                        continue;
+                    }
+                    if (arg.startsWith("--") || path != null) usage();
+                    path = arg;
+                }
+            }
+        }
+        if (trainCds) {
+            try {
+                CdsTraining.train(Path.of(path != null ? path : "src/main/resources"), Path.of(cdsArchive));
+            } catch (Exception e) {
+                System.err.println("Greška: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
         }
+        if (path == null) usage();
+
+        // --stats ispisuje zbir faza na kraju, i kada se završi greškom
+        if (stats) Probe.enableStats();
+        Probe probe = Probe.begin(Phase.APPLICATION);
+        int status = 0;
 
         try {
             // 1. učitaj fajl
-            String code = Files.readString(Path.of(args[0]));
+            String code = Files.readString(Path.of(path));
+            if (probe != null) probe.source(Probe.utf8Length(code));
 
             // 2. lexer
             Lexer lexer = new Lexer(code);
             List<Token> tokens = lexer.scanTokens();
 
+            boolean irMode = jar != null || emitIr || dumpPasses || timePasses || loopReport || boundsReport || vectorReport || parallelReport || inlineLog || run;
+
             // DEBUG: ispisi sve tokene
-            System.out.println(TokenFormatter.formatList(tokens));
+            if (!irMode) System.out.println(TokenFormatter.formatList(tokens));
 
             ParserAST parser = new ParserAST(tokens);
 
             Ast.Program program = parser.parseProgram();
 
-            // 4. JSON ispis AST-a
+            // provera tipova i razrešavanje imena; ispis tokena i AST-a radi i bez nje
+            if (irMode) new TypeChecker(lexer.symbols()).check(program);
+
+            // prevođenje u izvršni JAR umesto interpretiranja
+            if (jar != null) {
+                Path source = Path.of(path);
+                new AotCompiler(AotCompiler.classNameFor(source), source.getFileName().toString())
+                        .writeJar(program, Path.of(jar));
+                return;
+            }
+
+            if (irMode) {
+                // 3. IR i optimizacije
+                IrModule module = new IrBuilder().build(program);
+                PassManager passes = PassManager.standard();
+                if (dumpPasses) passes.dumpTo(System.err);
+                passes.run(module);
+
+                if (emitIr) System.out.println(IrPrinter.print(module));
+                if (timePasses) System.err.println(passes.timingReport());
+                if (loopReport) System.err.println(passes.loopReport().format());
+                if (boundsReport) System.err.println(passes.boundsReport().format());
+                if (vectorReport) {
+                    System.err.println(passes.vectorReport().format());
+                    if (!Interpreter.vectorsAvailable()) {
+                        System.err.println("napomena: petlje se izvršavaju skalarno; za vektorsko izvršavanje pokrenuti java sa --add-modules jdk.incubator.vector");
+                    }
+                }
+                if (parallelReport) System.err.println(passes.parallelReport().format());
+                if (inlineLog) System.err.println(passes.inliner().format());
+
+                // 4. izvršavanje
+                if (run) {
+                    Interpreter interpreter = new Interpreter(module, System.in, System.out);
+                    interpreter.setMaxDepth(maxDepth);
+                    if (threads > 0) interpreter.setThreads(threads);
+                    if (offHeapMb > 0) {
+                        if (!Interpreter.offHeapAvailable()) System.err.println("napomena: java.lang.foreign nije dostupan, svi nizovi su na heap-u");
+                        interpreter.setOffHeapThreshold((long) offHeapMb << 20);
+                    }
+                    if (memo) interpreter.enableMemo(new PurityAnalysis().analyze(program), Interpreter.DEFAULT_MEMO_CAPACITY);
+                    interpreter.run();
+                    if (memo) System.err.println(interpreter.memoReport());
+                    if (callSites) System.err.println(interpreter.callSiteReport());
+                }
+                return;
+            }
+
+            // 5. JSON ispis AST-a
             JsonAstPrinter printer = new JsonAstPrinter();
              System.out.println(printer.print(program));
 
@@ -45,15 +194,44 @@ public class Application {
 
         } catch (ParseError e) {
             System.err.println("Sintaksna greška: " + e.getMessage());
-            System.exit(65);
+            status = 65;
+
+        } catch (SemanticError e) {
+            System.err.println("Semantička greška:\n" + e.getMessage());
+            status = 67;
+
+        } catch (SlangRuntimeError e) {
+            System.out.flush();
+            System.err.println("Greška u izvršavanju: " + e.getMessage());
+            status = 70;
 
         } catch (RuntimeException e) {
             System.err.println("Leksička greška: " + e.getMessage());
-            System.exit(66);
+            status = 66;
 
         } catch (Exception e) {
             System.err.println("Greška: " + e.getMessage());
-            System.exit(1);
+            status = 1;
+
+        } finally {
+            if (probe != null) probe.end();
+            if (stats) System.err.print(Probe.report());
         }
+        if (status != 0) System.exit(status);
+    }
+
+    private static int positive(String value) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) return n;
+        } catch (NumberFormatException ignored) {
+        }
+        usage();
+        return 0;
+    }
+
+    private static void usage() {
+        System.err.println(USAGE);
+        System.exit(64);
     }
 }
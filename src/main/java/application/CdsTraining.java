@@ -0,0 +1,226 @@
+package application;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import lexer.token.Token;
+import lexer.token.TokenFormatter;
+import parser.Ast;
+import parser.JsonAstPrinter;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+// Obuka za brže pokretanje (--train-cds). Većina pokretanja Application radi nekoliko milisekundi
+// korisnog posla, a ostatak je pokretanje JVM-a i učitavanje klasa leksera, parsera, ispisa i
+// interpretera. Obuka pokreće korpus .slang fajlova kroz sve faze u posebnom JVM-u sa
+// -XX:ArchiveClassesAtExit, pa JVM pri izlasku upisuje dinamičku AppCDS arhivu učitanih klasa.
+// CDS ne prima direktorijume na putanji klasa, pa se target/classes i slični pakuju u slang.jar
+// pored arhive (podrazumevano u target/cds, da obuka ne piše po radnom direktorijumu). Tu je i
+// skripta slang koja pokreće Application sa tom arhivom, a hladno pokretanje se meri pre i posle
+// obuke na najvećem fajlu korpusa, sa istom putanjom klasa.
+public final class CdsTraining {
+
+    private static final int RUNS = 10;
+
+    private CdsTraining() {}
+
+    // JVM obuke: svaki fajl korpusa prolazi kroz sve faze, sa greškama ili bez njih; Application
+    // se samo učitava, jer bi njen main izašao iz JVM-a na prvom fajlu sa greškom
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        Class.forName(Application.class.getName());
+        for (Path file : corpus(Path.of(args[0]))) exercise(Files.readString(file));
+    }
+
+    private static void exercise(String code) {
+        try {
+            Lexer lexer = new Lexer(code);
+            List<Token> tokens = lexer.scanTokens();
+            TokenFormatter.formatList(tokens);
+            Ast.Program program = new ParserAST(tokens).parseProgram();
+            new TypeChecker(lexer.symbols()).check(program);
+            new JsonAstPrinter().print(program);
+
+            IrModule module = new IrBuilder().build(program);
+            PassManager.standard().run(module);
+            new Interpreter(module, InputStream.nullInputStream(), new PrintStream(OutputStream.nullOutputStream())).run();
+        } catch (RuntimeException e) {
+            // uzorci sa leksičkim, sintaksnim i semantičkim greškama su namerni: i te klase idu u arhivu
+        }
+    }
+
+    public static void train(Path corpusDir, Path archive) throws IOException, InterruptedException {
+        List<Path> corpus = corpus(corpusDir);
+        if (corpus.isEmpty()) throw new IOException("u " + corpusDir + " nema .slang fajlova");
+        Path sample = corpus.get(0);
+        for (Path p : corpus) if (Files.size(p) > Files.size(sample)) sample = p;
+
+        archive = archive.toAbsolutePath();
+        Files.createDirectories(archive.getParent());
+        String classPath = classPath(archive.resolveSibling("slang.jar"));
+        List<String> tokens = List.of(sample.toString());
+        List<String> run = List.of("--run", sample.toString());
+
+        long[] tokensBefore = coldStart(command(null, classPath, tokens));
+        long[] runBefore = coldStart(command(null, classPath, run));
+
+        Files.deleteIfExists(archive);
+        List<String> training = java();
+        training.add("-XX:ArchiveClassesAtExit=" + archive);
+        training.addAll(List.of("-cp", classPath, CdsTraining.class.getName(), corpusDir.toAbsolutePath().toString()));
+        Process p = new ProcessBuilder(training).inheritIO().start();
+        if (p.waitFor() != 0 || !Files.exists(archive)) {
+            throw new IOException("obuka nije napravila arhivu " + archive);
+        }
+
+        long[] tokensAfter = coldStart(command(archive, classPath, tokens));
+        long[] runAfter = coldStart(command(archive, classPath, run));
+        Path launcher = writeLauncher(archive, classPath);
+
+        System.out.printf("korpus:   %d fajlova iz %s%n", corpus.size(), corpusDir);
+        System.out.printf("arhiva:   %s (%d KB)%n", archive, Files.size(archive) >> 10);
+        System.out.printf("skripta:  %s%n", launcher);
+        System.out.printf("hladno pokretanje nad %s, %d puta (najbolje / medijana):%n", sample.getFileName(), RUNS);
+        report("tokeni i JSON", tokensBefore, tokensAfter);
+        report("--run", runBefore, runAfter);
+    }
+
+    private static List<Path> corpus(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.toString().endsWith(".slang")).sorted().toList();
+        }
+    }
+
+    // ---------- pokretanje ----------
+
+    // opcije modula i preview moraju biti iste pri obuci i korišćenju arhive
+    private static List<String> java() {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        for (String arg : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (arg.startsWith("--add-modules") || arg.startsWith("--enable-preview")) cmd.add(arg);
+        }
+        return cmd;
+    }
+
+    // arhiva važi samo za putanju klasa sa kojom je napravljena, pa su sve putanje apsolutne, a
+    // direktorijumi se pakuju u jedan JAR
+    private static String classPath(Path jar) throws IOException {
+        List<String> entries = new ArrayList<>();
+        List<Path> dirs = new ArrayList<>();
+        for (String e : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (e.isEmpty()) continue;
+            Path entry = Path.of(e).toAbsolutePath();
+            if (Files.isDirectory(entry)) dirs.add(entry);
+            else entries.add(entry.toString());
+        }
+        if (!dirs.isEmpty()) {
+            pack(dirs, jar);
+            entries.add(0, jar.toAbsolutePath().toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    private static void pack(List<Path> dirs, Path jar) throws IOException {
+        Set<String> written = new HashSet<>();
+        try (JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar))) {
+            for (Path dir : dirs) {
+                List<Path> files;
+                try (Stream<Path> walk = Files.walk(dir)) {
+                    files = walk.filter(Files::isRegularFile).sorted().toList();
+                }
+                for (Path f : files) {
+                    String name = dir.relativize(f).toString().replace(File.separatorChar, '/');
+                    if (!written.add(name)) continue;
+                    out.putNextEntry(new JarEntry(name));
+                    Files.copy(f, out);
+                    out.closeEntry();
+                }
+            }
+        }
+    }
+
+    private static List<String> command(Path archive, String classPath, List<String> args) {
+        List<String> cmd = java();
+        if (archive != null) cmd.add("-XX:SharedArchiveFile=" + archive);
+        cmd.addAll(List.of("-cp", classPath, Application.class.getName()));
+        cmd.addAll(args);
+        return cmd;
+    }
+
+    // vreme od pokretanja procesa do izlaska; prvo pokretanje samo puni keš fajlova
+    private static long[] coldStart(List<String> cmd) throws IOException, InterruptedException {
+        long[] nanos = new long[RUNS];
+        for (int r = -1; r < RUNS; r++) {
+            long start = System.nanoTime();
+            Process p = new ProcessBuilder(cmd)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            p.getOutputStream().close();
+            p.waitFor();
+            if (r >= 0) nanos[r] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String mode, long[] before, long[] after) {
+        System.out.printf("  %-14s bez arhive %6.1f / %6.1f ms, sa arhivom %6.1f / %6.1f ms (%.2fx)%n", mode,
+                before[0] / 1e6, before[RUNS / 2] / 1e6, after[0] / 1e6, after[RUNS / 2] / 1e6,
+                (double) before[RUNS / 2] / after[RUNS / 2]);
+    }
+
+    // skripta uzima arhivu dok postoji, a bez nje pokreće Application na uobičajen način
+    private static Path writeLauncher(Path archive, String classPath) throws IOException {
+        Path launcher = archive.resolveSibling("slang");
+        List<String> app = List.of("-cp", classPath, Application.class.getName());
+        List<String> plain = new ArrayList<>(java());
+        plain.addAll(app);
+        List<String> shared = new ArrayList<>(java());
+        shared.add("-XX:SharedArchiveFile=" + archive);
+        shared.addAll(app);
+        String script = "#!/bin/sh\n"
+                + "# napravio: java application.Application --train-cds\n"
+                + "if [ -f " + quote(archive.toString()) + " ]; then\n"
+                + "    exec " + shell(shared) + " \"$@\"\n"
+                + "fi\n"
+                + "exec " + shell(plain) + " \"$@\"\n";
+        Files.writeString(launcher, script);
+        try {
+            Files.setPosixFilePermissions(launcher, PosixFilePermissions.fromString("rwxr-xr-x"));
+        } catch (UnsupportedOperationException e) {
+            // na sistemima bez POSIX dozvola skripta se pokreće sa sh slang
+        }
+        return launcher;
+    }
+
+    private static String shell(List<String> cmd) {
+        List<String> quoted = new ArrayList<>();
+        for (String arg : cmd) quoted.add(quote(arg));
+        return String.join(" ", quoted);
+    }
+
+    private static String quote(String s) {
+        return "'" + s.replace("'", "'\\''") + "'";
+    }
+}
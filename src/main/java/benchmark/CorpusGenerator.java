@@ -0,0 +1,553 @@
+package benchmark;
+
+import parser.Ast.Type.Kind;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Sintetički slang programi zadate veličine, za stres i benchmark ulaze. Program prolazi lekser,
+// parser i proveru tipova: generator prati vidljive promenljive po tipu i bira izraze po tipu koji
+// se očekuje. Isto seme i iste opcije daju iste programe, a svaki fajl korpusa ima svoj Random, pa
+// i-ti fajl ne zavisi od toga koliko ih se pravi. Deo fajlova (malformedRate) dobija tačno jednu
+// leksičku ili sintaksnu grešku u nasumičnoj naredbi, za putanje grešaka u Lexer-u i ParserAST-u.
+// Funkcije pozivaju samo ranije funkcije koje ni same ništa ne pozivaju, a petlje imaju brojač do
+// najviše 3, pa se program i završava, ali veliki programi nisu pravljeni za izvršavanje.
+// Pokretanje: java -cp target/classes benchmark.CorpusGenerator [opcije] [izlazni direktorijum]
+//   --size=64KB --files=1 --seed=1 --functions=0.5 --niz-dims=3 --expr-depth=4 --nesting=3
+//   --literals=0.2 --malformed=0
+// Bez direktorijuma se jedan program ispisuje na standardni izlaz.
+public final class CorpusGenerator {
+
+    // functionShare: deo veličine koji zauzimaju definicije funkcija; nizDims: najviše dimenzija niza;
+    // exprDepth: najveća dubina izraza; nesting: najveća ugnežđenost radi/ako; literalDensity: deo
+    // naredbi sa tekst i slovo literalima; malformedRate: deo programa sa jednom greškom
+    public record Options(long seed, double functionShare, int nizDims, int exprDepth, int nesting,
+                          double literalDensity, double malformedRate) {
+        public static final Options DEFAULT = new Options(1, 0.5, 3, 4, 3, 0.2, 0);
+
+        public Options {
+            if (functionShare < 0 || functionShare > 1) throw new IllegalArgumentException("functions mora biti između 0 i 1");
+            if (literalDensity < 0 || literalDensity > 1) throw new IllegalArgumentException("literals mora biti između 0 i 1");
+            if (malformedRate < 0 || malformedRate > 1) throw new IllegalArgumentException("malformed mora biti između 0 i 1");
+            if (nizDims < 1) throw new IllegalArgumentException("niz-dims mora biti bar 1");
+            if (exprDepth < 0 || nesting < 0) throw new IllegalArgumentException("dubine ne mogu biti negativne");
+        }
+    }
+
+    public enum Defect { NONE, LEXICAL, SYNTAX }
+
+    public record Program(String source, Defect defect) {}
+
+    private record Var(String name, Kind kind, Kind element, int[] dims) {}
+
+    private record Function(String name, Kind kind, Kind element, List<Kind> params) {}
+
+    private static final Kind[] SCALARS = { Kind.INT, Kind.REAL, Kind.CHAR, Kind.STRING, Kind.BOOL };
+    private static final String LETTERS = "abcdefghijklmnopqrstuvwxyzšđčćžABCDEFGHIJKLMNOPRSTUVZŠĐČĆŽ0123456789 .,:-+*/";
+    private static final int MAX_LOOP = 3;
+
+    private final Options options;
+
+    // stanje jednog programa
+    private Random random;
+    private StringBuilder out;
+    private final Map<Kind, List<Var>> scalars = new EnumMap<>(Kind.class);
+    private final List<Var> counters = new ArrayList<>();     // brojači petlji se samo čitaju
+    private final List<Var> arrays = new ArrayList<>();
+    private final List<Function> functions = new ArrayList<>();
+    private final List<Function> leaves = new ArrayList<>();      // funkcije bez poziva
+    private final Map<Kind, List<Function>> functionsByKind = new EnumMap<>(Kind.class);
+    private final Map<Kind, List<Function>> leavesByKind = new EnumMap<>(Kind.class);
+    private boolean inMain;
+    private boolean calls;
+    private int names;
+
+    public CorpusGenerator(Options options) {
+        this.options = options;
+        for (Kind k : SCALARS) scalars.put(k, new ArrayList<>());
+        for (Kind k : Kind.values()) {
+            functionsByKind.put(k, new ArrayList<>());
+            leavesByKind.put(k, new ArrayList<>());
+        }
+    }
+
+    // i-ti program korpusa, približno bytes znakova
+    public Program generate(long bytes, int index) {
+        random = new Random(options.seed() * 0x9E3779B97F4A7C15L + index);
+        out = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 1024, bytes + 1024));
+        names = 0;
+        inMain = false;
+        functions.clear();
+        leaves.clear();
+        for (List<Function> list : functionsByKind.values()) list.clear();
+        for (List<Function> list : leavesByKind.values()) list.clear();
+        counters.clear();
+        arrays.clear();
+        for (List<Var> vars : scalars.values()) vars.clear();
+
+        List<String> globals = globals();
+        while (out.length() < bytes * options.functionShare()) function();
+        for (String g : globals) out.append(g).append('\n');
+        if (!globals.isEmpty()) out.append('\n');
+
+        out.append("zapocni_igru\n");
+        inMain = true;
+        do {
+            statement(0, "");
+        } while (out.length() + "zavrsi_igru;\n".length() < bytes);
+        out.append("zavrsi_igru;\n");
+
+        Defect defect = random.nextDouble() < options.malformedRate()
+                ? (random.nextBoolean() ? Defect.LEXICAL : Defect.SYNTAX)
+                : Defect.NONE;
+        String source = out.toString();
+        out = null;
+        return new Program(defect == Defect.NONE ? source : inject(source, defect), defect);
+    }
+
+    // ---------- program ----------
+
+    // globalne promenljive su vidljive u funkcijama, a ispisuju se posle njih
+    private List<String> globals() {
+        List<String> decls = new ArrayList<>();
+        int n = random.nextInt(4);
+        for (int k = 0; k < n; k++) {
+            Kind kind = SCALARS[random.nextInt(SCALARS.length)];
+            String name = "g" + names++;
+            decls.add("moj " + typeName(kind) + " " + name + " = " + literal(kind) + ";");
+            scalars.get(kind).add(new Var(name, kind, null, null));
+        }
+        return decls;
+    }
+
+    private void function() {
+        Kind kind = random.nextInt(6) == 0 ? Kind.ARRAY : SCALARS[random.nextInt(SCALARS.length)];
+        Kind element = kind == Kind.ARRAY ? element() : null;
+        List<Kind> params = new ArrayList<>();
+        for (int k = random.nextInt(4); k > 0; k--) params.add(SCALARS[random.nextInt(SCALARS.length)]);
+
+        int mark = mark();
+        String name = "f" + functions.size();
+        out.append(typeName(kind, element)).append(' ').append(name).append('(');
+        for (int k = 0; k < params.size(); k++) {
+            String param = "p" + names++;
+            if (k > 0) out.append(", ");
+            out.append(typeName(params.get(k))).append(' ').append(param);
+            scalars.get(params.get(k)).add(new Var(param, params.get(k), null, null));
+        }
+        out.append(") {\n");
+
+        // iz funkcija se pozivaju samo funkcije bez poziva
+        calls = false;
+        for (int k = 1 + random.nextInt(6); k > 0; k--) statement(0, "    ");
+        if (kind == Kind.ARRAY) {
+            Var result = array("    ", element);
+            out.append("    vrati ").append(result.name()).append(";\n");
+        } else {
+            out.append("    vrati ").append(expr(kind, 0)).append(";\n");
+        }
+        out.append("}\n\n");
+        release(mark);
+        Function f = new Function(name, kind, element, params);
+        functions.add(f);
+        functionsByKind.get(kind).add(f);
+        if (!calls) {
+            leaves.add(f);
+            leavesByKind.get(kind).add(f);
+        }
+    }
+
+    // ---------- naredbe ----------
+
+    private void statement(int depth, String indent) {
+        if (random.nextDouble() < options.literalDensity()) {
+            literalStatement(indent);
+            return;
+        }
+        boolean nested = depth < options.nesting();
+        int choice = random.nextInt(nested ? 10 : 7);
+        switch (choice) {
+            case 0, 1 -> declaration(indent);
+            case 2 -> array(indent, element());
+            case 3, 4 -> assignment(indent);
+            case 5 -> out.append(indent).append("napisi(").append(expr(SCALARS[random.nextInt(SCALARS.length)], 0)).append(");\n");
+            case 6 -> callDeclaration(indent);
+            case 7, 8 -> ifStatement(depth, indent);
+            default -> whileStatement(depth, indent);
+        }
+    }
+
+    private void literalStatement(String indent) {
+        Kind kind = random.nextBoolean() ? Kind.STRING : Kind.CHAR;
+        switch (random.nextInt(3)) {
+            case 0 -> out.append(indent).append("napisi(").append(literal(kind)).append(");\n");
+            case 1 -> {
+                String name = "v" + names++;
+                out.append(indent).append("moj ").append(typeName(kind)).append(' ').append(name)
+                        .append(" = ").append(literal(kind)).append(";\n");
+                scalars.get(kind).add(new Var(name, kind, null, null));
+            }
+            default -> {
+                List<Var> vars = scalars.get(kind);
+                if (vars.isEmpty()) {
+                    out.append(indent).append("napisi(").append(literal(kind)).append(");\n");
+                } else {
+                    out.append(indent).append(pick(vars).name()).append(" = ").append(literal(kind)).append(";\n");
+                }
+            }
+        }
+    }
+
+    private void declaration(String indent) {
+        Kind kind = SCALARS[random.nextInt(SCALARS.length)];
+        String name = "v" + names++;
+        out.append(indent).append("moj ").append(typeName(kind)).append(' ').append(name);
+        if (random.nextInt(4) != 0) out.append(" = ").append(expr(kind, 0));
+        out.append(";\n");
+        scalars.get(kind).add(new Var(name, kind, null, null));
+    }
+
+    // niz sa dimenzijama 1..5, pa upis u nekoliko elemenata
+    private Var array(String indent, Kind element) {
+        int[] dims = new int[1 + random.nextInt(options.nizDims())];
+        String name = "v" + names++;
+        out.append(indent).append("moj ").append(typeName(Kind.ARRAY, element)).append(' ').append(name);
+        for (int k = 0; k < dims.length; k++) {
+            dims[k] = 1 + random.nextInt(5);
+            out.append('[').append(dims[k]).append(']');
+        }
+        out.append(";\n");
+        Var array = new Var(name, Kind.ARRAY, element, dims);
+        for (int k = random.nextInt(3); k > 0; k--) {
+            out.append(indent).append(element(array)).append(" = ").append(expr(element, 0)).append(";\n");
+        }
+        arrays.add(array);
+        return array;
+    }
+
+    private void assignment(String indent) {
+        Kind kind = SCALARS[random.nextInt(SCALARS.length)];
+        Var array = random.nextInt(3) == 0 ? arrayOf(kind) : null;
+        if (array != null) {
+            out.append(indent).append(element(array)).append(" = ").append(expr(kind, 0)).append(";\n");
+            return;
+        }
+        List<Var> vars = scalars.get(kind);
+        if (vars.isEmpty()) {
+            declaration(indent);
+            return;
+        }
+        out.append(indent).append(pick(vars).name()).append(" = ").append(expr(kind, 0)).append(";\n");
+    }
+
+    // poziv kao naredba se ne parsira, pa rezultat ide u novu promenljivu; niz iz funkcije nema
+    // poznate dimenzije i ne indeksira se
+    private void callDeclaration(String indent) {
+        List<Function> candidates = inMain ? functions : leaves;
+        if (candidates.isEmpty()) {
+            declaration(indent);
+            return;
+        }
+        Function f = pick(candidates);
+        String name = "v" + names++;
+        out.append(indent).append("moj ").append(typeName(f.kind(), f.element())).append(' ').append(name)
+                .append(" = ").append(call(f, 0)).append(";\n");
+        if (f.kind() != Kind.ARRAY) scalars.get(f.kind()).add(new Var(name, f.kind(), null, null));
+    }
+
+    private void ifStatement(int depth, String indent) {
+        out.append(indent).append("ako (").append(expr(Kind.BOOL, 0)).append(") {\n");
+        block(depth, indent);
+        if (random.nextBoolean()) {
+            out.append(indent).append("} inace {\n");
+            block(depth, indent);
+        }
+        out.append(indent).append("}\n");
+    }
+
+    private void whileStatement(int depth, String indent) {
+        String counter = "k" + names++;
+        out.append(indent).append("moj broj ").append(counter).append(" = 0;\n");
+        out.append(indent).append("radi (").append(counter).append(" < ").append(1 + random.nextInt(MAX_LOOP)).append(") {\n");
+        counters.add(new Var(counter, Kind.INT, null, null));
+        block(depth, indent);
+        out.append(indent).append("    ").append(counter).append(" = ").append(counter).append(" + 1;\n");
+        out.append(indent).append("}\n");
+    }
+
+    private void block(int depth, String indent) {
+        int mark = mark();
+        for (int k = 1 + random.nextInt(4); k > 0; k--) statement(depth + 1, indent + "    ");
+        release(mark);
+    }
+
+    // ---------- izrazi ----------
+
+    private String expr(Kind kind, int depth) {
+        if (depth >= options.exprDepth() || random.nextInt(4) == 0) return leaf(kind, depth);
+        int d = depth + 1;
+        return switch (kind) {
+            case INT -> switch (random.nextInt(6)) {
+                case 0 -> expr(kind, d) + " + " + expr(kind, d);
+                case 1 -> expr(kind, d) + " - " + expr(kind, d);
+                case 2 -> expr(kind, d) + " * " + expr(kind, d);
+                // delilac je između 2 i 14, pa nema deljenja nulom
+                case 3 -> operand(kind, d) + (random.nextBoolean() ? " / " : " % ") + "(" + operand(kind, d) + " % 7 + 8)";
+                case 4 -> "-" + operand(kind, d);
+                default -> "(" + expr(kind, d) + ")";
+            };
+            case REAL -> switch (random.nextInt(5)) {
+                case 0 -> expr(kind, d) + " + " + expr(kind, d);
+                case 1 -> expr(kind, d) + " - " + expr(kind, d);
+                case 2 -> expr(kind, d) + " * " + expr(kind, d);
+                case 3 -> operand(kind, d) + " / " + (1 + random.nextInt(9)) + ".5";
+                default -> "(" + expr(kind, d) + ")";
+            };
+            case STRING -> expr(kind, d) + " + " + expr(kind, d);
+            case BOOL -> switch (random.nextInt(5)) {
+                case 0 -> {
+                    Kind k = random.nextInt(3) == 0 ? Kind.REAL : random.nextInt(4) == 0 ? Kind.CHAR : Kind.INT;
+                    String[] ops = { " < ", " <= ", " > ", " >= " };
+                    yield operand(k, d) + ops[random.nextInt(ops.length)] + operand(k, d);
+                }
+                case 1 -> {
+                    Kind k = SCALARS[random.nextInt(SCALARS.length)];
+                    yield operand(k, d) + (random.nextBoolean() ? " == " : " != ") + operand(k, d);
+                }
+                case 2 -> operand(kind, d) + (random.nextBoolean() ? " i " : " ili ") + operand(kind, d);
+                case 3 -> "!" + operand(kind, d);
+                default -> "(" + expr(kind, d) + ")";
+            };
+            default -> leaf(kind, depth);
+        };
+    }
+
+    // operand poređenja, logičkog operatora ili negacije ide u zagrade, pa prioritet ne menja tip
+    private String operand(Kind kind, int depth) {
+        String e = expr(kind, depth);
+        return isSimple(e) ? e : "(" + e + ")";
+    }
+
+    private static boolean isSimple(String e) {
+        if (e.startsWith("\"")) return e.indexOf('"', 1) == e.length() - 1;
+        for (int k = 0; k < e.length(); k++) {
+            char c = e.charAt(k);
+            if (c == ' ' || c == '-' || c == '!') return false;
+        }
+        return true;
+    }
+
+    private String leaf(Kind kind, int depth) {
+        int choice = random.nextInt(8);
+        if (choice < 3) {
+            List<Var> vars = scalars.get(kind);
+            boolean counter = kind == Kind.INT && !counters.isEmpty() && random.nextBoolean();
+            if (counter) return pick(counters).name();
+            if (!vars.isEmpty()) return pick(vars).name();
+        } else if (choice == 3) {
+            Var array = arrayOf(kind);
+            if (array != null) return element(array);
+        } else if (choice == 4 && depth < options.exprDepth()) {
+            List<Function> candidates = (inMain ? functionsByKind : leavesByKind).get(kind);
+            if (!candidates.isEmpty()) return call(pick(candidates), depth + 1);
+        }
+        return literal(kind);
+    }
+
+    private String call(Function f, int depth) {
+        calls = true;
+        StringBuilder sb = new StringBuilder(f.name()).append('(');
+        for (int k = 0; k < f.params().size(); k++) {
+            if (k > 0) sb.append(", ");
+            sb.append(expr(f.params().get(k), depth));
+        }
+        return sb.append(')').toString();
+    }
+
+    private String literal(Kind kind) {
+        return switch (kind) {
+            case INT -> String.valueOf(random.nextInt(1000));
+            case REAL -> random.nextInt(100) + "." + random.nextInt(100);
+            case CHAR -> "'" + LETTERS.charAt(random.nextInt(LETTERS.length())) + "'";
+            case BOOL -> random.nextBoolean() ? "tacno" : "netacno";
+            default -> {
+                StringBuilder sb = new StringBuilder("\"");
+                for (int k = random.nextInt(25); k > 0; k--) sb.append(LETTERS.charAt(random.nextInt(LETTERS.length())));
+                yield sb.append('"').toString();
+            }
+        };
+    }
+
+    // element sa indeksima unutar dimenzija
+    private String element(Var array) {
+        StringBuilder sb = new StringBuilder(array.name());
+        for (int dim : array.dims()) sb.append('[').append(random.nextInt(dim)).append(']');
+        return sb.toString();
+    }
+
+    private Var arrayOf(Kind element) {
+        for (int attempt = 0; attempt < 4 && !arrays.isEmpty(); attempt++) {
+            Var a = pick(arrays);
+            if (a.element() == element) return a;
+        }
+        return null;
+    }
+
+    private Kind element() {
+        return random.nextBoolean() ? Kind.INT : SCALARS[random.nextInt(SCALARS.length)];
+    }
+
+    // ---------- opseg ----------
+
+    // opseg se pamti kao dužine lista, a na kraju bloka liste se skraćuju na te dužine
+    private int mark() {
+        return names;
+    }
+
+    private void release(int mark) {
+        for (List<Var> vars : scalars.values()) truncate(vars, mark);
+        truncate(counters, mark);
+        truncate(arrays, mark);
+    }
+
+    // promenljive dobijaju rastuće brojeve u imenima, pa su one iz bloka uvek na kraju liste
+    private static void truncate(List<Var> vars, int mark) {
+        int n = vars.size();
+        while (n > 0 && number(vars.get(n - 1).name()) >= mark) n--;
+        vars.subList(n, vars.size()).clear();
+    }
+
+    private static int number(String name) {
+        return Integer.parseInt(name, 1, name.length(), 10);
+    }
+
+    private <T> T pick(List<T> list) {
+        return list.get(random.nextInt(list.size()));
+    }
+
+    private static String typeName(Kind kind) {
+        return switch (kind) {
+            case INT -> "broj";
+            case REAL -> "realan";
+            case CHAR -> "slovo";
+            case STRING -> "tekst";
+            case BOOL -> "pogodak";
+            default -> "niz";
+        };
+    }
+
+    private static String typeName(Kind kind, Kind element) {
+        if (kind != Kind.ARRAY || element == Kind.INT) return typeName(kind);
+        return "niz:" + typeName(element);
+    }
+
+    // ---------- greške ----------
+
+    // jedna greška na početku ili kraju nasumične naredbe; redovi naredbi se završavaju sa ';'
+    private String inject(String source, Defect defect) {
+        List<Integer> ends = new ArrayList<>();
+        for (int k = source.indexOf(";\n"); k >= 0; k = source.indexOf(";\n", k + 1)) ends.add(k);
+        int end = pick(ends);
+        int start = source.lastIndexOf('\n', end) + 1;
+        while (source.charAt(start) == ' ') start++;
+
+        if (defect == Defect.LEXICAL) {
+            String[] bad = { "@ ", "# ", "$ ", "12ab ", "'ab' " };
+            return source.substring(0, start) + bad[random.nextInt(bad.length)] + source.substring(start);
+        }
+        int paren = source.lastIndexOf(')', end);
+        if (paren >= start && random.nextBoolean()) {
+            return source.substring(0, paren) + source.substring(paren + 1);
+        }
+        return source.substring(0, end) + source.substring(end + 1);
+    }
+
+    // ---------- komandna linija ----------
+
+    private static final String USAGE = """
+            Upotreba: java -cp target/classes benchmark.CorpusGenerator [opcije] [izlazni direktorijum]
+              --size=64KB --files=1 --seed=1 --functions=0.5 --niz-dims=3 --expr-depth=4 --nesting=3
+              --literals=0.2 --malformed=0""";
+
+    public static void main(String[] args) throws IOException {
+        long seed = Options.DEFAULT.seed();
+        double functionShare = Options.DEFAULT.functionShare();
+        int nizDims = Options.DEFAULT.nizDims();
+        int exprDepth = Options.DEFAULT.exprDepth();
+        int nesting = Options.DEFAULT.nesting();
+        double literalDensity = Options.DEFAULT.literalDensity();
+        double malformedRate = Options.DEFAULT.malformedRate();
+        long size = 64 << 10;
+        int files = 1;
+        Path dir = null;
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String name = eq < 0 ? arg : arg.substring(0, eq);
+            String value = eq < 0 ? "" : arg.substring(eq + 1);
+            // vrednost ide posle '=', pa "--seed 7" ostavlja opciju bez vrednosti
+            try {
+                switch (name) {
+                    case "--seed" -> seed = Long.parseLong(value);
+                    case "--size" -> size = bytes(value);
+                    case "--files" -> files = Integer.parseInt(value);
+                    case "--functions" -> functionShare = Double.parseDouble(value);
+                    case "--niz-dims" -> nizDims = Integer.parseInt(value);
+                    case "--expr-depth" -> exprDepth = Integer.parseInt(value);
+                    case "--nesting" -> nesting = Integer.parseInt(value);
+                    case "--literals" -> literalDensity = Double.parseDouble(value);
+                    case "--malformed" -> malformedRate = Double.parseDouble(value);
+                    default -> {
+                        if (arg.startsWith("--") || dir != null) usage("Nepoznata opcija: " + arg);
+                        dir = Path.of(arg);
+                    }
+                }
+            } catch (NumberFormatException e) {
+                usage(value.isEmpty() ? "Opcija " + name + " traži vrednost: " + name + "=..." : "Neispravna vrednost: " + arg);
+            }
+        }
+
+        Options options = null;
+        try {
+            options = new Options(seed, functionShare, nizDims, exprDepth, nesting, literalDensity, malformedRate);
+        } catch (IllegalArgumentException e) {
+            usage(e.getMessage());
+        }
+        CorpusGenerator generator = new CorpusGenerator(options);
+        if (dir == null) {
+            System.out.print(generator.generate(size, 0).source());
+            return;
+        }
+
+        // ime fajla kaže da li se očekuje greška: 0007.slang, 0008-lexical.slang, 0009-syntax.slang
+        Files.createDirectories(dir);
+        int malformed = 0;
+        for (int k = 0; k < files; k++) {
+            Program p = generator.generate(size, k);
+            String suffix = p.defect() == Defect.NONE ? "" : "-" + p.defect().name().toLowerCase();
+            Files.writeString(dir.resolve(String.format("%04d%s.slang", k, suffix)), p.source());
+            if (p.defect() != Defect.NONE) malformed++;
+        }
+        System.out.printf("%d fajlova u %s, od toga %d sa greškom%n", files, dir, malformed);
+    }
+
+    private static void usage(String problem) {
+        System.err.println(problem);
+        System.err.println(USAGE);
+        System.exit(1);
+    }
+
+    // "64KB" -> 65536
+    public static long bytes(String size) {
+        String s = size.toUpperCase();
+        long unit = s.endsWith("MB") ? 1L << 20 : s.endsWith("KB") ? 1L << 10 : 1;
+        String digits = unit == 1 ? s.replace("B", "") : s.substring(0, s.length() - 2);
+        return Long.parseLong(digits) * unit;
+    }
+}
@@ -0,0 +1,54 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class BasicBlock {
+    public final int id;
+    public final List<Instr> instrs = new ArrayList<>();
+    public final List<BasicBlock> preds = new ArrayList<>();
+    public final List<BasicBlock> succs = new ArrayList<>();
+    public VectorLoop vector;   // zaglavlje petlje koja se izvršava u vektorskim trakama
+    public ParallelLoop parallel; // zaglavlje petlje čije se iteracije dele na više jezgara
+
+    BasicBlock(int id) {
+        this.id = id;
+    }
+
+    public Instr terminator() {
+        if (instrs.isEmpty()) return null;
+        Instr last = instrs.get(instrs.size() - 1);
+        return last.op.isTerminator() ? last : null;
+    }
+
+    public int phiCount() {
+        int n = 0;
+        while (n < instrs.size() && instrs.get(n).isPhi()) n++;
+        return n;
+    }
+
+    public List<Instr> phis() {
+        return instrs.subList(0, phiCount());
+    }
+
+    public void append(Instr instr) {
+        instr.block = this;
+        instrs.add(instr);
+    }
+
+    public void insertPhi(Instr phi) {
+        phi.block = this;
+        instrs.add(phiCount(), phi);
+    }
+
+    public void insertBeforeTerminator(Instr instr) {
+        instr.block = this;
+        int at = terminator() == null ? instrs.size() : instrs.size() - 1;
+        instrs.add(at, instr);
+    }
+
+    @Override
+    public String toString() {
+        return "b" + id;
+    }
+}
@@ -0,0 +1,109 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Cooper, Harvey, Kennedy: "A Simple, Fast Dominance Algorithm"
+public final class DominatorTree {
+
+    private final List<BasicBlock> rpo = new ArrayList<>();
+    private final Map<BasicBlock, Integer> order = new HashMap<>();
+    private final Map<BasicBlock, BasicBlock> idom = new HashMap<>();
+    private final Map<BasicBlock, List<BasicBlock>> children = new HashMap<>();
+
+    public DominatorTree(IrFunction f) {
+        postorder(f.entry(), new HashSet<>());
+        Collections.reverse(rpo);
+        for (int i = 0; i < rpo.size(); i++) order.put(rpo.get(i), i);
+
+        BasicBlock entry = f.entry();
+        idom.put(entry, entry);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock b : rpo) {
+                if (b == entry) continue;
+                BasicBlock newIdom = null;
+                for (BasicBlock p : b.preds) {
+                    if (!idom.containsKey(p)) continue;
+                    newIdom = newIdom == null ? p : intersect(p, newIdom);
+                }
+                if (newIdom != null && idom.get(b) != newIdom) {
+                    idom.put(b, newIdom);
+                    changed = true;
+                }
+            }
+        }
+
+        for (BasicBlock b : rpo) children.put(b, new ArrayList<>());
+        for (BasicBlock b : rpo) {
+            if (b != entry) children.get(idom.get(b)).add(b);
+        }
+    }
+
+    private void postorder(BasicBlock b, Set<BasicBlock> visited) {
+        // iterativno, da duboko ugnježdeni programi ne preliju Java stek
+        List<BasicBlock> stack = new ArrayList<>();
+        List<Integer> next = new ArrayList<>();
+        visited.add(b);
+        stack.add(b);
+        next.add(0);
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            BasicBlock cur = stack.get(top);
+            int i = next.get(top);
+            if (i < cur.succs.size()) {
+                next.set(top, i + 1);
+                BasicBlock s = cur.succs.get(i);
+                if (visited.add(s)) {
+                    stack.add(s);
+                    next.add(0);
+                }
+            } else {
+                rpo.add(cur);
+                stack.remove(top);
+                next.remove(top);
+            }
+        }
+    }
+
+    private BasicBlock intersect(BasicBlock a, BasicBlock b) {
+        while (a != b) {
+            while (order.get(a) > order.get(b)) a = idom.get(a);
+            while (order.get(b) > order.get(a)) b = idom.get(b);
+        }
+        return a;
+    }
+
+    public List<BasicBlock> reversePostorder() {
+        return rpo;
+    }
+
+    public BasicBlock idom(BasicBlock b) {
+        BasicBlock d = idom.get(b);
+        return d == b ? null : d;
+    }
+
+    public List<BasicBlock> children(BasicBlock b) {
+        return children.getOrDefault(b, List.of());
+    }
+
+    public boolean isReachable(BasicBlock b) {
+        return order.containsKey(b);
+    }
+
+    public boolean dominates(BasicBlock a, BasicBlock b) {
+        if (!isReachable(a) || !isReachable(b)) return false;
+        while (true) {
+            if (a == b) return true;
+            BasicBlock up = idom(b);
+            if (up == null) return false;
+            b = up;
+        }
+    }
+}
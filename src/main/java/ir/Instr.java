@@ -0,0 +1,88 @@
+package ir;
+
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Instr {
+    public final int id;
+    public Op op;
+    public final Kind type;     // statički tip vrednosti, null za instrukcije bez vrednosti
+    public final List<Instr> operands;
+    public Object constant;     // vrednost za CONST, ime za globalne i pozive, indeks za PARAM, tip za READ i NEW_ARRAY, grane za PARALLEL
+    public BasicBlock block;
+    public final int line;
+    public boolean checkFree;   // ALOAD/ASTORE čiji je indeks dokazano unutar granica niza
+    public boolean local;       // NEW_ARRAY čiji niz ne napušta okvir i nema drugo ime
+
+    Instr(int id, Op op, Kind type, List<Instr> operands, Object constant, int line) {
+        this.id = id;
+        this.op = op;
+        this.type = type;
+        this.operands = new ArrayList<>(operands);
+        this.constant = constant;
+        this.line = line;
+    }
+
+    public Instr operand(int i) {
+        return operands.get(i);
+    }
+
+    public boolean hasValue() {
+        return switch (op) {
+            case STORE_GLOBAL, ASTORE, PRINT, JUMP, BRANCH, RETURN -> false;
+            default -> true;
+        };
+    }
+
+    public boolean hasSideEffects() {
+        return switch (op) {
+            case STORE_GLOBAL, ASTORE, CALL, PARALLEL, PRINT, READ, JUMP, BRANCH, RETURN -> true;
+            default -> false;
+        };
+    }
+
+    // deljenje celim brojem, pristup nizu bez dokazanih granica i šifrovanje (oblik podatka,
+    // memorija) mogu da bace grešku u toku izvršavanja
+    public boolean mayTrap() {
+        return switch (op) {
+            case DIV, MOD -> !(operand(1).isConst() && isNonZero(operand(1).constant));
+            case ALOAD, ASTORE -> !checkFree;
+            case ENCRYPT, DECRYPT -> true;
+            default -> false;
+        };
+    }
+
+    // bez bočnih efekata i bez čitanja memorije, pa je bezbedno deliti ili brisati
+    public boolean isPure() {
+        return switch (op) {
+            case CONST, COPY, ADD, SUB, MUL, DIV, MOD, LT, LE, GT, GE, EQ, NEQ, NEG, NOT, TO_REAL -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isConst() {
+        return op == Op.CONST;
+    }
+
+    public boolean isPhi() {
+        return op == Op.PHI;
+    }
+
+    public void makeConst(Object value) {
+        op = Op.CONST;
+        operands.clear();
+        constant = value;
+    }
+
+    private static boolean isNonZero(Object value) {
+        if (value instanceof Integer i) return i != 0;
+        return value instanceof Double;
+    }
+
+    @Override
+    public String toString() {
+        return "v" + id;
+    }
+}
@@ -0,0 +1,547 @@
+package ir;
+
+import lexer.SymbolTable;
+import lexer.token.Token;
+import lexer.token.TokenType;
+import parser.Ast;
+import parser.Ast.Type.Kind;
+import parser.Expr;
+import parser.Stmt;
+import parser.Symbol;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Gradi SSA graf toka kontrole direktno iz tipizovanog AST-a (Braun i dr., "Simple and Efficient
+// Construction of SSA Form"). Promenljive su simboli koje je razrešio semantic.TypeChecker.
+public final class IrBuilder implements Expr.Visitor<Instr>, Stmt.Visitor<Void> {
+
+    private IrModule module;
+    private IrFunction function;
+    private BasicBlock current;     // null kada je ostatak koda nedostižan
+
+    private Ast.FuncDef source;
+    private final Map<BasicBlock, Map<Symbol, Instr>> currentDef = new HashMap<>();
+    private final Map<BasicBlock, Map<Symbol, Instr>> incompletePhis = new HashMap<>();
+    private final Set<BasicBlock> sealed = new HashSet<>();
+
+    public IrModule build(Ast.Program program) {
+        module = new IrModule();
+
+        List<Stmt.VarDecl> globals = new ArrayList<>();
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopVarDecl g) {
+                globals.add(g.decl);
+                module.globals.put(g.decl.name.lexeme, g.decl.varType.kind);
+            }
+        }
+
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.FuncDef f) buildFunction(f);
+        }
+
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopStmt ts) buildMain(globals, ts.stmt);
+        }
+        return module;
+    }
+
+    private void buildFunction(Ast.FuncDef f) {
+        List<String> paramNames = new ArrayList<>();
+        List<Kind> paramTypes = new ArrayList<>();
+        for (Ast.Param p : f.params) {
+            paramNames.add(p.name.lexeme);
+            paramTypes.add(p.type.kind);
+        }
+
+        begin(new IrFunction(f.name.lexeme, paramNames, paramTypes, f.returnType.kind));
+        source = f;
+        for (int i = 0; i < f.params.size(); i++) {
+            Ast.Param p = f.params.get(i);
+            writeVariable(p.symbol, current, emit(Op.PARAM, p.type.kind, List.of(), i, p.name.line));
+        }
+
+        for (Stmt s : f.body) {
+            if (current == null) break;
+            s.accept(this);
+        }
+        if (current != null) {
+            Instr def = constant(defaultValue(function.returnType), function.returnType, f.name.line);
+            emit(Op.RETURN, null, List.of(def), null, f.name.line);
+        }
+        end();
+    }
+
+    private void buildMain(List<Stmt.VarDecl> globals, Stmt body) {
+        begin(new IrFunction(IrModule.MAIN, List.of(), List.of(), Kind.VOID));
+
+        for (Stmt.VarDecl g : globals) {
+            Instr value = coerce(initialValue(g), g.varType.kind, g.name.line);
+            emit(Op.STORE_GLOBAL, null, List.of(value), g.name.lexeme, g.name.line);
+        }
+        body.accept(this);
+        if (current != null) emit(Op.RETURN, null, List.of(), null, 0);
+        end();
+    }
+
+    // grana bloka paralelno postaje zasebna funkcija: ulazi su parametri, a izlazi se vraćaju u nizu
+    private void buildBranch(String name, Stmt branch, List<Symbol> inputs, List<Symbol> outputs, int line) {
+        List<String> paramNames = new ArrayList<>();
+        List<Kind> paramTypes = new ArrayList<>();
+        for (Symbol v : inputs) {
+            paramNames.add(v.name);
+            paramTypes.add(v.type.kind);
+        }
+
+        begin(new IrFunction(name, paramNames, paramTypes, outputs.isEmpty() ? Kind.VOID : Kind.ARRAY));
+        for (int k = 0; k < inputs.size(); k++) {
+            writeVariable(inputs.get(k), current, emit(Op.PARAM, inputs.get(k).type.kind, List.of(), k, line));
+        }
+        branch.accept(this);
+        if (outputs.isEmpty()) {
+            emit(Op.RETURN, null, List.of(), null, line);
+        } else {
+            Instr size = constant(outputs.size(), Kind.INT, line);
+            Instr results = emit(Op.NEW_ARRAY, Kind.ARRAY, List.of(size), Kind.VOID, line);
+            for (int j = 0; j < outputs.size(); j++) {
+                Instr value = readVariable(outputs.get(j), current);
+                emit(Op.ASTORE, null, List.of(results, constant(j, Kind.INT, line), value), null, line);
+            }
+            emit(Op.RETURN, null, List.of(results), null, line);
+        }
+        end();
+    }
+
+    private void begin(IrFunction f) {
+        function = f;
+        current = f.newBlock();
+        sealed.add(current);
+    }
+
+    private void end() {
+        module.addFunction(function);
+        currentDef.clear();
+        incompletePhis.clear();
+        sealed.clear();
+        function = null;
+        source = null;
+        current = null;
+    }
+
+    // ---------- SSA promenljive ----------
+
+    private void writeVariable(Symbol v, BasicBlock b, Instr value) {
+        currentDef.computeIfAbsent(b, k -> new HashMap<>()).put(v, value);
+    }
+
+    private Instr readVariable(Symbol v, BasicBlock b) {
+        Map<Symbol, Instr> defs = currentDef.get(b);
+        if (defs != null && defs.containsKey(v)) return defs.get(v);
+        return readVariableRecursive(v, b);
+    }
+
+    private Instr readVariableRecursive(Symbol v, BasicBlock b) {
+        Instr value;
+        if (!sealed.contains(b)) {
+            value = newPhi(b, v.type.kind, List.of());
+            incompletePhis.computeIfAbsent(b, k -> new LinkedHashMap<>()).put(v, value);
+        } else if (b.preds.size() == 1) {
+            value = readVariable(v, b.preds.get(0));
+        } else if (b.preds.isEmpty()) {
+            value = function.newInstr(Op.CONST, v.type.kind, List.of(), defaultValue(v.type.kind), 0);
+            b.insertPhi(value);
+        } else {
+            value = newPhi(b, v.type.kind, List.of());
+            writeVariable(v, b, value);
+            addPhiOperands(v, value);
+        }
+        writeVariable(v, b, value);
+        return value;
+    }
+
+    private void addPhiOperands(Symbol v, Instr phi) {
+        for (BasicBlock pred : phi.block.preds) {
+            phi.operands.add(readVariable(v, pred));
+        }
+    }
+
+    private void seal(BasicBlock b) {
+        Map<Symbol, Instr> pending = incompletePhis.remove(b);
+        if (pending != null) {
+            for (Map.Entry<Symbol, Instr> e : pending.entrySet()) {
+                addPhiOperands(e.getKey(), e.getValue());
+            }
+        }
+        sealed.add(b);
+    }
+
+    private Instr newPhi(BasicBlock b, Kind type, List<Instr> operands) {
+        Instr phi = function.newInstr(Op.PHI, type, operands, null, 0);
+        b.insertPhi(phi);
+        return phi;
+    }
+
+    // ---------- emitovanje ----------
+
+    private Instr emit(Op op, Kind type, List<Instr> operands, Object constant, int line) {
+        Instr i = function.newInstr(op, type, operands, constant, line);
+        current.append(i);
+        return i;
+    }
+
+    private Instr constant(Object value, Kind type, int line) {
+        return emit(Op.CONST, type, List.of(), value, line);
+    }
+
+    // jedina implicitna konverzija u jeziku: broj -> realan pri dodeli, prosleđivanju i vraćanju
+    private Instr coerce(Instr value, Kind target, int line) {
+        if (target == Kind.REAL && value.type == Kind.INT) {
+            return emit(Op.TO_REAL, Kind.REAL, List.of(value), null, line);
+        }
+        return value;
+    }
+
+    private void jump(BasicBlock target) {
+        emit(Op.JUMP, null, List.of(), null, 0);
+        function.addEdge(current, target);
+    }
+
+    private void branch(Instr cond, BasicBlock ifTrue, BasicBlock ifFalse) {
+        emit(Op.BRANCH, null, List.of(cond), null, cond.line);
+        function.addEdge(current, ifTrue);
+        function.addEdge(current, ifFalse);
+    }
+
+    private Instr initialValue(Stmt.VarDecl decl) {
+        if (decl.initializer != null) return decl.initializer.accept(this);
+
+        Ast.Type type = decl.varType;
+        if (type.isArray() && !decl.dims.isEmpty() && !decl.dims.contains(null)) {
+            List<Instr> dims = new ArrayList<>();
+            for (Expr d : decl.dims) dims.add(d.accept(this));
+            return emit(Op.NEW_ARRAY, Kind.ARRAY, dims, type.element, decl.name.line);
+        }
+        return constant(defaultValue(type.kind), type.kind, decl.name.line);
+    }
+
+    private static Object defaultValue(Kind type) {
+        return switch (type) {
+            case INT -> 0;
+            case REAL -> 0.0;
+            case CHAR -> '\0';
+            case STRING -> "";
+            case BOOL -> false;
+            default -> null;
+        };
+    }
+
+    private Instr readName(Symbol symbol, Token name) {
+        if (symbol.kind != Symbol.Kind.GLOBAL) return readVariable(symbol, current);
+        return emit(Op.LOAD_GLOBAL, symbol.type.kind, List.of(), name.lexeme, name.line);
+    }
+
+    private void writeName(Symbol symbol, Token name, Instr value) {
+        if (symbol.kind != Symbol.Kind.GLOBAL) writeVariable(symbol, current, value);
+        else emit(Op.STORE_GLOBAL, null, List.of(value), name.lexeme, name.line);
+    }
+
+    private static int lineOf(Expr e) {
+        if (e instanceof Expr.Literal l) return l.token.line;
+        if (e instanceof Expr.Ident i) return i.name.line;
+        if (e instanceof Expr.Index i) return i.name.line;
+        if (e instanceof Expr.Call c) return c.callee.line;
+        if (e instanceof Expr.Unary u) return u.operator.line;
+        if (e instanceof Expr.Binary b) return b.op.line;
+        if (e instanceof Expr.Grouping g) return lineOf(g.inner);
+        return 0;
+    }
+
+    // ---------- izrazi ----------
+
+    @Override
+    public Instr visitLiteral(Expr.Literal e) {
+        return constant(e.value, e.type.kind, e.token.line);
+    }
+
+    @Override
+    public Instr visitIdent(Expr.Ident e) {
+        return readName(e.symbol, e.name);
+    }
+
+    @Override
+    public Instr visitIndex(Expr.Index e) {
+        List<Instr> operands = new ArrayList<>();
+        operands.add(readName(e.symbol, e.name));
+        for (Expr idx : e.indices) operands.add(idx.accept(this));
+        return emit(Op.ALOAD, e.type.kind, operands, null, e.name.line);
+    }
+
+    @Override
+    public Instr visitGrouping(Expr.Grouping e) {
+        return e.inner.accept(this);
+    }
+
+    @Override
+    public Instr visitCall(Expr.Call e) {
+        String callee = e.callee.lexeme;
+
+        if (e.callee.symbol == SymbolTable.NAPISI) {
+            emit(Op.PRINT, null, List.of(e.args.get(0).accept(this)), null, e.callee.line);
+            return null;
+        }
+
+        if (e.callee.symbol == SymbolTable.UPISI) {
+            Expr.Ident target = (Expr.Ident) e.args.get(0);
+            Kind type = target.symbol.type.kind;
+            Instr value = emit(Op.READ, type, List.of(), type, e.callee.line);
+            writeName(target.symbol, target.name, value);
+            return null;
+        }
+
+        if (e.callee.symbol == SymbolTable.ENKRIPTUJ || e.callee.symbol == SymbolTable.DEKRIPTUJ) {
+            Op op = e.callee.symbol == SymbolTable.ENKRIPTUJ ? Op.ENCRYPT : Op.DECRYPT;
+            List<Instr> args = List.of(e.args.get(0).accept(this), e.args.get(1).accept(this));
+            return emit(op, e.type.kind, args, null, e.callee.line);
+        }
+
+        List<Ast.Param> params = e.symbol.function.params;
+        List<Instr> args = new ArrayList<>();
+        for (int k = 0; k < e.args.size(); k++) {
+            args.add(coerce(e.args.get(k).accept(this), params.get(k).type.kind, e.callee.line));
+        }
+        return emit(Op.CALL, e.type.kind, args, callee, e.callee.line);
+    }
+
+    @Override
+    public Instr visitUnary(Expr.Unary e) {
+        Instr right = e.right.accept(this);
+        Op op = e.operator.type == TokenType.SUBTRACT ? Op.NEG : Op.NOT;
+        return emit(op, e.type.kind, List.of(right), null, e.operator.line);
+    }
+
+    @Override
+    public Instr visitBinary(Expr.Binary e) {
+        switch (e.op.type) {
+            case I -> { return shortCircuit(e, false); }
+            case ILI -> { return shortCircuit(e, true); }
+            default -> { }
+        }
+
+        Instr left = e.left.accept(this);
+        Instr right = e.right.accept(this);
+        Op op = switch (e.op.type) {
+            case ADD -> Op.ADD;
+            case SUBTRACT -> Op.SUB;
+            case MULTIPLY -> Op.MUL;
+            case DIVIDE -> Op.DIV;
+            case PERCENT -> Op.MOD;
+            case LT -> Op.LT;
+            case LE -> Op.LE;
+            case GT -> Op.GT;
+            case GE -> Op.GE;
+            case EQ -> Op.EQ;
+            case NEQ -> Op.NEQ;
+            default -> throw new IllegalStateException("Nepoznat operator: " + e.op.lexeme);
+        };
+        return emit(op, e.type.kind, List.of(left, right), null, e.op.line);
+    }
+
+    // "i" / "ili" sa kratkim spajanjem: desna strana se računa samo kad je potrebno
+    private Instr shortCircuit(Expr.Binary e, boolean isOr) {
+        Instr left = e.left.accept(this);
+        BasicBlock leftEnd = current;
+
+        BasicBlock rhs = function.newBlock();
+        BasicBlock join = function.newBlock();
+        if (isOr) branch(left, join, rhs);
+        else branch(left, rhs, join);
+        seal(rhs);
+
+        current = rhs;
+        Instr right = e.right.accept(this);
+        BasicBlock rightEnd = current;
+        jump(join);
+        seal(join);
+
+        current = join;
+        List<Instr> operands = new ArrayList<>();
+        for (BasicBlock pred : join.preds) {
+            if (pred == leftEnd) {
+                Instr c = function.newInstr(Op.CONST, Kind.BOOL, List.of(), isOr, e.op.line);
+                leftEnd.insertBeforeTerminator(c);
+                operands.add(c);
+            } else if (pred == rightEnd) {
+                operands.add(right);
+            }
+        }
+        return newPhi(join, Kind.BOOL, operands);
+    }
+
+    // ---------- naredbe ----------
+
+    @Override
+    public Void visitVarDecl(Stmt.VarDecl s) {
+        Instr value = initialValue(s);
+        if (s.initializer instanceof Expr.Ident) value = emit(Op.COPY, value.type, List.of(value), null, s.name.line);
+        writeVariable(s.symbol, current, coerce(value, s.varType.kind, s.name.line));
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Stmt.Assign s) {
+        if (s.target instanceof Expr.Index idx) {
+            List<Instr> operands = new ArrayList<>();
+            operands.add(readName(idx.symbol, idx.name));
+            for (Expr i : idx.indices) operands.add(i.accept(this));
+            operands.add(coerce(s.value.accept(this), idx.type.kind, idx.name.line));
+            emit(Op.ASTORE, null, operands, null, idx.name.line);
+            return null;
+        }
+
+        Expr.Ident target = (Expr.Ident) s.target;
+        Token name = target.name;
+        Instr value = s.value.accept(this);
+        if (s.value instanceof Expr.Ident) value = emit(Op.COPY, value.type, List.of(value), null, name.line);
+        writeName(target.symbol, name, coerce(value, target.type.kind, name.line));
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Stmt.If s) {
+        Instr cond = s.condition.accept(this);
+
+        BasicBlock thenBlock = function.newBlock();
+        BasicBlock elseBlock = s.elseBranch != null ? function.newBlock() : null;
+        BasicBlock join = elseBlock == null ? function.newBlock() : null;
+
+        branch(cond, thenBlock, elseBlock != null ? elseBlock : join);
+        seal(thenBlock);
+
+        current = thenBlock;
+        s.thenBranch.accept(this);
+        BasicBlock thenEnd = current;
+
+        if (elseBlock == null) {
+            if (thenEnd != null) jump(join);
+            seal(join);
+            current = join;
+            return null;
+        }
+
+        seal(elseBlock);
+        current = elseBlock;
+        s.elseBranch.accept(this);
+        BasicBlock elseEnd = current;
+
+        if (thenEnd == null && elseEnd == null) {
+            current = null;
+            return null;
+        }
+
+        join = function.newBlock();
+        if (thenEnd != null) {
+            current = thenEnd;
+            jump(join);
+        }
+        if (elseEnd != null) {
+            current = elseEnd;
+            jump(join);
+        }
+        seal(join);
+        current = join;
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Stmt.While s) {
+        BasicBlock header = function.newBlock();
+        jump(header);
+
+        current = header;
+        Instr cond = s.condition.accept(this);
+
+        BasicBlock body = function.newBlock();
+        BasicBlock exit = function.newBlock();
+        branch(cond, body, exit);
+        seal(body);
+
+        current = body;
+        s.body.accept(this);
+        if (current != null) jump(header);
+
+        seal(header);
+        seal(exit);
+        current = exit;
+        return null;
+    }
+
+    @Override
+    public Void visitReturn(Stmt.Return s) {
+        Instr value = coerce(s.value.accept(this), source.returnType.kind, lineOf(s.value));
+        emit(Op.RETURN, null, List.of(value), null, lineOf(s.value));
+        current = null;
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(Stmt.Block s) {
+        for (Stmt st : s.statements) {
+            if (current == null) break;
+            st.accept(this);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitParallel(Stmt.Parallel s) {
+        if (s.branches.isEmpty()) return null;
+        int line = s.keyword.line;
+        String prefix = function.name + ".paralelno";
+        int n = 1;
+        while (module.function(prefix + n + ".0") != null) n++;
+
+        List<String> names = new ArrayList<>();
+        List<Instr> args = new ArrayList<>();
+        for (int k = 0; k < s.branches.size(); k++) {
+            String name = prefix + n + "." + k;
+            IrBuilder branch = new IrBuilder();
+            branch.module = module;
+            branch.buildBranch(name, s.branches.get(k), s.inputs.get(k), s.outputs.get(k), line);
+            names.add(name);
+            for (Symbol v : s.inputs.get(k)) args.add(readVariable(v, current));
+        }
+
+        // rezultat je niz nizova: za svaku granu vrednosti njenih izlaza
+        Instr results = emit(Op.PARALLEL, Kind.ARRAY, args, List.copyOf(names), line);
+        for (int k = 0; k < s.branches.size(); k++) {
+            List<Symbol> outputs = s.outputs.get(k);
+            for (int j = 0; j < outputs.size(); j++) {
+                Symbol v = outputs.get(j);
+                List<Instr> index = List.of(results, constant(k, Kind.INT, line), constant(j, Kind.INT, line));
+                writeVariable(v, current, emit(Op.ALOAD, v.type.kind, index, null, line));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitExprStmt(Stmt.ExpressionStmt s) {
+        s.expression.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitEmpty(Stmt.Empty s) {
+        return null;
+    }
+
+    @Override
+    public Void visitFunDecl(Stmt.FunDecl s) {
+        throw new IllegalStateException("FunDecl se ne pojavljuje u Ast.Program");
+    }
+}
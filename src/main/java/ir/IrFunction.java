@@ -0,0 +1,141 @@
+package ir;
+
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class IrFunction {
+    public final String name;
+    public final List<String> paramNames;
+    public final List<Kind> paramTypes;
+    public final Kind returnType;
+    public final List<BasicBlock> blocks = new ArrayList<>();
+
+    private int nextInstrId = 0;
+    private int nextBlockId = 0;
+
+    public IrFunction(String name, List<String> paramNames, List<Kind> paramTypes, Kind returnType) {
+        this.name = name;
+        this.paramNames = List.copyOf(paramNames);
+        this.paramTypes = List.copyOf(paramTypes);
+        this.returnType = returnType;
+    }
+
+    public BasicBlock entry() {
+        return blocks.get(0);
+    }
+
+    public BasicBlock newBlock() {
+        BasicBlock b = new BasicBlock(nextBlockId++);
+        blocks.add(b);
+        return b;
+    }
+
+    public Instr newInstr(Op op, Kind type, List<Instr> operands, Object constant, int line) {
+        return new Instr(nextInstrId++, op, type, operands, constant, line);
+    }
+
+    public int instrIdBound() {
+        return nextInstrId;
+    }
+
+    public int blockIdBound() {
+        return nextBlockId;
+    }
+
+    public int instrCount() {
+        int n = 0;
+        for (BasicBlock b : blocks) n += b.instrs.size();
+        return n;
+    }
+
+    public void addEdge(BasicBlock from, BasicBlock to) {
+        from.succs.add(to);
+        to.preds.add(from);
+    }
+
+    // uklanja granu i odgovarajuće operande phi instrukcija u odredištu
+    public void removeEdge(BasicBlock from, BasicBlock to) {
+        int idx = to.preds.indexOf(from);
+        if (idx < 0) return;
+        to.preds.remove(idx);
+        for (Instr phi : to.phis()) phi.operands.remove(idx);
+        from.succs.remove(to);
+    }
+
+    public boolean removeUnreachableBlocks() {
+        Set<BasicBlock> reachable = new HashSet<>();
+        Deque<BasicBlock> work = new ArrayDeque<>();
+        work.push(entry());
+        reachable.add(entry());
+        while (!work.isEmpty()) {
+            for (BasicBlock s : work.pop().succs) {
+                if (reachable.add(s)) work.push(s);
+            }
+        }
+        if (reachable.size() == blocks.size()) return false;
+
+        for (BasicBlock b : blocks) {
+            if (reachable.contains(b)) continue;
+            for (BasicBlock s : new ArrayList<>(b.succs)) removeEdge(b, s);
+        }
+        blocks.removeIf(b -> !reachable.contains(b));
+        return true;
+    }
+
+    // spaja blok sa jedinim naslednikom kada je on njegov jedini prethodnik
+    public boolean mergeStraightLineBlocks() {
+        boolean changed = false;
+        for (int k = 0; k < blocks.size(); k++) {
+            BasicBlock b = blocks.get(k);
+            while (true) {
+                Instr term = b.terminator();
+                if (term == null || term.op != Op.JUMP) break;
+                BasicBlock s = b.succs.get(0);
+                if (s == b || s == entry() || s.preds.size() != 1) break;
+
+                Map<Instr, Instr> phis = new HashMap<>();
+                for (Instr phi : s.phis()) phis.put(phi, phi.operand(0));
+                replaceUses(phis);
+                s.instrs.removeAll(phis.keySet());
+
+                b.instrs.remove(term);
+                for (Instr i : s.instrs) b.append(i);
+                b.succs.clear();
+                for (BasicBlock t : s.succs) {
+                    b.succs.add(t);
+                    t.preds.set(t.preds.indexOf(s), b);
+                }
+                blocks.remove(s);
+                k = blocks.indexOf(b);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    // zamenjuje sve upotrebe ključeva mape njihovim (tranzitivnim) vrednostima
+    public void replaceUses(Map<Instr, Instr> replacements) {
+        if (replacements.isEmpty()) return;
+        for (BasicBlock b : blocks) {
+            for (Instr i : b.instrs) {
+                for (int k = 0; k < i.operands.size(); k++) {
+                    Instr target = i.operands.get(k);
+                    Instr r = replacements.get(target);
+                    while (r != null) {
+                        target = r;
+                        r = replacements.get(target);
+                    }
+                    i.operands.set(k, target);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package ir;
+
+import parser.Ast.Type.Kind;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public final class IrModule {
+    public static final String MAIN = "zapocni_igru";
+
+    public final Map<String, Kind> globals = new LinkedHashMap<>();   // ime -> tip
+    private final Map<String, IrFunction> functions = new LinkedHashMap<>();
+
+    public void addFunction(IrFunction f) {
+        functions.put(f.name, f);
+    }
+
+    public IrFunction function(String name) {
+        return functions.get(name);
+    }
+
+    public IrFunction main() {
+        return functions.get(MAIN);
+    }
+
+    public Collection<IrFunction> functions() {
+        return functions.values();
+    }
+}
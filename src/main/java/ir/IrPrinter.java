@@ -0,0 +1,107 @@
+package ir;
+
+import parser.Ast.Type.Kind;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public final class IrPrinter {
+
+    private IrPrinter() {}
+
+    public static String print(IrModule module) {
+        StringBuilder sb = new StringBuilder();
+        for (var g : module.globals.entrySet()) {
+            sb.append("global @").append(g.getKey()).append(" : ").append(g.getValue().slangName).append("\n");
+        }
+        if (!module.globals.isEmpty()) sb.append("\n");
+
+        boolean first = true;
+        for (IrFunction f : module.functions()) {
+            if (!first) sb.append("\n");
+            sb.append(print(f));
+            first = false;
+        }
+        return sb.toString();
+    }
+
+    public static String print(IrFunction f) {
+        StringBuilder sb = new StringBuilder();
+        StringJoiner params = new StringJoiner(", ", "(", ")");
+        for (int k = 0; k < f.paramNames.size(); k++) {
+            params.add(f.paramNames.get(k) + ": " + f.paramTypes.get(k).slangName);
+        }
+        sb.append("func ").append(f.name).append(params)
+                .append(" : ").append(f.returnType.slangName).append(" {\n");
+
+        for (BasicBlock b : f.blocks) {
+            sb.append(b).append(":");
+            if (!b.preds.isEmpty()) {
+                StringJoiner preds = new StringJoiner(", ", "    ; preds ", "");
+                for (BasicBlock p : b.preds) preds.add(p.toString());
+                sb.append(preds);
+            }
+            if (b.vector != null) sb.append("    ; vector ").append(b.vector.element.slangName);
+            if (b.parallel != null) sb.append("    ; parallel");
+            sb.append("\n");
+            for (Instr i : b.instrs) sb.append("  ").append(format(i)).append("\n");
+        }
+        sb.append("}\n");
+        return sb.toString();
+    }
+
+    public static String format(Instr i) {
+        StringBuilder sb = new StringBuilder();
+        if (i.hasValue()) {
+            sb.append(i);
+            if (i.type != null) sb.append(":").append(i.type.slangName);
+            sb.append(" = ");
+        }
+        sb.append(i.op.mnemonic());
+        if (i.checkFree) sb.append(".nocheck");
+        if (i.local) sb.append(".local");
+
+        switch (i.op) {
+            case CONST -> sb.append(" ").append(literal(i.constant));
+            case PARAM -> sb.append(" ").append(i.constant);
+            case READ -> sb.append(" ").append(((Kind) i.constant).slangName);
+            case NEW_ARRAY -> sb.append(" ").append(((Kind) i.constant).slangName).append(operandList(i, ", ", ""));
+            case LOAD_GLOBAL -> sb.append(" @").append(i.constant);
+            case STORE_GLOBAL -> sb.append(" @").append(i.constant).append(", ").append(i.operand(0));
+            case CALL -> sb.append(" ").append(i.constant).append(operandList(i, "(", ")"));
+            case PARALLEL -> {
+                StringJoiner sj = new StringJoiner(" | ", " ", "");
+                for (Object branch : (List<?>) i.constant) sj.add(String.valueOf(branch));
+                sb.append(sj).append(operandList(i, "(", ")"));
+            }
+            case PHI -> {
+                StringJoiner sj = new StringJoiner(", ", " ", "");
+                for (int k = 0; k < i.operands.size(); k++) {
+                    BasicBlock from = k < i.block.preds.size() ? i.block.preds.get(k) : null;
+                    sj.add("[" + from + ": " + i.operand(k) + "]");
+                }
+                sb.append(sj);
+            }
+            case JUMP -> sb.append(" ").append(i.block.succs.get(0));
+            case BRANCH -> sb.append(" ").append(i.operand(0))
+                    .append(", ").append(i.block.succs.get(0))
+                    .append(", ").append(i.block.succs.get(1));
+            default -> {
+                if (!i.operands.isEmpty()) sb.append(operandList(i, " ", ""));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String operandList(Instr i, String open, String close) {
+        StringJoiner sj = new StringJoiner(", ", open, close);
+        for (Instr o : i.operands) sj.add(o.toString());
+        return sj.toString();
+    }
+
+    private static String literal(Object v) {
+        if (v instanceof String s) return "\"" + s.replace("\n", "\\n") + "\"";
+        if (v instanceof Character c) return c == '\0' ? "'\\0'" : "'" + c + "'";
+        return String.valueOf(v);
+    }
+}
@@ -0,0 +1,60 @@
+package ir;
+
+import java.util.HashSet;
+import java.util.Set;
+
+// provera strukture IR-a posle svakog prolaza u režimu za otklanjanje grešaka
+public final class IrVerifier {
+
+    private IrVerifier() {}
+
+    public static void verify(IrFunction f) {
+        Set<Instr> defined = new HashSet<>();
+        for (BasicBlock b : f.blocks) defined.addAll(b.instrs);
+
+        DominatorTree dom = new DominatorTree(f);
+
+        for (BasicBlock b : f.blocks) {
+            Instr term = b.terminator();
+            if (term == null) fail(f, b + " nema terminator");
+
+            int expectedSuccs = switch (term.op) {
+                case JUMP -> 1;
+                case BRANCH -> 2;
+                default -> 0;
+            };
+            if (b.succs.size() != expectedSuccs) fail(f, b + " ima " + b.succs.size() + " naslednika");
+
+            for (BasicBlock s : b.succs) {
+                if (!s.preds.contains(b)) fail(f, "grana " + b + " -> " + s + " nije upisana u prethodnike");
+            }
+
+            boolean phisDone = false;
+            for (int k = 0; k < b.instrs.size(); k++) {
+                Instr i = b.instrs.get(k);
+                if (i.block != b) fail(f, i + " ima pogrešan blok");
+                if (i.op.isTerminator() && k != b.instrs.size() - 1) fail(f, i + " terminator usred bloka " + b);
+                if (i.isPhi()) {
+                    if (phisDone) fail(f, i + " phi posle obične instrukcije u " + b);
+                    if (i.operands.size() != b.preds.size()) fail(f, i + " broj operanada ne odgovara prethodnicima");
+                } else {
+                    phisDone = true;
+                }
+
+                for (int op = 0; op < i.operands.size(); op++) {
+                    Instr o = i.operands.get(op);
+                    if (!defined.contains(o)) fail(f, i + " koristi uklonjenu vrednost " + o);
+                    BasicBlock useBlock = i.isPhi() ? b.preds.get(op) : b;
+                    if (!dom.dominates(o.block, useBlock)) fail(f, o + " ne dominira upotrebom u " + i);
+                    if (o.block == b && !i.isPhi() && b.instrs.indexOf(o) > k) {
+                        fail(f, o + " je definisan posle upotrebe u " + i);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void fail(IrFunction f, String msg) {
+        throw new IllegalStateException("IR > neispravna funkcija " + f.name + ": " + msg);
+    }
+}
@@ -0,0 +1,93 @@
+package ir;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+// prirodna petlja: zaglavlje i svi blokovi iz kojih se bez prolaska kroz zaglavlje stiže do povratne grane
+public final class Loop {
+    public final BasicBlock header;
+    public final Set<BasicBlock> blocks = new LinkedHashSet<>();
+    public final List<BasicBlock> latches = new ArrayList<>();
+    public Loop parent;
+    public int depth = 1;
+
+    Loop(BasicBlock header) {
+        this.header = header;
+    }
+
+    public boolean contains(BasicBlock b) {
+        return blocks.contains(b);
+    }
+
+    public boolean contains(Instr i) {
+        return blocks.contains(i.block);
+    }
+
+    public boolean isInvariant(Instr i) {
+        return !contains(i);
+    }
+
+    public int line() {
+        for (int k = header.instrs.size() - 1; k >= 0; k--) {
+            if (header.instrs.get(k).line > 0) return header.instrs.get(k).line;
+        }
+        return 0;
+    }
+
+    public List<BasicBlock> outsidePreds() {
+        List<BasicBlock> result = new ArrayList<>();
+        for (BasicBlock p : header.preds) {
+            if (!contains(p)) result.add(p);
+        }
+        return result;
+    }
+
+    public BasicBlock preheader() {
+        List<BasicBlock> outside = outsidePreds();
+        if (outside.size() != 1) return null;
+        BasicBlock p = outside.get(0);
+        return p.succs.size() == 1 ? p : null;
+    }
+
+    // pravi namenski blok ispred zaglavlja ako ga petlja još nema
+    public BasicBlock ensurePreheader(IrFunction f) {
+        BasicBlock existing = preheader();
+        if (existing != null) return existing;
+
+        List<BasicBlock> outside = outsidePreds();
+        BasicBlock pre = f.newBlock();
+
+        for (Instr phi : header.phis()) {
+            List<Instr> incoming = new ArrayList<>();
+            for (int k = header.preds.size() - 1; k >= 0; k--) {
+                if (!contains(header.preds.get(k))) incoming.add(0, phi.operands.remove(k));
+            }
+            Instr merged = incoming.get(0);
+            if (outside.size() > 1) {
+                merged = f.newInstr(Op.PHI, phi.type, incoming, null, 0);
+                pre.insertPhi(merged);
+            }
+            phi.operands.add(merged);
+        }
+
+        header.preds.removeAll(outside);
+        for (BasicBlock o : outside) {
+            o.succs.set(o.succs.indexOf(header), pre);
+            pre.preds.add(o);
+        }
+        pre.append(f.newInstr(Op.JUMP, null, List.of(), null, 0));
+        pre.succs.add(header);
+        header.preds.add(pre);
+        if (parent != null) {
+            for (Loop l = parent; l != null; l = l.parent) l.blocks.add(pre);
+        }
+        return pre;
+    }
+
+    @Override
+    public String toString() {
+        return "petlja " + header;
+    }
+}
@@ -0,0 +1,68 @@
+package ir;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public final class LoopInfo {
+
+    private final List<Loop> loops = new ArrayList<>();
+
+    public LoopInfo(IrFunction f) {
+        this(f, new DominatorTree(f));
+    }
+
+    public LoopInfo(IrFunction f, DominatorTree dom) {
+        Map<BasicBlock, Loop> byHeader = new LinkedHashMap<>();
+
+        for (BasicBlock b : dom.reversePostorder()) {
+            for (BasicBlock s : b.succs) {
+                if (!dom.dominates(s, b)) continue;     // povratna grana b -> s
+                Loop loop = byHeader.computeIfAbsent(s, Loop::new);
+                loop.latches.add(b);
+                collectBody(loop, b);
+            }
+        }
+        loops.addAll(byHeader.values());
+
+        // roditelj je najmanja petlja koja sadrži zaglavlje
+        for (Loop l : loops) {
+            for (Loop candidate : loops) {
+                if (candidate == l || !candidate.contains(l.header)) continue;
+                if (l.parent == null || l.parent.blocks.size() > candidate.blocks.size()) l.parent = candidate;
+            }
+        }
+        for (Loop l : loops) {
+            for (Loop p = l.parent; p != null; p = p.parent) l.depth++;
+        }
+        // unutrašnje petlje prve
+        loops.sort(Comparator.comparingInt((Loop l) -> l.depth).reversed());
+    }
+
+    private static void collectBody(Loop loop, BasicBlock latch) {
+        loop.blocks.add(loop.header);
+        Deque<BasicBlock> work = new ArrayDeque<>();
+        if (loop.blocks.add(latch)) work.push(latch);
+        while (!work.isEmpty()) {
+            for (BasicBlock p : work.pop().preds) {
+                if (loop.blocks.add(p)) work.push(p);
+            }
+        }
+    }
+
+    public List<Loop> loops() {
+        return loops;
+    }
+
+    public Loop loopFor(BasicBlock b) {
+        Loop best = null;
+        for (Loop l : loops) {
+            if (l.contains(b) && (best == null || l.depth > best.depth)) best = l;
+        }
+        return best;
+    }
+}
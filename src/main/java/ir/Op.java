@@ -0,0 +1,36 @@
+package ir;
+
+public enum Op {
+    CONST, PARAM, PHI, COPY,
+    ADD, SUB, MUL, DIV, MOD,
+    LT, LE, GT, GE, EQ, NEQ,
+    NEG, NOT, TO_REAL,
+    LOAD_GLOBAL, STORE_GLOBAL,
+    NEW_ARRAY, ALOAD, ASTORE,
+    CALL, PARALLEL, PRINT, READ,
+    ENCRYPT, DECRYPT,
+    JUMP, BRANCH, RETURN;
+
+    public boolean isTerminator() {
+        return this == JUMP || this == BRANCH || this == RETURN;
+    }
+
+    public boolean isBinary() {
+        return switch (this) {
+            case ADD, SUB, MUL, DIV, MOD, LT, LE, GT, GE, EQ, NEQ -> true;
+            default -> false;
+        };
+    }
+
+    public boolean isUnary() {
+        return this == NEG || this == NOT || this == TO_REAL;
+    }
+
+    public boolean isCommutative() {
+        return this == ADD || this == MUL || this == EQ || this == NEQ;
+    }
+
+    public String mnemonic() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,98 @@
+package ir;
+
+import java.util.Objects;
+
+// semantika operatora nad konstantama; null znači da se izraz ne može izračunati
+public final class Ops {
+
+    private Ops() {}
+
+    public static Object binary(Op op, Object a, Object b) {
+        if (a == null || b == null) return null;
+
+        if (op == Op.EQ) return valueEquals(a, b);
+        if (op == Op.NEQ) return !valueEquals(a, b);
+
+        if (op == Op.ADD && a instanceof String sa && b instanceof String sb) return sa + sb;
+
+        if (a instanceof Character ca && b instanceof Character cb) {
+            return compare(op, Character.compare(ca, cb));
+        }
+
+        if (a instanceof Integer x && b instanceof Integer y) {
+            return switch (op) {
+                case ADD -> x + y;
+                case SUB -> x - y;
+                case MUL -> x * y;
+                case DIV -> y == 0 ? null : x / y;
+                case MOD -> y == 0 ? null : x % y;
+                default -> compare(op, Integer.compare(x, y));
+            };
+        }
+
+        if (isNumber(a) && isNumber(b)) {
+            double x = ((Number) a).doubleValue();
+            double y = ((Number) b).doubleValue();
+            return switch (op) {
+                case ADD -> x + y;
+                case SUB -> x - y;
+                case MUL -> x * y;
+                case DIV -> x / y;
+                case MOD -> x % y;
+                default -> compare(op, x, y);
+            };
+        }
+        return null;
+    }
+
+    public static Object unary(Op op, Object a) {
+        if (a == null) return null;
+        if (op == Op.NOT) {
+            return (a instanceof Boolean || a instanceof Integer) ? !truthy(a) : null;
+        }
+        if (op == Op.TO_REAL) {
+            return a instanceof Integer x ? (Object) x.doubleValue() : null;
+        }
+        if (a instanceof Integer x) return -x;
+        if (a instanceof Double x) return -x;
+        return null;
+    }
+
+    public static boolean truthy(Object v) {
+        if (v instanceof Boolean b) return b;
+        if (v instanceof Integer i) return i != 0;
+        return v != null;
+    }
+
+    private static boolean isNumber(Object o) {
+        return o instanceof Integer || o instanceof Double;
+    }
+
+    // realni brojevi po IEEE pravilima: NaN nije jednak ničemu, a 0.0 je jednako -0.0
+    private static boolean valueEquals(Object a, Object b) {
+        if (isNumber(a) && isNumber(b) && (a instanceof Double || b instanceof Double)) {
+            return ((Number) a).doubleValue() == ((Number) b).doubleValue();
+        }
+        return Objects.equals(a, b);
+    }
+
+    private static Object compare(Op op, double x, double y) {
+        return switch (op) {
+            case LT -> x < y;
+            case LE -> x <= y;
+            case GT -> x > y;
+            case GE -> x >= y;
+            default -> null;
+        };
+    }
+
+    private static Object compare(Op op, int c) {
+        return switch (op) {
+            case LT -> c < 0;
+            case LE -> c <= 0;
+            case GT -> c > 0;
+            case GE -> c >= 0;
+            default -> null;
+        };
+    }
+}
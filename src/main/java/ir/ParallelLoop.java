@@ -0,0 +1,34 @@
+package ir;
+
+import java.util.List;
+import java.util.Map;
+
+// Petlja "radi (i < n)" čije su iteracije međusobno nezavisne: svaka piše samo elemente nizova
+// na svom indeksu i i ne čita ono što pišu druge iteracije. Opseg i..n se deli na delove koji se
+// izvršavaju na više jezgara. Opis postavlja LoopParallelizer na zaglavlje, a koristi ga interpreter.
+public final class ParallelLoop {
+    public final Instr induction;               // phi zaglavlja sa korakom 1
+    public final Instr condition;               // induction < bound; radnik ga poredi sa krajem svog dela
+    public final BasicBlock preheader;          // deljenje se pokreće samo pri ulasku odavde
+    public final BasicBlock exit;
+    public final Map<Instr, Instr> linear;      // ostale indukcione promenljive zaglavlja -> korak
+    public final List<Instr[]> distinct;        // parovi nizova koji pri izvršavanju ne smeju biti isti niz
+    public final int cost;                      // procena broja instrukcija po iteraciji
+    public final Instr stop;                    // RETURN bez vrednosti kojim radnik završava svoj deo
+
+    public ParallelLoop(Instr induction, Instr condition, BasicBlock preheader, BasicBlock exit,
+                        Map<Instr, Instr> linear, List<Instr[]> distinct, int cost, Instr stop) {
+        this.induction = induction;
+        this.condition = condition;
+        this.preheader = preheader;
+        this.exit = exit;
+        this.linear = Map.copyOf(linear);
+        this.distinct = List.copyOf(distinct);
+        this.cost = cost;
+        this.stop = stop;
+    }
+
+    public Instr bound() {
+        return condition.operand(1);
+    }
+}
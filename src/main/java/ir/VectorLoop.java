@@ -0,0 +1,28 @@
+package ir;
+
+import parser.Ast.Type.Kind;
+
+import java.util.List;
+import java.util.Map;
+
+// Petlja čije telo radi element po element nad nizovima broj ili realan, uvek na indeksu
+// glavne indukcione promenljive. Izvršava se u trakama vektora; preostale iteracije radi
+// obična petlja. Opis postavlja LoopVectorizer na zaglavlje, a koristi ga interpreter.
+public final class VectorLoop {
+    public final Kind element;                  // INT ili REAL
+    public final Instr induction;               // phi zaglavlja sa korakom 1
+    public final Instr bound;                   // invarijantna granica: induction < bound
+    public final BasicBlock preheader;          // vektorski deo se pokreće samo pri ulasku odavde
+    public final Map<Instr, Instr> linear;      // ostale indukcione promenljive zaglavlja -> korak
+    public final List<Instr> program;           // instrukcije tela koje se izvršavaju u trakama, redom
+
+    public VectorLoop(Kind element, Instr induction, Instr bound, BasicBlock preheader,
+                      Map<Instr, Instr> linear, List<Instr> program) {
+        this.element = element;
+        this.induction = induction;
+        this.bound = bound;
+        this.preheader = preheader;
+        this.linear = Map.copyOf(linear);
+        this.program = List.copyOf(program);
+    }
+}
@@ -0,0 +1,314 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.DominatorTree;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Pristup nizu ne treba proveru granica ako se dokaže 0 <= indeks < dimenzija.
+// Opsezi celobrojnih vrednosti računaju se nad SSA grafom i sužavaju uslovima grananja koji
+// dominiraju blokom, pa je u telu "radi (a < 5)" poznato a <= 4. Dimenzija se poredi brojčano,
+// a kad nije konstanta, traži se uslov oblika indeks < dimenzija. Interpreter za takav pristup
+// preskače svoju proveru; AotCompiler prevodi AST, pa granice i dalje proverava JVM instrukcija niza.
+public final class BoundsCheckElimination implements FunctionPass {
+
+    private static final int WIDEN_AFTER = 3;
+    private static final int NARROWING_ROUNDS = 2;
+    private static final int MAX_DEPTH = 6;
+
+    // interval vrednosti tipa broj; rezultat koji izađe iz opsega int-a može da se prelije, pa je pun
+    private record Range(long lo, long hi) {
+        static final Range FULL = new Range(Integer.MIN_VALUE, Integer.MAX_VALUE);
+        static final Range EMPTY = new Range(1, 0);
+
+        static Range of(long lo, long hi) {
+            if (lo > hi) return EMPTY;
+            if (lo < Integer.MIN_VALUE || hi > Integer.MAX_VALUE) return FULL;
+            return new Range(lo, hi);
+        }
+
+        boolean isEmpty() {
+            return lo > hi;
+        }
+
+        Range join(Range o) {
+            if (isEmpty()) return o;
+            if (o.isEmpty()) return this;
+            return new Range(Math.min(lo, o.lo), Math.max(hi, o.hi));
+        }
+
+        Range meet(Range o) {
+            long l = Math.max(lo, o.lo);
+            long h = Math.min(hi, o.hi);
+            return l > h ? EMPTY : new Range(l, h);
+        }
+
+        Range add(Range o) {
+            if (isEmpty() || o.isEmpty()) return EMPTY;
+            return of(lo + o.lo, hi + o.hi);
+        }
+
+        Range neg() {
+            if (isEmpty()) return EMPTY;
+            return of(-hi, -lo);
+        }
+
+        Range mul(Range o) {
+            if (isEmpty() || o.isEmpty()) return EMPTY;
+            long a = lo * o.lo, b = lo * o.hi, c = hi * o.lo, d = hi * o.hi;
+            return of(Math.min(Math.min(a, b), Math.min(c, d)), Math.max(Math.max(a, b), Math.max(c, d)));
+        }
+    }
+
+    // x rel y važi u bloku
+    private record Fact(Instr x, Op rel, Instr y) {}
+
+    private final BoundsReport report;
+
+    private DominatorTree dom;
+    private final Map<Instr, Range> phiRanges = new HashMap<>();
+    private final Map<BasicBlock, List<Fact>> facts = new HashMap<>();
+
+    public BoundsCheckElimination(BoundsReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public String name() {
+        return "bce";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        dom = new DominatorTree(f);
+        phiRanges.clear();
+        facts.clear();
+        computePhiRanges();
+
+        int accesses = 0;
+        int unchecked = 0;
+        boolean changed = false;
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op != Op.ALOAD && i.op != Op.ASTORE) continue;
+                accesses++;
+                if (!i.checkFree && inBounds(i)) {
+                    i.checkFree = true;
+                    changed = true;
+                }
+                if (i.checkFree) unchecked++;
+            }
+        }
+        report.record(f, accesses, unchecked);
+
+        dom = null;
+        return changed;
+    }
+
+    // ---------- dokaz ----------
+
+    private boolean inBounds(Instr access) {
+        Instr array = access.operand(0);
+        if (array.op != Op.NEW_ARRAY) return false;
+
+        int rank = access.op == Op.ALOAD ? access.operands.size() - 1 : access.operands.size() - 2;
+        if (rank != array.operands.size()) return false;
+
+        List<Fact> known = factsAt(access.block);
+        for (int d = 0; d < rank; d++) {
+            Instr index = access.operand(d + 1);
+            Instr dim = array.operand(d);
+
+            Range r = rangeAt(index, known, 0);
+            if (r.isEmpty() || r.lo < 0) return false;
+            if (r.hi < rangeAt(dim, known, 0).lo) continue;
+            if (!provenLess(index, dim, known)) return false;
+        }
+        return true;
+    }
+
+    private static boolean provenLess(Instr x, Instr y, List<Fact> known) {
+        for (Fact fact : known) {
+            if (fact.x == x && fact.y == y && fact.rel == Op.LT) return true;
+            if (fact.x == y && fact.y == x && fact.rel == Op.GT) return true;
+        }
+        return false;
+    }
+
+    // ---------- opsezi ----------
+
+    // iteracija nad phi čvorovima sa proširivanjem, zatim nekoliko krugova sužavanja
+    private void computePhiRanges() {
+        List<Instr> phis = new ArrayList<>();
+        for (BasicBlock b : dom.reversePostorder()) {
+            for (Instr phi : b.phis()) {
+                if (phi.type != Kind.INT) continue;
+                phis.add(phi);
+                phiRanges.put(phi, Range.EMPTY);
+            }
+        }
+
+        Map<Instr, Integer> updates = new HashMap<>();
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Instr phi : phis) {
+                Range old = phiRanges.get(phi);
+                Range next = old.join(evalPhi(phi));
+                if (next.equals(old)) continue;
+                if (updates.merge(phi, 1, Integer::sum) > WIDEN_AFTER) {
+                    next = new Range(next.lo < old.lo ? Integer.MIN_VALUE : next.lo,
+                            next.hi > old.hi ? Integer.MAX_VALUE : next.hi);
+                }
+                phiRanges.put(phi, next);
+                changed = true;
+            }
+        }
+
+        for (int round = 0; round < NARROWING_ROUNDS; round++) {
+            for (Instr phi : phis) phiRanges.put(phi, evalPhi(phi));
+        }
+    }
+
+    private Range evalPhi(Instr phi) {
+        Range r = Range.EMPTY;
+        List<BasicBlock> preds = phi.block.preds;
+        for (int k = 0; k < phi.operands.size(); k++) {
+            r = r.join(rangeAt(phi.operand(k), factsOnEdge(preds.get(k), phi.block), 0));
+        }
+        return r;
+    }
+
+    private Range rangeAt(Instr v, List<Fact> known, int depth) {
+        Range r = eval(v, known, depth);
+        if (depth >= MAX_DEPTH) return r;
+        for (Fact fact : known) {
+            if (fact.x == v) r = refine(r, fact.rel, rangeAt(fact.y, known, depth + 1));
+            else if (fact.y == v) r = refine(r, mirror(fact.rel), rangeAt(fact.x, known, depth + 1));
+        }
+        return r;
+    }
+
+    private Range eval(Instr v, List<Fact> known, int depth) {
+        if (v.type != Kind.INT) return Range.FULL;
+        if (v.isConst()) {
+            return v.constant instanceof Integer c ? Range.of(c, c) : Range.FULL;
+        }
+        if (v.isPhi()) return phiRanges.getOrDefault(v, Range.FULL);
+        if (depth >= MAX_DEPTH) return Range.FULL;
+
+        return switch (v.op) {
+            case COPY -> rangeAt(v.operand(0), known, depth + 1);
+            case NEG -> rangeAt(v.operand(0), known, depth + 1).neg();
+            case ADD -> rangeAt(v.operand(0), known, depth + 1).add(rangeAt(v.operand(1), known, depth + 1));
+            case SUB -> rangeAt(v.operand(0), known, depth + 1).add(rangeAt(v.operand(1), known, depth + 1).neg());
+            case MUL -> rangeAt(v.operand(0), known, depth + 1).mul(rangeAt(v.operand(1), known, depth + 1));
+            case DIV, MOD -> divide(v, rangeAt(v.operand(0), known, depth + 1), rangeAt(v.operand(1), known, depth + 1));
+            default -> Range.FULL;
+        };
+    }
+
+    // samo sa pozitivnim deliocem; ostatak ima znak deljenika
+    private static Range divide(Instr v, Range x, Range k) {
+        if (x.isEmpty() || k.isEmpty()) return Range.EMPTY;
+        if (k.lo <= 0) return Range.FULL;
+        if (v.op == Op.DIV) {
+            return Range.of(Math.min(x.lo / k.lo, x.lo / k.hi), Math.max(x.hi / k.lo, x.hi / k.hi));
+        }
+        long m = k.hi - 1;
+        if (x.lo >= 0) return Range.of(0, Math.min(m, x.hi));
+        if (x.hi <= 0) return Range.of(Math.max(-m, x.lo), 0);
+        return Range.of(-m, m);
+    }
+
+    private static Range refine(Range r, Op rel, Range y) {
+        if (r.isEmpty() || y.isEmpty()) return r;
+        return switch (rel) {
+            case LT -> r.meet(new Range(Integer.MIN_VALUE, y.hi - 1));
+            case LE -> r.meet(new Range(Integer.MIN_VALUE, y.hi));
+            case GT -> r.meet(new Range(y.lo + 1, Integer.MAX_VALUE));
+            case GE -> r.meet(new Range(y.lo, Integer.MAX_VALUE));
+            case EQ -> r.meet(y);
+            case NEQ -> {
+                if (y.lo != y.hi) yield r;
+                if (y.lo == r.lo) yield Range.of(r.lo + 1, r.hi);
+                if (y.lo == r.hi) yield Range.of(r.lo, r.hi - 1);
+                yield r;
+            }
+            default -> r;
+        };
+    }
+
+    // ---------- uslovi ----------
+
+    // uslovi koji važe na ulazu u blok: grane kroz koje se jedino može stići do njega
+    private List<Fact> factsAt(BasicBlock b) {
+        List<Fact> cached = facts.get(b);
+        if (cached != null) return cached;
+
+        List<Fact> result = new ArrayList<>();
+        for (BasicBlock d = b; d != null; d = dom.idom(d)) {
+            if (d.preds.size() == 1) addEdgeFact(d.preds.get(0), d, result);
+        }
+        facts.put(b, result);
+        return result;
+    }
+
+    private List<Fact> factsOnEdge(BasicBlock from, BasicBlock to) {
+        List<Fact> result = new ArrayList<>(factsAt(from));
+        addEdgeFact(from, to, result);
+        return result;
+    }
+
+    private static void addEdgeFact(BasicBlock from, BasicBlock to, List<Fact> out) {
+        Instr term = from.terminator();
+        if (term == null || term.op != Op.BRANCH || from.succs.get(0) == from.succs.get(1)) return;
+
+        Instr cond = term.operand(0);
+        boolean taken = from.succs.get(0) == to;
+        while (cond.op == Op.NOT && cond.operand(0).type == Kind.BOOL) {
+            cond = cond.operand(0);
+            taken = !taken;
+        }
+        if (!isComparison(cond.op) || cond.operand(0).type != Kind.INT) return;
+
+        Op rel = taken ? cond.op : negate(cond.op);
+        out.add(new Fact(cond.operand(0), rel, cond.operand(1)));
+    }
+
+    private static boolean isComparison(Op op) {
+        return switch (op) {
+            case LT, LE, GT, GE, EQ, NEQ -> true;
+            default -> false;
+        };
+    }
+
+    private static Op negate(Op rel) {
+        return switch (rel) {
+            case LT -> Op.GE;
+            case LE -> Op.GT;
+            case GT -> Op.LE;
+            case GE -> Op.LT;
+            case EQ -> Op.NEQ;
+            case NEQ -> Op.EQ;
+            default -> throw new IllegalArgumentException(rel.toString());
+        };
+    }
+
+    private static Op mirror(Op rel) {
+        return switch (rel) {
+            case LT -> Op.GT;
+            case LE -> Op.GE;
+            case GT -> Op.LT;
+            case GE -> Op.LE;
+            default -> rel;
+        };
+    }
+}
@@ -0,0 +1,42 @@
+package ir.pass;
+
+import ir.IrFunction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// broj pristupa nizu po funkciji i koliko njih je ostalo bez provere granica
+public final class BoundsReport {
+
+    private static final class Entry {
+        int accesses;
+        int unchecked;
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    // poslednje pokretanje prolaza daje stanje funkcije
+    void record(IrFunction f, int accesses, int unchecked) {
+        Entry e = entries.computeIfAbsent(f.name, k -> new Entry());
+        e.accesses = accesses;
+        e.unchecked = unchecked;
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%10s|%10s|%10s", "FUNCTION", "ACCESSES", "REMOVED", "CHECKED");
+        String separator = "-".repeat(header.length());
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry v = e.getValue();
+            sb.append(String.format("%-16s|%10d|%10d|%10d%n",
+                    e.getKey(), v.accesses, v.unchecked, v.accesses - v.unchecked));
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.DominatorTree;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hash-consing izraza, uključujući čitanja niza i globalnih promenljivih.
+// Čitanja važe do prvog upisa u isti niz (ili globalnu) i do prvog poziva funkcije; u blok sa
+// jednim prethodnikom (produženi osnovni blok) prenose se, a u spojne blokove ne.
+public final class CommonSubexpressionElimination implements FunctionPass {
+
+    private record Key(Op op, Object name, Class<?> nameType, List<Instr> operands) {}
+
+    @Override
+    public String name() {
+        return "cse";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        DominatorTree dom = new DominatorTree(f);
+        Map<Instr, Instr> replacements = new HashMap<>();
+        Map<Key, Instr> pure = new HashMap<>();
+        Map<BasicBlock, Map<Key, Instr>> memoryAtEnd = new HashMap<>();
+
+        // iterativni obilazak stabla dominacije; pri izlasku iz bloka brišu se njegovi čisti izrazi
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{f.entry(), null});
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.pop();
+            BasicBlock b = (BasicBlock) frame[0];
+            @SuppressWarnings("unchecked")
+            List<Key> added = (List<Key>) frame[1];
+            if (added != null) {
+                for (Key k : added) pure.remove(k);
+                memoryAtEnd.remove(b);
+                continue;
+            }
+
+            BasicBlock idom = dom.idom(b);
+            Map<Key, Instr> memory = (idom != null && b.preds.size() == 1 && b.preds.get(0) == idom)
+                    ? new HashMap<>(memoryAtEnd.get(idom))
+                    : new HashMap<>();
+
+            List<Key> scope = new ArrayList<>();
+            for (Instr i : b.instrs) visit(i, pure, scope, memory, replacements);
+            memoryAtEnd.put(b, memory);
+
+            stack.push(new Object[]{b, scope});
+            List<BasicBlock> children = dom.children(b);
+            for (int c = children.size() - 1; c >= 0; c--) stack.push(new Object[]{children.get(c), null});
+        }
+
+        if (replacements.isEmpty()) return false;
+        f.replaceUses(replacements);
+        for (BasicBlock b : f.blocks) b.instrs.removeIf(replacements::containsKey);
+        return true;
+    }
+
+    private static void visit(Instr i, Map<Key, Instr> pure, List<Key> scope,
+                              Map<Key, Instr> memory, Map<Instr, Instr> replacements) {
+        switch (i.op) {
+            case ALOAD, LOAD_GLOBAL -> {
+                Key key = key(i.op, i.constant, i.operands, replacements);
+                Instr known = memory.get(key);
+                if (known != null) replacements.put(i, known);
+                else memory.put(key, i);
+            }
+            case ASTORE -> {
+                List<Instr> target = i.operands.subList(0, i.operands.size() - 1);
+                Instr array = resolve(target.get(0), replacements);
+                memory.keySet().removeIf(k -> k.op == Op.ALOAD && mayAlias(k, array, target, replacements));
+                memory.put(key(Op.ALOAD, null, target, replacements), resolve(i.operand(i.operands.size() - 1), replacements));
+            }
+            case STORE_GLOBAL -> memory.put(key(Op.LOAD_GLOBAL, i.constant, List.of(), replacements),
+                    resolve(i.operand(0), replacements));
+            case CALL, PARALLEL -> memory.clear();
+            default -> {
+                if (!i.isPure() || i.op == Op.COPY) return;
+                Key key = key(i.op, i.constant, i.operands, replacements);
+                Instr known = pure.get(key);
+                if (known != null) {
+                    replacements.put(i, known);
+                } else {
+                    pure.put(key, i);
+                    scope.add(key);
+                }
+            }
+        }
+    }
+
+    // dva niza sigurno nisu isti samo ako su to dve različite alokacije; isti niz sa različitim
+    // konstantnim indeksom u nekoj dimenziji je druga ćelija
+    private static boolean mayAlias(Key load, Instr array, List<Instr> store, Map<Instr, Instr> replacements) {
+        Instr loadArray = load.operands.get(0);
+        if (loadArray != array) {
+            return !(loadArray.op == Op.NEW_ARRAY && array.op == Op.NEW_ARRAY);
+        }
+        for (int d = 1; d < store.size() && d < load.operands.size(); d++) {
+            Instr a = resolve(store.get(d), replacements);
+            Instr b = load.operands.get(d);
+            if (a.isConst() && b.isConst() && !a.constant.equals(b.constant)) return false;
+        }
+        return true;
+    }
+
+    private static Key key(Op op, Object name, List<Instr> operands, Map<Instr, Instr> replacements) {
+        Instr[] resolved = new Instr[operands.size()];
+        for (int k = 0; k < resolved.length; k++) resolved[k] = resolve(operands.get(k), replacements);
+        if (op.isCommutative()) Arrays.sort(resolved, Comparator.comparingInt(x -> x.id));
+        return new Key(op, name, name == null ? null : name.getClass(), List.of(resolved));
+    }
+
+    private static Instr resolve(Instr i, Map<Instr, Instr> replacements) {
+        Instr r = replacements.get(i);
+        while (r != null) {
+            i = r;
+            r = replacements.get(i);
+        }
+        return i;
+    }
+}
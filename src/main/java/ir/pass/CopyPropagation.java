@@ -0,0 +1,68 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// uklanja kopije i trivijalne phi instrukcije (svi operandi ista vrednost ili sama phi)
+public final class CopyPropagation implements FunctionPass {
+
+    @Override
+    public String name() {
+        return "copy-prop";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        Map<Instr, Instr> replacements = new HashMap<>();
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (BasicBlock b : f.blocks) {
+                for (Instr i : b.instrs) {
+                    if (replacements.containsKey(i)) continue;
+                    Instr same = null;
+                    if (i.op == Op.COPY) {
+                        same = resolve(i.operand(0), replacements);
+                    } else if (i.isPhi()) {
+                        same = trivialPhiValue(i, replacements);
+                    }
+                    if (same != null && same != i) {
+                        replacements.put(i, same);
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        if (replacements.isEmpty()) return false;
+        f.replaceUses(replacements);
+        for (BasicBlock b : f.blocks) b.instrs.removeIf(replacements::containsKey);
+        return true;
+    }
+
+    private static Instr trivialPhiValue(Instr phi, Map<Instr, Instr> replacements) {
+        Instr same = null;
+        for (Instr op : phi.operands) {
+            Instr v = resolve(op, replacements);
+            if (v == phi || v == same) continue;
+            if (same != null) return null;
+            same = v;
+        }
+        return same;
+    }
+
+    private static Instr resolve(Instr i, Map<Instr, Instr> replacements) {
+        Instr r = replacements.get(i);
+        while (r != null) {
+            i = r;
+            r = replacements.get(i);
+        }
+        return i;
+    }
+}
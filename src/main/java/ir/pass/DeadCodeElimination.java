@@ -0,0 +1,46 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Set;
+
+// označi-pa-počisti: živo je sve što ima bočni efekat ili može da baci grešku, i sve od čega to zavisi
+public final class DeadCodeElimination implements FunctionPass {
+
+    @Override
+    public String name() {
+        return "dce";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        boolean changed = f.removeUnreachableBlocks();
+
+        Set<Instr> live = new HashSet<>();
+        Deque<Instr> work = new ArrayDeque<>();
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.hasSideEffects() || i.mayTrap()) {
+                    live.add(i);
+                    work.push(i);
+                }
+            }
+        }
+        while (!work.isEmpty()) {
+            for (Instr op : work.pop().operands) {
+                if (live.add(op)) work.push(op);
+            }
+        }
+
+        for (BasicBlock b : f.blocks) {
+            changed |= b.instrs.removeIf(i -> !live.contains(i));
+        }
+        changed |= f.mergeStraightLineBlocks();
+        return changed;
+    }
+}
@@ -0,0 +1,106 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.IrModule;
+import ir.Op;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Niz koji ne napušta okvir u kome je napravljen označava se kao lokalan. Niz napušta okvir ako
+// stigne (preko kopije, phi čvora ili reda koji je iz njega pročitan) do povratne vrednosti,
+// globalne promenljive, elementa drugog niza, bloka paralelno ili parametra koji i sam napušta
+// svoj okvir. Za parametre se pamti sažetak po funkciji i računa se do fiksne tačke, pa rade i
+// rekurzivni pozivi. Lokalan niz još ne sme da prolazi kroz phi čvor niti da mu se zameni red:
+// tada je jedino ime niza mesto instrukcije koja ga pravi, pa interpreter može da ga oslobodi
+// na povratku iz funkcije ili ponovo upotrebi kada se ista instrukcija opet izvrši.
+public final class EscapeAnalysis implements ModulePass {
+
+    @Override
+    public String name() {
+        return "escape";
+    }
+
+    @Override
+    public Set<String> run(IrModule module) {
+        Map<String, boolean[]> escapes = new HashMap<>();
+        for (IrFunction f : module.functions()) escapes.put(f.name, new boolean[f.paramTypes.size()]);
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (IrFunction f : module.functions()) {
+                boolean[] summary = escapes.get(f.name);
+                for (Instr i : closure(f, escapes, false)) {
+                    if (i.op == Op.PARAM && !summary[(Integer) i.constant]) {
+                        summary[(Integer) i.constant] = true;
+                        changed = true;
+                    }
+                }
+            }
+        }
+
+        for (IrFunction f : module.functions()) {
+            Set<Instr> shared = closure(f, escapes, true);
+            for (BasicBlock b : f.blocks) {
+                for (Instr i : b.instrs) {
+                    if (i.op == Op.NEW_ARRAY) i.local = !shared.contains(i);
+                }
+            }
+        }
+        // prolaz samo označava instrukcije, pa se funkcije ne optimizuju ponovo
+        return Set.of();
+    }
+
+    // vrednosti koje napuštaju okvir; sa aliases i one koje dele ime sa drugom vrednošću
+    private static Set<Instr> closure(IrFunction f, Map<String, boolean[]> escapes, boolean aliases) {
+        Set<Instr> out = new HashSet<>();
+        Deque<Instr> work = new ArrayDeque<>();
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                switch (i.op) {
+                    case RETURN, STORE_GLOBAL, PARALLEL -> {
+                        for (Instr op : i.operands) mark(op, out, work);
+                    }
+                    case ASTORE -> {
+                        Instr value = i.operand(i.operands.size() - 1);
+                        mark(value, out, work);
+                        if (aliases && value.type == Kind.ARRAY) mark(i.operand(0), out, work);
+                    }
+                    case CALL -> {
+                        boolean[] callee = escapes.get((String) i.constant);
+                        for (int k = 0; k < i.operands.size(); k++) {
+                            if (callee == null || callee[k]) mark(i.operand(k), out, work);
+                        }
+                    }
+                    case PHI -> {
+                        if (aliases) for (Instr op : i.operands) mark(op, out, work);
+                    }
+                    default -> { }
+                }
+            }
+        }
+        while (!work.isEmpty()) {
+            Instr i = work.pop();
+            switch (i.op) {
+                case COPY, PHI -> {
+                    for (Instr op : i.operands) mark(op, out, work);
+                }
+                case ALOAD -> mark(i.operand(0), out, work);
+                default -> { }
+            }
+        }
+        return out;
+    }
+
+    private static void mark(Instr value, Set<Instr> out, Deque<Instr> work) {
+        if (value.type == Kind.ARRAY && out.add(value)) work.push(value);
+    }
+}
@@ -0,0 +1,10 @@
+package ir.pass;
+
+import ir.IrFunction;
+
+public interface FunctionPass {
+    String name();
+
+    // vraća true ako je prolaz izmenio funkciju
+    boolean run(IrFunction function);
+}
@@ -0,0 +1,89 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.DominatorTree;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// numerisanje vrednosti po stablu dominacije: izraz koji je već izračunat u dominatoru se ne računa ponovo
+public final class GlobalValueNumbering implements FunctionPass {
+
+    private record Key(Op op, Object constant, Class<?> constantType, List<Integer> operands, BasicBlock block) {}
+
+    @Override
+    public String name() {
+        return "gvn";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        DominatorTree dom = new DominatorTree(f);
+        Map<Key, Instr> table = new HashMap<>();
+        Map<Instr, Instr> replacements = new HashMap<>();
+
+        // iterativni obilazak stabla dominacije; pri izlasku iz bloka brišu se njegovi unosi
+        Deque<Object[]> stack = new ArrayDeque<>();
+        stack.push(new Object[]{f.entry(), null});
+        while (!stack.isEmpty()) {
+            Object[] frame = stack.pop();
+            BasicBlock b = (BasicBlock) frame[0];
+            @SuppressWarnings("unchecked")
+            List<Key> added = (List<Key>) frame[1];
+            if (added != null) {
+                for (Key k : added) table.remove(k);
+                continue;
+            }
+
+            List<Key> scope = new ArrayList<>();
+            for (Instr i : b.instrs) {
+                Key key = keyOf(i, replacements);
+                if (key == null) continue;
+                Instr existing = table.get(key);
+                if (existing != null) {
+                    replacements.put(i, existing);
+                } else {
+                    table.put(key, i);
+                    scope.add(key);
+                }
+            }
+
+            stack.push(new Object[]{b, scope});
+            List<BasicBlock> children = dom.children(b);
+            for (int c = children.size() - 1; c >= 0; c--) stack.push(new Object[]{children.get(c), null});
+        }
+
+        if (replacements.isEmpty()) return false;
+        f.replaceUses(replacements);
+        for (BasicBlock b : f.blocks) b.instrs.removeIf(replacements::containsKey);
+        return true;
+    }
+
+    private static Key keyOf(Instr i, Map<Instr, Instr> replacements) {
+        boolean phi = i.isPhi();
+        if (!phi && (!i.isPure() || i.op == Op.COPY)) return null;
+
+        Integer[] ids = new Integer[i.operands.size()];
+        for (int k = 0; k < ids.length; k++) {
+            Instr o = i.operand(k);
+            Instr r = replacements.get(o);
+            while (r != null) {
+                o = r;
+                r = replacements.get(o);
+            }
+            ids[k] = o.id;
+        }
+        if (i.op.isCommutative()) Arrays.sort(ids);
+
+        Class<?> constantType = i.constant == null ? null : i.constant.getClass();
+        return new Key(i.op, i.constant, constantType, List.of(ids), phi ? i.block : null);
+    }
+}
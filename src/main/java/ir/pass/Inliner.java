@@ -0,0 +1,293 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.IrModule;
+import ir.Loop;
+import ir.LoopInfo;
+import ir.Op;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Telo male nerekurzivne funkcije kopira se na mesto poziva. Granica veličine raste sa dubinom
+// petlje u kojoj je poziv; funkcije se obrađuju od listova grafa poziva, pa pozivalac dobija
+// već proširena tela. Funkcije iz rekurzivnog ciklusa se ne ubacuju.
+public final class Inliner implements ModulePass {
+
+    private static final int BASE_BUDGET = 8;
+    private static final int MAX_HOT_DEPTH = 2;
+    private static final int MAX_CALLER_SIZE = 400;
+
+    private record Decision(String caller, String callee, int line, int depth, int size, String result) {}
+
+    private final List<Decision> log = new ArrayList<>();
+
+    @Override
+    public String name() {
+        return "inline";
+    }
+
+    @Override
+    public Set<String> run(IrModule module) {
+        Map<String, Set<String>> calls = new LinkedHashMap<>();
+        for (IrFunction f : module.functions()) calls.put(f.name, callees(f));
+
+        List<List<String>> sccs = stronglyConnected(calls);
+        Set<String> recursive = new HashSet<>();
+        for (List<String> scc : sccs) {
+            String only = scc.get(0);
+            if (scc.size() > 1 || calls.get(only).contains(only)) recursive.addAll(scc);
+        }
+
+        // komponente stižu od listova ka korenu
+        Set<String> changed = new LinkedHashSet<>();
+        for (List<String> scc : sccs) {
+            for (String name : scc) {
+                if (inlineCalls(module, module.function(name), recursive)) changed.add(name);
+            }
+        }
+        return changed;
+    }
+
+    private boolean inlineCalls(IrModule module, IrFunction caller, Set<String> recursive) {
+        LoopInfo loops = new LoopInfo(caller);
+        List<Instr> sites = new ArrayList<>();
+        Map<Instr, Integer> depths = new HashMap<>();
+        for (BasicBlock b : caller.blocks) {
+            Loop loop = loops.loopFor(b);
+            for (Instr i : b.instrs) {
+                if (i.op != Op.CALL) continue;
+                sites.add(i);
+                depths.put(i, loop == null ? 0 : loop.depth);
+            }
+        }
+
+        boolean changed = false;
+        for (Instr call : sites) {
+            IrFunction callee = module.function((String) call.constant);
+            int depth = depths.get(call);
+            int size = callee == null ? 0 : size(callee);
+            int budget = BASE_BUDGET << Math.min(depth, MAX_HOT_DEPTH);
+
+            String result;
+            if (callee == null) {
+                result = "unknown";
+            } else if (recursive.contains(callee.name)) {
+                result = "recursive";
+            } else if (!returns(callee)) {
+                result = "never returns";
+            } else if (size > budget) {
+                result = "too large (" + size + " > " + budget + ")";
+            } else if (caller.instrCount() + size > MAX_CALLER_SIZE) {
+                result = "caller too large";
+            } else {
+                inline(caller, call, callee);
+                result = "inlined";
+                changed = true;
+            }
+            log.add(new Decision(caller.name, (String) call.constant, call.line, depth, size, result));
+        }
+        return changed;
+    }
+
+    // ---------- ubacivanje ----------
+
+    private static void inline(IrFunction caller, Instr call, IrFunction callee) {
+        BasicBlock site = call.block;
+
+        // ostatak bloka posle poziva prelazi u novi blok
+        BasicBlock cont = caller.newBlock();
+        int at = site.instrs.indexOf(call);
+        List<Instr> tail = new ArrayList<>(site.instrs.subList(at + 1, site.instrs.size()));
+        site.instrs.subList(at, site.instrs.size()).clear();
+        for (Instr i : tail) cont.append(i);
+        for (BasicBlock s : site.succs) {
+            cont.succs.add(s);
+            for (int k = 0; k < s.preds.size(); k++) {
+                if (s.preds.get(k) == site) s.preds.set(k, cont);
+            }
+        }
+        site.succs.clear();
+
+        // kopije blokova i instrukcija; operandi se popunjavaju posle, jer phi može da koristi kasniju vrednost
+        Map<BasicBlock, BasicBlock> blocks = new HashMap<>();
+        for (BasicBlock b : callee.blocks) blocks.put(b, caller.newBlock());
+
+        Map<Instr, Instr> values = new HashMap<>();
+        List<Instr> returns = new ArrayList<>();
+        for (BasicBlock b : callee.blocks) {
+            BasicBlock copy = blocks.get(b);
+            for (BasicBlock p : b.preds) copy.preds.add(blocks.get(p));
+            for (BasicBlock s : b.succs) copy.succs.add(blocks.get(s));
+
+            for (Instr i : b.instrs) {
+                if (i.op == Op.PARAM) {
+                    values.put(i, call.operand((Integer) i.constant));
+                    continue;
+                }
+                Instr c = caller.newInstr(i.op, i.type, List.of(), i.constant, i.line);
+                c.checkFree = i.checkFree;
+                copy.append(c);
+                values.put(i, c);
+                if (i.op == Op.RETURN) returns.add(c);
+            }
+        }
+        for (BasicBlock b : callee.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op == Op.PARAM) continue;
+                Instr c = values.get(i);
+                for (Instr o : i.operands) c.operands.add(values.get(o));
+            }
+        }
+
+        BasicBlock entry = blocks.get(callee.entry());
+        site.append(caller.newInstr(Op.JUMP, null, List.of(), null, call.line));
+        caller.addEdge(site, entry);
+
+        // vrati -> skok na nastavak, vraćena vrednost kroz phi
+        List<Instr> results = new ArrayList<>();
+        for (Instr ret : returns) {
+            BasicBlock from = ret.block;
+            from.instrs.remove(ret);
+            if (!ret.operands.isEmpty()) results.add(ret.operand(0));
+            from.append(caller.newInstr(Op.JUMP, null, List.of(), null, ret.line));
+            caller.addEdge(from, cont);
+        }
+
+        Instr result;
+        if (callee.returnType == Kind.VOID || results.size() != returns.size()) {
+            result = caller.newInstr(Op.CONST, call.type, List.of(), null, call.line);
+            cont.insertPhi(result);
+        } else if (results.size() == 1) {
+            result = results.get(0);
+        } else {
+            result = caller.newInstr(Op.PHI, call.type, results, null, call.line);
+            cont.insertPhi(result);
+        }
+        caller.replaceUses(Map.of(call, result));
+    }
+
+    // ---------- graf poziva ----------
+
+    private static Set<String> callees(IrFunction f) {
+        Set<String> out = new LinkedHashSet<>();
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op == Op.CALL) out.add((String) i.constant);
+                if (i.op == Op.PARALLEL) {
+                    for (Object branch : (List<?>) i.constant) out.add((String) branch);
+                }
+            }
+        }
+        return out;
+    }
+
+    // Tarjan; komponente se vraćaju tako da pozvana funkcija dolazi pre pozivaoca
+    private static List<List<String>> stronglyConnected(Map<String, Set<String>> calls) {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> low = new HashMap<>();
+        Deque<String> stack = new ArrayDeque<>();
+        Set<String> onStack = new HashSet<>();
+        List<List<String>> out = new ArrayList<>();
+
+        for (String root : calls.keySet()) {
+            if (index.containsKey(root)) continue;
+
+            // iterativni DFS: okvir je (čvor, iterator naslednika)
+            Deque<Object[]> frames = new ArrayDeque<>();
+            frames.push(new Object[]{root, calls.get(root).iterator()});
+            index.put(root, index.size());
+            low.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+
+            while (!frames.isEmpty()) {
+                Object[] frame = frames.peek();
+                String v = (String) frame[0];
+                @SuppressWarnings("unchecked")
+                Iterator<String> it = (Iterator<String>) frame[1];
+
+                if (it.hasNext()) {
+                    String w = it.next();
+                    if (!calls.containsKey(w)) continue;
+                    if (!index.containsKey(w)) {
+                        index.put(w, index.size());
+                        low.put(w, index.get(w));
+                        stack.push(w);
+                        onStack.add(w);
+                        frames.push(new Object[]{w, calls.get(w).iterator()});
+                    } else if (onStack.contains(w)) {
+                        low.put(v, Math.min(low.get(v), index.get(w)));
+                    }
+                    continue;
+                }
+
+                frames.pop();
+                if (!frames.isEmpty()) {
+                    String parent = (String) frames.peek()[0];
+                    low.put(parent, Math.min(low.get(parent), low.get(v)));
+                }
+                if (low.get(v).equals(index.get(v))) {
+                    List<String> scc = new ArrayList<>();
+                    String w;
+                    do {
+                        w = stack.pop();
+                        onStack.remove(w);
+                        scc.add(w);
+                    } while (!w.equals(v));
+                    out.add(scc);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static int size(IrFunction f) {
+        int n = 0;
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op != Op.PARAM && i.op != Op.JUMP && i.op != Op.RETURN) n++;
+            }
+        }
+        return n;
+    }
+
+    private static boolean returns(IrFunction f) {
+        for (BasicBlock b : f.blocks) {
+            Instr term = b.terminator();
+            if (term != null && term.op == Op.RETURN) return true;
+        }
+        return false;
+    }
+
+    // ---------- izveštaj ----------
+
+    public boolean isEmpty() {
+        return log.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%-16s|%6s|%7s|%6s| %s", "CALLER", "CALLEE", "LINE", "DEPTH", "SIZE", "DECISION");
+        String separator = "-".repeat(header.length() + 12);
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Decision d : log) {
+            sb.append(String.format("%-16s|%-16s|%6d|%7d|%6d| %s%n",
+                    d.caller, d.callee, d.line, d.depth, d.size, d.result));
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
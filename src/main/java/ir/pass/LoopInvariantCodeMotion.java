@@ -0,0 +1,70 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.DominatorTree;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Loop;
+import ir.LoopInfo;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// izračunavanja čiji su svi operandi definisani van petlje premeštaju se u blok ispred zaglavlja
+public final class LoopInvariantCodeMotion implements FunctionPass {
+
+    private final LoopReport report;
+
+    public LoopInvariantCodeMotion(LoopReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public String name() {
+        return "licm";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        DominatorTree dom = new DominatorTree(f);
+        LoopInfo info = new LoopInfo(f, dom);
+        boolean changed = false;
+
+        for (Loop loop : info.loops()) {
+            Set<Instr> hoist = new LinkedHashSet<>();
+            boolean found = true;
+            while (found) {
+                found = false;
+                for (BasicBlock b : dom.reversePostorder()) {
+                    if (!loop.contains(b)) continue;
+                    for (Instr i : b.instrs) {
+                        if (hoist.contains(i) || !canHoist(i, loop, hoist)) continue;
+                        hoist.add(i);
+                        found = true;
+                    }
+                }
+            }
+            if (hoist.isEmpty()) continue;
+
+            BasicBlock pre = loop.ensurePreheader(f);
+            int computations = 0;
+            for (Instr i : hoist) {
+                i.block.instrs.remove(i);
+                pre.insertBeforeTerminator(i);
+                if (!i.isConst()) computations++;
+            }
+            if (computations > 0) report.hoisted(f, loop, computations);
+            changed = true;
+        }
+        return changed;
+    }
+
+    // spekulativno izvršavanje je bezbedno samo za čiste operacije koje ne mogu da bace grešku
+    private static boolean canHoist(Instr i, Loop loop, Set<Instr> hoisted) {
+        if (!i.isPure() || i.mayTrap() || i.isPhi()) return false;
+        for (Instr o : i.operands) {
+            if (loop.contains(o) && !hoisted.contains(o)) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,190 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Loop;
+import ir.LoopInfo;
+import ir.Op;
+import ir.ParallelLoop;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Prepoznaje brojačke petlje "radi (i < n) { ...; i = i + 1; }" čije su iteracije nezavisne.
+// Svaki upis u niz mora na nekom indeksu imati baš i, pa različite iteracije pišu različite
+// elemente; čitanje iz istog niza mora biti na istom mestu i, pa čita samo ono što piše sama
+// iteracija. Za nizove koji se mogu pokazati kao isti tek pri izvršavanju pamte se parovi koje
+// interpreter proverava pre deljenja. Telo ne sme da poziva funkcije, ispisuje, učitava ni menja
+// globalne promenljive. Paralelizuje se najspoljnija takva petlja; IR se ne menja.
+public final class LoopParallelizer implements FunctionPass {
+
+    // unutrašnja petlja se procenjuje kao da prolazi ovoliko puta po iteraciji spoljne
+    private static final int INNER_TRIPS = 16;
+
+    private final ParallelReport report;
+
+    public LoopParallelizer(ParallelReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public String name() {
+        return "parallelize";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        for (BasicBlock b : f.blocks) b.parallel = null;
+        LoopInfo info = new LoopInfo(f);
+        List<Loop> outerFirst = new ArrayList<>(info.loops());
+        outerFirst.sort((x, y) -> Integer.compare(x.depth, y.depth));
+        for (Loop loop : outerFirst) {
+            Loop annotated = null;
+            for (Loop p = loop.parent; p != null; p = p.parent) {
+                if (p.header.parallel != null) annotated = p;
+            }
+            String reason = annotated != null ? "inside parallel " + annotated.header : analyze(f, loop, info);
+            report.record(f, loop, reason == null ? "parallel" : reason);
+        }
+        // opis ne menja instrukcije, pa ne pokreće novi krug optimizacija
+        return false;
+    }
+
+    // postavlja loop.header.parallel ili vraća razlog zašto petlja ostaje sekvencijalna
+    private static String analyze(IrFunction f, Loop loop, LoopInfo info) {
+        BasicBlock header = loop.header;
+        BasicBlock pre = loop.preheader();
+        if (pre == null || header.preds.size() != 2 || loop.latches.size() != 1) return "no preheader";
+
+        // zaglavlje: phi čvorovi, "i < n" i grananje u telo ili van petlje
+        Instr branch = header.terminator();
+        if (branch == null || branch.op != Op.BRANCH) return "not a counted loop";
+        if (!loop.contains(header.succs.get(0)) || loop.contains(header.succs.get(1))) return "not a counted loop";
+        Instr cond = branch.operand(0);
+        if (cond.op != Op.LT || cond.block != header) return "not a counted loop";
+        Instr induction = cond.operand(0);
+        Instr bound = cond.operand(1);
+        if (induction.op != Op.PHI || induction.block != header || bound.type != Kind.INT || loop.contains(bound)) {
+            return "not a counted loop";
+        }
+        for (Instr i : header.instrs) {
+            if (i.op != Op.PHI && i != cond && i != branch && i.op != Op.CONST) return "work in loop header";
+        }
+
+        int latch = header.preds.indexOf(loop.latches.get(0));
+        Map<Instr, Instr> linear = new LinkedHashMap<>();
+        for (Instr phi : header.phis()) {
+            Instr step = step(phi, latch, loop);
+            if (step == null) return "loop-carried value " + phi;
+            if (phi != induction) linear.put(phi, step);
+        }
+        Instr unit = step(induction, latch, loop);
+        if (!unit.isConst() || !Integer.valueOf(1).equals(unit.constant)) return "induction step is not 1";
+
+        // jedini izlaz je iz zaglavlja, a posle petlje se koriste samo phi čvorovi zaglavlja
+        for (BasicBlock b : loop.blocks) {
+            if (b == header) continue;
+            for (BasicBlock s : b.succs) {
+                if (!loop.contains(s)) return "early exit";
+            }
+        }
+        for (BasicBlock b : f.blocks) {
+            if (loop.contains(b)) continue;
+            for (Instr i : b.instrs) {
+                for (Instr o : i.operands) {
+                    if (loop.contains(o) && o.block != header) return "value " + o + " used after loop";
+                }
+            }
+        }
+
+        List<Instr> stores = new ArrayList<>();
+        List<Instr> loads = new ArrayList<>();
+        int cost = 0;
+        for (BasicBlock b : loop.blocks) {
+            int weight = 1;
+            for (int d = info.loopFor(b).depth; d > loop.depth; d--) weight *= INNER_TRIPS;
+            cost += b.instrs.size() * weight;
+            for (Instr i : b.instrs) {
+                switch (i.op) {
+                    case CALL, PARALLEL, PRINT, READ, ENCRYPT, DECRYPT, STORE_GLOBAL, RETURN -> {
+                        return "side effect in body (" + i.op.mnemonic() + ")";
+                    }
+                    case ASTORE -> stores.add(i);
+                    case ALOAD -> loads.add(i);
+                    default -> { }
+                }
+            }
+        }
+
+        // niz napravljen u samoj iteraciji pripada samo njoj
+        List<Instr[]> distinct = new ArrayList<>();
+        for (Instr s : stores) {
+            if (local(s, loop)) continue;
+            if (loop.contains(s.operand(0))) return "array changes in loop";
+            if (position(s, induction) < 0) return "store not indexed by induction (line " + s.line + ")";
+        }
+        for (Instr l : loads) {
+            if (local(l, loop)) continue;
+            if (loop.contains(l.operand(0))) return "array changes in loop";
+            for (Instr s : stores) {
+                if (local(s, loop) || sameElementOfIteration(l, s, induction)) continue;
+                if (l.operand(0) == s.operand(0)) return "read of a written element (line " + l.line + ")";
+                addPair(distinct, l.operand(0), s.operand(0));
+            }
+        }
+        for (int a = 0; a < stores.size(); a++) {
+            for (int b = a + 1; b < stores.size(); b++) {
+                Instr s = stores.get(a);
+                Instr t = stores.get(b);
+                if (local(s, loop) || local(t, loop) || sameElementOfIteration(s, t, induction)) continue;
+                if (s.operand(0) == t.operand(0)) return "stores at different positions (line " + t.line + ")";
+                addPair(distinct, s.operand(0), t.operand(0));
+            }
+        }
+
+        Instr stop = f.newInstr(Op.RETURN, null, List.of(), null, 0);
+        header.parallel = new ParallelLoop(induction, cond, pre, header.succs.get(1), linear, distinct, cost, stop);
+        return null;
+    }
+
+    private static boolean local(Instr access, Loop loop) {
+        Instr array = access.operand(0);
+        return array.op == Op.NEW_ARRAY && loop.contains(array);
+    }
+
+    // indeks na kome upis koristi indukcionu promenljivu, ili -1
+    private static int position(Instr store, Instr induction) {
+        for (int k = 1; k < store.operands.size() - 1; k++) {
+            if (store.operand(k) == induction) return k;
+        }
+        return -1;
+    }
+
+    // pristup a dotiče samo elemente koje upis s piše u istoj iteraciji
+    private static boolean sameElementOfIteration(Instr a, Instr s, Instr induction) {
+        int arity = s.operands.size() - 2;
+        int accessArity = a.op == Op.ASTORE ? a.operands.size() - 2 : a.operands.size() - 1;
+        int k = position(s, induction);
+        return arity == accessArity && k > 0 && a.operand(k) == induction;
+    }
+
+    private static void addPair(List<Instr[]> pairs, Instr x, Instr y) {
+        for (Instr[] p : pairs) {
+            if (p[0] == x && p[1] == y || p[0] == y && p[1] == x) return;
+        }
+        pairs.add(new Instr[] {x, y});
+    }
+
+    // korak phi čvora oblika i = i + k sa invarijantnim celobrojnim k, inače null
+    private static Instr step(Instr phi, int latch, Loop loop) {
+        if (phi.type != Kind.INT || phi.operands.size() != 2) return null;
+        Instr next = phi.operand(latch);
+        if (next.op != Op.ADD) return null;
+        Instr step = next.operand(0) == phi ? next.operand(1) : next.operand(1) == phi ? next.operand(0) : null;
+        return step != null && step.type == Kind.INT && (step.isConst() || !loop.contains(step)) ? step : null;
+    }
+}
@@ -0,0 +1,59 @@
+package ir.pass;
+
+import ir.IrFunction;
+import ir.Loop;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// spisak petlji koje su optimizacije petlji izmenile
+public final class LoopReport {
+
+    private static final class Entry {
+        final String function;
+        final String header;
+        final int line;
+        final int depth;
+        int hoisted;
+        int reduced;
+
+        Entry(String function, String header, int line, int depth) {
+            this.function = function;
+            this.header = header;
+            this.line = line;
+            this.depth = depth;
+        }
+    }
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    void hoisted(IrFunction f, Loop loop, int count) {
+        entry(f, loop).hoisted += count;
+    }
+
+    void reduced(IrFunction f, Loop loop, int count) {
+        entry(f, loop).reduced += count;
+    }
+
+    private Entry entry(IrFunction f, Loop loop) {
+        return entries.computeIfAbsent(f.name + "/" + loop.header,
+                k -> new Entry(f.name, loop.header.toString(), loop.line(), loop.depth));
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%8s|%8s|%7s|%9s|%9s", "FUNCTION", "LOOP", "LINE", "DEPTH", "HOISTED", "REDUCED");
+        String separator = "-".repeat(header.length());
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Entry e : entries.values()) {
+            sb.append(String.format("%-16s|%8s|%8d|%7d|%9d|%9d%n",
+                    e.function, e.header, e.line, e.depth, e.hoisted, e.reduced));
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
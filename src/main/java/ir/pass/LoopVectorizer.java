@@ -0,0 +1,171 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Loop;
+import ir.LoopInfo;
+import ir.Op;
+import ir.VectorLoop;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Prepoznaje brojačke petlje "radi (i < n) { ...; i = i + 1; }" čije telo čita i piše nizove
+// samo na indeksu i i računa samo sabiranjem, oduzimanjem, množenjem (i deljenjem nad realan).
+// Takva petlja nema zavisnosti između iteracija, pa se zaglavlju dodaje opis za vektorsko
+// izvršavanje. IR se ne menja: ista petlja ostaje kao skalarni ostatak.
+public final class LoopVectorizer implements FunctionPass {
+
+    private final VectorReport report;
+
+    public LoopVectorizer(VectorReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public String name() {
+        return "vectorize";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        for (BasicBlock b : f.blocks) b.vector = null;
+        for (Loop loop : new LoopInfo(f).loops()) {
+            String reason = analyze(loop);
+            VectorLoop v = loop.header.vector;
+            report.record(f, loop, v == null ? "-" : v.element.slangName, v == null ? reason : "vectorized");
+        }
+        // opis ne menja instrukcije, pa ne pokreće novi krug optimizacija
+        return false;
+    }
+
+    // postavlja loop.header.vector ili vraća razlog zašto petlja nije vektorizovana
+    private static String analyze(Loop loop) {
+        BasicBlock header = loop.header;
+        BasicBlock pre = loop.preheader();
+        if (loop.blocks.size() != 2 || loop.latches.size() != 1) return "body is not a single block";
+        if (pre == null || header.preds.size() != 2) return "no preheader";
+        BasicBlock body = loop.latches.get(0);
+        if (body.preds.size() != 1 || header.succs.size() != 2 || header.succs.get(0) != body) {
+            return "body is not a single block";
+        }
+
+        // zaglavlje: phi čvorovi, "i < n" i grananje
+        Instr branch = header.terminator();
+        if (branch == null || branch.op != Op.BRANCH) return "not a counted loop";
+        Instr cond = branch.operand(0);
+        if (cond.op != Op.LT || cond.block != header) return "not a counted loop";
+        Instr induction = cond.operand(0);
+        Instr bound = cond.operand(1);
+        if (induction.op != Op.PHI || induction.block != header || bound.type != Kind.INT || !invariant(bound, loop)) {
+            return "not a counted loop";
+        }
+        for (Instr i : header.instrs) {
+            if (i.op != Op.PHI && i != cond && i != branch && i.op != Op.CONST) return "work in loop header";
+        }
+
+        int latch = header.preds.indexOf(body);
+        Map<Instr, Instr> linear = new LinkedHashMap<>();
+        for (Instr phi : header.phis()) {
+            Instr step = step(phi, latch, loop);
+            if (step == null) return "loop-carried value " + phi;
+            if (phi != induction) linear.put(phi, step);
+        }
+        Instr unit = step(induction, latch, loop);
+        if (!unit.isConst() || !Integer.valueOf(1).equals(unit.constant)) return "induction step is not 1";
+
+        // u trakama se izvršavaju pristupi nizovima i sve što oni koriste iz tela
+        Set<Instr> needed = new HashSet<>();
+        List<Instr> instrs = body.instrs;
+        for (int k = instrs.size() - 1; k >= 0; k--) {
+            Instr i = instrs.get(k);
+            if (i.op == Op.ALOAD || i.op == Op.ASTORE) needed.add(i);
+            if (!needed.contains(i)) continue;
+            for (Instr o : i.operands) {
+                if (o.block == body) needed.add(o);
+            }
+        }
+
+        List<Instr> program = new ArrayList<>();
+        Kind element = null;
+        for (Instr i : instrs) {
+            if (i.op == Op.JUMP) continue;
+            if (!needed.contains(i)) {
+                if (!i.isPure() || i.mayTrap()) return "side effect in body (" + i.op.mnemonic() + ")";
+                continue;
+            }
+            if (i.op == Op.ASTORE) {
+                Kind k = i.operand(2).type;
+                if (element == null) element = k;
+                else if (element != k) return "mixed element types";
+            }
+            program.add(i);
+        }
+        if (element == null) return "no array store";
+        if (element != Kind.INT && element != Kind.REAL) return "element type " + element.slangName;
+
+        for (Instr i : program) {
+            String problem = check(i, element, induction, linear, loop);
+            if (problem != null) return problem;
+        }
+
+        header.vector = new VectorLoop(element, induction, bound, pre, linear, program);
+        return null;
+    }
+
+    private static String check(Instr i, Kind element, Instr induction, Map<Instr, Instr> linear, Loop loop) {
+        switch (i.op) {
+            case ALOAD, ASTORE -> {
+                int arity = i.op == Op.ALOAD ? 2 : 3;
+                if (i.operands.size() != arity) return "multi-dimensional access";
+                if (loop.contains(i.operand(0))) return "array changes in loop";
+                if (i.operand(1) != induction) return "index is not the induction variable";
+                if (i.op == Op.ALOAD && i.type != element) return "mixed element types";
+                if (i.op == Op.ASTORE) return value(i.operand(2), element, induction, linear, loop);
+                return null;
+            }
+            case ADD, SUB, MUL, NEG, COPY, DIV -> {
+                if (i.type != element) return "mixed element types";
+                if (i.op == Op.DIV && element != Kind.REAL) return "integer division";
+                for (Instr o : i.operands) {
+                    String problem = value(o, element, induction, linear, loop);
+                    if (problem != null) return problem;
+                }
+                return null;
+            }
+            case CONST -> {
+                return i.type == element ? null : "mixed element types";
+            }
+            default -> {
+                return "unsupported " + i.op.mnemonic();
+            }
+        }
+    }
+
+    // operand u trakama: vrednost iz tela, invarijanta ili indukciona promenljiva (samo za broj)
+    private static String value(Instr o, Kind element, Instr induction, Map<Instr, Instr> linear, Loop loop) {
+        if (o.type != element) return "mixed element types";
+        if (o == induction || linear.containsKey(o)) return null;
+        if (o.block == loop.header && o.op != Op.CONST) return "loop-carried value " + o;
+        return null;
+    }
+
+    // korak phi čvora oblika i = i + k sa invarijantnim celobrojnim k, inače null
+    private static Instr step(Instr phi, int latch, Loop loop) {
+        if (phi.type != Kind.INT || phi.operands.size() != 2) return null;
+        Instr next = phi.operand(latch);
+        if (next.op != Op.ADD) return null;
+        Instr step = next.operand(0) == phi ? next.operand(1) : next.operand(1) == phi ? next.operand(0) : null;
+        return step != null && step.type == Kind.INT && invariant(step, loop) ? step : null;
+    }
+
+    private static boolean invariant(Instr v, Loop loop) {
+        return v.isConst() || !loop.contains(v);
+    }
+}
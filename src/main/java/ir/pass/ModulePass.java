@@ -0,0 +1,13 @@
+package ir.pass;
+
+import ir.IrModule;
+
+import java.util.Set;
+
+// prolaz nad celim modulom, npr. ubacivanje tela funkcije na mesto poziva
+public interface ModulePass {
+    String name();
+
+    // vraća imena funkcija koje je prolaz izmenio
+    Set<String> run(IrModule module);
+}
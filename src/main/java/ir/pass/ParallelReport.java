@@ -0,0 +1,36 @@
+package ir.pass;
+
+import ir.IrFunction;
+import ir.Loop;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// odluka o paralelnom izvršavanju za svaku petlju; poslednje pokretanje prolaza daje stanje petlje
+public final class ParallelReport {
+
+    private record Entry(String function, String header, int line, int depth, String decision) {}
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    void record(IrFunction f, Loop loop, String decision) {
+        entries.put(f.name + "/" + loop.header,
+                new Entry(f.name, loop.header.toString(), loop.line(), loop.depth, decision));
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%8s|%8s|%7s| %s", "FUNCTION", "LOOP", "LINE", "DEPTH", "DECISION");
+        String separator = "-".repeat(header.length() + 32);
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Entry e : entries.values()) {
+            sb.append(String.format("%-16s|%8s|%8d|%7d| %s%n", e.function, e.header, e.line, e.depth, e.decision));
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
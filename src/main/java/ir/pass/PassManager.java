@@ -0,0 +1,189 @@
+package ir.pass;
+
+import ir.IrFunction;
+import ir.IrModule;
+import ir.IrPrinter;
+import ir.IrVerifier;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public final class PassManager {
+
+    private static final int MAX_ROUNDS = 4;
+
+    private static final class PassStats {
+        long nanos;
+        int runs;
+        int changes;
+        long added;         // zbir rasta broja instrukcija po pokretanju
+        long removed;       // zbir smanjenja
+
+        void count(int before, int after) {
+            if (after > before) added += after - before;
+            else removed += before - after;
+        }
+    }
+
+    private final List<FunctionPass> passes = new ArrayList<>();
+    private final List<ModulePass> modulePasses = new ArrayList<>();
+    private final Inliner inliner = new Inliner();
+    private final LoopReport loopReport = new LoopReport();
+    private final BoundsReport boundsReport = new BoundsReport();
+    private final VectorReport vectorReport = new VectorReport();
+    private final ParallelReport parallelReport = new ParallelReport();
+    private final Map<String, PassStats> stats = new LinkedHashMap<>();
+    private PrintStream dump;
+
+    public static PassManager standard() {
+        PassManager pm = new PassManager();
+        return pm
+                .add(new TailRecursionElimination())
+                .add(new CopyPropagation())
+                .add(new SparseConditionalConstantPropagation())
+                .add(new CopyPropagation())
+                .add(new GlobalValueNumbering())
+                .add(new CommonSubexpressionElimination())
+                .add(new LoopInvariantCodeMotion(pm.loopReport))
+                .add(new StrengthReduction(pm.loopReport))
+                .add(new BoundsCheckElimination(pm.boundsReport))
+                .add(new DeadCodeElimination())
+                .add(new LoopVectorizer(pm.vectorReport))
+                .add(new LoopParallelizer(pm.parallelReport))
+                .add(pm.inliner)
+                .add(new EscapeAnalysis());
+    }
+
+    public PassManager add(FunctionPass pass) {
+        passes.add(pass);
+        return this;
+    }
+
+    public PassManager add(ModulePass pass) {
+        modulePasses.add(pass);
+        return this;
+    }
+
+    // ispis IR-a posle svakog prolaza koji nešto promeni, uz proveru ispravnosti
+    public PassManager dumpTo(PrintStream out) {
+        this.dump = out;
+        return this;
+    }
+
+    // funkcije se prvo optimizuju pojedinačno, pa prolazi nad modulom, pa ponovo izmenjene funkcije
+    public void run(IrModule module) {
+        for (IrFunction f : module.functions()) run(f);
+        for (ModulePass pass : modulePasses) {
+            for (String name : runModulePass(pass, module)) optimize(module.function(name));
+        }
+    }
+
+    public void run(IrFunction f) {
+        if (dump != null) {
+            dump.println("*** IR pre optimizacija: " + f.name + " ***");
+            dump.print(IrPrinter.print(f));
+        }
+        optimize(f);
+    }
+
+    private void optimize(IrFunction f) {
+        for (int round = 0; round < MAX_ROUNDS; round++) {
+            boolean changed = false;
+            for (FunctionPass pass : passes) {
+                changed |= runPass(pass, f);
+            }
+            if (!changed) break;
+        }
+    }
+
+    private boolean runPass(FunctionPass pass, IrFunction f) {
+        PassStats s = stats.computeIfAbsent(pass.name(), k -> new PassStats());
+        int before = f.instrCount();
+
+        long start = System.nanoTime();
+        boolean changed = pass.run(f);
+        s.nanos += System.nanoTime() - start;
+
+        s.runs++;
+        s.count(before, f.instrCount());
+        if (changed) s.changes++;
+
+        if (changed && dump != null) {
+            dump.println("*** IR posle " + pass.name() + ": " + f.name + " ***");
+            dump.print(IrPrinter.print(f));
+            IrVerifier.verify(f);
+        }
+        return changed;
+    }
+
+    private Set<String> runModulePass(ModulePass pass, IrModule module) {
+        PassStats s = stats.computeIfAbsent(pass.name(), k -> new PassStats());
+        int before = instrCount(module);
+
+        long start = System.nanoTime();
+        Set<String> changed = pass.run(module);
+        s.nanos += System.nanoTime() - start;
+
+        s.runs++;
+        s.count(before, instrCount(module));
+        if (!changed.isEmpty()) s.changes++;
+
+        if (dump != null) {
+            for (String name : changed) {
+                IrFunction f = module.function(name);
+                dump.println("*** IR posle " + pass.name() + ": " + f.name + " ***");
+                dump.print(IrPrinter.print(f));
+                IrVerifier.verify(f);
+            }
+        }
+        return changed;
+    }
+
+    private static int instrCount(IrModule module) {
+        int n = 0;
+        for (IrFunction f : module.functions()) n += f.instrCount();
+        return n;
+    }
+
+    public Inliner inliner() {
+        return inliner;
+    }
+
+    public LoopReport loopReport() {
+        return loopReport;
+    }
+
+    public BoundsReport boundsReport() {
+        return boundsReport;
+    }
+
+    public VectorReport vectorReport() {
+        return vectorReport;
+    }
+
+    public ParallelReport parallelReport() {
+        return parallelReport;
+    }
+
+    public String timingReport() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%12s|%8s|%8s|%10s|%10s", "PASS", "TIME (ms)", "RUNS", "CHANGED", "ADDED", "REMOVED");
+        String separator = "-".repeat(header.length());
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+
+        long totalNanos = 0;
+        for (Map.Entry<String, PassStats> e : stats.entrySet()) {
+            PassStats s = e.getValue();
+            totalNanos += s.nanos;
+            sb.append(String.format("%-16s|%12.3f|%8d|%8d|%10d|%10d%n", e.getKey(), s.nanos / 1e6,
+                    s.runs, s.changes, s.added, s.removed));
+        }
+        sb.append(separator).append("\n");
+        sb.append(String.format("%-16s|%12.3f|", "total", totalNanos / 1e6));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,187 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+import ir.Ops;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+// Wegman, Zadeck: "Constant Propagation with Conditional Branches"
+public final class SparseConditionalConstantPropagation implements FunctionPass {
+
+    // rešetka: odsutno iz mape = još nepoznato, BOTTOM = nije konstanta, Const = konstanta
+    private record Const(Object value) {}
+
+    private static final Object BOTTOM = new Object();
+
+    private record Edge(BasicBlock from, BasicBlock to) {}
+
+    private final Map<Instr, Object> lattice = new HashMap<>();
+    private final Set<Edge> executableEdges = new HashSet<>();
+    private final Set<BasicBlock> executableBlocks = new HashSet<>();
+    private final Deque<Edge> cfgWork = new ArrayDeque<>();
+    private final Deque<Instr> ssaWork = new ArrayDeque<>();
+    private final Map<Instr, List<Instr>> users = new HashMap<>();
+
+    @Override
+    public String name() {
+        return "sccp";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        lattice.clear();
+        executableEdges.clear();
+        executableBlocks.clear();
+        cfgWork.clear();
+        ssaWork.clear();
+        users.clear();
+
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                for (Instr o : i.operands) users.computeIfAbsent(o, k -> new ArrayList<>()).add(i);
+            }
+        }
+
+        executableBlocks.add(f.entry());
+        for (Instr i : f.entry().instrs) visit(i);
+
+        while (!cfgWork.isEmpty() || !ssaWork.isEmpty()) {
+            while (!cfgWork.isEmpty()) {
+                Edge e = cfgWork.poll();
+                if (!executableEdges.add(e)) continue;
+                BasicBlock b = e.to;
+                if (executableBlocks.add(b)) {
+                    for (Instr i : b.instrs) visit(i);
+                } else {
+                    for (Instr phi : b.phis()) visit(phi);
+                }
+            }
+            while (!ssaWork.isEmpty()) {
+                Instr i = ssaWork.poll();
+                if (executableBlocks.contains(i.block)) visit(i);
+            }
+        }
+
+        return rewrite(f);
+    }
+
+    private void visit(Instr i) {
+        switch (i.op) {
+            case JUMP -> cfgWork.add(new Edge(i.block, i.block.succs.get(0)));
+            case BRANCH -> {
+                Object cond = lattice.get(i.operand(0));
+                if (cond == null) return;
+                if (cond instanceof Const c) {
+                    int taken = Ops.truthy(c.value) ? 0 : 1;
+                    cfgWork.add(new Edge(i.block, i.block.succs.get(taken)));
+                } else {
+                    for (BasicBlock s : i.block.succs) cfgWork.add(new Edge(i.block, s));
+                }
+            }
+            case RETURN -> { }
+            default -> update(i, evaluate(i));
+        }
+    }
+
+    private Object evaluate(Instr i) {
+        switch (i.op) {
+            case CONST:
+                return new Const(i.constant);
+            case COPY:
+                return lattice.get(i.operand(0));
+            case PHI: {
+                Object result = null;
+                for (int k = 0; k < i.operands.size(); k++) {
+                    if (!executableEdges.contains(new Edge(i.block.preds.get(k), i.block))) continue;
+                    result = meet(result, lattice.get(i.operand(k)));
+                }
+                return result;
+            }
+            default:
+                break;
+        }
+
+        if (!i.op.isBinary() && !i.op.isUnary()) return BOTTOM;
+
+        Object[] values = new Object[i.operands.size()];
+        for (int k = 0; k < values.length; k++) {
+            Object v = lattice.get(i.operand(k));
+            if (v == null) return null;
+            if (v == BOTTOM) return BOTTOM;
+            values[k] = ((Const) v).value;
+        }
+        Object folded = i.op.isUnary() ? Ops.unary(i.op, values[0]) : Ops.binary(i.op, values[0], values[1]);
+        return folded == null ? BOTTOM : new Const(folded);
+    }
+
+    private static Object meet(Object a, Object b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        if (a == BOTTOM || b == BOTTOM) return BOTTOM;
+        Object x = ((Const) a).value;
+        Object y = ((Const) b).value;
+        if (Objects.equals(x, y) && (x == null || x.getClass() == y.getClass())) return a;
+        return BOTTOM;
+    }
+
+    private void update(Instr i, Object value) {
+        Object old = lattice.get(i);
+        if (value == null || Objects.equals(old, value) || old == BOTTOM) return;
+        if (old != null) value = BOTTOM;   // konstanta koja se promenila nije konstanta
+        lattice.put(i, value);
+        ssaWork.addAll(users.getOrDefault(i, List.of()));
+    }
+
+    private boolean rewrite(IrFunction f) {
+        boolean changed = false;
+
+        for (BasicBlock b : f.blocks) {
+            if (!executableBlocks.contains(b)) continue;
+
+            List<Instr> constPhis = new ArrayList<>();
+            for (Instr i : b.instrs) {
+                if (i.isConst() || !(lattice.get(i) instanceof Const c)) continue;
+                if (i.isPhi()) {
+                    constPhis.add(i);
+                } else if (i.isPure()) {
+                    i.makeConst(c.value);
+                    changed = true;
+                }
+            }
+            for (Instr phi : constPhis) {
+                b.instrs.remove(phi);
+                phi.makeConst(((Const) lattice.get(phi)).value);
+                b.instrs.add(b.phiCount(), phi);
+                changed = true;
+            }
+
+            Instr term = b.terminator();
+            if (term != null && term.op == Op.BRANCH) {
+                BasicBlock ifTrue = b.succs.get(0);
+                BasicBlock ifFalse = b.succs.get(1);
+                boolean t = executableEdges.contains(new Edge(b, ifTrue));
+                boolean e = executableEdges.contains(new Edge(b, ifFalse));
+                if (t != e) {
+                    f.removeEdge(b, t ? ifFalse : ifTrue);
+                    term.op = Op.JUMP;
+                    term.operands.clear();
+                    changed = true;
+                }
+            }
+        }
+
+        changed |= f.removeUnreachableBlocks();
+        return changed;
+    }
+}
@@ -0,0 +1,115 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Loop;
+import ir.LoopInfo;
+import ir.Op;
+import parser.Ast.Type.Kind;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// i * k, gde je i indukciona promenljiva (i = i + c) a k invarijanta petlje,
+// zamenjuje se novom indukcionom promenljivom j = j + c * k
+public final class StrengthReduction implements FunctionPass {
+
+    private record Induction(Instr phi, Instr step) {}
+
+    private final LoopReport report;
+
+    public StrengthReduction(LoopReport report) {
+        this.report = report;
+    }
+
+    @Override
+    public String name() {
+        return "strength-reduce";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        LoopInfo info = new LoopInfo(f);
+        boolean changed = false;
+
+        for (Loop loop : info.loops()) {
+            BasicBlock pre = loop.preheader();
+            if (loop.latches.size() != 1 || pre == null) continue;
+
+            Map<Instr, Induction> inductions = new HashMap<>();
+            for (Instr phi : loop.header.phis()) {
+                Induction iv = induction(loop, phi);
+                if (iv != null) inductions.put(phi, iv);
+            }
+            if (inductions.isEmpty()) continue;
+
+            List<Instr> candidates = new ArrayList<>();
+            for (BasicBlock b : loop.blocks) {
+                for (Instr i : b.instrs) {
+                    if (i.op == Op.MUL && factor(i, inductions, loop) != null) candidates.add(i);
+                }
+            }
+            if (candidates.isEmpty()) continue;
+
+            BasicBlock latch = loop.latches.get(0);
+            int latchIndex = loop.header.preds.indexOf(latch);
+            int preIndex = loop.header.preds.indexOf(pre);
+
+            for (Instr mul : candidates) {
+                Instr k = factor(mul, inductions, loop);
+                Induction iv = inductions.get(mul.operand(0) == k ? mul.operand(1) : mul.operand(0));
+
+                Instr init = iv.phi.operand(preIndex);
+                Instr start = f.newInstr(Op.MUL, mul.type, List.of(init, k), null, mul.line);
+                pre.insertBeforeTerminator(start);
+                Instr delta = f.newInstr(Op.MUL, mul.type, List.of(iv.step, k), null, mul.line);
+                pre.insertBeforeTerminator(delta);
+
+                List<Instr> incoming = new ArrayList<>();
+                for (int p = 0; p < loop.header.preds.size(); p++) incoming.add(start);
+                Instr j = f.newInstr(Op.PHI, mul.type, incoming, null, 0);
+                loop.header.insertPhi(j);
+
+                Instr next = f.newInstr(Op.ADD, mul.type, List.of(j, delta), null, mul.line);
+                latch.insertBeforeTerminator(next);
+                j.operands.set(latchIndex, next);
+
+                f.replaceUses(Map.of(mul, j));
+                mul.block.instrs.remove(mul);
+            }
+            report.reduced(f, loop, candidates.size());
+            changed = true;
+        }
+        return changed;
+    }
+
+    // i = phi(init, i + c) gde je c celobrojna invarijanta petlje
+    private static Induction induction(Loop loop, Instr phi) {
+        if (phi.operands.size() != 2) return null;
+        int latchIndex = phi.block.preds.indexOf(loop.latches.get(0));
+        if (latchIndex < 0) return null;
+
+        Instr next = phi.operand(latchIndex);
+        if (next.op != Op.ADD) return null;
+        Instr step = next.operand(0) == phi ? next.operand(1) : next.operand(1) == phi ? next.operand(0) : null;
+        if (step == null || !isIntegerInvariant(step, loop)) return null;
+        return new Induction(phi, step);
+    }
+
+    // vraća invarijantni celobrojni činilac ako je mul oblika i * k ili k * i
+    private static Instr factor(Instr mul, Map<Instr, Induction> inductions, Loop loop) {
+        for (int side = 0; side < 2; side++) {
+            Instr iv = mul.operand(side);
+            Instr k = mul.operand(1 - side);
+            if (inductions.containsKey(iv) && isIntegerInvariant(k, loop)) return k;
+        }
+        return null;
+    }
+
+    private static boolean isIntegerInvariant(Instr k, Loop loop) {
+        return k.type == Kind.INT && loop.isInvariant(k);
+    }
+}
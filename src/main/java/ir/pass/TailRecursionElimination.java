@@ -0,0 +1,90 @@
+package ir.pass;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// "vrati f(...)" unutar same funkcije f postaje skok na početak: parametri postaju phi čvorovi
+// novog zaglavlja, a argumenti repnog poziva njihove vrednosti na povratnoj grani.
+public final class TailRecursionElimination implements FunctionPass {
+
+    @Override
+    public String name() {
+        return "tail-rec";
+    }
+
+    @Override
+    public boolean run(IrFunction f) {
+        List<Instr> sites = new ArrayList<>();
+        for (BasicBlock b : f.blocks) {
+            Instr call = tailCall(b);
+            if (call != null && f.name.equals(call.constant)) sites.add(call);
+        }
+        if (sites.isEmpty()) return false;
+
+        // ulaz zadržava samo parametre; sve ostalo prelazi u zaglavlje petlje
+        BasicBlock entry = f.entry();
+        BasicBlock header = f.newBlock();
+        Instr[] params = new Instr[f.paramNames.size()];
+        List<Instr> rest = new ArrayList<>();
+        for (Instr i : entry.instrs) {
+            if (i.op == Op.PARAM) params[(Integer) i.constant] = i;
+            else rest.add(i);
+        }
+        entry.instrs.removeAll(rest);
+        for (Instr i : rest) header.append(i);
+        for (int k = 0; k < params.length; k++) {
+            if (params[k] == null) {
+                params[k] = f.newInstr(Op.PARAM, f.paramTypes.get(k), List.of(), k, 0);
+                entry.append(params[k]);
+            }
+        }
+
+        for (BasicBlock s : entry.succs) {
+            header.succs.add(s);
+            for (int k = 0; k < s.preds.size(); k++) {
+                if (s.preds.get(k) == entry) s.preds.set(k, header);
+            }
+        }
+        entry.succs.clear();
+        entry.append(f.newInstr(Op.JUMP, null, List.of(), null, 0));
+        f.addEdge(entry, header);
+
+        Map<Instr, Instr> phis = new HashMap<>();
+        Instr[] phi = new Instr[params.length];
+        for (int k = 0; k < params.length; k++) {
+            phi[k] = f.newInstr(Op.PHI, params[k].type, List.of(), null, 0);
+            phis.put(params[k], phi[k]);
+        }
+        f.replaceUses(phis);
+        for (int k = params.length - 1; k >= 0; k--) {
+            phi[k].operands.add(params[k]);
+            header.insertPhi(phi[k]);
+        }
+
+        for (Instr call : sites) {
+            BasicBlock b = call.block;
+            Instr ret = b.terminator();
+            b.instrs.remove(ret);
+            b.instrs.remove(call);
+            b.append(f.newInstr(Op.JUMP, null, List.of(), null, ret.line));
+            f.addEdge(b, header);
+            for (int k = 0; k < params.length; k++) phi[k].operands.add(call.operand(k));
+        }
+        return true;
+    }
+
+    // poziv čiji se rezultat odmah vraća
+    private static Instr tailCall(BasicBlock b) {
+        Instr ret = b.terminator();
+        if (ret == null || ret.op != Op.RETURN || ret.operands.isEmpty() || b.instrs.size() < 2) return null;
+        Instr call = b.instrs.get(b.instrs.size() - 2);
+        return call.op == Op.CALL && ret.operand(0) == call ? call : null;
+    }
+}
@@ -0,0 +1,37 @@
+package ir.pass;
+
+import ir.IrFunction;
+import ir.Loop;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// odluka vektorizatora za svaku petlju; poslednje pokretanje prolaza daje stanje petlje
+public final class VectorReport {
+
+    private record Entry(String function, String header, int line, int depth, String element, String decision) {}
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    void record(IrFunction f, Loop loop, String element, String decision) {
+        entries.put(f.name + "/" + loop.header,
+                new Entry(f.name, loop.header.toString(), loop.line(), loop.depth, element, decision));
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    public String format() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%8s|%8s|%7s|%9s| %s", "FUNCTION", "LOOP", "LINE", "DEPTH", "ELEMENT", "DECISION");
+        String separator = "-".repeat(header.length() + 24);
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Entry e : entries.values()) {
+            sb.append(String.format("%-16s|%8s|%8d|%7d|%9s| %s%n",
+                    e.function, e.header, e.line, e.depth, e.element, e.decision));
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
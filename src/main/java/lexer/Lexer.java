@@ -2,6 +2,8 @@ package lexer;
 
 import lexer.token.Token;
 import lexer.token.TokenType;
+import metrics.Phase;
+import metrics.Probe;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,6 +14,8 @@ public class Lexer {
     private final ScannerCore sc;
     private final String source;
     private final List<Token> tokens = new ArrayList<>();
+    private final SymbolTable symbols;
+    private TokenType[] keywordById;        // indeksirano brojem simbola, null za obična imena
 
     private static final Map<String, TokenType> KEYWORDS = Map.ofEntries(
             Map.entry("broj", TokenType.BROJ),
@@ -30,6 +34,7 @@ public class Lexer {
             Map.entry("inace", TokenType.INACE),
             Map.entry("radi", TokenType.RADI),
             Map.entry("vrati", TokenType.VRATI),
+            Map.entry("paralelno", TokenType.PARALELNO),
             Map.entry("upisi", TokenType.UPISI),
             Map.entry("napisi", TokenType.NAPISI),
             Map.entry("tacno", TokenType.BOOL_LIT),
@@ -39,11 +44,28 @@ public class Lexer {
     );
 
     public Lexer(String source) {
+        this(source, new SymbolTable());
+    }
+
+    public Lexer(String source, SymbolTable symbols) {
         this.source = source;
         this.sc = new ScannerCore(source);
+        this.symbols = symbols;
+
+        // ključne reči su u istoj tabeli, pa identifier() radi jedno traženje po imenu
+        for (String keyword : KEYWORDS.keySet()) symbols.intern(keyword);
+        keywordById = new TokenType[symbols.size()];
+        for (Map.Entry<String, TokenType> e : KEYWORDS.entrySet()) {
+            keywordById[symbols.intern(e.getKey())] = e.getValue();
+        }
+    }
+
+    public SymbolTable symbols() {
+        return symbols;
     }
 
     public List<Token> scanTokens() {
+        Probe probe = Probe.begin(Phase.LEXER);
         while (!sc.isAtEnd()) {
             sc.beginToken();
             scanToken();
@@ -52,6 +74,7 @@ public class Lexer {
         tokens.add(new Token(TokenType.EOF, "\0", null,
                 sc.getLine(), sc.getCol(), sc.getCol()));
 
+        if (probe != null) probe.source(Probe.utf8Length(source)).tokens(tokens.size()).end();
         return tokens;
     }
 
@@ -182,7 +205,8 @@ public class Lexer {
     private void identifier() {
         while (isIdentPart(sc.peek())) sc.advance();
 
-        String text = source.substring(sc.getStartIdx(), sc.getCur());
+        int id = symbols.intern(source, sc.getStartIdx(), sc.getCur());
+        String text = symbols.name(id);
 
         if (text.equals("tacno")) {
             tokens.add(new Token(TokenType.BOOL_LIT, text, true,
@@ -196,10 +220,11 @@ public class Lexer {
             return;
         }
 
-        TokenType type = KEYWORDS.getOrDefault(text, TokenType.IDENT);
+        TokenType type = id < keywordById.length && keywordById[id] != null ? keywordById[id] : TokenType.IDENT;
 
         tokens.add(new Token(type, text, null,
-                sc.getStartLine(), sc.getStartCol(), sc.getCol() - 1));
+                sc.getStartLine(), sc.getStartCol(), sc.getCol() - 1,
+                type == TokenType.IDENT ? id : SymbolTable.NONE));
     }
 
 
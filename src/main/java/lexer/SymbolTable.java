@@ -0,0 +1,92 @@
+package lexer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Svako različito ime se čuva jednom i dobija redni broj; tokeni nose taj broj, pa se imena
+// dalje porede kao int, a razrešavanje radi nad nizovima indeksiranim brojem simbola.
+public final class SymbolTable {
+
+    public static final int NONE = -1;
+
+    // ugrađene funkcije su uvek prve, pa parser može da napravi njihove tokene bez tabele
+    public static final int NAPISI = 0;
+    public static final int UPISI = 1;
+    public static final int ENKRIPTUJ = 2;
+    public static final int DEKRIPTUJ = 3;
+
+    private final List<String> names = new ArrayList<>();
+    private int[] slots = new int[64];      // otvoreno adresiranje: id + 1, 0 = prazno
+    private int[] hashes = new int[64];
+
+    public SymbolTable() {
+        intern("napisi");
+        intern("upisi");
+        intern("enkriptuj");
+        intern("dekriptuj");
+    }
+
+    public int intern(String name) {
+        return intern(name, 0, name.length());
+    }
+
+    // ime je src[start, end); novi String se pravi samo prvi put
+    public int intern(CharSequence src, int start, int end) {
+        int h = hash(src, start, end);
+        int mask = slots.length - 1;
+        for (int i = h & mask; ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == 0) {
+                int id = names.size();
+                names.add(src.subSequence(start, end).toString());
+                slots[i] = id + 1;
+                hashes[i] = h;
+                if (names.size() * 2 > slots.length) grow();
+                return id;
+            }
+            if (hashes[i] == h && matches(names.get(slot - 1), src, start, end)) return slot - 1;
+        }
+    }
+
+    public String name(int id) {
+        return names.get(id);
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    private void grow() {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[oldSlots.length * 2];
+        hashes = new int[oldSlots.length * 2];
+        int mask = slots.length - 1;
+        for (int k = 0; k < oldSlots.length; k++) {
+            if (oldSlots[k] == 0) continue;
+            int i = oldHashes[k] & mask;
+            while (slots[i] != 0) i = (i + 1) & mask;
+            slots[i] = oldSlots[k];
+            hashes[i] = oldHashes[k];
+        }
+    }
+
+    private static int hash(CharSequence src, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) h = 31 * h + src.charAt(i);
+        return h ^ (h >>> 16);
+    }
+
+    private static boolean matches(String name, CharSequence src, int start, int end) {
+        if (name.length() != end - start) return false;
+        for (int i = 0; i < name.length(); i++) {
+            if (name.charAt(i) != src.charAt(start + i)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return names.toString();
+    }
+}
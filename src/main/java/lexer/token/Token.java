@@ -5,15 +5,22 @@ public class Token {
     public final String lexeme;
     public final Object literal;
     public final int line, colStart, colEnd;
+    public final int symbol;    // broj imena u lexer.SymbolTable, -1 ako token nije identifikator
 
     public Token(TokenType type, String lexeme, Object literal,
                  int line, int colStart, int colEnd) {
+        this(type, lexeme, literal, line, colStart, colEnd, -1);
+    }
+
+    public Token(TokenType type, String lexeme, Object literal,
+                 int line, int colStart, int colEnd, int symbol) {
         this.type = type;
         this.lexeme = lexeme;
         this.literal = literal;
         this.line = line;
         this.colStart = colStart;
         this.colEnd = colEnd;
+        this.symbol = symbol;
     }
 
     @Override
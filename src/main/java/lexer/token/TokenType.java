@@ -2,7 +2,7 @@ package lexer.token;
 
 public enum TokenType {
     BROJ, REALAN, SLOVO, TEKST, NIZ, POGODAK,
-    MOJ, MOJE, ZAPOCNI_IGRU, ZAVRSI_IGRU, AKO, I ,ILI, NE, INACE, RADI, VRATI,
+    MOJ, MOJE, ZAPOCNI_IGRU, ZAVRSI_IGRU, AKO, I ,ILI, NE, INACE, RADI, VRATI, PARALELNO,
     UPISI,NAPISI,ENKRIPTUJ,DEKRIPTUJ,
     IDENT, INT_LIT, REAL_LIT, STR_LIT, CH_LIT, BOOL_LIT,
     LPAREN, RPAREN, LBRACKET, RBRACKET, LBRACE, RBRACE, SEPARATOR_COMMA, TYPE_COLON, SEMICOLON,
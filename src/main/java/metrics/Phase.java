@@ -0,0 +1,24 @@
+package metrics;
+
+// faze koje se mere; svaka ima svoj JFR događaj i svoj red u --stats
+public enum Phase {
+    LEXER("lekser"),
+    PARSER("parser"),
+    JSON_PRINT("JSON ispis"),
+    APPLICATION("Application");
+
+    final String label;
+
+    Phase(String label) {
+        this.label = label;
+    }
+
+    PhaseEvent newEvent() {
+        return switch (this) {
+            case LEXER -> new PhaseEvent.Lexer();
+            case PARSER -> new PhaseEvent.Parser();
+            case JSON_PRINT -> new PhaseEvent.JsonPrint();
+            case APPLICATION -> new PhaseEvent.Application();
+        };
+    }
+}
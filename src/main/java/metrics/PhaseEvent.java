@@ -0,0 +1,53 @@
+package metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+// JFR događaji faza. Trajanje i nit JFR beleži sam, a polja popunjava Probe. Snimanje:
+//   java -XX:StartFlightRecording=filename=slang.jfr,settings=profile application.Application ...
+//   jfr print --categories Slang slang.jfr
+@Category("Slang")
+@StackTrace(false)
+abstract class PhaseEvent extends Event {
+
+    @Label("Izvorni kod")
+    @Description("Veličina izvornog koda u UTF-8")
+    @DataAmount
+    long sourceBytes;
+
+    @Label("Tokeni")
+    long tokens;
+
+    @Label("Čvorovi AST-a")
+    long nodes;
+
+    @Label("Alocirano")
+    @Description("Bajtovi koje je nit alocirala tokom faze")
+    @DataAmount
+    long allocatedBytes;
+
+    @Name("slang.Lexer")
+    @Label("Lekser")
+    @Description("Lexer.scanTokens")
+    static final class Lexer extends PhaseEvent {}
+
+    @Name("slang.Parser")
+    @Label("Parser")
+    @Description("ParserAST.parseProgram")
+    static final class Parser extends PhaseEvent {}
+
+    @Name("slang.JsonPrint")
+    @Label("JSON ispis")
+    @Description("JsonAstPrinter.print")
+    static final class JsonPrint extends PhaseEvent {}
+
+    @Name("slang.Application")
+    @Label("Application")
+    @Description("Ceo Application.main, od čitanja fajla do izlaza")
+    static final class Application extends PhaseEvent {}
+}
@@ -0,0 +1,148 @@
+package metrics;
+
+import jdk.jfr.FlightRecorder;
+
+import java.lang.management.ManagementFactory;
+
+// Merenje jedne faze za JFR (PhaseEvent) i --stats. begin vraća null kada JFR ne snima događaj
+// faze i --stats nije uključen, pa faza tada ne čita sat ni brojač alokacija i ne broji čvorove;
+// poziva se jednom po fazi, a ne po tokenu. Faze na istoj niti dele kontekst: lekser upisuje
+// veličinu izvora i broj tokena, parser broj čvorova, a kasnije faze (JSON ispis, ceo Application)
+// uzimaju iz konteksta ono što same ne znaju.
+public final class Probe {
+
+    private static final int SOURCE = 0, TOKENS = 1, NODES = 2;
+    private static final ThreadLocal<long[]> CONTEXT = ThreadLocal.withInitial(() -> new long[3]);
+
+    private static volatile boolean stats;
+    private static final long[][] totals = new long[Phase.values().length][6];
+
+    private final Phase phase;
+    private final PhaseEvent event;         // null kada JFR ne snima ovu fazu
+    private final long start;
+    private final long allocatedAtStart;
+    private long sourceBytes = -1;
+    private long tokens = -1;
+    private long nodes = -1;
+
+    private Probe(Phase phase, PhaseEvent event) {
+        this.phase = phase;
+        this.event = event;
+        this.allocatedAtStart = Allocation.current();
+        this.start = System.nanoTime();
+    }
+
+    public static Probe begin(Phase phase) {
+        // prva klasa događaja pokreće ceo JFR (oko 180 ms pri pokretanju), pa se događaj pravi tek
+        // kada je JFR već pokrenut, sa -XX:StartFlightRecording ili kasnije preko jcmd JFR.start
+        PhaseEvent event = FlightRecorder.isInitialized() ? phase.newEvent() : null;
+        if (event != null && !event.isEnabled()) event = null;
+        if (event == null && !stats) return null;
+        if (event != null) event.begin();
+        return new Probe(phase, event);
+    }
+
+    public static void enableStats() {
+        stats = true;
+    }
+
+    // novi izvorni kod na ovoj niti: brojevi prethodnog programa više ne važe
+    public Probe source(long bytes) {
+        long[] context = CONTEXT.get();
+        context[SOURCE] = bytes;
+        context[TOKENS] = 0;
+        context[NODES] = 0;
+        sourceBytes = bytes;
+        return this;
+    }
+
+    public Probe tokens(long n) {
+        CONTEXT.get()[TOKENS] = n;
+        tokens = n;
+        return this;
+    }
+
+    public Probe nodes(long n) {
+        CONTEXT.get()[NODES] = n;
+        nodes = n;
+        return this;
+    }
+
+    public void end() {
+        long nanos = System.nanoTime() - start;
+        long allocated = Allocation.current() - allocatedAtStart;
+        long[] context = CONTEXT.get();
+        if (sourceBytes < 0) sourceBytes = context[SOURCE];
+        if (tokens < 0) tokens = context[TOKENS];
+        if (nodes < 0) nodes = context[NODES];
+
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.sourceBytes = sourceBytes;
+                event.tokens = tokens;
+                event.nodes = nodes;
+                event.allocatedBytes = allocated;
+                event.commit();
+            }
+        }
+        if (stats) {
+            synchronized (totals) {
+                long[] t = totals[phase.ordinal()];
+                t[0]++;
+                t[1] += nanos;
+                t[2] += sourceBytes;
+                t[3] += tokens;
+                t[4] += nodes;
+                t[5] += allocated;
+            }
+        }
+    }
+
+    // dužina u UTF-8 bez pravljenja niza bajtova
+    public static long utf8Length(String s) {
+        long bytes = 0;
+        for (int k = 0; k < s.length(); k++) {
+            char c = s.charAt(k);
+            if (c < 0x80) bytes++;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isSurrogate(c)) bytes += 2;     // par surogata je 4 bajta
+            else bytes += 3;
+        }
+        return bytes;
+    }
+
+    // --stats: zbir po fazi, samo za faze koje su se izvršile
+    public static String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-12s %7s %11s %12s %11s %11s %14s%n",
+                "faza", "poziva", "vreme ms", "izvor B", "tokena", "čvorova", "alocirano B"));
+        synchronized (totals) {
+            for (Phase phase : Phase.values()) {
+                long[] t = totals[phase.ordinal()];
+                if (t[0] == 0) continue;
+                sb.append(String.format("%-12s %7d %11.2f %12d %11d %11d %14d%n",
+                        phase.label, t[0], t[1] / 1e6, t[2], t[3], t[4], t[5]));
+            }
+        }
+        return sb.toString();
+    }
+
+    // java.management se učitava tek kada se nešto meri
+    private static final class Allocation {
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        static long current() {
+            return THREADS == null ? 0 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+        private static com.sun.management.ThreadMXBean threads() {
+            if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean t
+                    && t.isThreadAllocatedMemorySupported()) {
+                if (!t.isThreadAllocatedMemoryEnabled()) t.setThreadAllocatedMemoryEnabled(true);
+                return t;
+            }
+            return null;
+        }
+    }
+}
@@ -46,6 +46,7 @@ public final class Ast {
     public static final class Param {
         public final Token name;
         public final Type type;
+        public Symbol symbol;           // popunjava TypeChecker
 
         public Param(Token name, Type type) {
             this.name = name;
@@ -56,27 +57,50 @@ public final class Ast {
     public static class Type {
 
         public enum Kind {
-            INT, REAL, CHAR, STRING, BOOL, VOID, ARRAY
+            INT("broj"), REAL("realan"), CHAR("slovo"), STRING("tekst"), BOOL("pogodak"), VOID("void"), ARRAY("niz");
+
+            public final String slangName;
+
+            Kind(String slangName) {
+                this.slangName = slangName;
+            }
         }
 
         public final Kind kind;
         public final Token token;
-        public final int rank;          // broj dimenzija niza
+        public final int rank;          // broj dimenzija niza, 0 ako nije poznat
         public final List<Expr> dims;   // dimenzije
+        public final Kind element;      // tip elemenata niza (niz:tip), podrazumevano broj
 
-        public Type(Kind kind, Token token, int rank, List<Expr> dims) {
+        public Type(Kind kind, Token token, int rank, List<Expr> dims, Kind element) {
             this.kind = kind;
             this.token = token;
             this.rank = rank;
             this.dims = dims;
+            this.element = kind == Kind.ARRAY ? element : null;
+        }
+
+        public Type(Kind kind, Token token, int rank, List<Expr> dims) {
+            this(kind, token, rank, dims, Kind.INT);
         }
 
         public Type(Kind kind, Token token, int rank) {
             this(kind, token, rank, new ArrayList<>());
         }
 
+        public static Type of(Kind kind) {
+            return new Type(kind, null, 0);
+        }
+
         public boolean isArray() {
             return kind == Kind.ARRAY;
         }
+
+        @Override
+        public String toString() {
+            if (!isArray()) return kind.slangName;
+            String s = "niz:" + element.slangName;
+            return rank > 0 ? s + "[]".repeat(rank) : s;
+        }
     }
 }
@@ -0,0 +1,145 @@
+package parser;
+
+import java.util.List;
+
+// Broj čvorova AST-a: stavke programa, parametri, naredbe i izrazi, uključujući dimenzije nizova.
+// Koristi ga merenje faza (metrics.Probe) samo kada se meri, jer obilazi celo stablo.
+public final class AstCounter implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+
+    private long nodes;
+
+    private AstCounter() {}
+
+    public static long count(Ast.Program program) {
+        AstCounter counter = new AstCounter();
+        for (Ast.TopItem item : program.items) {
+            counter.nodes++;
+            if (item instanceof Ast.FuncDef f) {
+                counter.nodes += f.params.size();
+                counter.statements(f.body);
+            } else if (item instanceof Ast.TopVarDecl g) {
+                g.decl.accept(counter);
+            } else if (item instanceof Ast.TopStmt ts) {
+                ts.stmt.accept(counter);
+            }
+        }
+        return counter.nodes;
+    }
+
+    private void statements(List<Stmt> statements) {
+        for (Stmt s : statements) s.accept(this);
+    }
+
+    private void expressions(List<Expr> expressions) {
+        for (Expr e : expressions) if (e != null) e.accept(this);
+    }
+
+    // ---------- izrazi ----------
+
+    @Override public Void visitLiteral(Expr.Literal e) {
+        nodes++;
+        return null;
+    }
+
+    @Override public Void visitIdent(Expr.Ident e) {
+        nodes++;
+        return null;
+    }
+
+    @Override public Void visitIndex(Expr.Index e) {
+        nodes++;
+        expressions(e.indices);
+        return null;
+    }
+
+    @Override public Void visitGrouping(Expr.Grouping e) {
+        nodes++;
+        e.inner.accept(this);
+        return null;
+    }
+
+    @Override public Void visitCall(Expr.Call e) {
+        nodes++;
+        expressions(e.args);
+        return null;
+    }
+
+    @Override public Void visitUnary(Expr.Unary e) {
+        nodes++;
+        e.right.accept(this);
+        return null;
+    }
+
+    @Override public Void visitBinary(Expr.Binary e) {
+        nodes++;
+        e.left.accept(this);
+        e.right.accept(this);
+        return null;
+    }
+
+    // ---------- naredbe ----------
+
+    @Override public Void visitVarDecl(Stmt.VarDecl s) {
+        nodes++;
+        expressions(s.dims);
+        if (s.initializer != null) s.initializer.accept(this);
+        return null;
+    }
+
+    @Override public Void visitAssign(Stmt.Assign s) {
+        nodes++;
+        s.target.accept(this);
+        s.value.accept(this);
+        return null;
+    }
+
+    @Override public Void visitIf(Stmt.If s) {
+        nodes++;
+        s.condition.accept(this);
+        s.thenBranch.accept(this);
+        if (s.elseBranch != null) s.elseBranch.accept(this);
+        return null;
+    }
+
+    @Override public Void visitWhile(Stmt.While s) {
+        nodes++;
+        s.condition.accept(this);
+        s.body.accept(this);
+        return null;
+    }
+
+    @Override public Void visitReturn(Stmt.Return s) {
+        nodes++;
+        s.value.accept(this);
+        return null;
+    }
+
+    @Override public Void visitBlock(Stmt.Block s) {
+        nodes++;
+        statements(s.statements);
+        return null;
+    }
+
+    @Override public Void visitExprStmt(Stmt.ExpressionStmt s) {
+        nodes++;
+        s.expression.accept(this);
+        return null;
+    }
+
+    @Override public Void visitEmpty(Stmt.Empty s) {
+        nodes++;
+        return null;
+    }
+
+    @Override public Void visitParallel(Stmt.Parallel s) {
+        nodes++;
+        statements(s.branches);
+        return null;
+    }
+
+    @Override public Void visitFunDecl(Stmt.FunDecl s) {
+        nodes += 1 + s.parametri.size();
+        s.telo.accept(this);
+        return null;
+    }
+}
@@ -16,6 +16,8 @@ public abstract class Expr {
         R visitBinary(Binary e);
     }
 
+    public Ast.Type type;   // statički tip, popunjava TypeChecker
+
     public abstract <R> R accept(Visitor<R> v);
 
     public static final class Literal extends Expr {
@@ -35,6 +37,7 @@ public abstract class Expr {
 
     public static final class Ident extends Expr {
         public final Token name; // IDENT
+        public Symbol symbol;
 
         public Ident(Token name) {
             this.name = name;
@@ -49,6 +52,7 @@ public abstract class Expr {
     public static final class Index extends Expr {
         public final Token name; // IDENT
         public final List<Expr> indices;
+        public Symbol symbol;
 
         public Index(Token name, List<Expr> indices) {
             this.name = name;
@@ -78,6 +82,7 @@ public abstract class Expr {
 
         public final Token callee;  // IDENT
         public final List<Expr> args;
+        public Symbol symbol;
         public Call(Token callee, List<Expr> args) {
             this.callee = callee; this.args = args;
         }
@@ -1,11 +1,15 @@
 package parser;
 
 
+import metrics.Phase;
+import metrics.Probe;
+
 import java.util.List;
 
 public final class JsonAstPrinter implements Expr.Visitor<String>, Stmt.Visitor<String> {
 
     public String print(Ast.Program program) {
+        Probe probe = Probe.begin(Phase.JSON_PRINT);
         StringBuilder sb = new StringBuilder();
         sb.append("{\n");
         sb.append("  \"type\": \"program\",\n");
@@ -19,7 +23,9 @@ public final class JsonAstPrinter implements Expr.Visitor<String>, Stmt.Visitor<
             first = false;
         }
         sb.append("\n  ]\n}");
-        return sb.toString();
+        String json = sb.toString();
+        if (probe != null) probe.nodes(AstCounter.count(program)).end();
+        return json;
     }
 
     private String printTopItem(Ast.TopItem item) {
@@ -172,6 +178,17 @@ public final class JsonAstPrinter implements Expr.Visitor<String>, Stmt.Visitor<
 
 
 
+    @Override public String visitParallel(Stmt.Parallel s) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{ \"stmt\": \"paralelno\", \"branches\": [");
+        for (int i = 0; i < s.branches.size(); i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(s.branches.get(i).accept(this));
+        }
+        sb.append("] }");
+        return sb.toString();
+    }
+
     @Override public String visitEmpty(Stmt.Empty s) {
         return "{ \"stmt\": \"empty\" }";
     }
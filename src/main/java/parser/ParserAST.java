@@ -1,6 +1,9 @@
 package parser;
 
+import lexer.SymbolTable;
 import lexer.token.Token;
+import metrics.Phase;
+import metrics.Probe;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,25 +31,13 @@ public class ParserAST {
     }
 
     public Ast.Program parseProgram() {
+        Probe probe = Probe.begin(Phase.PARSER);
         List<Ast.TopItem> items = new ArrayList<>();
 
         while (!isAtEnd() && checkTip()) {
             Stmt.FunDecl funDecl = definicijaFunkcije();
 
-            Ast.Type returnType = new Ast.Type(
-                    switch (funDecl.tip.type) {
-                        case BROJ -> Ast.Type.Kind.INT;
-                        case REALAN -> Ast.Type.Kind.REAL;
-                        case SLOVO -> Ast.Type.Kind.CHAR;
-                        case TEKST -> Ast.Type.Kind.STRING;
-                        case POGODAK -> Ast.Type.Kind.BOOL;
-                        case NIZ -> Ast.Type.Kind.ARRAY;
-                        default -> Ast.Type.Kind.VOID;
-                    },
-                    funDecl.tip,
-                    0,
-                    List.of()
-            );
+            Ast.Type returnType = funDecl.parsedType;
 
             List<Ast.Param> params = new ArrayList<>();
             for (Stmt.FunDecl.Param p : funDecl.parametri) {
@@ -74,21 +65,35 @@ public class ParserAST {
         Stmt.Block mainBlock = glavniBlok();
         items.add(new Ast.TopStmt(mainBlock));
 
-        return new Ast.Program(items);
+        Ast.Program program = new Ast.Program(items);
+        if (probe != null) probe.tokens(tokens.size()).nodes(AstCounter.count(program)).end();
+        return program;
+    }
+
+
+    private static Ast.Type.Kind kindOf(Token tipToken) {
+        return switch (tipToken.type) {
+            case BROJ -> Ast.Type.Kind.INT;
+            case REALAN -> Ast.Type.Kind.REAL;
+            case SLOVO -> Ast.Type.Kind.CHAR;
+            case TEKST -> Ast.Type.Kind.STRING;
+            case POGODAK -> Ast.Type.Kind.BOOL;
+            case NIZ -> Ast.Type.Kind.ARRAY;
+            default -> Ast.Type.Kind.VOID;
+        };
     }
 
+    // niz:tip zadaje tip elemenata, bez njega elementi su broj
+    private Ast.Type.Kind tipElementa(Token tipToken) {
+        if (tipToken.type != TokenType.NIZ || !match(TokenType.TYPE_COLON)) return Ast.Type.Kind.INT;
+        Token element = consumeTip("Očekivan tip elemenata niza posle ':'");
+        if (element.type == TokenType.NIZ) throw error(element, "Element niza ne može biti niz");
+        return kindOf(element);
+    }
 
     private Ast.Type parseTypeWithArrayDims(Token tipToken) {
-        Ast.Type.Kind kind =
-                switch (tipToken.type) {
-                    case BROJ -> Ast.Type.Kind.INT;
-                    case REALAN -> Ast.Type.Kind.REAL;
-                    case SLOVO -> Ast.Type.Kind.CHAR;
-                    case TEKST -> Ast.Type.Kind.STRING;
-                    case POGODAK -> Ast.Type.Kind.BOOL;
-                    case NIZ -> Ast.Type.Kind.ARRAY;
-                    default -> Ast.Type.Kind.VOID;
-                };
+        Ast.Type.Kind kind = kindOf(tipToken);
+        Ast.Type.Kind element = tipElementa(tipToken);
 
         List<Expr> dims = new ArrayList<>();
         int rank = 0;
@@ -103,12 +108,13 @@ public class ParserAST {
             rank++;
         }
 
-        return new Ast.Type(kind, tipToken, rank, dims);
+        return new Ast.Type(kind, tipToken, rank, dims, element);
     }
 
 
     private Stmt.FunDecl definicijaFunkcije() {
         Token tip = consumeTip("Očekivan tip povratne vrednosti funkcije");
+        Ast.Type povratniTip = new Ast.Type(kindOf(tip), tip, 0, List.of(), tipElementa(tip));
         Token ime = consume(TokenType.IDENT, "Očekivan identifikator funkcije");
         consume(TokenType.LPAREN, "Očekivano '(' posle imena funkcije");
 
@@ -121,7 +127,7 @@ public class ParserAST {
 
         Stmt.Block telo = blok();
 
-        return new Stmt.FunDecl(tip, ime, parametri, telo);
+        return new Stmt.FunDecl(tip, ime, parametri, telo, povratniTip);
     }
 
     private List<Stmt.FunDecl.Param> listaParametara() {
@@ -167,6 +173,7 @@ public class ParserAST {
         if (match(TokenType.AKO)) return ifNaredba();
         if (match(TokenType.RADI)) return whileNaredba();
         if (match(TokenType.VRATI)) return vratiNaredba();
+        if (match(TokenType.PARALELNO)) return paralelnoNaredba();
         if (match(TokenType.SEMICOLON)) return new Stmt.Empty();
 
         if (check(TokenType.IDENT)) {
@@ -186,6 +193,7 @@ public class ParserAST {
         } else {
             typeToken = consumeTip("Očekivan tip (broj, realan, tekst, niz, ...)");
         }
+        Ast.Type.Kind element = tipElementa(typeToken);
 
         Token name = consume(TokenType.IDENT, "Očekivano ime promenljive");
 
@@ -206,7 +214,8 @@ public class ParserAST {
 
         consume(TokenType.SEMICOLON, "Očekivano ';' nakon deklaracije");
 
-        return new Stmt.VarDecl(typeToken.lexeme, name, initializer);
+        Ast.Type varType = new Ast.Type(kindOf(typeToken), typeToken, dimensions.size(), dimensions, element);
+        return new Stmt.VarDecl(typeToken.lexeme, name, dimensions, initializer, varType);
     }
     private Expr lVrednost() {
         Token name = consume(TokenType.IDENT, "Očekivan identifikator");
@@ -290,7 +299,8 @@ public class ParserAST {
                 null,
                 funcTok.line,
                 funcTok.colStart,
-                funcTok.colEnd
+                funcTok.colEnd,
+                SymbolTable.NAPISI
         );
 
         Expr.Call call = new Expr.Call(callee, List.of(argument));
@@ -312,7 +322,8 @@ public class ParserAST {
                 null,
                 funcTok.line,
                 funcTok.colStart,
-                funcTok.colEnd
+                funcTok.colEnd,
+                SymbolTable.UPISI
         );
 
         Expr.Call call = new Expr.Call(callee, List.of(new Expr.Ident(varName)));
@@ -320,6 +331,28 @@ public class ParserAST {
     }
 
 
+    // enkriptuj(podatak, kljuc) i dekriptuj(podatak, kljuc) su izrazi
+    private Expr.Call sifra() {
+        Token funcTok = previous();
+        boolean encrypt = funcTok.type == TokenType.ENKRIPTUJ;
+
+        consume(TokenType.LPAREN, "Očekivano '(' nakon '" + funcTok.lexeme + "'");
+        List<Expr> args = listaArgumenata();
+        consume(TokenType.RPAREN, "Očekivano ')' nakon argumenata");
+
+        Token callee = new Token(
+                TokenType.IDENT,
+                funcTok.lexeme,
+                null,
+                funcTok.line,
+                funcTok.colStart,
+                funcTok.colEnd,
+                encrypt ? SymbolTable.ENKRIPTUJ : SymbolTable.DEKRIPTUJ
+        );
+        return new Expr.Call(callee, args);
+    }
+
+
     private Stmt.If ifNaredba() {
 
         consume(TokenType.LPAREN, "Očekivano '(' posle 'ako'");
@@ -359,6 +392,17 @@ public class ParserAST {
         return new Stmt.While(cond, body);
     }
 
+    private Stmt.Parallel paralelnoNaredba() {
+        Token keyword = previous();
+        consume(TokenType.LBRACE, "Očekivano '{' posle 'paralelno'");
+        List<Stmt> branches = new ArrayList<>();
+        while (!check(TokenType.RBRACE) && !isAtEnd()) {
+            branches.add(naredba());
+        }
+        consume(TokenType.RBRACE, "Očekivano '}' nakon bloka 'paralelno'");
+        return new Stmt.Parallel(keyword, branches);
+    }
+
     private Stmt.Return vratiNaredba() {
         Expr value = izraz();
         consume(TokenType.SEMICOLON, "Očekivano ';' nakon 'vrati'");
@@ -489,6 +533,8 @@ public class ParserAST {
         }
 
 
+        if (match(TokenType.ENKRIPTUJ, TokenType.DEKRIPTUJ)) return sifra();
+
         if (match(TokenType.LPAREN)) {
             Expr expr = izraz();
             consume(TokenType.RPAREN, "Očekivano ')' nakon izraza");
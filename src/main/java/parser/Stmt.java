@@ -16,6 +16,7 @@ public abstract class Stmt {
         R visitBlock(Block stmt);
         R visitExprStmt(ExpressionStmt stmt);
         R visitEmpty(Empty stmt);
+        R visitParallel(Parallel stmt);
 
         R visitFunDecl(FunDecl stmt);
     }
@@ -27,12 +28,17 @@ public abstract class Stmt {
     public static final class VarDecl extends Stmt {
         public final String type;   // broj, realan, slovo, tekst, pogodak, niz
         public final Token name;    // IDENT
+        public final List<Expr> dims; // dimenzije niza, null za []
         public final Expr initializer;
+        public final Ast.Type varType;
+        public Symbol symbol;       // popunjava TypeChecker
 
-        public VarDecl(String type, Token name, Expr initializer) {
+        public VarDecl(String type, Token name, List<Expr> dims, Expr initializer, Ast.Type varType) {
             this.type = type;
             this.name = name;
+            this.dims = dims;
             this.initializer = initializer;
+            this.varType = varType;
         }
 
         @Override
@@ -127,6 +133,24 @@ public abstract class Stmt {
         }
     }
 
+    // paralelno { ... }: svaka naredba bloka je grana koja se izvršava na svojoj niti
+    public static final class Parallel extends Stmt {
+        public final Token keyword;
+        public final List<Stmt> branches;
+        public List<List<Symbol>> inputs;   // po grani: spoljne promenljive koje grana koristi; popunjava TypeChecker
+        public List<List<Symbol>> outputs;  // po grani: spoljne promenljive kojima grana dodeljuje vrednost
+
+        public Parallel(Token keyword, List<Stmt> branches) {
+            this.keyword = keyword;
+            this.branches = branches;
+        }
+
+        @Override
+        public <R> R accept(Visitor<R> v) {
+            return v.visitParallel(this);
+        }
+    }
+
     //funkcije
 
     public static final class FunDecl extends Stmt {
@@ -134,12 +158,14 @@ public abstract class Stmt {
         public final Token ime;
         public final List<Param> parametri;
         public final Block telo;
+        public final parser.Ast.Type parsedType;
 
-        public FunDecl(Token tip, Token ime, List<Param> parametri, Block telo) {
+        public FunDecl(Token tip, Token ime, List<Param> parametri, Block telo, parser.Ast.Type parsedType) {
             this.tip = tip;
             this.ime = ime;
             this.parametri = parametri;
             this.telo = telo;
+            this.parsedType = parsedType;
         }
 
         @Override
@@ -0,0 +1,34 @@
+package parser;
+
+import lexer.token.Token;
+
+// deklaracija na koju se razrešava identifikator
+public final class Symbol {
+
+    public enum Kind {
+        GLOBAL, LOCAL, PARAM, FUNCTION, BUILTIN
+    }
+
+    public final Kind kind;
+    public final String name;
+    public final Ast.Type type;         // za funkcije povratni tip
+    public final Token token;           // mesto deklaracije, null za ugrađene
+    public final Ast.FuncDef function;  // samo za FUNCTION
+
+    public Symbol(Kind kind, String name, Ast.Type type, Token token, Ast.FuncDef function) {
+        this.kind = kind;
+        this.name = name;
+        this.type = type;
+        this.token = token;
+        this.function = function;
+    }
+
+    public boolean isVariable() {
+        return kind == Kind.GLOBAL || kind == Kind.LOCAL || kind == Kind.PARAM;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
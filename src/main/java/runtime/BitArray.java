@@ -0,0 +1,33 @@
+package runtime;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+// poslednja dimenzija niza pogodak: jedan bit po elementu, 64 u jednom long-u. Radnici paralelne
+// petlje pišu preko setAtomic, jer susedni indeksi iz različitih delova mogu biti u istoj reči.
+final class BitArray {
+
+    private static final VarHandle WORDS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    final long[] words;
+    final int length;
+
+    BitArray(int length) {
+        this.words = new long[(length + 63) >>> 6];
+        this.length = length;
+    }
+
+    boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    void set(int i, boolean v) {
+        if (v) words[i >>> 6] |= 1L << i;
+        else words[i >>> 6] &= ~(1L << i);
+    }
+
+    void setAtomic(int i, boolean v) {
+        if (v) WORDS.getAndBitwiseOr(words, i >>> 6, 1L << i);
+        else WORDS.getAndBitwiseAnd(words, i >>> 6, ~(1L << i));
+    }
+}
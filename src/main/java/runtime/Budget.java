@@ -0,0 +1,129 @@
+package runtime;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Granice jednog izvršavanja: gorivo, zauzeta memorija i rok. Jedinica goriva je jedan
+// prelazak između osnovnih blokova ili jedan poziv, pa svaka iteracija petlje troši gorivo.
+// Interpreter (i svaki njegov radnik) uzima gorivo u delovima od SLICE jedinica, a rok i otkazivanje
+// proverava samo pri uzimanju novog dela.
+public final class Budget {
+
+    static final long SLICE = 1 << 14;
+
+    public enum Limit {
+        FUEL, MEMORY, TIME, CANCELLED
+    }
+
+    // izvršavanje je prekinuto jer je prekoračena granica
+    public static final class Exceeded extends SlangRuntimeError {
+        public final Limit limit;
+
+        Exceeded(Limit limit, String message, int line) {
+            super(message, line);
+            this.limit = limit;
+        }
+    }
+
+    private final long fuelLimit;
+    private final AtomicLong fuel;
+    private final long memoryLimit;
+    private final AtomicLong memory = new AtomicLong();
+    private final AtomicLong peak = new AtomicLong();
+    private final long timeoutNanos;
+    private volatile long deadline;
+    private volatile boolean cancelled;
+    private final Semaphore turns;      // pravedan semafor izvršavanja koja dele jezgra, ili null
+
+    public Budget(long fuel, long memoryBytes, Duration timeout) {
+        this(fuel, memoryBytes, timeout, null);
+    }
+
+    public Budget(long fuel, long memoryBytes, Duration timeout, Semaphore turns) {
+        this.turns = turns;
+        this.fuelLimit = fuel;
+        this.fuel = new AtomicLong(fuel);
+        this.memoryLimit = memoryBytes;
+        this.timeoutNanos = timeout.toNanos();
+        start();
+    }
+
+    // rok teče od pravljenja, a ovim ispočetka; izvršavanje koje čeka na red poziva ga kada dobije jezgro
+    public void start() {
+        deadline = System.nanoTime() + timeoutNanos;
+    }
+
+    // sledeći deo goriva; ovde se proveravaju i rok i otkazivanje
+    long take(int line) {
+        if (cancelled) throw new Exceeded(Limit.CANCELLED, "izvršavanje je otkazano", line);
+        if (System.nanoTime() - deadline > 0) {
+            throw new Exceeded(Limit.TIME, "prekoračeno vreme izvršavanja (" + timeoutNanos / 1_000_000 + " ms)", line);
+        }
+        while (true) {
+            long left = fuel.get();
+            if (left <= 0) throw new Exceeded(Limit.FUEL, "potrošeno gorivo (" + fuelLimit + ")", line);
+            long slice = Math.min(left, SLICE);
+            if (fuel.compareAndSet(left, left - slice)) return slice;
+        }
+    }
+
+    // izvršavanje koje je potrošilo deo goriva ustupa jezgro; sa semaforom staje na kraj reda, iza
+    // izvršavanja koja su za to vreme stigla do semafora
+    void pause() {
+        if (turns != null) turns.release();
+        if (Thread.currentThread().isVirtual()) Thread.yield();
+        if (turns != null) turns.acquireUninterruptibly();
+    }
+
+    // nit koja izvršava deo programa (grana bloka paralelno, deo paralelne petlje) drži jedno mesto
+    // semafora kao i samostalno izvršavanje; nit koja čeka na svoje radnike za to vreme ga pušta
+    void enter() {
+        if (turns != null) turns.acquireUninterruptibly();
+    }
+
+    void leave() {
+        if (turns != null) turns.release();
+    }
+
+    // neiskorišćeni deo se vraća kada izvršavanje završi
+    void giveBack(long unused) {
+        if (unused > 0) fuel.addAndGet(unused);
+    }
+
+    // Nizovi se naplaćuju pri pravljenju i vraćaju kada se lokalni niz oslobodi. Tekst (spajanje,
+    // šifrovanje) i ispisani bajtovi se naplaćuju pri nastanku i ne vraćaju se: tekst ne prati vlasnika,
+    // a izlaz ostaje u memoriji do kraja izvršavanja. Odbijena alokacija se ne naplaćuje, pa zauzeće
+    // ostaje tačno i posle prekoračenja.
+    void allocate(long bytes, int line) {
+        if (bytes > memoryLimit) throw outOfMemory(line);
+        long used = memory.addAndGet(bytes);
+        if (used > memoryLimit) {
+            memory.addAndGet(-bytes);
+            throw outOfMemory(line);
+        }
+        peak.accumulateAndGet(used, Math::max);
+    }
+
+    private Exceeded outOfMemory(int line) {
+        return new Exceeded(Limit.MEMORY, "prekoračena memorija (" + memoryLimit + " bajtova)", line);
+    }
+
+    // lokalni niz je oslobođen na povratku iz funkcije
+    void release(long bytes) {
+        memory.addAndGet(-bytes);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public long fuelUsed() {
+        return fuelLimit - fuel.get();
+    }
+
+    // najveće istovremeno zauzeće
+    public long memoryUsed() {
+        return peak.get();
+    }
+}
@@ -0,0 +1,21 @@
+package runtime;
+
+import ir.Instr;
+
+// Jedno mesto poziva sa zapamćenom ciljnom funkcijom. Cilj važi dok se tabela funkcija
+// ne promeni; tada se mesto poziva ponovo razrešava pri sledećem pozivu.
+final class CallSite {
+
+    final String caller;
+    final Instr call;
+
+    FrameLayout target;
+    int version = -1;       // verzija tabele funkcija za koju važi target
+    long resolutions;
+    long hits;
+
+    CallSite(String caller, Instr call) {
+        this.caller = caller;
+        this.call = call;
+    }
+}
@@ -0,0 +1,103 @@
+package runtime;
+
+import java.io.IOException;
+
+// napisi i upisi programa prevedenog u JAR (aot.AotCompiler): isti bafer i čitač kao u interpreteru,
+// nad System.out i System.in. Grane bloka paralelno ih dele, pa se čitač zaključava za ceo red.
+public final class Console {
+
+    private static final OutputBuffer OUT = new OutputBuffer(System.out);
+    private static final InputReader IN = new InputReader(System.in);
+
+    private Console() {}
+
+    public static void print(int v) {
+        OUT.printInt(v);
+    }
+
+    public static void print(double v) {
+        OUT.printReal(v);
+    }
+
+    public static void print(char v) {
+        OUT.printChar(v);
+    }
+
+    public static void print(boolean v) {
+        OUT.printText(v ? "tacno" : "netacno");
+    }
+
+    public static void print(String v) {
+        OUT.printText(v);
+    }
+
+    public static void flush() {
+        OUT.flush();
+    }
+
+    public static int readInt(int line) {
+        synchronized (IN) {
+            next(line);
+            if (IN.parseInt()) return IN.value();
+            String text = IN.text();
+            try {
+                return Integer.parseInt(text.trim());
+            } catch (NumberFormatException e) {
+                throw invalid(text, "broj", line);
+            }
+        }
+    }
+
+    public static double readReal(int line) {
+        synchronized (IN) {
+            next(line);
+            String text = IN.text();
+            try {
+                return Double.parseDouble(text.trim());
+            } catch (NumberFormatException e) {
+                throw invalid(text, "realan", line);
+            }
+        }
+    }
+
+    public static char readChar(int line) {
+        synchronized (IN) {
+            next(line);
+            String text = IN.text();
+            return text.isEmpty() ? '\0' : text.charAt(0);
+        }
+    }
+
+    public static boolean readBool(int line) {
+        synchronized (IN) {
+            next(line);
+            String text = IN.text();
+            return switch (text.trim()) {
+                case "tacno" -> true;
+                case "netacno" -> false;
+                default -> throw invalid(text, "pogodak", line);
+            };
+        }
+    }
+
+    public static String readText(int line) {
+        synchronized (IN) {
+            next(line);
+            return IN.text();
+        }
+    }
+
+    // upit ispisan pre čitanja mora biti vidljiv, pa se izlaz prvo prazni
+    private static void next(int line) {
+        OUT.flush();
+        try {
+            if (!IN.next()) throw new SlangRuntimeError("nema više ulaza", line);
+        } catch (IOException e) {
+            throw new SlangRuntimeError("greška pri čitanju: " + e.getMessage(), line);
+        }
+    }
+
+    private static SlangRuntimeError invalid(String text, String type, int line) {
+        return new SlangRuntimeError("neispravan unos '" + text + "' za tip " + type, line);
+    }
+}
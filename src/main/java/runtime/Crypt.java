@@ -0,0 +1,19 @@
+package runtime;
+
+// enkriptuj i dekriptuj programa prevedenog u JAR; svaka nit ima svoju šifru, kao i u interpreteru
+public final class Crypt {
+
+    private static final ThreadLocal<StreamCipher> CIPHER = ThreadLocal.withInitial(StreamCipher::new);
+
+    private Crypt() {}
+
+    public static Object encrypt(Object data, String key, int line) {
+        if (data == null) throw new SlangRuntimeError("niz nije napravljen", line);
+        return CIPHER.get().encrypt(data, key, line);
+    }
+
+    public static Object decrypt(Object data, String key, int line) {
+        if (data == null) throw new SlangRuntimeError("niz nije napravljen", line);
+        return CIPHER.get().decrypt(data, key, line);
+    }
+}
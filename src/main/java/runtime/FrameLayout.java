@@ -0,0 +1,246 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+import ir.ParallelLoop;
+import parser.Ast.Type.Kind;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+// Statički raspored okvira jedne funkcije: svaka vrednost dobija mesto u jednoj od tri
+// banke. broj, slovo i pogodak idu u int banku, realan u double banku, a tekst i niz u banku referenci.
+// Uz raspored se jednom pripreme i blokovi kao nizovi, da izvršavanje ne prolazi kroz liste IR-a.
+final class FrameLayout {
+
+    static final byte NONE = 0;
+    static final byte INTS = 1;
+    static final byte REALS = 2;
+    static final byte REFS = 3;
+
+    // VectorKernel se ne sme ni učitati bez modula jdk.incubator.vector
+    static final boolean VECTORS = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    final IrFunction function;
+    final byte[] bank;          // po id-u instrukcije
+    final int[] slot;           // po id-u instrukcije, unutar svoje banke
+    final int[][] operands;     // po id-u instrukcije: mesta operanada
+    final byte[][] operandBanks;
+    final byte[] paramBank;     // po redosledu parametara
+    final int[] paramSlot;
+    final int ints;
+    final int reals;
+    final int refs;
+
+    final Instr[][] code;       // po id-u bloka
+    final int[] phis;           // po id-u bloka: broj phi čvorova na početku
+    final BasicBlock[][] succs; // po id-u bloka
+    final int[][] edges;        // po id-u bloka: redni broj bloka među prethodnicima svakog naslednika
+    final CallSite[] sites;     // po id-u instrukcije, samo za pozive
+    final VectorKernel[] kernels; // po id-u bloka, samo za zaglavlja vektorizovanih petlji
+    final ParallelRunner[] parallel; // po id-u bloka, samo za zaglavlja petlji koje se dele na jezgra
+    final int[] local;          // po id-u instrukcije: redni broj lokalnog niza u okviru, inače -1
+    final int locals;
+    final int[][] dead;         // po id-u instrukcije: mesta referenci koja se brišu pre nje, inače null
+
+    MemoCache cache;            // postavlja se samo za funkcije čiji se rezultati pamte
+
+    FrameLayout(IrFunction f) {
+        this.function = f;
+        this.bank = new byte[f.instrIdBound()];
+        this.slot = new int[f.instrIdBound()];
+        this.operands = new int[f.instrIdBound()][];
+        this.operandBanks = new byte[f.instrIdBound()][];
+        this.paramBank = new byte[f.paramTypes.size()];
+        this.paramSlot = new int[f.paramTypes.size()];
+        Arrays.fill(paramSlot, -1);
+
+        int[] next = new int[4];
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.type == null) continue;
+                byte k = bankOf(i.type);
+                bank[i.id] = k;
+                slot[i.id] = next[k]++;
+                if (i.op == Op.PARAM) {
+                    paramBank[(Integer) i.constant] = k;
+                    paramSlot[(Integer) i.constant] = slot[i.id];
+                }
+            }
+        }
+        // neiskorišćen parametar ipak dobija mesto, da bi pozivalac imao gde da upiše argument
+        for (int p = 0; p < paramSlot.length; p++) {
+            if (paramSlot[p] >= 0) continue;
+            paramBank[p] = bankOf(f.paramTypes.get(p));
+            paramSlot[p] = next[paramBank[p]]++;
+        }
+        this.ints = next[INTS];
+        this.reals = next[REALS];
+        this.refs = next[REFS];
+
+        this.code = new Instr[f.blockIdBound()][];
+        this.phis = new int[f.blockIdBound()];
+        this.succs = new BasicBlock[f.blockIdBound()][];
+        this.edges = new int[f.blockIdBound()][];
+        this.sites = new CallSite[f.instrIdBound()];
+        this.local = new int[f.instrIdBound()];
+        Arrays.fill(local, -1);
+        int owned = 0;
+        this.kernels = new VectorKernel[f.blockIdBound()];
+        for (BasicBlock b : f.blocks) {
+            code[b.id] = b.instrs.toArray(new Instr[0]);
+            phis[b.id] = b.phiCount();
+            succs[b.id] = b.succs.toArray(new BasicBlock[0]);
+            edges[b.id] = new int[b.succs.size()];
+            for (int s = 0; s < b.succs.size(); s++) edges[b.id][s] = b.succs.get(s).preds.indexOf(b);
+            for (Instr i : b.instrs) {
+                int[] ops = new int[i.operands.size()];
+                byte[] banks = new byte[ops.length];
+                for (int k = 0; k < ops.length; k++) {
+                    ops[k] = slot[i.operand(k).id];
+                    banks[k] = bank[i.operand(k).id];
+                }
+                operands[i.id] = ops;
+                operandBanks[i.id] = banks;
+                if (i.op == Op.CALL) sites[i.id] = new CallSite(f.name, i);
+                if (i.op == Op.NEW_ARRAY && i.local) local[i.id] = owned++;
+            }
+        }
+        this.locals = owned;
+        this.dead = deadRefs(f);
+        if (VECTORS) {
+            for (BasicBlock b : f.blocks) {
+                if (b.vector != null) kernels[b.id] = new VectorKernel(b.vector, this);
+            }
+        }
+        this.parallel = new ParallelRunner[f.blockIdBound()];
+        for (BasicBlock b : f.blocks) {
+            if (b.parallel != null) parallel[b.id] = new ParallelRunner(b.parallel, this);
+        }
+    }
+
+    // raspored radnika koji izvršava deo paralelne petlje: uslov petlje poredi indukcionu promenljivu
+    // sa dodatnim mestom za kraj dela, a izlaz iz petlje postaje povratak bez vrednosti
+    FrameLayout(FrameLayout base, ParallelLoop loop) {
+        this.function = base.function;
+        this.bank = base.bank;
+        this.slot = base.slot;
+        this.operands = base.operands.clone();
+        this.operandBanks = base.operandBanks.clone();
+        this.paramBank = base.paramBank;
+        this.paramSlot = base.paramSlot;
+        this.ints = base.ints + 1;
+        this.reals = base.reals;
+        this.refs = base.refs;
+        operands[loop.condition.id] = new int[] {base.slot[loop.induction.id], base.ints};
+        operands[loop.stop.id] = new int[0];
+        operandBanks[loop.stop.id] = new byte[0];
+
+        this.code = base.code.clone();
+        this.phis = base.phis.clone();
+        code[loop.exit.id] = new Instr[] {loop.stop};
+        phis[loop.exit.id] = 0;
+        this.succs = base.succs;
+        this.edges = base.edges;
+        this.sites = base.sites;
+        this.kernels = base.kernels;
+        this.parallel = new ParallelRunner[base.parallel.length];
+        this.local = base.local;
+        this.locals = base.locals;
+        this.dead = base.dead;
+    }
+
+    // ---------- živost referenci ----------
+
+    // tekst ili niz posle poslednje upotrebe ne sme da ostane u okviru, jer bi ga držao do povratka iz
+    // funkcije. Mesto se briše pre instrukcije koja sledi poslednju upotrebu (poziv se vraća u isti okvir
+    // tek posle nje), a vrednost koja je živa na izlazu iz nekog prethodnika, ali ne i na ulazu u blok,
+    // briše se pri ulasku u blok.
+    private int[][] deadRefs(IrFunction f) {
+        BitSet[] in = new BitSet[f.blockIdBound()];
+        BitSet[] out = new BitSet[f.blockIdBound()];
+        for (BasicBlock b : f.blocks) {
+            in[b.id] = new BitSet();
+            out[b.id] = new BitSet();
+        }
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int k = f.blocks.size() - 1; k >= 0; k--) {
+                BasicBlock b = f.blocks.get(k);
+                BitSet live = new BitSet();
+                for (BasicBlock s : b.succs) {
+                    live.or(in[s.id]);
+                    int edge = s.preds.indexOf(b);
+                    for (int p = 0; p < s.phiCount(); p++) use(live, s.instrs.get(p).operand(edge));
+                }
+                out[b.id] = (BitSet) live.clone();
+                for (int at = b.instrs.size() - 1; at >= 0; at--) {
+                    Instr i = b.instrs.get(at);
+                    live.clear(i.id);
+                    if (i.op != Op.PHI) for (Instr o : i.operands) use(live, o);
+                }
+                if (!live.equals(in[b.id])) {
+                    in[b.id] = live;
+                    changed = true;
+                }
+            }
+        }
+
+        int[][] dead = new int[f.instrIdBound()][];
+        for (BasicBlock b : f.blocks) {
+            int first = b.phiCount();
+            if (first == b.instrs.size()) continue;
+            BitSet live = (BitSet) out[b.id].clone();
+            for (int at = b.instrs.size() - 1; at >= first; at--) {
+                Instr i = b.instrs.get(at);
+                BitSet after = new BitSet();
+                if (!live.get(i.id)) use(after, i);
+                live.clear(i.id);
+                for (Instr o : i.operands) {
+                    if (!live.get(o.id)) use(after, o);
+                    use(live, o);
+                }
+                if (at + 1 < b.instrs.size()) add(dead, b.instrs.get(at + 1), after);
+            }
+            // phi bez upotrebe i vrednosti koje su žive samo na granama ka drugim naslednicima
+            BitSet gone = new BitSet();
+            for (BasicBlock pred : b.preds) gone.or(out[pred.id]);
+            gone.andNot(in[b.id]);
+            for (int p = 0; p < first; p++) {
+                Instr phi = b.instrs.get(p);
+                if (live.get(phi.id)) gone.clear(phi.id);
+                else use(gone, phi);
+            }
+            add(dead, b.instrs.get(first), gone);
+        }
+        return dead;
+    }
+
+    private void use(BitSet live, Instr value) {
+        if (value.type != null && bank[value.id] == REFS) live.set(value.id);
+    }
+
+    private void add(int[][] dead, Instr at, BitSet values) {
+        if (values.isEmpty()) return;
+        int[] more = values.stream().map(id -> slot[id]).toArray();
+        int[] known = dead[at.id];
+        if (known == null) {
+            dead[at.id] = more;
+            return;
+        }
+        int[] all = Arrays.copyOf(known, known.length + more.length);
+        System.arraycopy(more, 0, all, known.length, more.length);
+        dead[at.id] = all;
+    }
+
+    static byte bankOf(Kind k) {
+        return switch (k) {
+            case INT, CHAR, BOOL -> INTS;
+            case REAL -> REALS;
+            default -> REFS;
+        };
+    }
+}
@@ -0,0 +1,104 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+
+import java.util.Arrays;
+
+// Stek okvira jedne niti izvršavanja. Vrednosti svih okvira leže jedna za drugom u tri niza,
+// a okvir pamti samo gde počinje u svakom od njih. Objekti Frame se ponovo koriste po dubini.
+final class FrameStack {
+
+    static final class Frame {
+        FrameLayout layout;
+        int intBase;
+        int realBase;
+        int refBase;
+        BasicBlock block;
+        Instr[] code;           // instrukcije tekućeg bloka
+        int pc;                 // sledeća instrukcija u bloku
+        Instr pending;          // poziv koji čeka rezultat
+        MemoCache cache;        // keš u koji ide rezultat ovog okvira
+        Object[] key;           // argumenti pod kojima se rezultat pamti
+        Object[] owned = new Object[0];     // po rednom broju lokalnog niza: niz koji je okvir napravio
+        long[] ownedBytes = new long[0];    // bajtovi koje je taj niz naplatio
+        Object[] carried = new Object[0];   // lokalni nizovi ranijih funkcija okvira, predati repnim pozivima
+        long[] carriedBytes = new long[0];
+        int carriedCount;
+    }
+
+    int[] ints = new int[1024];
+    double[] reals = new double[256];
+    Object[] refs = new Object[256];
+    private Frame[] frames = new Frame[64];
+    int depth;
+
+    Frame top() {
+        return frames[depth - 1];
+    }
+
+    // okvir ispod vrha, kome se vraća rezultat
+    Frame caller() {
+        return frames[depth - 2];
+    }
+
+    Frame push(FrameLayout layout) {
+        if (depth == frames.length) frames = Arrays.copyOf(frames, frames.length * 2);
+        Frame fr = frames[depth];
+        if (fr == null) fr = frames[depth] = new Frame();
+        if (depth == 0) {
+            fr.intBase = fr.realBase = fr.refBase = 0;
+        } else {
+            Frame below = frames[depth - 1];
+            fr.intBase = below.intBase + below.layout.ints;
+            fr.realBase = below.realBase + below.layout.reals;
+            fr.refBase = below.refBase + below.layout.refs;
+        }
+        fr.layout = null;
+        depth++;
+        place(fr, layout);
+        return fr;
+    }
+
+    // okvir na vrhu steka dobija novu funkciju; koristi se i za repni poziv
+    void place(Frame fr, FrameLayout layout) {
+        if (fr.layout != null) clearRefs(fr);
+        fr.layout = layout;
+        if (fr.owned.length < layout.locals) {
+            fr.owned = new Object[layout.locals];
+            fr.ownedBytes = new long[layout.locals];
+        }
+        if (fr.intBase + layout.ints > ints.length) ints = Arrays.copyOf(ints, grow(ints.length, fr.intBase + layout.ints));
+        if (fr.realBase + layout.reals > reals.length) reals = Arrays.copyOf(reals, grow(reals.length, fr.realBase + layout.reals));
+        if (fr.refBase + layout.refs > refs.length) refs = Arrays.copyOf(refs, grow(refs.length, fr.refBase + layout.refs));
+        fr.block = layout.function.entry();
+        fr.code = layout.code[fr.block.id];
+        fr.pc = 0;
+        fr.pending = null;
+        fr.cache = null;
+        fr.key = null;
+    }
+
+    void pop() {
+        Frame fr = frames[--depth];
+        clearRefs(fr);
+        clearCarried(fr);
+    }
+
+    // da skinuti okvir ne bi zadržavao nizove i tekstove od sakupljača smeća. Lokalne nizove
+    // oslobađa interpreter pre skidanja ili repnog poziva, pa se ovde samo zaborave.
+    private void clearRefs(Frame fr) {
+        Arrays.fill(refs, fr.refBase, fr.refBase + fr.layout.refs, null);
+        Arrays.fill(fr.owned, 0, fr.layout.locals, null);
+    }
+
+    // skinuti okvir zaboravlja i nizove predate repnim pozivima; zauzeti okvir ih zadržava
+    private void clearCarried(Frame fr) {
+        Arrays.fill(fr.carried, 0, fr.carriedCount, null);
+        fr.carriedCount = 0;
+    }
+
+    private static int grow(int length, int needed) {
+        return Math.max(length * 2, needed);
+    }
+}
@@ -0,0 +1,96 @@
+package runtime;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Ulaz za upisi: red po red, kao BufferedReader.readLine (kraj reda je \n, \r ili \r\n), ali nad
+// bajtovima. Broj se čita direktno iz bajtova reda; tek kada to ne uspe, red se pretvara u String
+// i ide kroz Integer.parseInt, pa su prihvaćeni unosi i poruke o grešci isti kao ranije. Grane
+// bloka paralelno dele čitač, pa pozivalac zaključava čitač za ceo red.
+final class InputReader {
+
+    private final InputStream in;
+    private final byte[] buf = new byte[1 << 16];
+    private int pos;
+    private int len;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int value;
+    private boolean afterCr;    // prethodni red se završio sa \r, pa \n na početku sledećeg pripada njemu
+
+    InputReader(InputStream in) {
+        this.in = in;
+    }
+
+    // tekući red kao ceo broj u value, ako je zapisan samo ASCII ciframa (uz razmake i znak)
+    boolean parseInt() {
+        int k = 0;
+        int end = lineLength;
+        while (k < end && (line[k] & 0xff) <= ' ') k++;
+        while (end > k && (line[end - 1] & 0xff) <= ' ') end--;
+        boolean negative = k < end && line[k] == '-';
+        if (k < end && (line[k] == '-' || line[k] == '+')) k++;
+        if (k == end || end - k > 10) return false;
+        long v = 0;
+        for (; k < end; k++) {
+            int d = line[k] - '0';
+            if (d < 0 || d > 9) return false;
+            v = v * 10 + d;
+        }
+        if (negative) v = -v;
+        if (v < Integer.MIN_VALUE || v > Integer.MAX_VALUE) return false;
+        value = (int) v;
+        return true;
+    }
+
+    int value() {
+        return value;
+    }
+
+    String text() {
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+
+    // sledeći red; false na kraju ulaza. Posle \r se ne čita unapred, jer bi interaktivan ulaz čekao
+    // na sledeći red pre nego što se tekući vrati
+    boolean next() throws IOException {
+        lineLength = 0;
+        boolean any = false;
+        while (true) {
+            if (pos == len && !fill()) return any;
+            if (afterCr) {
+                afterCr = false;
+                if (buf[pos] == '\n') {
+                    pos++;
+                    continue;
+                }
+            }
+            any = true;
+            int start = pos;
+            while (pos < len && buf[pos] != '\n' && buf[pos] != '\r') pos++;
+            append(start, pos - start);
+            if (pos < len) {
+                afterCr = buf[pos++] == '\r';
+                return true;
+            }
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        pos = 0;
+        len = Math.max(n, 0);
+        return n > 0;
+    }
+
+    private void append(int from, int n) {
+        if (lineLength + n > line.length) {
+            byte[] bigger = new byte[Math.max(line.length * 2, lineLength + n)];
+            System.arraycopy(line, 0, bigger, 0, lineLength);
+            line = bigger;
+        }
+        System.arraycopy(buf, from, line, lineLength, n);
+        lineLength += n;
+    }
+}
@@ -0,0 +1,1275 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.IrModule;
+import ir.Op;
+import ir.Ops;
+import parser.Ast.Type.Kind;
+import runtime.FrameStack.Frame;
+import semantic.Purity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+// Izvršava optimizovani IR. Vrednosti su Integer, Double, Character, String, Boolean,
+// a niz je Object[] (višedimenzionalni niz je niz nizova); poslednja dimenzija niza broj,
+// realan, slovo i pogodak je int[], double[], char[] odnosno BitArray. Pozivi slang funkcija idu na sopstveni stek okvira
+// na heap-u (FrameStack), gde proste vrednosti stoje neupakovane, a repni poziv zauzima
+// okvir pozivaoca.
+public final class Interpreter {
+
+    public static final int DEFAULT_MEMO_CAPACITY = 1024;
+    public static final int DEFAULT_MAX_DEPTH = 1 << 20;
+    // paralelna petlja se deli tek kada broj iteracija puta procena tela pređe ovu granicu
+    public static final long PARALLEL_MIN_WORK = 1 << 16;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final IrModule module;
+    private final Map<String, Object> globals;
+    private final InputReader in;
+    private final OutputBuffer out;
+
+    private final Map<IrFunction, MemoCache> memo;
+    private final Map<String, Purity> purity;
+
+    private final Map<String, FrameLayout> layouts;
+    private int version;            // menja se kad god se promeni tabela funkcija
+    private final FrameStack stack = new FrameStack();
+    private int maxDepth = DEFAULT_MAX_DEPTH;
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ForkJoinPool pool;
+    // granice izvršavanja; tank je gorivo uzeto iz budget-a koje ovaj interpreter još nije potrošio
+    private Budget budget;
+    private long tank = Long.MAX_VALUE;
+    private boolean worker;
+    private StreamCipher cipher;    // pravi se pri prvom šifrovanju, posebno za svaku nit
+    // nizovi od bar offHeapThreshold bajtova idu van heap-a, u arenu koja se zatvara na kraju run()
+    private long offHeapThreshold;
+    private OffHeapArray.Arena arena;
+
+    // kada se niz upisuje u niz, dva reda matrice mogu biti isti niz, pa nezavisnost iteracija ne važi
+    private boolean sharedRows;
+    // oznake lokalnih nizova važe za funkcije sa kojima su izračunate; posle define se ne koriste
+    private boolean localArrays = true;
+
+    // međuprostor za argumente poziva i za istovremeno računanje phi čvorova
+    private int[] stagedInts = new int[16];
+    private double[] stagedReals = new double[16];
+    private Object[] stagedRefs = new Object[16];
+
+    public Interpreter(IrModule module, InputStream in, PrintStream out) {
+        this.module = module;
+        this.in = new InputReader(in);
+        this.out = new OutputBuffer(out);
+        this.globals = new HashMap<>();
+        this.memo = new LinkedHashMap<>();
+        this.purity = new LinkedHashMap<>();
+        this.layouts = new LinkedHashMap<>();
+        for (IrFunction f : module.functions()) {
+            layouts.put(f.name, new FrameLayout(f));
+            sharedRows |= storesArrays(f);
+        }
+    }
+
+    // radnik paralelne petlje ili grane bloka paralelno: deli funkcije i globalne promenljive, a ima svoj stek okvira
+    private Interpreter(Interpreter parent) {
+        this.module = parent.module;
+        this.in = parent.in;
+        this.out = parent.out;
+        this.globals = parent.globals;
+        this.memo = parent.memo;
+        this.purity = parent.purity;
+        this.layouts = parent.layouts;
+        this.version = parent.version;
+        this.maxDepth = parent.maxDepth;
+        this.threads = 1;
+        this.worker = true;
+        this.budget = parent.budget;
+        this.tank = budget == null ? Long.MAX_VALUE : budget.take(0);
+        this.arena = parent.arena;
+        this.localArrays = parent.localArrays;
+    }
+
+    private static boolean storesArrays(IrFunction f) {
+        for (BasicBlock b : f.blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op == Op.ASTORE && i.operand(i.operands.size() - 1).type == Kind.ARRAY) return true;
+            }
+        }
+        return false;
+    }
+
+    // keš dobijaju čiste funkcije čiji su parametri i rezultat prosti tipovi
+    public void enableMemo(Map<String, Purity> analysis, int capacity) {
+        purity.putAll(analysis);
+        for (IrFunction f : module.functions()) {
+            if (analysis.get(f.name) == Purity.PURE && hasScalarSignature(f)) {
+                MemoCache cache = new MemoCache(capacity);
+                memo.put(f, cache);
+                layouts.get(f.name).cache = cache;
+            }
+        }
+    }
+
+    private static boolean hasScalarSignature(IrFunction f) {
+        if (f.returnType == Kind.ARRAY || f.returnType == Kind.VOID) return false;
+        for (Kind k : f.paramTypes) {
+            if (k == Kind.ARRAY) return false;
+        }
+        return true;
+    }
+
+    // nova ili izmenjena funkcija (npr. iz REPL-a); zapamćeni ciljevi poziva time prestaju da važe.
+    // Čistoća nove verzije nije poznata, pa se njeni rezultati ne pamte.
+    public void define(IrFunction f) {
+        IrFunction old = module.function(f.name);
+        if (old != null) memo.remove(old);
+        purity.remove(f.name);
+        module.addFunction(f);
+        layouts.put(f.name, new FrameLayout(f));
+        sharedRows |= storesArrays(f);
+        localArrays = false;
+        version++;
+    }
+
+    // vektorizovane petlje se izvršavaju u trakama samo ako je JVM pokrenut sa --add-modules jdk.incubator.vector
+    public static boolean vectorsAvailable() {
+        return FrameLayout.VECTORS;
+    }
+
+    // nizovi van heap-a postoje samo ako JVM ima java.lang.foreign (JDK 21 i noviji)
+    public static boolean offHeapAvailable() {
+        return OffHeapArray.AVAILABLE;
+    }
+
+    // nizovi (osim nizova teksta) od bar toliko bajtova idu van heap-a; 0 isključuje
+    public void setOffHeapThreshold(long bytes) {
+        this.offHeapThreshold = OffHeapArray.AVAILABLE ? bytes : 0;
+    }
+
+    public void setMaxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+    }
+
+    // gorivo, memorija (nizovi, tekst i izlaz) i rok; null znači bez granica
+    public void setBudget(Budget budget) {
+        this.budget = budget;
+        this.tank = budget == null ? Long.MAX_VALUE : budget.take(0);
+    }
+
+    // broj jezgara za paralelne petlje; 1 ih izvršava sekvencijalno
+    public void setThreads(int threads) {
+        this.threads = threads;
+        if (pool != null) pool.shutdown();
+        pool = null;
+    }
+
+    public void run() {
+        if (offHeapThreshold > 0) arena = new OffHeapArray.Arena(offHeapThreshold);
+        try {
+            call(module.main(), new Object[0]);
+        } finally {
+            release();
+            out.flush();
+            if (arena != null) arena.close();
+            arena = null;
+        }
+    }
+
+    public Object call(IrFunction f, Object[] args) {
+        FrameLayout layout = layouts.get(f.name);
+        MemoCache cache = layout.cache;
+        if (cache != null) {
+            Object known = cache.get(args);
+            if (known != null) return known;
+        }
+        int base = stack.depth;
+        try {
+            Frame fr = push(layout, 0);
+            for (int k = 0; k < args.length; k++) {
+                store(fr, layout.paramBank[k], layout.paramSlot[k], args[k]);
+            }
+            fr.cache = cache;
+            fr.key = cache == null ? null : args.clone();
+            return execute(base);
+        } finally {
+            while (stack.depth > base) pop();
+        }
+    }
+
+    // skinuti okvir oslobađa svoje lokalne nizove
+    private void pop() {
+        Frame fr = stack.top();
+        for (int k = 0; k < fr.layout.locals; k++) {
+            if (fr.owned[k] != null) free(fr.owned[k], fr.ownedBytes[k]);
+        }
+        for (int k = 0; k < fr.carriedCount; k++) free(fr.carried[k], fr.carriedBytes[k]);
+        stack.pop();
+    }
+
+    private Frame push(FrameLayout layout, int line) {
+        if (stack.depth >= maxDepth) {
+            throw new SlangRuntimeError("prekoračena najveća dubina rekurzije (" + maxDepth + ") u funkciji "
+                    + layout.function.name, line);
+        }
+        return stack.push(layout);
+    }
+
+    // izvršava dok se ne vrati okvir na dubini base; rekurzija slang-a ne koristi Java stek
+    private Object execute(int base) {
+        Frame fr = stack.top();
+        while (true) {
+            Instr i = fr.code[fr.pc++];
+            FrameLayout l = fr.layout;
+            int[] dead = l.dead[i.id];
+            if (dead != null) {
+                for (int s : dead) stack.refs[fr.refBase + s] = null;
+            }
+            int[] ops = l.operands[i.id];
+            switch (i.op) {
+                case CONST -> store(fr, l.bank[i.id], l.slot[i.id], i.constant);
+                case PARAM -> { }   // pozivalac je već upisao argument
+                case COPY -> copy(fr, l.bank[i.id], ops[0], fr, l.slot[i.id]);
+                case ADD, SUB, MUL, DIV, MOD, LT, LE, GT, GE, EQ, NEQ -> binary(fr, i, ops);
+                case NEG, NOT, TO_REAL -> unary(fr, i, ops);
+                case LOAD_GLOBAL -> store(fr, l.bank[i.id], l.slot[i.id], globals.get((String) i.constant));
+                case STORE_GLOBAL -> globals.put((String) i.constant, operand(fr, i, 0));
+                case NEW_ARRAY -> {
+                    int[] dims = new int[ops.length];
+                    for (int d = 0; d < dims.length; d++) {
+                        dims[d] = stack.ints[fr.intBase + ops[d]];
+                        if (dims[d] < 0) throw new SlangRuntimeError("negativna dimenzija niza: " + dims[d], i.line);
+                    }
+                    int k = localArrays ? l.local[i.id] : -1;
+                    stack.refs[fr.refBase + l.slot[i.id]] = k < 0
+                            ? allocate((Kind) i.constant, dims, i.line, false)
+                            : allocateLocal(fr, k, (Kind) i.constant, dims, i.line);
+                }
+                case ALOAD -> loadElement(fr, i, ops);
+                case ASTORE -> storeElement(fr, i, ops);
+                case CALL -> fr = invoke(fr, i, ops);
+                case PARALLEL -> store(fr, l.bank[i.id], l.slot[i.id], runBranches(fr, i));
+                case PRINT -> print(fr, i, ops);
+                case READ -> read(fr, i);
+                case ENCRYPT, DECRYPT -> stack.refs[fr.refBase + l.slot[i.id]] = crypt(fr, i);
+                case JUMP -> enter(fr, 0);
+                case BRANCH -> enter(fr, truthy(fr, i, ops) ? 0 : 1);
+                case RETURN -> {
+                    boolean hasValue = ops.length > 0;
+                    if (fr.cache != null) fr.cache.put(fr.key, hasValue ? operand(fr, i, 0) : null);
+                    if (stack.depth - 1 == base) {
+                        Object result = hasValue ? operand(fr, i, 0) : null;
+                        pop();
+                        return result;
+                    }
+                    Frame caller = stack.caller();
+                    Instr pending = caller.pending;
+                    byte bank = caller.layout.bank[pending.id];
+                    int slot = caller.layout.slot[pending.id];
+                    if (!hasValue) store(caller, bank, slot, null);
+                    else if (l.operandBanks[i.id][0] == bank) copy(fr, bank, ops[0], caller, slot);
+                    else store(caller, bank, slot, operand(fr, i, 0));
+                    caller.pending = null;
+                    pop();
+                    fr = caller;
+                }
+                case PHI -> throw new IllegalStateException("phi usred bloka " + fr.block);
+            }
+        }
+    }
+
+    // vraća okvir koji se dalje izvršava: novi, isti (pogodak u kešu) ili zamenjeni (repni poziv)
+    private Frame invoke(Frame fr, Instr call, int[] ops) {
+        if (--tank < 0) refuel(call.line);
+        CallSite site = fr.layout.sites[call.id];
+        FrameLayout callee = site.target;
+        if (site.version == version) site.hits++;
+        else callee = resolve(site);
+        byte[] banks = fr.layout.operandBanks[call.id];
+        int argc = ops.length;
+        stage(argc);
+        for (int k = 0; k < argc; k++) {
+            byte target = callee.paramBank[k];
+            if (banks[k] != target) {
+                stageBoxed(target, k, operand(fr, call, k));
+                continue;
+            }
+            switch (target) {
+                case FrameLayout.INTS -> stagedInts[k] = stack.ints[fr.intBase + ops[k]];
+                case FrameLayout.REALS -> stagedReals[k] = stack.reals[fr.realBase + ops[k]];
+                default -> stagedRefs[k] = stack.refs[fr.refBase + ops[k]];
+            }
+        }
+
+        MemoCache cache = callee.cache;
+        Object[] key = null;
+        if (cache != null) {
+            key = new Object[argc];
+            for (int k = 0; k < argc; k++) key[k] = staged(callee, k);
+            Object known = cache.get(key);
+            if (known != null) {
+                store(fr, fr.layout.bank[call.id], fr.layout.slot[call.id], known);
+                return fr;
+            }
+        }
+
+        // repni poziv zauzima okvir pozivaoca, osim ako pozivalac još treba da upiše rezultat u keš
+        Frame next;
+        if (isTailCall(fr, call) && fr.cache == null) {
+            next = fr;
+            releaseOwned(fr, callee, argc);
+            stack.place(next, callee);
+        } else {
+            fr.pending = call;
+            next = push(callee, call.line);
+        }
+        for (int k = 0; k < argc; k++) {
+            int to = callee.paramSlot[k];
+            switch (callee.paramBank[k]) {
+                case FrameLayout.INTS -> stack.ints[next.intBase + to] = stagedInts[k];
+                case FrameLayout.REALS -> stack.reals[next.realBase + to] = stagedReals[k];
+                default -> {
+                    stack.refs[next.refBase + to] = stagedRefs[k];
+                    stagedRefs[k] = null;
+                }
+            }
+        }
+        next.cache = cache;
+        next.key = key;
+        return next;
+    }
+
+    private FrameLayout resolve(CallSite site) {
+        FrameLayout target = layouts.get((String) site.call.constant);
+        if (target == null) throw new SlangRuntimeError("nepoznata funkcija " + site.call.constant, site.call.line);
+        site.target = target;
+        site.version = version;
+        site.resolutions++;
+        return target;
+    }
+
+    // Repni poziv oslobađa lokalne nizove okvira koji zauzima. Niz koji (ceo ili neki njegov red)
+    // prelazi u novi okvir kao argument ostaje okviru kao predat i oslobađa se kada ga kasniji
+    // repni poziv više ne preda, ili na povratku.
+    private void releaseOwned(Frame fr, FrameLayout callee, int argc) {
+        int kept = 0;
+        for (int k = 0; k < fr.carriedCount; k++) {
+            Object a = fr.carried[k];
+            long bytes = fr.carriedBytes[k];
+            fr.carried[k] = null;
+            if (passed(a, callee, argc)) carry(fr, kept++, a, bytes);
+            else free(a, bytes);
+        }
+        for (int k = 0; k < fr.layout.locals; k++) {
+            Object a = fr.owned[k];
+            if (a == null) continue;
+            if (passed(a, callee, argc)) carry(fr, kept++, a, fr.ownedBytes[k]);
+            else free(a, fr.ownedBytes[k]);
+        }
+        fr.carriedCount = kept;
+    }
+
+    private static void carry(Frame fr, int k, Object a, long bytes) {
+        if (k == fr.carried.length) {
+            fr.carried = Arrays.copyOf(fr.carried, k * 2 + 2);
+            fr.carriedBytes = Arrays.copyOf(fr.carriedBytes, k * 2 + 2);
+        }
+        fr.carried[k] = a;
+        fr.carriedBytes[k] = bytes;
+    }
+
+    private boolean passed(Object owned, FrameLayout callee, int argc) {
+        for (int k = 0; k < argc; k++) {
+            if (callee.paramBank[k] == FrameLayout.REFS && partOf(stagedRefs[k], owned)) return true;
+        }
+        return false;
+    }
+
+    private static boolean partOf(Object value, Object array) {
+        if (value == null) return false;
+        if (value == array) return true;
+        if (array instanceof OffHeapArray o) return value instanceof OffHeapArray v && o.sameArray(v);
+        if (array instanceof Object[] rows && !(value instanceof String)) {
+            for (Object row : rows) {
+                if (row == null || row instanceof String) return false;
+                if (partOf(value, row)) return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTailCall(Frame fr, Instr call) {
+        if (fr.pc != fr.code.length - 1) return false;
+        Instr ret = fr.code[fr.pc];
+        return ret.op == Op.RETURN && !ret.operands.isEmpty() && ret.operand(0) == call;
+    }
+
+    // prelazak na s-tog naslednika; phi čvorovi se računaju istovremeno, po grani kojom se ušlo u blok
+    private void enter(Frame fr, int s) {
+        if (--tank < 0) refuel(fr.code[fr.pc - 1].line);
+        FrameLayout l = fr.layout;
+        BasicBlock prev = fr.block;
+        BasicBlock next = l.succs[prev.id][s];
+        Instr[] code = l.code[next.id];
+        int phis = l.phis[next.id];
+        if (phis > 0) {
+            int k = l.edges[fr.block.id][s];
+            stage(phis);
+            for (int p = 0; p < phis; p++) {
+                Instr phi = code[p];
+                byte bank = l.bank[phi.id];
+                int from = l.operands[phi.id][k];
+                if (l.operandBanks[phi.id][k] != bank) {
+                    stageBoxed(bank, p, operand(fr, phi, k));
+                    continue;
+                }
+                switch (bank) {
+                    case FrameLayout.INTS -> stagedInts[p] = stack.ints[fr.intBase + from];
+                    case FrameLayout.REALS -> stagedReals[p] = stack.reals[fr.realBase + from];
+                    default -> stagedRefs[p] = stack.refs[fr.refBase + from];
+                }
+            }
+            for (int p = 0; p < phis; p++) {
+                int to = l.slot[code[p].id];
+                switch (l.bank[code[p].id]) {
+                    case FrameLayout.INTS -> stack.ints[fr.intBase + to] = stagedInts[p];
+                    case FrameLayout.REALS -> stack.reals[fr.realBase + to] = stagedReals[p];
+                    default -> {
+                        stack.refs[fr.refBase + to] = stagedRefs[p];
+                        stagedRefs[p] = null;
+                    }
+                }
+            }
+        }
+        fr.block = next;
+        fr.code = code;
+        fr.pc = phis;
+        // pri ulasku u vektorizovanu petlju celi vektori se obrade odjednom, a skalarna petlja nastavlja od ostatka
+        VectorKernel kernel = l.kernels[next.id];
+        if (kernel != null && prev == kernel.preheader) {
+            int done = kernel.run(stack, fr);
+            if (done > 0) {
+                tank -= done;
+                return;
+            }
+        }
+        ParallelRunner parallel = l.parallel[next.id];
+        if (parallel != null && prev == parallel.preheader) runParallel(fr, parallel);
+    }
+
+    // ---------- granice izvršavanja ----------
+
+    // prazan tank se dopunjava iz budget-a; dug koji je ostavila vektorska petlja se prvo otplaćuje
+    private void refuel(int line) {
+        if (budget == null) {
+            tank = Long.MAX_VALUE;
+            return;
+        }
+        while (tank < 0) tank += budget.take(line);
+        // virtuelna nit ne prekida se sama, pa posle svakog potrošenog dela goriva pušta druga izvršavanja na jezgro
+        budget.pause();
+    }
+
+    // radnici drže mesto u semaforu budget-a dok rade, a nit koja ih čeka ga za to vreme ustupa
+    private void enter() {
+        if (budget != null) budget.enter();
+    }
+
+    private void leave() {
+        if (budget != null) budget.leave();
+    }
+
+    private void release() {
+        if (budget == null) return;
+        budget.giveBack(tank);
+        tank = 0;
+    }
+
+    // ---------- paralelne petlje ----------
+
+    // iteracije se dele na delove koje radnici izvršavaju na svojim stekovima; posle toga okvir
+    // stoji na zaglavlju sa indukcionom promenljivom na kraju opsega, pa se petlja odmah završava
+    private void runParallel(Frame fr, ParallelRunner p) {
+        int i0 = p.start(stack, fr);
+        int end = p.end(stack, fr);
+        long trips = (long) end - i0;
+        if (threads < 2 || sharedRows || trips < 2 || trips * p.cost < PARALLEL_MIN_WORK) return;
+        if (!p.independent(stack, fr)) return;
+
+        int chunks = (int) Math.min(trips, (long) threads * CHUNKS_PER_THREAD);
+        List<Callable<SlangRuntimeError>> tasks = new ArrayList<>(chunks);
+        for (int c = 0; c < chunks; c++) {
+            int from = (int) (i0 + trips * c / chunks);
+            int to = (int) (i0 + trips * (c + 1) / chunks);
+            tasks.add(() -> {
+                enter();
+                try {
+                    return new Interpreter(this).iterate(stack, fr, p, from, to);
+                } finally {
+                    leave();
+                }
+            });
+        }
+        if (pool == null) pool = new ForkJoinPool(threads);
+        List<Future<SlangRuntimeError>> done;
+        leave();
+        try {
+            done = pool.invokeAll(tasks);
+        } finally {
+            enter();
+        }
+        // greška iz najranijeg dela je ona koju bi prijavilo sekvencijalno izvršavanje
+        for (Future<SlangRuntimeError> d : done) {
+            SlangRuntimeError error = join(d);
+            if (error != null) throw error;
+        }
+        p.advance(stack, fr, stack, fr, end);
+    }
+
+    private SlangRuntimeError iterate(FrameStack parentStack, Frame parent, ParallelRunner p, int from, int to) {
+        FrameLayout l = p.worker;
+        Frame fr = stack.push(l);
+        System.arraycopy(parentStack.ints, parent.intBase, stack.ints, fr.intBase, parent.layout.ints);
+        System.arraycopy(parentStack.reals, parent.realBase, stack.reals, fr.realBase, parent.layout.reals);
+        System.arraycopy(parentStack.refs, parent.refBase, stack.refs, fr.refBase, parent.layout.refs);
+        p.advance(parentStack, parent, stack, fr, from);
+        stack.ints[fr.intBase + l.ints - 1] = to;
+        fr.block = p.header;
+        fr.code = l.code[p.header.id];
+        fr.pc = l.phis[p.header.id];
+        try {
+            execute(0);
+            return null;
+        } catch (SlangRuntimeError e) {
+            return e;
+        } finally {
+            while (stack.depth > 0) pop();
+            release();
+        }
+    }
+
+    // ---------- blok paralelno ----------
+
+    // svaka grana je poziv svoje funkcije na virtuelnoj niti i sa svojim stekom okvira; rezultat je
+    // niz sa izlazima svake grane. Greška se prijavljuje iz prve grane po redu koja je pala.
+    // Grane se pod budget-om sa semaforom računaju kao zasebna izvršavanja.
+    private Object[] runBranches(Frame fr, Instr i) {
+        List<?> names = (List<?>) i.constant;
+        int n = names.size();
+        Object[] results = new Object[n];
+        Throwable[] failures = new Throwable[n];
+        Thread[] workers = new Thread[n];
+
+        // ciljevi poziva se razrešavaju pre pokretanja, pa ih grane samo čitaju
+        for (FrameLayout layout : layouts.values()) {
+            for (CallSite site : layout.sites) {
+                if (site != null && site.version != version && layouts.containsKey((String) site.call.constant)) {
+                    resolve(site);
+                }
+            }
+        }
+
+        leave();
+        try {
+            startBranches(fr, i, names, results, failures, workers);
+        } finally {
+            enter();
+        }
+        for (Throwable t : failures) {
+            if (t instanceof RuntimeException r) throw r;
+            if (t instanceof Error err) throw err;
+        }
+        return results;
+    }
+
+    private void startBranches(Frame fr, Instr i, List<?> names, Object[] results, Throwable[] failures, Thread[] workers) {
+        int from = 0;
+        for (int k = 0; k < names.size(); k++) {
+            FrameLayout branch = layouts.get((String) names.get(k));
+            Object[] args = new Object[branch.paramSlot.length];
+            for (int a = 0; a < args.length; a++) args[a] = operand(fr, i, from + a);
+            from += args.length;
+            Interpreter worker = new Interpreter(this);
+            int index = k;
+            workers[k] = Thread.ofVirtual().name(branch.function.name).start(() -> {
+                enter();
+                try {
+                    results[index] = worker.call(branch.function, args);
+                } catch (Throwable t) {
+                    failures[index] = t;
+                } finally {
+                    worker.release();
+                    leave();
+                }
+            });
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("prekinuto izvršavanje bloka paralelno", e);
+            }
+        }
+    }
+
+    private static SlangRuntimeError join(Future<SlangRuntimeError> done) {
+        try {
+            return done.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("prekinuto izvršavanje paralelne petlje", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException r) throw r;
+            if (e.getCause() instanceof Error err) throw err;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // ---------- operacije ----------
+
+    private void binary(Frame fr, Instr i, int[] ops) {
+        FrameLayout l = fr.layout;
+        byte[] banks = l.operandBanks[i.id];
+        byte bank = banks[0];
+        if (bank != banks[1] || bank == FrameLayout.REFS) {
+            Object a = operand(fr, i, 0);
+            Object b = operand(fr, i, 1);
+            // spojen tekst se naplaćuje pre pravljenja, kao i rezultat šifrovanja
+            if (budget != null && i.op == Op.ADD && a instanceof String sa && b instanceof String sb) {
+                budget.allocate(16 + 2L * (sa.length() + sb.length()), i.line);
+            }
+            Object v = Ops.binary(i.op, a, b);
+            if (v == null) throw invalid(i);
+            store(fr, l.bank[i.id], l.slot[i.id], v);
+            return;
+        }
+
+        int[] ints = stack.ints;
+        int to = fr.intBase + l.slot[i.id];
+        if (bank == FrameLayout.INTS) {
+            int x = ints[fr.intBase + ops[0]];
+            int y = ints[fr.intBase + ops[1]];
+            ints[to] = switch (i.op) {
+                case ADD -> x + y;
+                case SUB -> x - y;
+                case MUL -> x * y;
+                case DIV -> {
+                    if (y == 0) throw invalid(i);
+                    yield x / y;
+                }
+                case MOD -> {
+                    if (y == 0) throw invalid(i);
+                    yield x % y;
+                }
+                default -> compare(i.op, Integer.compare(x, y));
+            };
+            return;
+        }
+
+        double[] reals = stack.reals;
+        double x = reals[fr.realBase + ops[0]];
+        double y = reals[fr.realBase + ops[1]];
+        switch (i.op) {
+            case ADD -> reals[fr.realBase + l.slot[i.id]] = x + y;
+            case SUB -> reals[fr.realBase + l.slot[i.id]] = x - y;
+            case MUL -> reals[fr.realBase + l.slot[i.id]] = x * y;
+            case DIV -> reals[fr.realBase + l.slot[i.id]] = x / y;
+            case MOD -> reals[fr.realBase + l.slot[i.id]] = x % y;
+            default -> ints[to] = compare(i.op, x, y);
+        }
+    }
+
+    // isto poređenje kao u Ops, ali kao 0/1 za int banku
+    private static int compare(Op op, int c) {
+        boolean r = switch (op) {
+            case LT -> c < 0;
+            case LE -> c <= 0;
+            case GT -> c > 0;
+            case GE -> c >= 0;
+            case EQ -> c == 0;
+            default -> c != 0;
+        };
+        return r ? 1 : 0;
+    }
+
+    // realni brojevi po IEEE pravilima: poređenje sa NaN je netačno osim !=, a 0.0 == -0.0
+    private static int compare(Op op, double x, double y) {
+        boolean r = switch (op) {
+            case LT -> x < y;
+            case LE -> x <= y;
+            case GT -> x > y;
+            case GE -> x >= y;
+            case EQ -> x == y;
+            default -> x != y;
+        };
+        return r ? 1 : 0;
+    }
+
+    private void unary(Frame fr, Instr i, int[] ops) {
+        FrameLayout l = fr.layout;
+        byte bank = l.operandBanks[i.id][0];
+        if (bank == FrameLayout.INTS) {
+            int x = stack.ints[fr.intBase + ops[0]];
+            switch (i.op) {
+                case NEG -> stack.ints[fr.intBase + l.slot[i.id]] = -x;
+                case NOT -> stack.ints[fr.intBase + l.slot[i.id]] = x == 0 ? 1 : 0;
+                default -> stack.reals[fr.realBase + l.slot[i.id]] = x;
+            }
+            return;
+        }
+        if (bank == FrameLayout.REALS && i.op == Op.NEG) {
+            stack.reals[fr.realBase + l.slot[i.id]] = -stack.reals[fr.realBase + ops[0]];
+            return;
+        }
+        Object v = Ops.unary(i.op, operand(fr, i, 0));
+        if (v == null) throw invalid(i);
+        store(fr, l.bank[i.id], l.slot[i.id], v);
+    }
+
+    private boolean truthy(Frame fr, Instr i, int[] ops) {
+        if (fr.layout.operandBanks[i.id][0] == FrameLayout.INTS) return stack.ints[fr.intBase + ops[0]] != 0;
+        return Ops.truthy(operand(fr, i, 0));
+    }
+
+    // ---------- vrednosti u okviru ----------
+
+    // k-ti operand kao objekat (za globalne, nizove, ispis i keš)
+    private Object operand(Frame fr, Instr i, int k) {
+        FrameLayout l = fr.layout;
+        int slot = l.operands[i.id][k];
+        return switch (l.operandBanks[i.id][k]) {
+            case FrameLayout.INTS -> {
+                int x = stack.ints[fr.intBase + slot];
+                yield switch (i.operand(k).type) {
+                    case CHAR -> (char) x;
+                    case BOOL -> x != 0;
+                    default -> x;
+                };
+            }
+            case FrameLayout.REALS -> stack.reals[fr.realBase + slot];
+            default -> stack.refs[fr.refBase + slot];
+        };
+    }
+
+    private void store(Frame fr, byte bank, int slot, Object value) {
+        switch (bank) {
+            case FrameLayout.INTS -> stack.ints[fr.intBase + slot] = asInt(value);
+            case FrameLayout.REALS -> stack.reals[fr.realBase + slot] = asReal(value);
+            default -> stack.refs[fr.refBase + slot] = value;
+        }
+    }
+
+    // vrednost iz jednog okvira u drugi (ili u isti), bez pakovanja
+    private void copy(Frame from, byte bank, int src, Frame to, int dst) {
+        switch (bank) {
+            case FrameLayout.INTS -> stack.ints[to.intBase + dst] = stack.ints[from.intBase + src];
+            case FrameLayout.REALS -> stack.reals[to.realBase + dst] = stack.reals[from.realBase + src];
+            default -> stack.refs[to.refBase + dst] = stack.refs[from.refBase + src];
+        }
+    }
+
+    private void stage(int n) {
+        if (stagedInts.length >= n) return;
+        stagedInts = new int[n * 2];
+        stagedReals = new double[n * 2];
+        stagedRefs = new Object[n * 2];
+    }
+
+    private void stageBoxed(byte bank, int k, Object value) {
+        switch (bank) {
+            case FrameLayout.INTS -> stagedInts[k] = asInt(value);
+            case FrameLayout.REALS -> stagedReals[k] = asReal(value);
+            default -> stagedRefs[k] = value;
+        }
+    }
+
+    private Object staged(FrameLayout callee, int k) {
+        return switch (callee.paramBank[k]) {
+            case FrameLayout.INTS -> switch (callee.function.paramTypes.get(k)) {
+                case CHAR -> (char) stagedInts[k];
+                case BOOL -> stagedInts[k] != 0;
+                default -> stagedInts[k];
+            };
+            case FrameLayout.REALS -> stagedReals[k];
+            default -> stagedRefs[k];
+        };
+    }
+
+    private static int asInt(Object v) {
+        if (v instanceof Integer x) return x;
+        if (v instanceof Character c) return c;
+        if (v instanceof Boolean b) return b ? 1 : 0;
+        return v instanceof Number n ? n.intValue() : 0;
+    }
+
+    private static double asReal(Object v) {
+        return v instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    // ---------- nizovi ----------
+
+    // približna veličina niza: 16 bajtova zaglavlja po nizu, a po elementu poslednje dimenzije
+    // 4 bajta za broj, 2 za slovo, 1/8 za pogodak i 8 za ostale
+    private static long arrayBytes(Kind element, int[] dims) {
+        long bytes = 0;
+        long arrays = 1;
+        for (int d = 0; d < dims.length; d++) {
+            boolean last = d == dims.length - 1;
+            long cells = !last ? dims[d] * 8L : switch (element) {
+                case INT -> dims[d] * 4L;
+                case CHAR -> dims[d] * 2L;
+                case BOOL -> (dims[d] + 63L) / 64 * 8;
+                default -> dims[d] * 8L;
+            };
+            if (arrays > Long.MAX_VALUE / (16 + cells) / 2) return Long.MAX_VALUE;
+            bytes += arrays * (16 + cells);
+            arrays *= Math.max(dims[d], 1);
+        }
+        return bytes;
+    }
+
+    private Object allocate(Kind element, int[] dims, int line, boolean local) {
+        // van heap-a mogu samo prosti elementi; tekst i rezultati grana bloka paralelno su reference
+        boolean primitive = element == Kind.INT || element == Kind.REAL || element == Kind.CHAR || element == Kind.BOOL;
+        if (arena != null && primitive) {
+            long bytes = OffHeapArray.bytes(element, dims);
+            if (bytes < 0) throw new SlangRuntimeError("niz je prevelik", line);
+            if (bytes >= arena.threshold) {
+                if (budget != null) budget.allocate(bytes, line);
+                return arena.allocate(element, dims, bytes, local);
+            }
+        }
+        if (budget != null) budget.allocate(arrayBytes(element, dims), line);
+        return newArray(element, dims, 0);
+    }
+
+    // Lokalan niz (EscapeAnalysis) pripada okviru. Prethodni niz iste instrukcije više nema ime, pa
+    // se istog oblika ponovo koristi posle brisanja, bez nove naplate, a drugačijeg se oslobađa.
+    private Object allocateLocal(Frame fr, int k, Kind element, int[] dims, int line) {
+        Object prev = fr.owned[k];
+        if (prev != null) {
+            if (sameShape(prev, dims)) {
+                clear(prev, element, dims.length);
+                return prev;
+            }
+            free(prev, fr.ownedBytes[k]);
+            fr.owned[k] = null;
+        }
+        Object a = allocate(element, dims, line, true);
+        fr.owned[k] = a;
+        fr.ownedBytes[k] = a instanceof OffHeapArray ? OffHeapArray.bytes(element, dims) : arrayBytes(element, dims);
+        return a;
+    }
+
+    // redovi lokalnog niza se ne zamenjuju, pa je dovoljno pratiti prvi red
+    private static boolean sameShape(Object a, int[] dims) {
+        if (a instanceof OffHeapArray o) return Arrays.equals(o.dims, dims);
+        for (int d = 0; d < dims.length; d++) {
+            if (dims[d] == 0 || length(a) != dims[d]) return false;
+            if (d + 1 < dims.length) a = ((Object[]) a)[0];
+        }
+        return true;
+    }
+
+    private static int length(Object a) {
+        return switch (a) {
+            case int[] x -> x.length;
+            case double[] x -> x.length;
+            case char[] x -> x.length;
+            case BitArray x -> x.length;
+            case Object[] x -> x.length;
+            default -> -1;
+        };
+    }
+
+    private static void clear(Object a, Kind element, int rank) {
+        switch (a) {
+            case OffHeapArray o -> o.clear();
+            case int[] x -> Arrays.fill(x, 0);
+            case double[] x -> Arrays.fill(x, 0.0);
+            case char[] x -> Arrays.fill(x, '\0');
+            case BitArray x -> Arrays.fill(x.words, 0L);
+            case Object[] x when rank > 1 -> {
+                for (Object row : x) clear(row, element, rank - 1);
+            }
+            case Object[] x -> Arrays.fill(x, defaultValue(element));
+            default -> throw new IllegalStateException("nepoznat raspored niza");
+        }
+    }
+
+    private void free(Object a, long bytes) {
+        if (budget != null) budget.release(bytes);
+        if (a instanceof OffHeapArray o) arena.free(o);
+    }
+
+    // raspored poslednje dimenzije se bira po tipu elementa; tekst ostaje Object[]
+    private static Object newArray(Kind element, int[] dims, int level) {
+        int n = dims[level];
+        if (level + 1 < dims.length) {
+            Object[] a = new Object[n];
+            for (int k = 0; k < n; k++) a[k] = newArray(element, dims, level + 1);
+            return a;
+        }
+        return switch (element) {
+            case INT -> new int[n];
+            case REAL -> new double[n];
+            case CHAR -> new char[n];
+            case BOOL -> new BitArray(n);
+            default -> {
+                Object[] a = new Object[n];
+                Arrays.fill(a, defaultValue(element));
+                yield a;
+            }
+        };
+    }
+
+    private static Object defaultValue(Kind k) {
+        return switch (k) {
+            case INT -> 0;
+            case REAL -> 0.0;
+            case CHAR -> '\0';
+            case STRING -> "";
+            case BOOL -> false;
+            default -> null;
+        };
+    }
+
+    private void loadElement(Frame fr, Instr i, int[] ops) {
+        if (stack.refs[fr.refBase + ops[0]] instanceof OffHeapArray h) {
+            loadOffHeap(fr, i, ops, h);
+            return;
+        }
+        int last = ops.length - 1;
+        Object row = row(fr, i, ops, last);
+        byte bank = fr.layout.bank[i.id];
+        int slot = fr.layout.slot[i.id];
+        if (row instanceof int[] a) {
+            int v = a[index(fr, i, ops, a.length, last)];
+            if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v;
+            else store(fr, bank, slot, v);
+        } else if (row instanceof double[] a) {
+            double v = a[index(fr, i, ops, a.length, last)];
+            if (bank == FrameLayout.REALS) stack.reals[fr.realBase + slot] = v;
+            else store(fr, bank, slot, v);
+        } else if (row instanceof char[] a) {
+            char v = a[index(fr, i, ops, a.length, last)];
+            if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v;
+            else store(fr, bank, slot, v);
+        } else if (row instanceof BitArray a) {
+            boolean v = a.get(index(fr, i, ops, a.length, last));
+            if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v ? 1 : 0;
+            else store(fr, bank, slot, v);
+        } else {
+            Object[] a = (Object[]) row;
+            store(fr, bank, slot, a[index(fr, i, ops, a.length, last)]);
+        }
+    }
+
+    private void storeElement(Frame fr, Instr i, int[] ops) {
+        if (stack.refs[fr.refBase + ops[0]] instanceof OffHeapArray h) {
+            storeOffHeap(fr, i, ops, h);
+            return;
+        }
+        int last = ops.length - 2;
+        Object row = row(fr, i, ops, last);
+        int value = ops[last + 1];
+        byte bank = fr.layout.operandBanks[i.id][last + 1];
+        if (row instanceof int[] a) {
+            a[index(fr, i, ops, a.length, last)] = bank == FrameLayout.INTS
+                    ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, last + 1));
+        } else if (row instanceof double[] a) {
+            a[index(fr, i, ops, a.length, last)] = bank == FrameLayout.REALS
+                    ? stack.reals[fr.realBase + value] : asReal(operand(fr, i, last + 1));
+        } else if (row instanceof char[] a) {
+            a[index(fr, i, ops, a.length, last)] = (char) (bank == FrameLayout.INTS
+                    ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, last + 1)));
+        } else if (row instanceof BitArray a) {
+            int idx = index(fr, i, ops, a.length, last);
+            boolean v = (bank == FrameLayout.INTS ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, last + 1))) != 0;
+            if (worker) a.setAtomic(idx, v);
+            else a.set(idx, v);
+        } else {
+            Object[] a = (Object[]) row;
+            Object v = operand(fr, i, last + 1);
+            // izlazi grane paralelno (NEW_ARRAY sa elementom VOID) nose bilo koju vrednost i samo se
+            // čitaju celi, pa u njima može da bude i niz van heap-a; red pravog niza ne može
+            if (v instanceof OffHeapArray && !holdsValues(i.operand(0))) {
+                throw new SlangRuntimeError("niz van heap-a ne može biti red drugog niza", i.line);
+            }
+            a[index(fr, i, ops, a.length, last)] = v;
+        }
+    }
+
+    // operandi 1..count su indeksi; pomeraj je u bajtovima i ima 64 bita
+    private long offset(Frame fr, Instr i, int[] ops, OffHeapArray h, int count) {
+        if (count > h.rank()) throw new SlangRuntimeError("previše indeksa za niz", i.line);
+        long at = h.base;
+        for (int d = 0; d < count; d++) {
+            at += index(fr, i, ops, h.dims[h.level + d], d + 1) * h.stride[h.level + d];
+        }
+        return at;
+    }
+
+    private void loadOffHeap(Frame fr, Instr i, int[] ops, OffHeapArray h) {
+        int count = ops.length - 1;
+        long at = offset(fr, i, ops, h, count);
+        byte bank = fr.layout.bank[i.id];
+        int slot = fr.layout.slot[i.id];
+        if (count < h.rank()) {
+            store(fr, bank, slot, h.view(h.level + count, at));
+            return;
+        }
+        switch (h.element) {
+            case INT -> {
+                int v = h.getInt(at);
+                if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v;
+                else store(fr, bank, slot, v);
+            }
+            case REAL -> {
+                double v = h.getDouble(at);
+                if (bank == FrameLayout.REALS) stack.reals[fr.realBase + slot] = v;
+                else store(fr, bank, slot, v);
+            }
+            case CHAR -> {
+                char v = h.getChar(at);
+                if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v;
+                else store(fr, bank, slot, v);
+            }
+            default -> {
+                boolean v = h.getBool(at);
+                if (bank == FrameLayout.INTS) stack.ints[fr.intBase + slot] = v ? 1 : 0;
+                else store(fr, bank, slot, v);
+            }
+        }
+    }
+
+    private void storeOffHeap(Frame fr, Instr i, int[] ops, OffHeapArray h) {
+        int count = ops.length - 2;
+        long at = offset(fr, i, ops, h, count);
+        if (count < h.rank()) throw new SlangRuntimeError("red niza van heap-a ne može da se zameni", i.line);
+        int value = ops[count + 1];
+        byte bank = fr.layout.operandBanks[i.id][count + 1];
+        switch (h.element) {
+            case INT -> h.putInt(at, bank == FrameLayout.INTS ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, count + 1)));
+            case REAL -> h.putDouble(at, bank == FrameLayout.REALS ? stack.reals[fr.realBase + value] : asReal(operand(fr, i, count + 1)));
+            case CHAR -> h.putChar(at, (char) (bank == FrameLayout.INTS ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, count + 1))));
+            default -> h.putBool(at, (bank == FrameLayout.INTS ? stack.ints[fr.intBase + value] : asInt(operand(fr, i, count + 1))) != 0);
+        }
+    }
+
+    // red niza u kojem je poslednji indeks: operandi 1..last-1 spuštaju se kroz dimenzije
+    private Object row(Frame fr, Instr i, int[] ops, int last) {
+        Object a = stack.refs[fr.refBase + ops[0]];
+        for (int d = 1; d < last; d++) {
+            Object[] arr = asArray(a, i);
+            a = arr[index(fr, i, ops, arr.length, d)];
+        }
+        if (a instanceof int[] || a instanceof double[] || a instanceof char[] || a instanceof BitArray) return a;
+        return asArray(a, i);
+    }
+
+    private static Object[] asArray(Object a, Instr i) {
+        if (a instanceof Object[] arr) return arr;
+        if (a == null) throw new SlangRuntimeError("niz nije napravljen", i.line);
+        throw new SlangRuntimeError("previše indeksa za niz", i.line);
+    }
+
+    private static boolean holdsValues(Instr array) {
+        return array.op == Op.NEW_ARRAY && array.constant == Kind.VOID;
+    }
+
+    // Indeks koji je BoundsCheckElimination dokazao (checkFree) se ne proverava. Dokaz važi za dimenzije
+    // iz NEW_ARRAY, a red unutrašnje dimenzije može biti zamenjen drugim nizom (sharedRows), pa se
+    // unutrašnji indeksi tada ipak proveravaju.
+    private int index(Frame fr, Instr i, int[] ops, int length, int operand) {
+        int idx = stack.ints[fr.intBase + ops[operand]];
+        if (i.checkFree && (operand == 1 || !sharedRows)) return idx;
+        if (idx < 0 || idx >= length) {
+            throw new SlangRuntimeError("indeks " + idx + " van granica niza dužine " + length, i.line);
+        }
+        return idx;
+    }
+
+    // ---------- šifrovanje ----------
+
+    private Object crypt(Frame fr, Instr i) {
+        Object data = operand(fr, i, 0);
+        if (data == null) throw new SlangRuntimeError("niz nije napravljen", i.line);
+        if (data instanceof OffHeapArray h) data = h.copyToHeap();
+        boolean encrypt = i.op == Op.ENCRYPT;
+        if (budget != null) budget.allocate(16 + StreamCipher.resultBytes(data, encrypt), i.line);
+        if (cipher == null) cipher = new StreamCipher();
+        String key = (String) operand(fr, i, 1);
+        return encrypt ? cipher.encrypt(data, key, i.line) : cipher.decrypt(data, key, i.line);
+    }
+
+    // ---------- ulaz i izlaz ----------
+
+    // broj, realan i slovo iz int i real banke se ispisuju bez pakovanja i bez pravljenja String-a;
+    // izlaz ostaje u memoriji pozivaoca (ExecutionService), pa se ispisani bajtovi naplaćuju
+    private void print(Frame fr, Instr i, int[] ops) {
+        int bytes = switch (fr.layout.operandBanks[i.id][0]) {
+            case FrameLayout.INTS -> {
+                int x = stack.ints[fr.intBase + ops[0]];
+                yield switch (i.operand(0).type) {
+                    case CHAR -> out.printChar((char) x);
+                    case BOOL -> out.printText(x != 0 ? "tacno" : "netacno");
+                    default -> out.printInt(x);
+                };
+            }
+            case FrameLayout.REALS -> out.printReal(stack.reals[fr.realBase + ops[0]]);
+            default -> {
+                Object v = stack.refs[fr.refBase + ops[0]];
+                if (v instanceof Integer x) yield out.printInt(x);
+                if (v instanceof Double d) yield out.printReal(d);
+                yield out.printText(format(v));
+            }
+        };
+        if (budget != null) budget.allocate(bytes, i.line);
+    }
+
+    // upit ispisan pre čitanja mora biti vidljiv, pa se izlaz prvo prazni
+    private void read(Frame fr, Instr i) {
+        out.flush();
+        Kind type = (Kind) i.constant;
+        byte bank = fr.layout.bank[i.id];
+        int slot = fr.layout.slot[i.id];
+        synchronized (in) {
+            try {
+                if (!in.next()) throw new SlangRuntimeError("nema više ulaza", i.line);
+            } catch (IOException e) {
+                throw new SlangRuntimeError("greška pri čitanju: " + e.getMessage(), i.line);
+            }
+            if (type == Kind.INT && bank == FrameLayout.INTS && in.parseInt()) {
+                stack.ints[fr.intBase + slot] = in.value();
+                return;
+            }
+            store(fr, bank, slot, parse(type, in.text(), i.line));
+        }
+    }
+
+    private static Object parse(Kind type, String text, int line) {
+        try {
+            return switch (type) {
+                case INT -> Integer.parseInt(text.trim());
+                case REAL -> Double.parseDouble(text.trim());
+                case CHAR -> text.isEmpty() ? '\0' : text.charAt(0);
+                case BOOL -> switch (text.trim()) {
+                    case "tacno" -> true;
+                    case "netacno" -> false;
+                    default -> throw new NumberFormatException(text);
+                };
+                default -> text;
+            };
+        } catch (NumberFormatException e) {
+            throw new SlangRuntimeError("neispravan unos '" + text + "' za tip " + type.slangName, line);
+        }
+    }
+
+    public static String format(Object v) {
+        if (v instanceof Boolean b) return b ? "tacno" : "netacno";
+        if (v instanceof Object[] arr) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (Object o : arr) sj.add(format(o));
+            return sj.toString();
+        }
+        if (v instanceof int[] arr) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (int x : arr) sj.add(String.valueOf(x));
+            return sj.toString();
+        }
+        if (v instanceof double[] arr) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (double x : arr) sj.add(String.valueOf(x));
+            return sj.toString();
+        }
+        if (v instanceof char[] arr) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (char x : arr) sj.add(String.valueOf(x));
+            return sj.toString();
+        }
+        if (v instanceof OffHeapArray h) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (int k = 0; k < h.length(); k++) {
+                long at = h.base + k * h.stride[h.level];
+                if (h.rank() > 1) sj.add(format(h.view(h.level + 1, at)));
+                else sj.add(switch (h.element) {
+                    case INT -> String.valueOf(h.getInt(at));
+                    case REAL -> String.valueOf(h.getDouble(at));
+                    case CHAR -> String.valueOf(h.getChar(at));
+                    default -> h.getBool(at) ? "tacno" : "netacno";
+                });
+            }
+            return sj.toString();
+        }
+        if (v instanceof BitArray arr) {
+            StringJoiner sj = new StringJoiner(", ", "[", "]");
+            for (int k = 0; k < arr.length; k++) sj.add(arr.get(k) ? "tacno" : "netacno");
+            return sj.toString();
+        }
+        return String.valueOf(v);
+    }
+
+    private static SlangRuntimeError invalid(Instr i) {
+        if (i.op == Op.DIV || i.op == Op.MOD) return new SlangRuntimeError("deljenje nulom", i.line);
+        return new SlangRuntimeError("neispravna operacija " + i.op.mnemonic(), i.line);
+    }
+
+    // ---------- izveštaj ----------
+
+    public String callSiteReport() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%6s|%-16s|%12s|%12s", "CALLER", "LINE", "CALLEE", "RESOLUTIONS", "HITS");
+        String separator = "-".repeat(header.length());
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        long resolutions = 0;
+        long hits = 0;
+        for (FrameLayout l : layouts.values()) {
+            for (CallSite site : l.sites) {
+                if (site == null) continue;
+                sb.append(String.format("%-16s|%6d|%-16s|%12d|%12d%n",
+                        site.caller, site.call.line, site.call.constant, site.resolutions, site.hits));
+                resolutions += site.resolutions;
+                hits += site.hits;
+            }
+        }
+        sb.append(separator).append("\n");
+        sb.append(String.format("%-16s|%6s|%-16s|%12d|%12d%n", "total", "", "", resolutions, hits));
+        sb.append(separator);
+        return sb.toString();
+    }
+
+    public String memoReport() {
+        StringBuilder sb = new StringBuilder();
+        String header = String.format("%-16s|%-14s|%9s|%10s|%10s|%10s", "FUNCTION", "PURITY", "CACHED", "HITS", "MISSES", "EVICTED");
+        String separator = "-".repeat(header.length());
+        sb.append(separator).append("\n").append(header).append("\n").append(separator).append("\n");
+        for (Map.Entry<String, Purity> e : purity.entrySet()) {
+            MemoCache c = memo.get(module.function(e.getKey()));
+            if (c == null) {
+                sb.append(String.format("%-16s|%-14s|%9s|%10s|%10s|%10s%n", e.getKey(), e.getValue().label(), "-", "-", "-", "-"));
+            } else {
+                sb.append(String.format("%-16s|%-14s|%9d|%10d|%10d|%10d%n", e.getKey(), e.getValue().label(),
+                        c.size(), c.hits(), c.misses(), c.evictions()));
+            }
+        }
+        sb.append(separator);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,72 @@
+package runtime;
+
+// main programa prevedenog u JAR (aot.AotCompiler). Glavni blok se izvršava na niti sa velikim
+// stekom, jer prevedene funkcije koriste stek JVM-a, a interpreter dozvoljava DEFAULT_MAX_DEPTH
+// ugnežđenih poziva. Izuzetak JVM-a postaje greška u izvršavanju sa istim tekstom kao u
+// interpreteru, a linija se čita iz tabele linija prevedene klase.
+public final class Launcher {
+
+    private static final long STACK_BYTES = 1L << 30;
+
+    private Launcher() {}
+
+    public static void launch(Runnable program) {
+        Throwable[] failure = new Throwable[1];
+        Thread main = new Thread(null, () -> {
+            try {
+                program.run();
+            } catch (Throwable t) {
+                failure[0] = t;
+            }
+        }, "zapocni_igru", STACK_BYTES);
+        main.start();
+        try {
+            main.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure[0] = e;
+        }
+        Console.flush();
+        if (failure[0] == null) return;
+
+        SlangRuntimeError error = translate(failure[0]);
+        if (error == null) {
+            failure[0].printStackTrace();
+            System.exit(1);
+        }
+        System.err.println("Greška u izvršavanju: " + error.getMessage());
+        System.exit(70);
+    }
+
+    static SlangRuntimeError translate(Throwable t) {
+        if (t instanceof SlangRuntimeError e) return e;
+        String message = switch (t) {
+            case ArithmeticException e -> "deljenje nulom";
+            case ArrayIndexOutOfBoundsException e -> bounds(e.getMessage());
+            case NegativeArraySizeException e -> "negativna dimenzija niza: " + e.getMessage();
+            case NullPointerException e -> "niz nije napravljen";
+            case ClassCastException e -> "previše indeksa za niz";
+            case StackOverflowError e -> "prekoračena najveća dubina rekurzije";
+            case OutOfMemoryError e -> "nema dovoljno memorije za izvršavanje";
+            default -> null;
+        };
+        return message == null ? null : new SlangRuntimeError(message, line(t));
+    }
+
+    // "Index 5 out of bounds for length 5"
+    private static String bounds(String message) {
+        String[] words = message == null ? new String[0] : message.split(" ");
+        if (words.length == 8) return "indeks " + words[1] + " van granica niza dužine " + words[7];
+        return "indeks van granica niza";
+    }
+
+    // prva linija prevedenog programa na steku; pomoćne klase i JDK nemaju linije izvornog koda
+    private static int line(Throwable t) {
+        for (StackTraceElement e : t.getStackTrace()) {
+            String cls = e.getClassName();
+            if (cls.startsWith("runtime.") || cls.startsWith("java.") || cls.startsWith("jdk.")) continue;
+            if (e.getLineNumber() > 0) return e.getLineNumber();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,72 @@
+package runtime;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// keš rezultata jedne čiste funkcije, ograničene veličine, izbacuje najdavnije korišćen unos;
+// grane bloka paralelno ga koriste istovremeno
+public final class MemoCache {
+
+    private record Key(Object[] args) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && Arrays.equals(args, k.args);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(args);
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Object> entries;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public MemoCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                if (size() <= MemoCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    // null ako rezultat nije zapamćen; funkcije u kešu nikad ne vraćaju null
+    public synchronized Object get(Object[] args) {
+        Object v = entries.get(new Key(args));
+        if (v == null) misses++;
+        else hits++;
+        return v;
+    }
+
+    public synchronized void put(Object[] args, Object result) {
+        entries.put(new Key(args.clone()), result);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,58 @@
+package runtime;
+
+import java.util.Arrays;
+import java.util.StringJoiner;
+
+// Nizovi programa prevedenog u JAR su obični Java nizovi: poslednja dimenzija je int[], double[],
+// char[], boolean[] ili String[], a ostale Object[]. Niz brojeva, realnih, slova i pogodaka pravi
+// sam prevedeni kod (new int[a][b]), a ovde su samo niz teksta, koji počinje praznim tekstovima,
+// i ispis.
+public final class Niz {
+
+    private Niz() {}
+
+    public static Object text(int... dims) {
+        return text(dims, 0);
+    }
+
+    private static Object text(int[] dims, int level) {
+        int n = dims[level];
+        if (level + 1 < dims.length) {
+            Object[] a = new Object[n];
+            for (int k = 0; k < n; k++) a[k] = text(dims, level + 1);
+            return a;
+        }
+        String[] a = new String[n];
+        Arrays.fill(a, "");
+        return a;
+    }
+
+    // isti zapis kao Interpreter.format
+    public static String format(Object v) {
+        StringJoiner sj = new StringJoiner(", ", "[", "]");
+        switch (v) {
+            case int[] a -> {
+                for (int x : a) sj.add(String.valueOf(x));
+            }
+            case double[] a -> {
+                for (double x : a) sj.add(String.valueOf(x));
+            }
+            case char[] a -> {
+                for (char x : a) sj.add(String.valueOf(x));
+            }
+            case boolean[] a -> {
+                for (boolean x : a) sj.add(x ? "tacno" : "netacno");
+            }
+            case Object[] a -> {
+                for (Object x : a) sj.add(format(x));
+            }
+            case Boolean b -> {
+                return b ? "tacno" : "netacno";
+            }
+            case null, default -> {
+                return String.valueOf(v);
+            }
+        }
+        return sj.toString();
+    }
+}
@@ -0,0 +1,231 @@
+package runtime;
+
+import parser.Ast.Type.Kind;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Niz van heap-a: sve dimenzije u jednom MemorySegment-u, red po red, pa pomeraj elementa ima
+// 64 bita i niz može imati više od 2^31 elemenata. Segment pripada Arena-i izvršavanja i
+// oslobađa se kada se ona zatvori; lokalni niz (vidi EscapeAnalysis) ima svoju arenu i oslobađa se
+// na povratku iz funkcije. Elementima se pristupa kroz ByteBuffer-e od po 1 GB nad
+// segmentom; element nikada ne prelazi granicu dela. Niz sa manje indeksa od dimenzija je
+// pogled na isti segment (red matrice).
+// java.lang.foreign je u JDK 21 preview API, pa se koristi samo preko MethodHandle-a i ne traži
+// --enable-preview ni pri prevođenju ni pri izvršavanju.
+final class OffHeapArray {
+
+    private static final int SHIFT = 30;
+    private static final long CHUNK = 1L << SHIFT;
+    private static final long MASK = CHUNK - 1;
+
+    static final boolean AVAILABLE;
+    private static final MethodHandle OF_SHARED;
+    private static final MethodHandle ALLOCATE;
+    private static final MethodHandle AS_SLICE;
+    private static final MethodHandle AS_BYTE_BUFFER;
+    private static final MethodHandle CLOSE;
+    private static final MethodHandle FILL;
+
+    static {
+        MethodHandle ofShared = null, allocate = null, asSlice = null, asByteBuffer = null, close = null, fill = null;
+        try {
+            Class<?> arena = Class.forName("java.lang.foreign.Arena");
+            Class<?> segment = Class.forName("java.lang.foreign.MemorySegment");
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            ofShared = lookup.findStatic(arena, "ofShared", MethodType.methodType(arena))
+                    .asType(MethodType.methodType(Object.class));
+            allocate = lookup.findVirtual(arena, "allocate", MethodType.methodType(segment, long.class, long.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, long.class, long.class));
+            asSlice = lookup.findVirtual(segment, "asSlice", MethodType.methodType(segment, long.class, long.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, long.class, long.class));
+            asByteBuffer = lookup.findVirtual(segment, "asByteBuffer", MethodType.methodType(ByteBuffer.class))
+                    .asType(MethodType.methodType(ByteBuffer.class, Object.class));
+            close = lookup.findVirtual(arena, "close", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            fill = lookup.findVirtual(segment, "fill", MethodType.methodType(segment, byte.class))
+                    .asType(MethodType.methodType(Object.class, Object.class, byte.class));
+        } catch (ReflectiveOperationException | LinkageError e) {
+            ofShared = null;
+        }
+        AVAILABLE = ofShared != null;
+        OF_SHARED = ofShared;
+        ALLOCATE = allocate;
+        AS_SLICE = asSlice;
+        AS_BYTE_BUFFER = asByteBuffer;
+        CLOSE = close;
+        FILL = fill;
+    }
+
+    // Arena jednog izvršavanja; deljena, jer nizove koriste i radnici paralelnih petlji
+    static final class Arena {
+        final long threshold;
+        private final Object arena;
+        private final Set<Object> scopes = ConcurrentHashMap.newKeySet();   // arene lokalnih nizova
+
+        Arena(long threshold) {
+            this.threshold = threshold;
+            this.arena = invoke(() -> OF_SHARED.invoke());
+        }
+
+        OffHeapArray allocate(Kind element, int[] dims, long bytes, boolean local) {
+            Object owner = local ? invoke(() -> OF_SHARED.invoke()) : null;
+            if (local) scopes.add(owner);
+            Object segment = invoke(() -> ALLOCATE.invoke(local ? owner : arena, bytes, 8L));
+            ByteBuffer[] chunks = new ByteBuffer[(int) ((bytes + MASK) >>> SHIFT)];
+            for (int k = 0; k < chunks.length; k++) {
+                long offset = k * CHUNK;
+                Object slice = invoke(() -> AS_SLICE.invoke(segment, offset, Math.min(CHUNK, bytes - offset)));
+                chunks[k] = ((ByteBuffer) invoke(() -> AS_BYTE_BUFFER.invoke(slice))).order(ByteOrder.nativeOrder());
+            }
+            long[] stride = new long[dims.length];
+            stride[dims.length - 1] = elementBytes(element);
+            for (int d = dims.length - 2; d >= 0; d--) stride[d] = stride[d + 1] * dims[d + 1];
+            return new OffHeapArray(element, dims, 0, 0, chunks, stride, segment, owner);
+        }
+
+        void free(OffHeapArray a) {
+            if (a.owner != null && scopes.remove(a.owner)) close(a.owner);
+        }
+
+        // lokalni nizovi koje greška nije pustila do povratka zatvaraju se zajedno sa arenom
+        void close() {
+            for (Object owner : scopes) close(owner);
+            scopes.clear();
+            close(arena);
+        }
+
+        private static void close(Object arena) {
+            invoke(() -> {
+                CLOSE.invoke(arena);
+                return null;
+            });
+        }
+    }
+
+    final Kind element;
+    final int[] dims;
+    final int level;        // prva dimenzija ovog pogleda
+    final long base;        // bajt prvog elementa pogleda
+    final long[] stride;    // bajtova po koraku indeksa, po dimenziji
+    private final ByteBuffer[] chunks;
+    private final Object segment;
+    private final Object owner;     // arena lokalnog niza, inače null
+
+    private OffHeapArray(Kind element, int[] dims, int level, long base, ByteBuffer[] chunks, long[] stride,
+                         Object segment, Object owner) {
+        this.element = element;
+        this.dims = dims;
+        this.level = level;
+        this.base = base;
+        this.chunks = chunks;
+        this.stride = stride;
+        this.segment = segment;
+        this.owner = owner;
+    }
+
+    static int elementBytes(Kind element) {
+        return switch (element) {
+            case INT -> 4;
+            case REAL -> 8;
+            case CHAR -> 2;
+            default -> 1;
+        };
+    }
+
+    // veličina svih dimenzija u bajtovima; -1 ako ne staje u long
+    static long bytes(Kind element, int[] dims) {
+        long bytes = elementBytes(element);
+        for (int d : dims) {
+            if (d != 0 && bytes > Long.MAX_VALUE / d) return -1;
+            bytes *= d;
+        }
+        return bytes;
+    }
+
+    int rank() {
+        return dims.length - level;
+    }
+
+    int length() {
+        return dims[level];
+    }
+
+    OffHeapArray view(int level, long base) {
+        return new OffHeapArray(element, dims, level, base, chunks, stride, segment, owner);
+    }
+
+    // pogled na isti niz (ceo niz ili neki njegov red)
+    boolean sameArray(OffHeapArray other) {
+        return segment == other.segment;
+    }
+
+    // svi elementi ponovo dobijaju podrazumevanu vrednost, kao u novom nizu
+    void clear() {
+        invoke(() -> FILL.invoke(segment, (byte) 0));
+    }
+
+    int getInt(long at) {
+        return chunks[(int) (at >>> SHIFT)].getInt((int) (at & MASK));
+    }
+
+    double getDouble(long at) {
+        return chunks[(int) (at >>> SHIFT)].getDouble((int) (at & MASK));
+    }
+
+    char getChar(long at) {
+        return chunks[(int) (at >>> SHIFT)].getChar((int) (at & MASK));
+    }
+
+    boolean getBool(long at) {
+        return chunks[(int) (at >>> SHIFT)].get((int) (at & MASK)) != 0;
+    }
+
+    void putInt(long at, int v) {
+        chunks[(int) (at >>> SHIFT)].putInt((int) (at & MASK), v);
+    }
+
+    void putDouble(long at, double v) {
+        chunks[(int) (at >>> SHIFT)].putDouble((int) (at & MASK), v);
+    }
+
+    void putChar(long at, char v) {
+        chunks[(int) (at >>> SHIFT)].putChar((int) (at & MASK), v);
+    }
+
+    void putBool(long at, boolean v) {
+        chunks[(int) (at >>> SHIFT)].put((int) (at & MASK), (byte) (v ? 1 : 0));
+    }
+
+    // jednodimenzionalni niz broj ili realan kao int[] odnosno double[]; inače this
+    Object copyToHeap() {
+        if (rank() != 1 || (element != Kind.INT && element != Kind.REAL)) return this;
+        if (element == Kind.INT) {
+            int[] a = new int[length()];
+            for (int k = 0; k < a.length; k++) a[k] = getInt(base + 4L * k);
+            return a;
+        }
+        double[] a = new double[length()];
+        for (int k = 0; k < a.length; k++) a[k] = getDouble(base + 8L * k);
+        return a;
+    }
+
+    private interface Call {
+        Object run() throws Throwable;
+    }
+
+    private static Object invoke(Call call) {
+        try {
+            return call.run();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
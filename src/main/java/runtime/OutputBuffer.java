@@ -0,0 +1,130 @@
+package runtime;
+
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+// Izlaz za napisi: bajtovi se skupljaju u velikom baferu i šalju u PrintStream tek kada se bafer
+// napuni, pre čitanja ulaza i na kraju programa. Broj se upisuje cifru po cifru, a realan preko
+// StringBuilder-a koji se ponovo koristi, pa ispis vrednosti ne pravi novi String. Tekst se kodira
+// skupom znakova PrintStream-a, kao što bi ga ispisao i println. Svaki ispis vraća broj dodatih
+// bajtova, da bi ih interpreter naplatio Budget-u.
+final class OutputBuffer {
+
+    private static final int SIZE = 1 << 16;
+    private static final String ASCII = " !\"#$%&'()*+,-./0123456789:;<=>?@ABCDEFGHIJKLMNOPQRSTUVWXYZ[\\]^_`abcdefghijklmnopqrstuvwxyz{|}~";
+
+    private final PrintStream out;
+    private final Charset charset;
+    private final boolean asciiCompatible;  // ASCII znak je jedan isti bajt
+    private final byte[] newline;
+    private final byte[] buf = new byte[SIZE];
+    private int pos;
+    private final StringBuilder real = new StringBuilder(32);
+
+    OutputBuffer(PrintStream out) {
+        this.out = out;
+        this.charset = out.charset();
+        this.asciiCompatible = Arrays.equals(ASCII.getBytes(charset), ASCII.getBytes(StandardCharsets.US_ASCII));
+        this.newline = System.lineSeparator().getBytes(charset);
+    }
+
+    synchronized int printInt(int v) {
+        reserve(11 + newline.length);
+        int start = pos;
+        if (v < 0) {
+            buf[pos++] = '-';
+        }
+        // cifre se pišu od kraja; long zbog Integer.MIN_VALUE
+        long x = Math.abs((long) v);
+        int digits = 1;
+        for (long t = x; t >= 10; t /= 10) digits++;
+        int end = pos + digits;
+        for (int p = end - 1; p >= pos; p--) {
+            buf[p] = (byte) ('0' + x % 10);
+            x /= 10;
+        }
+        pos = end;
+        newline();
+        return pos - start;
+    }
+
+    synchronized int printReal(double v) {
+        real.setLength(0);
+        real.append(v);
+        return printChars(real);
+    }
+
+    synchronized int printChar(char c) {
+        if (c < 0x80 && asciiCompatible) {
+            reserve(1 + newline.length);
+            buf[pos++] = (byte) c;
+            newline();
+            return 1 + newline.length;
+        }
+        return printChars(String.valueOf(c));
+    }
+
+    synchronized int printText(String s) {
+        return printChars(s);
+    }
+
+    private int printChars(CharSequence s) {
+        int n = s.length();
+        if (asciiCompatible && isAscii(s)) {
+            for (int k = 0; k < n; ) {
+                if (pos == SIZE) drain();
+                int chunk = Math.min(n - k, SIZE - pos);
+                for (int e = k + chunk; k < e; k++) buf[pos++] = (byte) s.charAt(k);
+            }
+            reserve(newline.length);
+            newline();
+            return n + newline.length;
+        }
+        byte[] bytes = s.toString().getBytes(charset);
+        write(bytes);
+        reserve(newline.length);
+        newline();
+        return bytes.length + newline.length;
+    }
+
+    private static boolean isAscii(CharSequence s) {
+        for (int k = 0; k < s.length(); k++) {
+            if (s.charAt(k) >= 0x80) return false;
+        }
+        return true;
+    }
+
+    private void write(byte[] bytes) {
+        if (bytes.length > SIZE - pos) {
+            drain();
+            if (bytes.length > SIZE) {
+                out.write(bytes, 0, bytes.length);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buf, pos, bytes.length);
+        pos += bytes.length;
+    }
+
+    private void newline() {
+        for (byte b : newline) buf[pos++] = b;
+    }
+
+    private void reserve(int n) {
+        if (SIZE - pos < n) drain();
+    }
+
+    private void drain() {
+        if (pos == 0) return;
+        out.write(buf, 0, pos);
+        pos = 0;
+    }
+
+    synchronized void flush() {
+        if (pos == 0) return;
+        drain();
+        out.flush();
+    }
+}
@@ -0,0 +1,44 @@
+package runtime;
+
+// Blok paralelno programa prevedenog u JAR: svaka grana je poziv statičke metode na svojoj
+// virtuelnoj niti i vraća vrednosti svojih izlaza. Greška se prijavljuje iz prve grane po redu
+// koja je pala, kao u interpreteru.
+public final class Paralelno {
+
+    public interface Branch {
+        Object[] run();
+    }
+
+    private Paralelno() {}
+
+    public static Object[][] run(Branch... branches) {
+        int n = branches.length;
+        Object[][] results = new Object[n][];
+        Throwable[] failures = new Throwable[n];
+        Thread[] workers = new Thread[n];
+        for (int k = 0; k < n; k++) {
+            Branch branch = branches[k];
+            int index = k;
+            workers[k] = Thread.ofVirtual().start(() -> {
+                try {
+                    results[index] = branch.run();
+                } catch (Throwable t) {
+                    failures[index] = t;
+                }
+            });
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("prekinuto izvršavanje bloka paralelno", e);
+            }
+        }
+        for (Throwable t : failures) {
+            if (t instanceof RuntimeException r) throw r;
+            if (t instanceof Error err) throw err;
+        }
+        return results;
+    }
+}
@@ -0,0 +1,81 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.ParallelLoop;
+import runtime.FrameStack.Frame;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Mesta u okviru koja su potrebna da se opseg paralelne petlje podeli na delove,
+// i raspored okvira po kome radnik izvršava svoj deo.
+final class ParallelRunner {
+
+    final BasicBlock preheader;
+    final BasicBlock header;
+    final FrameLayout worker;
+    final int cost;
+
+    private final int inductionSlot;
+    private final Instr bound;
+    private final int boundSlot;
+    private final int[] linearSlot;
+    private final Instr[] linearStep;
+    private final int[] linearStepSlot;
+    private final int[][] distinct;     // parovi mesta u banci referenci
+
+    ParallelRunner(ParallelLoop loop, FrameLayout layout) {
+        this.preheader = loop.preheader;
+        this.header = loop.induction.block;
+        this.worker = new FrameLayout(layout, loop);
+        this.cost = loop.cost;
+        this.inductionSlot = layout.slot[loop.induction.id];
+        this.bound = loop.bound();
+        this.boundSlot = layout.slot[bound.id];
+
+        List<Instr> linear = new ArrayList<>(loop.linear.keySet());
+        this.linearSlot = new int[linear.size()];
+        this.linearStep = new Instr[linear.size()];
+        this.linearStepSlot = new int[linear.size()];
+        for (int k = 0; k < linear.size(); k++) {
+            linearSlot[k] = layout.slot[linear.get(k).id];
+            linearStep[k] = loop.linear.get(linear.get(k));
+            linearStepSlot[k] = layout.slot[linearStep[k].id];
+        }
+        this.distinct = new int[loop.distinct.size()][];
+        for (int k = 0; k < distinct.length; k++) {
+            Instr[] pair = loop.distinct.get(k);
+            distinct[k] = new int[] {layout.slot[pair[0].id], layout.slot[pair[1].id]};
+        }
+    }
+
+    int start(FrameStack stack, Frame fr) {
+        return stack.ints[fr.intBase + inductionSlot];
+    }
+
+    int end(FrameStack stack, Frame fr) {
+        return bound.isConst() ? (Integer) bound.constant : stack.ints[fr.intBase + boundSlot];
+    }
+
+    // nizovi za koje analiza nije mogla da dokaže da su različiti zaista jesu različiti
+    boolean independent(FrameStack stack, Frame fr) {
+        for (int[] pair : distinct) {
+            if (stack.refs[fr.refBase + pair[0]] == stack.refs[fr.refBase + pair[1]]) return false;
+        }
+        return true;
+    }
+
+    // postavlja indukcione promenljive okvira to na stanje pre iteracije i (from je okvir na ulazu u petlju)
+    void advance(FrameStack fromStack, Frame from, FrameStack toStack, Frame to, int i) {
+        int i0 = start(fromStack, from);
+        for (int k = 0; k < linearSlot.length; k++) {
+            int step = linearStep[k].isConst()
+                    ? (Integer) linearStep[k].constant
+                    : fromStack.ints[from.intBase + linearStepSlot[k]];
+            int value = fromStack.ints[from.intBase + linearSlot[k]] + (i - i0) * step;
+            toStack.ints[to.intBase + linearSlot[k]] = value;
+        }
+        toStack.ints[to.intBase + inductionSlot] = i;
+    }
+}
@@ -0,0 +1,10 @@
+package runtime;
+
+public class SlangRuntimeError extends RuntimeException {
+    public final int line;
+
+    public SlangRuntimeError(String message, int line) {
+        super(line > 0 ? "linija " + line + ": " + message : message);
+        this.line = line;
+    }
+}
@@ -0,0 +1,164 @@
+package runtime;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+// enkriptuj i dekriptuj: AES-256 u CTR režimu, ključ je SHA-256 teksta ključa. Podatak se jednom
+// prepiše u bajtove (tekst kao UTF-16, broj kao 4 bajta, realan kao 8), šifruje se ceo odjednom na
+// mestu i vrati u isti tip. Svako šifrovanje dobija novih 16 slučajnih bajtova za početni brojač i
+// upisuje ih na početak rezultata (8 slova, 4 broja ili 2 realna), pa je šifrovani podatak duži, a
+// dekriptuj ih odatle čita. Šifra i bafer se ponovo koriste, pa svaka nit interpretera ima svoj.
+final class StreamCipher {
+
+    static final int NONCE = 16;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Cipher aes;
+    private final MessageDigest sha;
+    private final byte[] nonce = new byte[NONCE];
+    private String lastKey;
+    private SecretKeySpec key;
+    private byte[] scratch = new byte[1 << 12];
+    private char[] chars = new char[1 << 11];
+
+    StreamCipher() {
+        try {
+            aes = Cipher.getInstance("AES/CTR/NoPadding");
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("AES/CTR nije dostupan", e);
+        }
+    }
+
+    // veličina rezultata u bajtovima, za proveru memorije pre šifrovanja
+    static long resultBytes(Object data, boolean encrypt) {
+        long n = switch (data) {
+            case String s -> 2L * s.length();
+            case int[] a -> 4L * a.length;
+            case double[] a -> 8L * a.length;
+            default -> 0;
+        };
+        return encrypt ? n + NONCE : Math.max(n - NONCE, 0);
+    }
+
+    Object encrypt(Object data, String password, int line) {
+        RANDOM.nextBytes(nonce);
+        return switch (data) {
+            case String s -> {
+                int n = s.length();
+                char[] c = chars(n + NONCE / 2);
+                s.getChars(0, n, c, NONCE / 2);
+                int bytes = toBytes(c, n + NONCE / 2);
+                System.arraycopy(nonce, 0, scratch, 0, NONCE);
+                apply(password, bytes);
+                ByteBuffer.wrap(scratch, 0, bytes).asCharBuffer().get(c, 0, n + NONCE / 2);
+                yield new String(c, 0, n + NONCE / 2);
+            }
+            case int[] a -> {
+                int[] out = new int[a.length + NONCE / 4];
+                int bytes = 4 * out.length;
+                ByteBuffer.wrap(grow(bytes), NONCE, bytes - NONCE).asIntBuffer().put(a);
+                System.arraycopy(nonce, 0, scratch, 0, NONCE);
+                apply(password, bytes);
+                ByteBuffer.wrap(scratch, 0, bytes).asIntBuffer().get(out);
+                yield out;
+            }
+            case double[] a -> {
+                double[] out = new double[a.length + NONCE / 8];
+                int bytes = 8 * out.length;
+                ByteBuffer.wrap(grow(bytes), NONCE, bytes - NONCE).asDoubleBuffer().put(a);
+                System.arraycopy(nonce, 0, scratch, 0, NONCE);
+                apply(password, bytes);
+                ByteBuffer.wrap(scratch, 0, bytes).asDoubleBuffer().get(out);
+                yield out;
+            }
+            default -> throw unsupported("enkriptuj", line);
+        };
+    }
+
+    Object decrypt(Object data, String password, int line) {
+        return switch (data) {
+            case String s -> {
+                int n = s.length() - NONCE / 2;
+                if (n < 0) throw tooShort(line);
+                char[] c = chars(s.length());
+                s.getChars(0, s.length(), c, 0);
+                int bytes = toBytes(c, s.length());
+                System.arraycopy(scratch, 0, nonce, 0, NONCE);
+                apply(password, bytes);
+                ByteBuffer.wrap(scratch, NONCE, bytes - NONCE).asCharBuffer().get(c, 0, n);
+                yield new String(c, 0, n);
+            }
+            case int[] a -> {
+                if (a.length < NONCE / 4) throw tooShort(line);
+                int bytes = 4 * a.length;
+                ByteBuffer.wrap(grow(bytes), 0, bytes).asIntBuffer().put(a);
+                System.arraycopy(scratch, 0, nonce, 0, NONCE);
+                apply(password, bytes);
+                int[] out = new int[a.length - NONCE / 4];
+                ByteBuffer.wrap(scratch, NONCE, bytes - NONCE).asIntBuffer().get(out);
+                yield out;
+            }
+            case double[] a -> {
+                if (a.length < NONCE / 8) throw tooShort(line);
+                int bytes = 8 * a.length;
+                ByteBuffer.wrap(grow(bytes), 0, bytes).asDoubleBuffer().put(a);
+                System.arraycopy(scratch, 0, nonce, 0, NONCE);
+                apply(password, bytes);
+                double[] out = new double[a.length - NONCE / 8];
+                ByteBuffer.wrap(scratch, NONCE, bytes - NONCE).asDoubleBuffer().get(out);
+                yield out;
+            }
+            default -> throw unsupported("dekriptuj", line);
+        };
+    }
+
+    // šifruje scratch[NONCE, bytes) na mestu, sa brojačem iz nonce
+    private void apply(String password, int bytes) {
+        try {
+            aes.init(Cipher.ENCRYPT_MODE, key(password), new IvParameterSpec(nonce));
+            aes.doFinal(scratch, NONCE, bytes - NONCE, scratch, NONCE);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private SecretKeySpec key(String password) {
+        if (!password.equals(lastKey)) {
+            key = new SecretKeySpec(sha.digest(password.getBytes(StandardCharsets.UTF_8)), "AES");
+            lastKey = password;
+        }
+        return key;
+    }
+
+    private int toBytes(char[] c, int n) {
+        int bytes = 2 * n;
+        ByteBuffer.wrap(grow(bytes), 0, bytes).asCharBuffer().put(c, 0, n);
+        return bytes;
+    }
+
+    private byte[] grow(int bytes) {
+        if (scratch.length < bytes) scratch = new byte[Math.max(bytes, scratch.length * 2)];
+        return scratch;
+    }
+
+    private char[] chars(int n) {
+        if (chars.length < n) chars = new char[Math.max(n, chars.length * 2)];
+        return chars;
+    }
+
+    private static SlangRuntimeError unsupported(String name, int line) {
+        return new SlangRuntimeError("'" + name + "' radi samo nad jednodimenzionalnim nizom", line);
+    }
+
+    private static SlangRuntimeError tooShort(int line) {
+        return new SlangRuntimeError("podatak za 'dekriptuj' je prekratak da bi bio šifrovan", line);
+    }
+}
@@ -0,0 +1,252 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.Op;
+import ir.VectorLoop;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.Vector;
+import jdk.incubator.vector.VectorSpecies;
+import parser.Ast.Type.Kind;
+import runtime.FrameStack.Frame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Izvršava vektorizovanu petlju u trakama: svaka instrukcija tela radi nad celim vektorom
+// uzastopnih elemenata. Pokreće se pri ulasku u petlju, obradi najveći broj celih vektora
+// koji sigurno staje u sve nizove, pa pomeri indukcione promenljive; ostatak radi skalarna petlja.
+// Klasa se učitava samo kada je modul jdk.incubator.vector prisutan.
+final class VectorKernel {
+
+    private static final int LOAD = 0;
+    private static final int STORE = 1;
+    private static final int ADD = 2;
+    private static final int SUB = 3;
+    private static final int MUL = 4;
+    private static final int DIV = 5;
+    private static final int NEG = 6;
+    private static final int COPY = 7;
+
+    // listovi: vrednosti koje ne računa telo
+    private static final int CONSTANT = 0;
+    private static final int SLOT = 1;
+    private static final int INDUCTION = 2;
+    private static final int LINEAR = 3;
+
+    final BasicBlock preheader;
+    private final boolean reals;
+    private final int lanes;
+    private final VectorSpecies<Integer> intSpecies = IntVector.SPECIES_PREFERRED;
+    private final VectorSpecies<Double> realSpecies = DoubleVector.SPECIES_PREFERRED;
+
+    private final int inductionSlot;
+    private final Instr bound;
+    private final int boundSlot;
+    private final int[] arraySlots;
+
+    private final int registers;
+    private final int[] leafKind;
+    private final Instr[] leafInstr;
+    private final int[] leafSlot;       // za LINEAR: redni broj linearne promenljive
+    private final int[] linearSlot;     // sve linearne promenljive petlje, i one koje telo ne čita
+    private final Instr[] linearStep;
+    private final int[] linearStepSlot;
+
+    private final int[] op;
+    private final int[] dst;
+    private final int[] a;
+    private final int[] b;
+    private final int[] array;
+
+    VectorKernel(VectorLoop loop, FrameLayout layout) {
+        this.preheader = loop.preheader;
+        this.reals = loop.element == Kind.REAL;
+        this.lanes = reals ? realSpecies.length() : intSpecies.length();
+        this.inductionSlot = layout.slot[loop.induction.id];
+        this.bound = loop.bound;
+        this.boundSlot = layout.slot[loop.bound.id];
+
+        // konstante tela postaju listovi kao i invarijante; ostatak programa su trake 0..n-1
+        List<Instr> code = new ArrayList<>();
+        for (Instr i : loop.program) {
+            if (i.op != Op.CONST) code.add(i);
+        }
+        Map<Instr, Integer> regs = new HashMap<>();
+        Map<Instr, Integer> arrays = new HashMap<>();
+        Map<Instr, Integer> leaves = new HashMap<>();
+        for (Instr i : code) regs.put(i, regs.size());
+        for (Instr i : code) {
+            boolean access = i.op == Op.ALOAD || i.op == Op.ASTORE;
+            for (int k = 0; k < i.operands.size(); k++) {
+                Instr o = i.operand(k);
+                if (access && k == 0) arrays.putIfAbsent(o, arrays.size());
+                else if (!(access && k == 1) && !regs.containsKey(o)) leaves.putIfAbsent(o, leaves.size());
+            }
+        }
+
+        int n = code.size();
+        this.registers = n + leaves.size();
+        this.leafKind = new int[leaves.size()];
+        this.leafInstr = new Instr[leaves.size()];
+        this.leafSlot = new int[leaves.size()];
+        this.linearSlot = new int[loop.linear.size()];
+        this.linearStep = new Instr[loop.linear.size()];
+        this.linearStepSlot = new int[loop.linear.size()];
+        List<Instr> linear = new ArrayList<>(loop.linear.keySet());
+        for (int k = 0; k < linear.size(); k++) {
+            linearSlot[k] = layout.slot[linear.get(k).id];
+            linearStep[k] = loop.linear.get(linear.get(k));
+            linearStepSlot[k] = layout.slot[linearStep[k].id];
+        }
+        for (Map.Entry<Instr, Integer> e : leaves.entrySet()) {
+            Instr v = e.getKey();
+            int k = e.getValue();
+            leafInstr[k] = v;
+            leafSlot[k] = layout.slot[v.id];
+            if (v == loop.induction) {
+                leafKind[k] = INDUCTION;
+            } else if (loop.linear.containsKey(v)) {
+                leafKind[k] = LINEAR;
+                leafSlot[k] = linear.indexOf(v);
+            } else {
+                leafKind[k] = v.isConst() ? CONSTANT : SLOT;
+            }
+            regs.put(v, n + k);
+        }
+
+        this.arraySlots = new int[arrays.size()];
+        for (Map.Entry<Instr, Integer> e : arrays.entrySet()) arraySlots[e.getValue()] = layout.slot[e.getKey().id];
+
+        this.op = new int[n];
+        this.dst = new int[n];
+        this.a = new int[n];
+        this.b = new int[n];
+        this.array = new int[n];
+        for (int p = 0; p < n; p++) {
+            Instr i = code.get(p);
+            dst[p] = p;
+            switch (i.op) {
+                case ALOAD -> {
+                    op[p] = LOAD;
+                    array[p] = arrays.get(i.operand(0));
+                }
+                case ASTORE -> {
+                    op[p] = STORE;
+                    array[p] = arrays.get(i.operand(0));
+                    a[p] = regs.get(i.operand(2));
+                }
+                default -> {
+                    op[p] = switch (i.op) {
+                        case ADD -> ADD;
+                        case SUB -> SUB;
+                        case MUL -> MUL;
+                        case DIV -> DIV;
+                        case NEG -> NEG;
+                        default -> COPY;
+                    };
+                    a[p] = regs.get(i.operand(0));
+                    if (i.operands.size() > 1) b[p] = regs.get(i.operand(1));
+                }
+            }
+        }
+    }
+
+    // vraća broj obrađenih elemenata; 0 ako se petlja prepušta skalarnom izvršavanju
+    int run(FrameStack stack, Frame fr) {
+        int[] ints = stack.ints;
+        int i0 = ints[fr.intBase + inductionSlot];
+        int end = bound.isConst() ? (Integer) bound.constant : ints[fr.intBase + boundSlot];
+        if (i0 < 0 || end <= i0) return 0;
+
+        Object[] arrays = new Object[arraySlots.length];
+        for (int k = 0; k < arrays.length; k++) {
+            Object arr = stack.refs[fr.refBase + arraySlots[k]];
+            if (reals ? !(arr instanceof double[]) : !(arr instanceof int[])) return 0;
+            end = Math.min(end, reals ? ((double[]) arr).length : ((int[]) arr).length);
+            arrays[k] = arr;
+        }
+        int count = end <= i0 ? 0 : (end - i0) / lanes * lanes;
+        if (count == 0) return 0;
+
+        Vector<?>[] regs = new Vector<?>[registers];
+        int n = op.length;
+        setupLeaves(stack, fr, regs, n);
+        int[] start = new int[linearSlot.length];
+        int[] step = new int[linearSlot.length];
+        for (int k = 0; k < start.length; k++) {
+            start[k] = ints[fr.intBase + linearSlot[k]];
+            step[k] = linearStep[k].isConst() ? (Integer) linearStep[k].constant : ints[fr.intBase + linearStepSlot[k]];
+        }
+
+        // trake za i, i+1, ... i za linearne promenljive t, t+k, t+2k, ...
+        IntVector iota = IntVector.zero(intSpecies).addIndex(1);
+        IntVector[] strides = new IntVector[leafKind.length];
+        for (int k = 0; k < leafKind.length; k++) {
+            if (leafKind[k] == LINEAR) strides[k] = iota.mul(step[leafSlot[k]]);
+        }
+        for (int i = i0; i < i0 + count; i += lanes) {
+            for (int k = 0; k < leafKind.length; k++) {
+                if (leafKind[k] == INDUCTION) {
+                    regs[n + k] = iota.add(i);
+                } else if (leafKind[k] == LINEAR) {
+                    int l = leafSlot[k];
+                    regs[n + k] = strides[k].add(start[l] + (i - i0) * step[l]);
+                }
+            }
+            if (reals) runReals(regs, arrays, i, n);
+            else runInts(regs, arrays, i, n);
+        }
+
+        ints[fr.intBase + inductionSlot] = i0 + count;
+        for (int k = 0; k < start.length; k++) ints[fr.intBase + linearSlot[k]] = start[k] + count * step[k];
+        return count;
+    }
+
+    private void setupLeaves(FrameStack stack, Frame fr, Vector<?>[] regs, int n) {
+        for (int k = 0; k < leafKind.length; k++) {
+            Instr v = leafInstr[k];
+            switch (leafKind[k]) {
+                case CONSTANT -> regs[n + k] = reals
+                        ? DoubleVector.broadcast(realSpecies, ((Number) v.constant).doubleValue())
+                        : IntVector.broadcast(intSpecies, ((Number) v.constant).intValue());
+                case SLOT -> regs[n + k] = reals
+                        ? DoubleVector.broadcast(realSpecies, stack.reals[fr.realBase + leafSlot[k]])
+                        : IntVector.broadcast(intSpecies, stack.ints[fr.intBase + leafSlot[k]]);
+                default -> { }
+            }
+        }
+    }
+
+    private void runInts(Vector<?>[] regs, Object[] arrays, int i, int n) {
+        for (int p = 0; p < n; p++) {
+            switch (op[p]) {
+                case LOAD -> regs[dst[p]] = IntVector.fromArray(intSpecies, (int[]) arrays[array[p]], i);
+                case STORE -> ((IntVector) regs[a[p]]).intoArray((int[]) arrays[array[p]], i);
+                case ADD -> regs[dst[p]] = ((IntVector) regs[a[p]]).add((IntVector) regs[b[p]]);
+                case SUB -> regs[dst[p]] = ((IntVector) regs[a[p]]).sub((IntVector) regs[b[p]]);
+                case MUL -> regs[dst[p]] = ((IntVector) regs[a[p]]).mul((IntVector) regs[b[p]]);
+                case NEG -> regs[dst[p]] = ((IntVector) regs[a[p]]).neg();
+                default -> regs[dst[p]] = regs[a[p]];
+            }
+        }
+    }
+
+    private void runReals(Vector<?>[] regs, Object[] arrays, int i, int n) {
+        for (int p = 0; p < n; p++) {
+            switch (op[p]) {
+                case LOAD -> regs[dst[p]] = DoubleVector.fromArray(realSpecies, (double[]) arrays[array[p]], i);
+                case STORE -> ((DoubleVector) regs[a[p]]).intoArray((double[]) arrays[array[p]], i);
+                case ADD -> regs[dst[p]] = ((DoubleVector) regs[a[p]]).add((DoubleVector) regs[b[p]]);
+                case SUB -> regs[dst[p]] = ((DoubleVector) regs[a[p]]).sub((DoubleVector) regs[b[p]]);
+                case MUL -> regs[dst[p]] = ((DoubleVector) regs[a[p]]).mul((DoubleVector) regs[b[p]]);
+                case DIV -> regs[dst[p]] = ((DoubleVector) regs[a[p]]).div((DoubleVector) regs[b[p]]);
+                case NEG -> regs[dst[p]] = ((DoubleVector) regs[a[p]]).neg();
+                default -> regs[dst[p]] = regs[a[p]];
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package semantic;
+
+// redosled je bitan: funkcija je onoliko čista koliko i najgora stvar koju radi ili poziva
+public enum Purity {
+    PURE,           // zavisi samo od parametara
+    READS_MEMORY,   // čita globalne promenljive ili nizove pozivaoca
+    IMPURE;         // ispis, unos, upis u globalne promenljive ili tuđe nizove
+
+    public Purity max(Purity other) {
+        return compareTo(other) >= 0 ? this : other;
+    }
+
+    public String label() {
+        return name().toLowerCase().replace('_', ' ');
+    }
+}
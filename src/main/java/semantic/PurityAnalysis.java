@@ -0,0 +1,183 @@
+package semantic;
+
+import parser.Ast;
+import parser.Expr;
+import parser.Stmt;
+import parser.Symbol;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+// Razvrstava funkcije po bočnim efektima na osnovu tipizovanog AST-a (posle TypeChecker-a).
+// Poziv nasleđuje čistoću pozvane funkcije; rekurzija se rešava iteracijom od pretpostavke da je sve čisto.
+public final class PurityAnalysis {
+
+    private static final class Effects implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+        Purity own = Purity.PURE;
+        final Set<String> callees = new LinkedHashSet<>();
+
+        // niz napravljen u samoj funkciji sme da se menja; ostali nizovi mogu biti tuđi
+        final Set<Symbol> freshArrays = new HashSet<>();
+        final Set<Symbol> reassignedArrays = new HashSet<>();
+        final Set<Symbol> writtenArrays = new HashSet<>();
+
+        void note(Purity p) {
+            own = own.max(p);
+        }
+
+        Purity finish() {
+            for (Symbol s : writtenArrays) {
+                boolean local = s.kind == Symbol.Kind.LOCAL && freshArrays.contains(s) && !reassignedArrays.contains(s);
+                if (!local) note(Purity.IMPURE);
+            }
+            return own;
+        }
+
+        private void read(Symbol s) {
+            if (s == null) return;
+            if (s.kind == Symbol.Kind.GLOBAL) note(Purity.READS_MEMORY);
+            else if (s.kind == Symbol.Kind.PARAM && s.type.isArray()) note(Purity.READS_MEMORY);
+        }
+
+        @Override
+        public Void visitLiteral(Expr.Literal e) {
+            return null;
+        }
+
+        @Override
+        public Void visitIdent(Expr.Ident e) {
+            read(e.symbol);
+            return null;
+        }
+
+        @Override
+        public Void visitIndex(Expr.Index e) {
+            read(e.symbol);
+            for (Expr i : e.indices) i.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitGrouping(Expr.Grouping e) {
+            return e.inner.accept(this);
+        }
+
+        @Override
+        public Void visitCall(Expr.Call e) {
+            for (Expr a : e.args) a.accept(this);
+            if (e.symbol.kind == Symbol.Kind.BUILTIN) note(Purity.IMPURE);
+            else callees.add(e.callee.lexeme);
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(Expr.Unary e) {
+            return e.right.accept(this);
+        }
+
+        @Override
+        public Void visitBinary(Expr.Binary e) {
+            e.left.accept(this);
+            return e.right.accept(this);
+        }
+
+        @Override
+        public Void visitVarDecl(Stmt.VarDecl s) {
+            for (Expr d : s.dims) {
+                if (d != null) d.accept(this);
+            }
+            if (s.initializer != null) s.initializer.accept(this);
+            else if (s.varType.isArray() && !s.dims.isEmpty() && !s.dims.contains(null)) freshArrays.add(s.symbol);
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(Stmt.Assign s) {
+            s.value.accept(this);
+            if (s.target instanceof Expr.Index idx) {
+                for (Expr i : idx.indices) i.accept(this);
+                writtenArrays.add(idx.symbol);
+                return null;
+            }
+            Symbol target = ((Expr.Ident) s.target).symbol;
+            if (target.kind == Symbol.Kind.GLOBAL) note(Purity.IMPURE);
+            if (target.type.isArray()) reassignedArrays.add(target);
+            return null;
+        }
+
+        @Override
+        public Void visitIf(Stmt.If s) {
+            s.condition.accept(this);
+            s.thenBranch.accept(this);
+            if (s.elseBranch != null) s.elseBranch.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(Stmt.While s) {
+            s.condition.accept(this);
+            return s.body.accept(this);
+        }
+
+        @Override
+        public Void visitReturn(Stmt.Return s) {
+            return s.value.accept(this);
+        }
+
+        @Override
+        public Void visitBlock(Stmt.Block s) {
+            for (Stmt st : s.statements) st.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitExprStmt(Stmt.ExpressionStmt s) {
+            return s.expression.accept(this);
+        }
+
+        @Override
+        public Void visitEmpty(Stmt.Empty s) {
+            return null;
+        }
+
+        @Override
+        public Void visitParallel(Stmt.Parallel s) {
+            for (Stmt b : s.branches) b.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitFunDecl(Stmt.FunDecl s) {
+            throw new IllegalStateException("FunDecl se ne pojavljuje u Ast.Program");
+        }
+    }
+
+    public Map<String, Purity> analyze(Ast.Program program) {
+        Map<String, Effects> effects = new LinkedHashMap<>();
+        Map<String, Purity> result = new LinkedHashMap<>();
+        for (Ast.TopItem item : program.items) {
+            if (!(item instanceof Ast.FuncDef f)) continue;
+            Effects e = new Effects();
+            for (Stmt s : f.body) s.accept(e);
+            effects.put(f.name.lexeme, e);
+            result.put(f.name.lexeme, e.finish());
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<String, Effects> e : effects.entrySet()) {
+                Purity p = result.get(e.getKey());
+                for (String callee : e.getValue().callees) p = p.max(result.getOrDefault(callee, Purity.IMPURE));
+                if (p != result.get(e.getKey())) {
+                    result.put(e.getKey(), p);
+                    changed = true;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,379 @@
+package semantic;
+
+import lexer.SymbolTable;
+import lexer.token.Token;
+import parser.Ast;
+import parser.Expr;
+import parser.Stmt;
+import parser.Symbol;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+// Grane bloka paralelno se izvršavaju istovremeno, pa smeju da dele promenljivu samo ako je nijedna
+// ne menja. Grana menja promenljivu kojoj dodeljuje vrednost ili čije elemente piše, sama ili preko
+// pozvane funkcije. Nizovi se porede po imenu, osim parametara i nizova kojima je negde dodeljen drugi
+// niz: oni mogu da pokazuju na bilo koji niz, pa se upis u njih sudara sa svakim nizom druge grane.
+// Upis u lokalni niz za koji se ne zna na šta pokazuje računa se kao upis u bilo koji niz. Posle
+// provere bloku se upisuju ulazi i izlazi grana za IrBuilder.
+final class RaceCheck {
+
+    // šta funkcija može da promeni ili pročita kada je pozvana
+    private static final class Summary {
+        boolean writesGlobals;
+        boolean readsGlobals;
+        boolean writesAnyParam;
+        final Set<Integer> writtenParams = new HashSet<>();
+    }
+
+    private record Call(Token callee, Ast.FuncDef function, List<Expr> args) {}
+
+    private static final class Access implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+        final Set<Symbol> declared = new HashSet<>();
+        final Map<Symbol, Token> reads = new LinkedHashMap<>();
+        final Map<Symbol, Token> writes = new LinkedHashMap<>();
+        final Set<Symbol> assigned = new LinkedHashSet<>();
+        final List<Call> calls = new ArrayList<>();
+        // niz napravljen u samoj grani ili funkciji pripada samo njoj
+        final Set<Symbol> freshArrays = new HashSet<>();
+        final Set<Symbol> reassignedArrays = new HashSet<>();
+        final Map<Symbol, Token> elementWrites = new LinkedHashMap<>();
+        final Map<Symbol, Token> arrayWrites = new LinkedHashMap<>();   // spoljni nizovi čiji se elementi menjaju
+
+        Token writesGlobals;    // poziv koji može da menja globalne promenljive
+        Token readsGlobals;     // poziv koji može da ih čita
+        Token writesUnknown;
+
+        private void read(Symbol s, Token at) {
+            if (s != null && s.isVariable() && !declared.contains(s)) reads.putIfAbsent(s, at);
+        }
+
+        private void write(Symbol s, Token at) {
+            if (s != null && !declared.contains(s)) writes.putIfAbsent(s, at);
+        }
+
+        // upisi u elemente se razvrstavaju tek na kraju, kada se zna da li je lokalni niz ponovo dodeljen
+        void finish(Map<Ast.FuncDef, Summary> summaries) {
+            for (Map.Entry<Symbol, Token> e : elementWrites.entrySet()) writeArray(e.getKey(), e.getValue());
+            for (Call c : calls) {
+                Summary callee = summaries.get(c.function);
+                if (callee.writesGlobals && writesGlobals == null) writesGlobals = c.callee;
+                if (callee.readsGlobals && readsGlobals == null) readsGlobals = c.callee;
+                for (int k = 0; k < c.args.size(); k++) {
+                    if (!callee.writesAnyParam && !callee.writtenParams.contains(k)) continue;
+                    Symbol array = arrayOf(c.args.get(k));
+                    if (array != null) writeArray(array, c.callee);
+                }
+            }
+        }
+
+        private void writeArray(Symbol s, Token at) {
+            if (!declared.contains(s)) {
+                write(s, at);
+                arrayWrites.putIfAbsent(s, at);
+            } else if (!freshArrays.contains(s) || reassignedArrays.contains(s)) {
+                if (writesUnknown == null) writesUnknown = at;
+                if (writesGlobals == null) writesGlobals = at;
+            }
+        }
+
+        // niz koji se prosleđuje pozivu: promenljiva ili red višedimenzionalnog niza
+        private static Symbol arrayOf(Expr e) {
+            if (e instanceof Expr.Grouping g) return arrayOf(g.inner);
+            if (e instanceof Expr.Ident i && i.symbol.type.isArray()) return i.symbol;
+            if (e instanceof Expr.Index i && e.type.isArray()) return i.symbol;
+            return null;
+        }
+
+        boolean touchesGlobals() {
+            if (readsGlobals != null || writesGlobals != null) return true;
+            for (Symbol s : reads.keySet()) {
+                if (s.kind == Symbol.Kind.GLOBAL) return true;
+            }
+            for (Symbol s : writes.keySet()) {
+                if (s.kind == Symbol.Kind.GLOBAL) return true;
+            }
+            return false;
+        }
+
+        boolean touches(Symbol s) {
+            return reads.containsKey(s) || writes.containsKey(s);
+        }
+
+        Token touchedArray() {
+            for (Map.Entry<Symbol, Token> e : reads.entrySet()) {
+                if (e.getKey().type.isArray()) return e.getValue();
+            }
+            for (Map.Entry<Symbol, Token> e : writes.entrySet()) {
+                if (e.getKey().type.isArray()) return e.getValue();
+            }
+            return writesUnknown;
+        }
+
+        Map<Symbol, Token> touchedArrays() {
+            Map<Symbol, Token> arrays = new LinkedHashMap<>();
+            for (Map.Entry<Symbol, Token> e : reads.entrySet()) {
+                if (e.getKey().type.isArray()) arrays.putIfAbsent(e.getKey(), e.getValue());
+            }
+            for (Map.Entry<Symbol, Token> e : writes.entrySet()) {
+                if (e.getKey().type.isArray()) arrays.putIfAbsent(e.getKey(), e.getValue());
+            }
+            return arrays;
+        }
+
+        @Override
+        public Void visitLiteral(Expr.Literal e) {
+            return null;
+        }
+
+        @Override
+        public Void visitIdent(Expr.Ident e) {
+            read(e.symbol, e.name);
+            return null;
+        }
+
+        @Override
+        public Void visitIndex(Expr.Index e) {
+            read(e.symbol, e.name);
+            for (Expr i : e.indices) i.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitGrouping(Expr.Grouping e) {
+            return e.inner.accept(this);
+        }
+
+        @Override
+        public Void visitCall(Expr.Call e) {
+            if (e.callee.symbol == SymbolTable.UPISI) {
+                Expr.Ident target = (Expr.Ident) e.args.get(0);
+                write(target.symbol, target.name);
+                if (!declared.contains(target.symbol)) assigned.add(target.symbol);
+                return null;
+            }
+            for (Expr a : e.args) a.accept(this);
+            if (e.symbol.kind == Symbol.Kind.FUNCTION) calls.add(new Call(e.callee, e.symbol.function, e.args));
+            return null;
+        }
+
+        @Override
+        public Void visitUnary(Expr.Unary e) {
+            return e.right.accept(this);
+        }
+
+        @Override
+        public Void visitBinary(Expr.Binary e) {
+            e.left.accept(this);
+            return e.right.accept(this);
+        }
+
+        @Override
+        public Void visitVarDecl(Stmt.VarDecl s) {
+            for (Expr d : s.dims) {
+                if (d != null) d.accept(this);
+            }
+            if (s.initializer != null) {
+                s.initializer.accept(this);
+                if (s.varType.isArray()) reassignedArrays.add(s.symbol);
+            } else if (s.varType.isArray() && !s.dims.isEmpty() && !s.dims.contains(null)) freshArrays.add(s.symbol);
+            declared.add(s.symbol);
+            return null;
+        }
+
+        @Override
+        public Void visitAssign(Stmt.Assign s) {
+            s.value.accept(this);
+            if (s.target instanceof Expr.Index idx) {
+                for (Expr i : idx.indices) i.accept(this);
+                read(idx.symbol, idx.name);
+                elementWrites.putIfAbsent(idx.symbol, idx.name);
+                return null;
+            }
+            Expr.Ident target = (Expr.Ident) s.target;
+            write(target.symbol, target.name);
+            if (!declared.contains(target.symbol)) assigned.add(target.symbol);
+            if (target.symbol.type.isArray()) reassignedArrays.add(target.symbol);
+            return null;
+        }
+
+        @Override
+        public Void visitIf(Stmt.If s) {
+            s.condition.accept(this);
+            s.thenBranch.accept(this);
+            if (s.elseBranch != null) s.elseBranch.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitWhile(Stmt.While s) {
+            s.condition.accept(this);
+            return s.body.accept(this);
+        }
+
+        @Override
+        public Void visitReturn(Stmt.Return s) {
+            return s.value.accept(this);
+        }
+
+        @Override
+        public Void visitBlock(Stmt.Block s) {
+            for (Stmt st : s.statements) st.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitExprStmt(Stmt.ExpressionStmt s) {
+            return s.expression.accept(this);
+        }
+
+        @Override
+        public Void visitEmpty(Stmt.Empty s) {
+            return null;
+        }
+
+        @Override
+        public Void visitParallel(Stmt.Parallel s) {
+            for (Stmt b : s.branches) b.accept(this);
+            return null;
+        }
+
+        @Override
+        public Void visitFunDecl(Stmt.FunDecl s) {
+            throw new IllegalStateException("FunDecl se ne pojavljuje u Ast.Program");
+        }
+    }
+
+    private final Map<Ast.FuncDef, Summary> summaries = new LinkedHashMap<>();
+    // nizovi kojima je bilo gde u programu dodeljen drugi niz
+    private final Set<Symbol> reassigned = new HashSet<>();
+
+    RaceCheck(Ast.Program program) {
+        Map<Ast.FuncDef, Access> bodies = new LinkedHashMap<>();
+        Access main = new Access();
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopStmt ts) ts.stmt.accept(main);
+            if (item instanceof Ast.TopVarDecl g) g.decl.accept(main);
+            if (!(item instanceof Ast.FuncDef f)) continue;
+            Access a = new Access();
+            for (Stmt s : f.body) s.accept(a);
+            bodies.put(f, a);
+            summaries.put(f, new Summary());
+            reassigned.addAll(a.reassignedArrays);
+        }
+        reassigned.addAll(main.reassignedArrays);
+
+        // polazi se od pretpostavke da funkcije ništa ne menjaju i širi se kroz pozive do stabilnog stanja
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (Map.Entry<Ast.FuncDef, Access> e : bodies.entrySet()) {
+                Access a = copy(e.getValue());
+                a.finish(summaries);
+                changed |= update(summaries.get(e.getKey()), e.getKey(), a);
+            }
+        }
+    }
+
+    // finish menja skupove, a telo funkcije se obrađuje u svakom krugu iznova
+    private static Access copy(Access body) {
+        Access a = new Access();
+        a.declared.addAll(body.declared);
+        a.reads.putAll(body.reads);
+        a.writes.putAll(body.writes);
+        a.calls.addAll(body.calls);
+        a.freshArrays.addAll(body.freshArrays);
+        a.reassignedArrays.addAll(body.reassignedArrays);
+        a.elementWrites.putAll(body.elementWrites);
+        return a;
+    }
+
+    // parametar ili ponovo dodeljen niz može da deli elemente sa bilo kojim drugim nizom
+    private boolean mayAlias(Symbol s) {
+        return s.kind == Symbol.Kind.PARAM || reassigned.contains(s);
+    }
+
+    private static boolean update(Summary s, Ast.FuncDef f, Access a) {
+        boolean changed = false;
+        boolean writes = a.writesGlobals != null || a.writes.keySet().stream().anyMatch(v -> v.kind == Symbol.Kind.GLOBAL);
+        boolean reads = a.touchesGlobals();
+        if (writes && !s.writesGlobals) changed = s.writesGlobals = true;
+        if (reads && !s.readsGlobals) changed = s.readsGlobals = true;
+        if (a.writesUnknown != null && !s.writesAnyParam) changed = s.writesAnyParam = true;
+        for (int k = 0; k < f.params.size(); k++) {
+            if (a.writes.containsKey(f.params.get(k).symbol) && s.writtenParams.add(k)) changed = true;
+        }
+        return changed;
+    }
+
+    void check(Stmt.Parallel block, BiConsumer<Token, String> error) {
+        List<Access> branches = new ArrayList<>();
+        block.inputs = new ArrayList<>();
+        block.outputs = new ArrayList<>();
+        for (Stmt b : block.branches) {
+            Access a = new Access();
+            b.accept(a);
+            a.finish(summaries);
+            branches.add(a);
+
+            Set<Symbol> inputs = new LinkedHashSet<>(a.reads.keySet());
+            inputs.addAll(a.writes.keySet());
+            inputs.removeIf(s -> s.kind == Symbol.Kind.GLOBAL);
+            List<Symbol> outputs = new ArrayList<>(a.assigned);
+            outputs.removeIf(s -> s.kind == Symbol.Kind.GLOBAL);
+            block.inputs.add(List.copyOf(inputs));
+            block.outputs.add(List.copyOf(outputs));
+        }
+
+        for (int x = 0; x < branches.size(); x++) {
+            Access a = branches.get(x);
+            for (int y = 0; y < branches.size(); y++) {
+                if (x == y) continue;
+                Access b = branches.get(y);
+                for (Map.Entry<Symbol, Token> w : a.writes.entrySet()) {
+                    // par se prijavljuje jednom, u kasnijoj grani
+                    if (b.touches(w.getKey()) && (y > x || !b.writes.containsKey(w.getKey()))) {
+                        Token at = b.writes.containsKey(w.getKey()) ? b.writes.get(w.getKey()) : b.reads.get(w.getKey());
+                        error.accept(at, "Promenljiva '" + w.getKey().name
+                                + "' se menja u jednoj grani bloka 'paralelno', a koristi u drugoj");
+                    }
+                }
+                for (Map.Entry<Symbol, Token> w : a.arrayWrites.entrySet()) {
+                    for (Map.Entry<Symbol, Token> t : b.touchedArrays().entrySet()) {
+                        Symbol other = t.getKey();
+                        if (other == w.getKey() || !mayAlias(w.getKey()) && !mayAlias(other)) continue;
+                        if (y < x && b.arrayWrites.containsKey(other)) continue;
+                        error.accept(t.getValue(), "Niz '" + other.name + "' može da pokazuje na isti niz kao '"
+                                + w.getKey().name + "', koji se menja u drugoj grani bloka 'paralelno'");
+                    }
+                    Token call = b.writesGlobals != null ? b.writesGlobals : b.readsGlobals;
+                    if (call != null && mayAlias(w.getKey()) && w.getKey().kind != Symbol.Kind.GLOBAL) {
+                        error.accept(call, "'" + call.lexeme + "' može da koristi globalni niz na koji pokazuje '"
+                                + w.getKey().name + "', koji se menja u drugoj grani bloka 'paralelno'");
+                    }
+                }
+                if (a.writesGlobals != null) {
+                    for (Symbol other : b.touchedArrays().keySet()) {
+                        if (other.kind == Symbol.Kind.GLOBAL || !mayAlias(other) || b.arrayWrites.containsKey(other)) continue;
+                        error.accept(a.writesGlobals, "'" + a.writesGlobals.lexeme + "' može da menja globalni niz na koji pokazuje '"
+                                + other.name + "' iz druge grane bloka 'paralelno'");
+                        break;
+                    }
+                }
+                if (a.writesGlobals != null && b.touchesGlobals() && (y > x || b.writesGlobals == null)) {
+                    error.accept(a.writesGlobals, "'" + a.writesGlobals.lexeme
+                            + "' može da menja globalne promenljive koje koristi druga grana bloka 'paralelno'");
+                }
+                if (a.writesUnknown != null && b.touchedArray() != null && (y > x || b.writesUnknown == null)) {
+                    error.accept(a.writesUnknown, "Grana bloka 'paralelno' menja niz nepoznatog porekla, a druga grana koristi nizove");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package semantic;
+
+import java.util.List;
+
+public class SemanticError extends RuntimeException {
+    public final List<String> errors;
+
+    public SemanticError(List<String> errors) {
+        super(String.join("\n", errors));
+        this.errors = List.copyOf(errors);
+    }
+}
@@ -0,0 +1,478 @@
+package semantic;
+
+import lexer.SymbolTable;
+import lexer.token.Token;
+import parser.Ast;
+import parser.Ast.Type.Kind;
+import parser.Expr;
+import parser.Stmt;
+import parser.Symbol;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Razrešava svaki identifikator na njegovu deklaraciju, svakom izrazu dodeljuje statički tip
+// i prijavljuje sve greške u tipovima pre izvršavanja.
+public final class TypeChecker implements Expr.Visitor<Ast.Type>, Stmt.Visitor<Void> {
+
+    private static final Ast.Type INT = Ast.Type.of(Kind.INT);
+    private static final Ast.Type REAL = Ast.Type.of(Kind.REAL);
+    private static final Ast.Type CHAR = Ast.Type.of(Kind.CHAR);
+    private static final Ast.Type STRING = Ast.Type.of(Kind.STRING);
+    private static final Ast.Type BOOL = Ast.Type.of(Kind.BOOL);
+    private static final Ast.Type VOID = Ast.Type.of(Kind.VOID);
+
+    // vezivanje koje je poništeno ulaskom u opseg, vraća se pri izlasku
+    private record Shadow(int id, Symbol previous, int previousDepth) {}
+
+    private final List<String> errors = new ArrayList<>();
+
+    // sve tabele su indeksirane brojem simbola iz leksera
+    private final Symbol[] functions;
+    private final Symbol[] globals;
+    private final Symbol[] locals;          // trenutno vidljiva lokalna deklaracija
+    private final int[] localDepth;         // dubina opsega u kojem je deklarisana
+    private final List<List<Shadow>> scopes = new ArrayList<>();
+    private Ast.FuncDef currentFunction;
+    private int parallelDepth;
+    private final List<Stmt.Parallel> parallelBlocks = new ArrayList<>();
+
+    public TypeChecker(SymbolTable symbols) {
+        int n = symbols.size();
+        functions = new Symbol[n];
+        globals = new Symbol[n];
+        locals = new Symbol[n];
+        localDepth = new int[n];
+    }
+
+    public void check(Ast.Program program) {
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.FuncDef f) {
+                int id = f.name.symbol;
+                String name = f.name.lexeme;
+                if (id == SymbolTable.NAPISI || id == SymbolTable.UPISI) {
+                    error(f.name, "'" + name + "' je ugrađena funkcija");
+                } else if (functions[id] != null) {
+                    error(f.name, "Funkcija '" + name + "' je već definisana");
+                } else {
+                    functions[id] = new Symbol(Symbol.Kind.FUNCTION, name, f.returnType, f.name, f);
+                }
+            }
+        }
+
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopVarDecl g) {
+                Stmt.VarDecl d = g.decl;
+                checkDeclaration(d);
+                if (globals[d.name.symbol] != null) {
+                    error(d.name, "Promenljiva '" + d.name.lexeme + "' je već deklarisana");
+                }
+                d.symbol = new Symbol(Symbol.Kind.GLOBAL, d.name.lexeme, d.varType, d.name, null);
+                globals[d.name.symbol] = d.symbol;
+            }
+        }
+
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.FuncDef f) checkFunction(f);
+        }
+
+        for (Ast.TopItem item : program.items) {
+            if (item instanceof Ast.TopStmt ts) {
+                currentFunction = null;
+                ts.stmt.accept(this);
+            }
+        }
+
+        // trke između grana se traže tek u ispravno tipiziranom programu
+        if (errors.isEmpty() && !parallelBlocks.isEmpty()) {
+            RaceCheck races = new RaceCheck(program);
+            for (Stmt.Parallel block : parallelBlocks) races.check(block, this::error);
+        }
+
+        if (!errors.isEmpty()) throw new SemanticError(errors);
+    }
+
+    private void checkFunction(Ast.FuncDef f) {
+        currentFunction = f;
+        beginScope();
+        for (Ast.Param p : f.params) {
+            p.symbol = new Symbol(Symbol.Kind.PARAM, p.name.lexeme, p.type, p.name, null);
+            declare(p.name, p.symbol);
+        }
+        for (Stmt s : f.body) s.accept(this);
+        endScope();
+        currentFunction = null;
+    }
+
+    // ---------- opseg ----------
+
+    private void beginScope() {
+        scopes.add(new ArrayList<>());
+    }
+
+    private void endScope() {
+        List<Shadow> undo = scopes.remove(scopes.size() - 1);
+        for (int k = undo.size() - 1; k >= 0; k--) {
+            Shadow sh = undo.get(k);
+            locals[sh.id] = sh.previous;
+            localDepth[sh.id] = sh.previousDepth;
+        }
+    }
+
+    private void declare(Token name, Symbol symbol) {
+        int id = name.symbol;
+        int depth = scopes.size();
+        if (locals[id] != null && localDepth[id] == depth) {
+            error(name, "Promenljiva '" + name.lexeme + "' je već deklarisana u ovom opsegu");
+        }
+        scopes.get(depth - 1).add(new Shadow(id, locals[id], localDepth[id]));
+        locals[id] = symbol;
+        localDepth[id] = depth;
+    }
+
+    private Symbol resolve(Token name) {
+        int id = name.symbol;
+        if (locals[id] != null) return locals[id];
+        if (globals[id] != null) return globals[id];
+        return functions[id];
+    }
+
+    private Symbol resolveVariable(Token name) {
+        Symbol s = resolve(name);
+        if (s == null) {
+            error(name, "Nedeklarisana promenljiva '" + name.lexeme + "'");
+            return null;
+        }
+        if (!s.isVariable()) {
+            error(name, "'" + name.lexeme + "' je funkcija, a ne promenljiva");
+            return null;
+        }
+        return s;
+    }
+
+    // ---------- pravila ----------
+
+    private static boolean assignable(Ast.Type target, Ast.Type value) {
+        if (target == null || value == null) return true;
+        if (target.kind == Kind.REAL && value.kind == Kind.INT) return true;
+        if (target.kind != value.kind) return false;
+        if (target.isArray()) {
+            return target.element == value.element
+                    && (target.rank == 0 || value.rank == 0 || target.rank == value.rank);
+        }
+        return true;
+    }
+
+    private void expectAssignable(Token at, Ast.Type target, Ast.Type value) {
+        if (!assignable(target, value)) {
+            error(at, "Nekompatibilni tipovi: očekivan '" + target + "', dobijen '" + value + "'");
+        }
+    }
+
+    private void expectCondition(Token at, Ast.Type t, String where) {
+        if (t != null && t.kind != Kind.BOOL && t.kind != Kind.INT) {
+            error(at, "Uslov u '" + where + "' mora biti pogodak ili broj, a ne '" + t + "'");
+        }
+    }
+
+    private void checkDeclaration(Stmt.VarDecl d) {
+        for (Expr dim : d.dims) {
+            if (dim == null) continue;
+            Ast.Type t = dim.accept(this);
+            if (t != null && t.kind != Kind.INT) error(d.name, "Dimenzija niza mora biti broj");
+        }
+        if (!d.dims.isEmpty() && !d.varType.isArray()) {
+            error(d.name, "Samo niz može imati dimenzije");
+        }
+        if (d.initializer != null) {
+            expectAssignable(d.name, d.varType, d.initializer.accept(this));
+        }
+    }
+
+    private void error(Token at, String message) {
+        if (at == null) {
+            errors.add(message);
+        } else {
+            errors.add("linija " + at.line + ", kolona " + at.colStart + ": " + message);
+        }
+    }
+
+    private static Token tokenOf(Expr e) {
+        if (e instanceof Expr.Literal l) return l.token;
+        if (e instanceof Expr.Ident i) return i.name;
+        if (e instanceof Expr.Index i) return i.name;
+        if (e instanceof Expr.Call c) return c.callee;
+        if (e instanceof Expr.Unary u) return u.operator;
+        if (e instanceof Expr.Binary b) return b.op;
+        if (e instanceof Expr.Grouping g) return tokenOf(g.inner);
+        return null;
+    }
+
+    // ---------- izrazi ----------
+
+    @Override
+    public Ast.Type visitLiteral(Expr.Literal e) {
+        e.type = switch (e.token.type) {
+            case INT_LIT -> INT;
+            case REAL_LIT -> REAL;
+            case CH_LIT -> CHAR;
+            case STR_LIT -> STRING;
+            case BOOL_LIT -> BOOL;
+            default -> null;
+        };
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitIdent(Expr.Ident e) {
+        e.symbol = resolveVariable(e.name);
+        e.type = e.symbol == null ? null : e.symbol.type;
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitIndex(Expr.Index e) {
+        e.symbol = resolveVariable(e.name);
+        for (Expr idx : e.indices) {
+            Ast.Type t = idx.accept(this);
+            if (t != null && t.kind != Kind.INT) error(tokenOf(idx), "Indeks niza mora biti broj, a ne '" + t + "'");
+        }
+        if (e.symbol == null) return null;
+
+        Ast.Type arrayType = e.symbol.type;
+        if (!arrayType.isArray()) {
+            error(e.name, "'" + e.name.lexeme + "' nije niz");
+            return null;
+        }
+        if (arrayType.rank > 0 && arrayType.rank != e.indices.size()) {
+            error(e.name, "Niz '" + e.name.lexeme + "' ima " + arrayType.rank
+                    + " dimenzija, a indeksiran je sa " + e.indices.size());
+        }
+        e.type = Ast.Type.of(arrayType.element);
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitGrouping(Expr.Grouping e) {
+        e.type = e.inner.accept(this);
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitCall(Expr.Call e) {
+        String name = e.callee.lexeme;
+
+        if (e.callee.symbol == SymbolTable.NAPISI) {
+            for (Expr a : e.args) a.accept(this);
+            e.symbol = new Symbol(Symbol.Kind.BUILTIN, name, VOID, null, null);
+            e.type = VOID;
+            return VOID;
+        }
+
+        if (e.callee.symbol == SymbolTable.UPISI) {
+            Expr target = e.args.get(0);
+            Ast.Type t = target.accept(this);
+            if (t != null && t.isArray()) error(e.callee, "'upisi' ne može da učita ceo niz");
+            e.symbol = new Symbol(Symbol.Kind.BUILTIN, name, VOID, null, null);
+            e.type = VOID;
+            return VOID;
+        }
+
+        if (e.callee.symbol == SymbolTable.ENKRIPTUJ || e.callee.symbol == SymbolTable.DEKRIPTUJ) {
+            return checkCipher(e);
+        }
+
+        List<Ast.Type> argTypes = new ArrayList<>();
+        for (Expr a : e.args) argTypes.add(a.accept(this));
+
+        Symbol s = resolve(e.callee);
+        if (s == null) {
+            error(e.callee, "Nedefinisana funkcija '" + name + "'");
+            return null;
+        }
+        if (s.kind != Symbol.Kind.FUNCTION) {
+            error(e.callee, "'" + name + "' nije funkcija");
+            return null;
+        }
+
+        List<Ast.Param> params = s.function.params;
+        if (params.size() != argTypes.size()) {
+            error(e.callee, "Funkcija '" + name + "' očekuje " + params.size()
+                    + " argumenata, a dobila je " + argTypes.size());
+        } else {
+            for (int i = 0; i < params.size(); i++) {
+                if (!assignable(params.get(i).type, argTypes.get(i))) {
+                    error(tokenOf(e.args.get(i)), "Argument " + (i + 1) + " funkcije '" + name + "': očekivan '"
+                            + params.get(i).type + "', dobijen '" + argTypes.get(i) + "'");
+                }
+            }
+        }
+
+        e.symbol = s;
+        e.type = s.type;
+        return e.type;
+    }
+
+    // rezultat je istog tipa kao podatak: tekst ili jednodimenzionalni niz brojeva ili realnih brojeva
+    private Ast.Type checkCipher(Expr.Call e) {
+        String name = e.callee.lexeme;
+        List<Ast.Type> argTypes = new ArrayList<>();
+        for (Expr a : e.args) argTypes.add(a.accept(this));
+        e.symbol = new Symbol(Symbol.Kind.BUILTIN, name, null, null, null);
+
+        if (argTypes.size() != 2) {
+            error(e.callee, "'" + name + "' očekuje 2 argumenta (podatak i ključ), a dobila je " + argTypes.size());
+            return null;
+        }
+        Ast.Type data = argTypes.get(0);
+        Ast.Type key = argTypes.get(1);
+        if (key != null && key.kind != Kind.STRING) {
+            error(tokenOf(e.args.get(1)), "Ključ za '" + name + "' mora biti tekst, a ne '" + key + "'");
+        }
+        if (data == null) return null;
+        boolean numbers = data.isArray() && data.rank <= 1 && (data.element == Kind.INT || data.element == Kind.REAL);
+        if (data.kind != Kind.STRING && !numbers) {
+            error(tokenOf(e.args.get(0)), "'" + name + "' radi nad tekstom ili jednodimenzionalnim nizom brojeva"
+                    + " ili realnih brojeva, a ne nad '" + data + "'");
+            return null;
+        }
+        e.type = data.isArray() ? new Ast.Type(Kind.ARRAY, null, 1, new ArrayList<>(), data.element) : STRING;
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitUnary(Expr.Unary e) {
+        Ast.Type t = e.right.accept(this);
+        if (t == null) return null;
+
+        if (e.operator.type == lexer.token.TokenType.SUBTRACT) {
+            if (t.kind != Kind.INT && t.kind != Kind.REAL) {
+                error(e.operator, "Unarni '-' zahteva broj ili realan, a ne '" + t + "'");
+                return null;
+            }
+            e.type = t;
+        } else {
+            if (t.kind != Kind.BOOL && t.kind != Kind.INT) {
+                error(e.operator, "Negacija zahteva pogodak, a ne '" + t + "'");
+                return null;
+            }
+            e.type = BOOL;
+        }
+        return e.type;
+    }
+
+    @Override
+    public Ast.Type visitBinary(Expr.Binary e) {
+        Ast.Type l = e.left.accept(this);
+        Ast.Type r = e.right.accept(this);
+        if (l == null || r == null) return null;
+
+        String op = e.op.lexeme;
+        Kind lk = l.kind;
+        Kind rk = r.kind;
+        boolean numeric = lk == rk && (lk == Kind.INT || lk == Kind.REAL);
+
+        e.type = switch (e.op.type) {
+            case ADD -> numeric || (lk == Kind.STRING && rk == Kind.STRING) ? l : null;
+            case SUBTRACT, MULTIPLY, DIVIDE, PERCENT -> numeric ? l : null;
+            case LT, LE, GT, GE -> numeric || (lk == Kind.CHAR && rk == Kind.CHAR) ? BOOL : null;
+            case EQ, NEQ -> lk == rk && !l.isArray() ? BOOL : null;
+            case I, ILI -> lk == Kind.BOOL && rk == Kind.BOOL ? BOOL : null;
+            default -> null;
+        };
+
+        if (e.type == null) {
+            error(e.op, "Operator '" + op + "' ne može da se primeni na '" + l + "' i '" + r + "'");
+        }
+        return e.type;
+    }
+
+    // ---------- naredbe ----------
+
+    @Override
+    public Void visitVarDecl(Stmt.VarDecl s) {
+        checkDeclaration(s);
+        s.symbol = new Symbol(Symbol.Kind.LOCAL, s.name.lexeme, s.varType, s.name, null);
+        declare(s.name, s.symbol);
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Stmt.Assign s) {
+        Ast.Type target = s.target.accept(this);
+        Ast.Type value = s.value.accept(this);
+        expectAssignable(tokenOf(s.target), target, value);
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Stmt.If s) {
+        expectCondition(tokenOf(s.condition), s.condition.accept(this), "ako");
+        s.thenBranch.accept(this);
+        if (s.elseBranch != null) s.elseBranch.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Stmt.While s) {
+        expectCondition(tokenOf(s.condition), s.condition.accept(this), "radi");
+        s.body.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitReturn(Stmt.Return s) {
+        Ast.Type value = s.value.accept(this);
+        if (currentFunction == null) {
+            error(tokenOf(s.value), "'vrati' van funkcije");
+            return null;
+        }
+        if (parallelDepth > 0) {
+            error(tokenOf(s.value), "'vrati' nije dozvoljen u bloku 'paralelno'");
+            return null;
+        }
+        if (!assignable(currentFunction.returnType, value)) {
+            error(tokenOf(s.value), "Funkcija '" + currentFunction.name.lexeme + "' vraća '"
+                    + currentFunction.returnType + "', a ne '" + value + "'");
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(Stmt.Block s) {
+        beginScope();
+        for (Stmt st : s.statements) st.accept(this);
+        endScope();
+        return null;
+    }
+
+    @Override
+    public Void visitParallel(Stmt.Parallel s) {
+        // svaka grana je svoj opseg, pa deklaracije iz jedne grane nisu vidljive u drugoj
+        parallelDepth++;
+        for (Stmt b : s.branches) {
+            beginScope();
+            b.accept(this);
+            endScope();
+        }
+        parallelDepth--;
+        parallelBlocks.add(s);
+        return null;
+    }
+
+    @Override
+    public Void visitExprStmt(Stmt.ExpressionStmt s) {
+        s.expression.accept(this);
+        return null;
+    }
+
+    @Override
+    public Void visitEmpty(Stmt.Empty s) {
+        return null;
+    }
+
+    @Override
+    public Void visitFunDecl(Stmt.FunDecl s) {
+        throw new IllegalStateException("FunDecl se ne pojavljuje u Ast.Program");
+    }
+}
@@ -0,0 +1,156 @@
+package service;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParseError;
+import parser.ParserAST;
+import runtime.Budget;
+import runtime.Interpreter;
+import runtime.SlangRuntimeError;
+import semantic.SemanticError;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Izvršava mnogo malih slang programa u jednoj JVM. Izvorni tekst se prevodi jednom i optimizovani
+// IR se deli, a svako izvršavanje ima svoju virtuelnu nit, svoj interpreter (globalne promenljive,
+// stek okvira), ulaz, izlaz i Budget. Program koji pređe granicu se prekida na sledećoj proveri
+// goriva, a ostali rade dalje. Istovremeno radi najviše onoliko niti programa koliko ima jezgara, i
+// grana bloka paralelno se računa kao zasebna nit; nit koja potroši deo goriva staje na kraj reda,
+// pa kratki programi ne čekaju duge.
+public final class ExecutionService implements AutoCloseable {
+
+    public record Limits(long fuel, long memoryBytes, Duration timeout, int maxDepth) {
+        public static final Limits DEFAULT = new Limits(50_000_000, 64L << 20, Duration.ofSeconds(2), 10_000);
+    }
+
+    private record Compiled(IrModule module, String error) {}
+
+    private static final int MAX_CACHED = 4096;
+
+    private final Limits limits;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Compiled> compiled = new ConcurrentHashMap<>();
+    private final Semaphore turns = new Semaphore(Runtime.getRuntime().availableProcessors(), true);
+
+    public ExecutionService(Limits limits) {
+        this.limits = limits;
+    }
+
+    public ExecutionService() {
+        this(Limits.DEFAULT);
+    }
+
+    public CompletableFuture<RunResult> submit(String source, String input) {
+        return submit(source, input, limits);
+    }
+
+    // otkazana budućnost (cancel) prekida program na sledećoj proveri goriva i oslobađa njegovo jezgro
+    public CompletableFuture<RunResult> submit(String source, String input, Limits limits) {
+        Budget budget = budget(limits);
+        CompletableFuture<RunResult> result = CompletableFuture.supplyAsync(() -> run(source, input, limits, budget), executor);
+        result.whenComplete((r, e) -> {
+            if (result.isCancelled()) budget.cancel();
+        });
+        return result;
+    }
+
+    // izvršava na pozivajućoj niti
+    public RunResult run(String source, String input, Limits limits) {
+        return run(source, input, limits, budget(limits));
+    }
+
+    private Budget budget(Limits limits) {
+        return new Budget(limits.fuel(), limits.memoryBytes(), limits.timeout(), turns);
+    }
+
+    private RunResult run(String source, String input, Limits limits, Budget budget) {
+        long start = System.nanoTime();
+        Compiled c = compile(source);
+        if (c.error != null) return new RunResult(RunResult.Status.COMPILE_ERROR, "", c.error, 0, System.nanoTime() - start);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = input.getBytes(StandardCharsets.UTF_8);
+        Interpreter interpreter = new Interpreter(c.module, new ByteArrayInputStream(in), new PrintStream(out, false, StandardCharsets.UTF_8));
+        interpreter.setMaxDepth(limits.maxDepth());
+        interpreter.setThreads(1);
+        interpreter.setBudget(budget);
+
+        RunResult.Status status = RunResult.Status.OK;
+        String error = null;
+        turns.acquireUninterruptibly();
+        try {
+            // rok teče od trenutka kada program dobije jezgro
+            budget.start();
+            interpreter.run();
+        } catch (Budget.Exceeded e) {
+            status = switch (e.limit) {
+                case FUEL -> RunResult.Status.OUT_OF_FUEL;
+                case MEMORY -> RunResult.Status.OUT_OF_MEMORY;
+                case TIME -> RunResult.Status.TIMEOUT;
+                case CANCELLED -> RunResult.Status.CANCELLED;
+            };
+            error = e.getMessage();
+        } catch (SlangRuntimeError e) {
+            status = RunResult.Status.RUNTIME_ERROR;
+            error = e.getMessage();
+        } catch (OutOfMemoryError e) {
+            // Budget ne vidi svaku alokaciju (npr. privremene objekte), pa JVM može da odbije pre njega
+            status = RunResult.Status.OUT_OF_MEMORY;
+            error = "nema dovoljno memorije za izvršavanje";
+        } catch (RuntimeException | StackOverflowError e) {
+            // greška interpretera pogađa samo ovo izvršavanje; ostala dobijaju jezgro dalje
+            status = RunResult.Status.INTERNAL_ERROR;
+            error = e.toString();
+        } finally {
+            turns.release();
+        }
+        return new RunResult(status, out.toString(StandardCharsets.UTF_8), error, budget.fuelUsed(), System.nanoTime() - start);
+    }
+
+    public int cachedPrograms() {
+        return compiled.size();
+    }
+
+    private Compiled compile(String source) {
+        Compiled c = compiled.get(source);
+        if (c != null) return c;
+        if (compiled.size() >= MAX_CACHED) compiled.clear();
+        return compiled.computeIfAbsent(source, ExecutionService::translate);
+    }
+
+    private static Compiled translate(String source) {
+        try {
+            Lexer lexer = new Lexer(source);
+            Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+            new TypeChecker(lexer.symbols()).check(program);
+            IrModule module = new IrBuilder().build(program);
+            PassManager.standard().run(module);
+            return new Compiled(module, null);
+        } catch (ParseError e) {
+            return new Compiled(null, "Sintaksna greška: " + e.getMessage());
+        } catch (SemanticError e) {
+            return new Compiled(null, "Semantička greška:\n" + e.getMessage());
+        } catch (RuntimeException e) {
+            return new Compiled(null, "Leksička greška: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.close();
+    }
+}
@@ -0,0 +1,13 @@
+package service;
+
+// ishod jednog izvršavanja u ExecutionService; error je null kada je status OK
+public record RunResult(Status status, String output, String error, long fuelUsed, long nanos) {
+
+    public enum Status {
+        OK, COMPILE_ERROR, RUNTIME_ERROR, OUT_OF_FUEL, OUT_OF_MEMORY, TIMEOUT, CANCELLED, INTERNAL_ERROR
+    }
+
+    public boolean ok() {
+        return status == Status.OK;
+    }
+}
@@ -0,0 +1,75 @@
+package aot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import support.Slang;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Prevedeni JAR mora da ispiše isto što i interpreter. JAR se pokreće u posebnoj JVM, jer
+// runtime.Console veže System.out i System.in pri učitavanju.
+class AotParityTest {
+
+    @TempDir
+    Path dir;
+
+    private String runJar(String source, String name) throws IOException, InterruptedException {
+        Path jar = dir.resolve(name + ".jar");
+        new AotCompiler(name, name + ".slang").writeJar(Slang.parse(source), jar);
+
+        Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        Process p = new ProcessBuilder(java.toString(), "-jar", jar.toString())
+                .redirectErrorStream(true)
+                .start();
+        p.getOutputStream().close();
+        String out = new String(p.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        assertTrue(p.waitFor(60, TimeUnit.SECONDS));
+        assertEquals(0, p.exitValue(), out);
+        return out;
+    }
+
+    private static String sample(String file) throws IOException {
+        try (InputStream in = AotParityTest.class.getResourceAsStream("/" + file)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bigboi.slang", "bubble_sort.slang", "faktorijel.slang", "prost_broj.slang",
+            "transpoziranje.slang", "while.slang"})
+    void sampleMatchesInterpreter(String file) throws Exception {
+        String source = sample(file);
+        assertEquals(Slang.run(source), runJar(source, AotCompiler.classNameFor(Path.of(file))));
+    }
+
+    @Test
+    void realComparisonsMatchInterpreter() throws Exception {
+        String source = """
+                zapocni_igru
+                moj realan z = 0.0;
+                moj realan n = z / z;
+                moj realan m = -z;
+                napisi(n == n);
+                napisi(n != n);
+                napisi(n < 1.0);
+                napisi(n >= 1.0);
+                napisi(z == m);
+                ako (n > 1.0) {
+                    napisi(1);
+                } inace {
+                    napisi(2);
+                }
+                zavrsi_igru;
+                """;
+        assertEquals(Slang.run(source), runJar(source, "poredjenje"));
+    }
+}
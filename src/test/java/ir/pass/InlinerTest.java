@@ -0,0 +1,101 @@
+package ir.pass;
+
+import ir.IrModule;
+import ir.IrPrinter;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Odluke umetanja nad neoptimizovanim IR-om: šta se ubacuje, šta ostaje poziv i zašto, i da
+// izlaz ostane isti kao bez umetanja.
+class InlinerTest {
+
+    private static IrModule ir(String source) {
+        return Slang.ir(source, false);
+    }
+
+    private static String main(IrModule module) {
+        return IrPrinter.print(module.main());
+    }
+
+    private static String run(IrModule module) {
+        return Slang.run(module, "", interpreter -> {});
+    }
+
+    @Test
+    void replacesSmallCallWithBody() {
+        String source = """
+                broj kvadrat(broj x) {
+                    vrati x * x;
+                }
+                zapocni_igru
+                napisi(kvadrat(22));
+                zavrsi_igru;
+                """;
+        IrModule module = ir(source);
+        assertTrue(main(module).contains("call kvadrat("));
+        Inliner inliner = new Inliner();
+        assertTrue(inliner.run(module).contains(IrModule.MAIN));
+
+        String after = main(module);
+        assertFalse(after.contains("call kvadrat("), after);
+        assertTrue(after.contains(" = mul "), after);
+        assertTrue(inliner.format().contains("inlined"), inliner.format());
+        assertEquals("484\n", run(module));
+    }
+
+    @Test
+    void keepsRecursiveCall() {
+        String source = """
+                broj faktorijel(broj n) {
+                    ako (n < 2) {
+                        vrati 1;
+                    }
+                    vrati n * faktorijel(n - 1);
+                }
+                zapocni_igru
+                napisi(faktorijel(10));
+                zavrsi_igru;
+                """;
+        IrModule module = ir(source);
+        Inliner inliner = new Inliner();
+        assertTrue(inliner.run(module).isEmpty());
+
+        assertTrue(main(module).contains("call faktorijel("), main(module));
+        assertTrue(inliner.format().contains("recursive"), inliner.format());
+        assertEquals("3628800\n", run(module));
+    }
+
+    @Test
+    void budgetGrowsWithLoopDepth() {
+        // telo je preveliko za poziv van petlje, ali staje u dvostruku granicu unutar petlje
+        String source = """
+                broj mesaj(broj x) {
+                    vrati x * 3 + x * 5 + x * 7 + x * 9;
+                }
+                zapocni_igru
+                napisi(mesaj(1));
+                moj broj j = 0;
+                moj broj s = 0;
+                radi (j < 10) {
+                    s = s + mesaj(j);
+                    j = j + 1;
+                }
+                napisi(s);
+                zavrsi_igru;
+                """;
+        String expected = run(ir(source));
+        IrModule module = ir(source);
+        Inliner inliner = new Inliner();
+        inliner.run(module);
+
+        String report = inliner.format();
+        assertTrue(report.contains("too large"), report);
+        assertTrue(report.contains("inlined"), report);
+        assertEquals(1, main(module).split("call mesaj\\(", -1).length - 1, main(module));
+        assertEquals(expected, run(module));
+    }
+}
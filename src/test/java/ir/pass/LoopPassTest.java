@@ -0,0 +1,104 @@
+package ir.pass;
+
+import ir.IrModule;
+import ir.IrPrinter;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Vektorizacija i paralelizacija posle skalarnih prolaza. Petlja se označava u zaglavlju (b1),
+// a izlaz mora da ostane isti kao bez optimizacija.
+class LoopPassTest {
+
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj niz a[1000];
+            moj broj j = 0;
+            radi (j < 1000) {
+                a[j] = j * 3 + 1;
+                j = j + 1;
+            }
+            napisi(a[7]);
+            zavrsi_igru;
+            """;
+
+    // a[j + 1] čita element koji je prethodna iteracija mogla da upiše
+    private static final String CARRIED = """
+            zapocni_igru
+            moj niz a[1000];
+            moj broj j = 0;
+            radi (j < 999) {
+                a[j + 1] = a[j] + 1;
+                j = j + 1;
+            }
+            napisi(a[999]);
+            zavrsi_igru;
+            """;
+
+    private static IrModule scalar(String source) {
+        return Slang.ir(source, new PassManager()
+                .add(new CopyPropagation())
+                .add(new SparseConditionalConstantPropagation())
+                .add(new CopyPropagation())
+                .add(new GlobalValueNumbering())
+                .add(new CommonSubexpressionElimination())
+                .add(new LoopInvariantCodeMotion(new LoopReport()))
+                .add(new StrengthReduction(new LoopReport()))
+                .add(new BoundsCheckElimination(new BoundsReport()))
+                .add(new DeadCodeElimination()));
+    }
+
+    private static String header(IrModule module) {
+        String ir = IrPrinter.print(module.main());
+        int start = ir.indexOf("\nb1:");
+        return ir.substring(start, ir.indexOf('\n', start + 1));
+    }
+
+    private static String run(IrModule module) {
+        return Slang.run(module, "", interpreter -> {});
+    }
+
+    @Test
+    void vectorizerMarksElementWiseLoop() {
+        IrModule module = scalar(PROGRAM);
+        VectorReport report = new VectorReport();
+        assertFalse(header(module).contains("; vector"));
+        new LoopVectorizer(report).run(module.main());
+
+        assertTrue(header(module).contains("; vector broj"), header(module));
+        assertFalse(report.isEmpty());
+        assertEquals(run(Slang.ir(PROGRAM, false)), run(module));
+    }
+
+    @Test
+    void vectorizerSkipsLoopCarriedDependence() {
+        IrModule module = scalar(CARRIED);
+        new LoopVectorizer(new VectorReport()).run(module.main());
+
+        assertFalse(header(module).contains("; vector"), header(module));
+        assertEquals("999\n", run(module));
+    }
+
+    @Test
+    void parallelizerMarksIndependentLoop() {
+        IrModule module = scalar(PROGRAM);
+        assertFalse(header(module).contains("; parallel"));
+        new LoopParallelizer(new ParallelReport()).run(module.main());
+
+        assertTrue(header(module).contains("; parallel"), header(module));
+        String expected = run(Slang.ir(PROGRAM, false));
+        assertEquals(expected, Slang.run(module, "", interpreter -> interpreter.setThreads(4)));
+    }
+
+    @Test
+    void parallelizerSkipsLoopCarriedDependence() {
+        IrModule module = scalar(CARRIED);
+        new LoopParallelizer(new ParallelReport()).run(module.main());
+
+        assertFalse(header(module).contains("; parallel"), header(module));
+        assertEquals("999\n", Slang.run(module, "", interpreter -> interpreter.setThreads(4)));
+    }
+}
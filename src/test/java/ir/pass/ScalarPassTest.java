@@ -0,0 +1,170 @@
+package ir.pass;
+
+import ir.IrModule;
+import ir.IrPrinter;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// IR glavnog bloka pre i posle jednog prolaza. Prolazi koji mu prethode u standardnom redosledu
+// se izvrše prvi, a izlaz programa mora da ostane isti kao bez optimizacija.
+class ScalarPassTest {
+
+    // b0 ulaz, b1 zaglavlje petlje, b2 telo, b3 posle petlje
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj broj n = 10;
+            moj niz a[100];
+            moj broj k = 3 + 4;
+            moj broj j = 0;
+            radi (j < 100) {
+                a[j] = j * 4 + n * k;
+                j = j + 1;
+            }
+            napisi(a[5]);
+            napisi(a[99]);
+            zavrsi_igru;
+            """;
+
+    private static final String OUTPUT = "90\n466\n";
+
+    private static IrModule prepared(FunctionPass... before) {
+        PassManager passes = new PassManager();
+        for (FunctionPass p : before) passes.add(p);
+        return Slang.ir(PROGRAM, passes);
+    }
+
+    private static String main(IrModule module) {
+        return IrPrinter.print(module.main());
+    }
+
+    // naredbe jednog osnovnog bloka u ispisu funkcije
+    private static String block(String ir, String label) {
+        int start = ir.indexOf("\n" + label + ":");
+        int end = ir.indexOf("\nb", start + 1);
+        return ir.substring(start, end < 0 ? ir.length() : end);
+    }
+
+    private static int count(String text, String part) {
+        return text.split(java.util.regex.Pattern.quote(part), -1).length - 1;
+    }
+
+    private static String run(IrModule module) {
+        return Slang.run(module, "", interpreter -> {});
+    }
+
+    @Test
+    void unoptimizedProgramOutput() {
+        assertEquals(OUTPUT, run(Slang.ir(PROGRAM, false)));
+    }
+
+    @Test
+    void sccpFoldsConstantExpressions() {
+        IrModule module = prepared();
+        String before = main(module);
+        assertTrue(new SparseConditionalConstantPropagation().run(module.main()));
+        String after = main(module);
+
+        assertFalse(before.contains("const 7\n"), before);
+        assertTrue(after.contains("const 7\n"), after);
+        assertTrue(after.contains("const 70\n"), after);
+        assertEquals(OUTPUT, run(module));
+    }
+
+    @Test
+    void gvnMergesEqualValues() {
+        IrModule module = prepared(new CopyPropagation(), new SparseConditionalConstantPropagation());
+        String before = main(module);
+        assertTrue(new GlobalValueNumbering().run(module.main()));
+        String after = main(module);
+
+        assertEquals(2, count(before, "= const 100\n"), before);
+        assertEquals(1, count(after, "= const 100\n"), after);
+        assertEquals(OUTPUT, run(module));
+    }
+
+    // čitanje posle upisa u isti element uzima upisanu vrednost, a ponovljeno čitanje prvo čitanje
+    @Test
+    void cseReusesArrayReadsUntilStore() {
+        String source = """
+                zapocni_igru
+                moj niz a[10];
+                a[3] = 7;
+                moj broj x = a[3] * a[3];
+                a[3] = 2;
+                napisi(x + a[3]);
+                zavrsi_igru;
+                """;
+        IrModule module = Slang.ir(source, new PassManager()
+                .add(new CopyPropagation())
+                .add(new SparseConditionalConstantPropagation())
+                .add(new GlobalValueNumbering()));
+        String before = main(module);
+        assertTrue(new CommonSubexpressionElimination().run(module.main()));
+        String after = main(module);
+
+        assertEquals(3, count(before, "= aload "), before);
+        assertEquals(0, count(after, "= aload "), after);
+        assertEquals(2, count(after, "astore "), after);
+        assertEquals("51\n", run(module));
+    }
+
+    @Test
+    void licmHoistsInvariantsOutOfLoop() {
+        IrModule module = prepared(new CopyPropagation(), new SparseConditionalConstantPropagation(), new GlobalValueNumbering());
+        String before = main(module);
+        assertTrue(new LoopInvariantCodeMotion(new LoopReport()).run(module.main()));
+        String after = main(module);
+
+        assertTrue(block(before, "b2").contains("const 70"), before);
+        assertFalse(block(after, "b2").contains("const"), after);
+        assertTrue(block(after, "b0").contains("const 70"), after);
+        assertEquals(OUTPUT, run(module));
+    }
+
+    @Test
+    void strengthReductionReplacesMultiplyInLoop() {
+        LoopReport report = new LoopReport();
+        IrModule module = prepared(new CopyPropagation(), new SparseConditionalConstantPropagation(),
+                new GlobalValueNumbering(), new LoopInvariantCodeMotion(report));
+        String before = main(module);
+        assertTrue(new StrengthReduction(report).run(module.main()));
+        String after = main(module);
+
+        assertTrue(block(before, "b2").contains(" = mul "), before);
+        assertFalse(block(after, "b2").contains(" = mul "), after);
+        assertEquals(count(block(before, "b1"), " = phi ") + 1, count(block(after, "b1"), " = phi "), after);
+        assertEquals(OUTPUT, run(module));
+    }
+
+    @Test
+    void bceRemovesChecksProvenInRange() {
+        IrModule module = prepared(new CopyPropagation(), new SparseConditionalConstantPropagation(), new GlobalValueNumbering());
+        String before = main(module);
+        assertTrue(new BoundsCheckElimination(new BoundsReport()).run(module.main()));
+        String after = main(module);
+
+        assertFalse(before.contains(".nocheck"), before);
+        assertTrue(block(after, "b2").contains("astore.nocheck "), after);
+        assertEquals(2, count(block(after, "b3"), "aload.nocheck "), after);
+        assertEquals(OUTPUT, run(module));
+    }
+
+    // j posle petlje je 100, pa a[j] ostaje provereno
+    @Test
+    void bceKeepsCheckThatMayFail() {
+        String source = PROGRAM.replace("napisi(a[99]);", "napisi(a[j]);");
+        IrModule module = Slang.ir(source, new PassManager()
+                .add(new CopyPropagation())
+                .add(new SparseConditionalConstantPropagation())
+                .add(new GlobalValueNumbering())
+                .add(new BoundsCheckElimination(new BoundsReport())));
+        String after = main(module);
+
+        assertEquals(1, count(block(after, "b3"), "aload.nocheck "), after);
+        assertEquals(1, count(block(after, "b3"), "aload "), after);
+    }
+}
@@ -0,0 +1,143 @@
+package runtime;
+
+import ir.IrModule;
+import ir.IrPrinter;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Raspored poslednje dimenzije po tipu elementa: niz:pogodak kao bitovi u long-ovima, niz:slovo kao char[].
+class ArrayStorageTest {
+
+    // svaki treći element je tacno; petlja koja puni niz se deli na radnike, a susedni indeksi iz
+    // različitih delova dele reč
+    private static final String SIEVE = """
+            zapocni_igru
+            moj niz:pogodak s[200000];
+            moj broj j = 0;
+            radi (j < 200000) {
+                s[j] = j % 3 == 0;
+                j = j + 1;
+            }
+            moj broj n = 0;
+            j = 0;
+            radi (j < 200000) {
+                ako (s[j]) {
+                    n = n + 1;
+                }
+                j = j + 1;
+            }
+            napisi(n);
+            zavrsi_igru;
+            """;
+
+    @Test
+    void bitsArePackedIntoWords() {
+        BitArray a = new BitArray(130);
+        assertEquals(3, a.words.length);
+        for (int k : new int[] {0, 63, 64, 129}) a.set(k, true);
+        a.set(63, false);
+
+        assertTrue(a.get(0));
+        assertFalse(a.get(63));
+        assertTrue(a.get(64));
+        assertTrue(a.get(129));
+        assertEquals(1L, a.words[0]);
+        assertEquals(1L, a.words[1]);
+        assertEquals(2L, a.words[2]);
+    }
+
+    @Test
+    void setAtomicKeepsNeighbouringBits() throws InterruptedException {
+        BitArray a = new BitArray(1 << 16);
+        int threads = 8;
+        // niti kreću zajedno, pa upisuju u iste reči u isto vreme
+        CountDownLatch ready = new CountDownLatch(threads);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int first = t;
+            Thread w = new Thread(() -> {
+                ready.countDown();
+                try {
+                    ready.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int k = first; k < a.length; k += threads) a.setAtomic(k, true);
+            });
+            workers.add(w);
+            w.start();
+        }
+        for (Thread w : workers) w.join();
+
+        for (long word : a.words) assertEquals(-1L, word);
+    }
+
+    @Test
+    void sieveGivesSameCountSerialAndParallel() {
+        IrModule module = Slang.ir(SIEVE, true);
+        assertTrue(IrPrinter.print(module.main()).contains("; parallel"), IrPrinter.print(module.main()));
+
+        assertEquals("66667\n", Slang.run(SIEVE, interpreter -> interpreter.setThreads(1)));
+        assertEquals("66667\n", Slang.run(SIEVE, interpreter -> interpreter.setThreads(8)));
+    }
+
+    @Test
+    void storageFollowsElementType() {
+        String source = """
+                niz:slovo slova() {
+                    moj niz:slovo s[3];
+                    s[0] = 'a';
+                    s[1] = 'b';
+                    s[2] = 'c';
+                    vrati s;
+                }
+                niz:pogodak pogoci() {
+                    moj niz:pogodak p[2];
+                    p[1] = tacno;
+                    vrati p;
+                }
+                zapocni_igru
+                zavrsi_igru;
+                """;
+        IrModule module = Slang.ir(source, true);
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(new byte[0]),
+                new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8));
+
+        char[] s = assertInstanceOf(char[].class, interpreter.call(module.function("slova"), new Object[0]));
+        assertEquals("abc", new String(s));
+        BitArray p = assertInstanceOf(BitArray.class, interpreter.call(module.function("pogoci"), new Object[0]));
+        assertEquals(2, p.length);
+        assertTrue(p.get(1));
+    }
+
+    @Test
+    void charArrayPrintsElements() {
+        String source = """
+                zapocni_igru
+                moj niz:slovo s[3];
+                s[0] = 'x';
+                s[1] = 'y';
+                s[2] = 'z';
+                napisi(s[1]);
+                napisi(s);
+                moj niz:pogodak p[3];
+                p[2] = tacno;
+                napisi(p);
+                zavrsi_igru;
+                """;
+        assertEquals("y\n[x, y, z]\n[netacno, netacno, tacno]\n", Slang.run(source));
+    }
+}
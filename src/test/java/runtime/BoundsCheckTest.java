@@ -0,0 +1,46 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrModule;
+import ir.Op;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Interpreter proverava indeks sam samo kada ga BoundsCheckElimination nije dokazao. Oznaka se ovde
+// postavlja ručno na pristup koji ispada iz niza, da bi se videlo da provera zaista izostaje.
+class BoundsCheckTest {
+
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj niz a[3];
+            moj broj k = 5;
+            napisi(a[k]);
+            zavrsi_igru;
+            """;
+
+    private static void markLoads(IrModule module) {
+        for (BasicBlock b : module.main().blocks) {
+            for (Instr i : b.instrs) {
+                if (i.op == Op.ALOAD) i.checkFree = true;
+            }
+        }
+    }
+
+    @Test
+    void uncheckedAccessReportsSlangError() {
+        IrModule module = Slang.ir(PROGRAM, false);
+        SlangRuntimeError e = assertThrows(SlangRuntimeError.class, () -> Slang.run(module, "", interpreter -> {}));
+        assertEquals(4, e.line);
+    }
+
+    @Test
+    void checkFreeAccessSkipsTheCheck() {
+        IrModule module = Slang.ir(PROGRAM, false);
+        markLoads(module);
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> Slang.run(module, "", interpreter -> {}));
+    }
+}
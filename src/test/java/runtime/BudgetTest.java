@@ -0,0 +1,121 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BudgetTest {
+
+    // četiri grane koje troše više delova goriva, pa prolaze kroz pause() dok dele jedno mesto u semaforu
+    private static final String BRANCHES = """
+            broj zbir(broj n) {
+                moj broj s = 0;
+                moj broj k = 0;
+                radi (k < n) {
+                    s = s + k;
+                    k = k + 1;
+                }
+                vrati s;
+            }
+            zapocni_igru
+            moj broj a = 0;
+            moj broj b = 0;
+            moj broj c = 0;
+            moj broj d = 0;
+            paralelno {
+                a = zbir(100000);
+                b = zbir(100000);
+                c = zbir(100000);
+                d = zbir(100000);
+            }
+            napisi(a + b - c - d);
+            zavrsi_igru;
+            """;
+
+    // broji niti koje drže mesto; pozivalac drži jedno od početka
+    private static final class CountingTurns extends Semaphore {
+        final AtomicInteger held = new AtomicInteger(1);
+        final AtomicInteger maxHeld = new AtomicInteger(1);
+        final AtomicInteger acquires = new AtomicInteger();
+
+        CountingTurns() {
+            super(0, true);
+        }
+
+        @Override
+        public void acquireUninterruptibly() {
+            super.acquireUninterruptibly();
+            acquires.incrementAndGet();
+            maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+        }
+
+        @Override
+        public void release() {
+            held.decrementAndGet();
+            super.release();
+        }
+    }
+
+    @Test
+    void branchesTakeTurnsWithTheCaller() {
+        CountingTurns turns = new CountingTurns();
+        Budget budget = new Budget(Long.MAX_VALUE, 1 << 20, Duration.ofMinutes(1), turns);
+
+        assertEquals("0\n", Slang.run(BRANCHES, interpreter -> interpreter.setBudget(budget)));
+        // svaka grana je uzela mesto, nikada nije radilo više niti nego što ima mesta, a pozivalac
+        // na kraju ponovo drži svoje
+        assertTrue(turns.acquires.get() >= 4);
+        assertEquals(1, turns.maxHeld.get());
+        assertEquals(1, turns.held.get());
+        assertEquals(0, turns.availablePermits());
+    }
+
+    // tekst koji se udvostručava bi bez naplate rastao dok JVM ne ostane bez memorije
+    @Test
+    void concatenationIsChargedToMemory() {
+        String source = """
+                zapocni_igru
+                moj tekst s = "ab";
+                moj broj j = 0;
+                radi (j < 40) {
+                    s = s + s;
+                    j = j + 1;
+                }
+                napisi(s);
+                zavrsi_igru;
+                """;
+        Budget budget = new Budget(Long.MAX_VALUE, 1 << 20, Duration.ofMinutes(1));
+        Budget.Exceeded e = assertThrows(Budget.Exceeded.class,
+                () -> Slang.run(source, interpreter -> interpreter.setBudget(budget)));
+        assertEquals(Budget.Limit.MEMORY, e.limit);
+        assertEquals(5, e.line);
+    }
+
+    @Test
+    void outputIsChargedToMemory() {
+        String source = """
+                zapocni_igru
+                moj broj j = 0;
+                radi (j < 1000) {
+                    napisi(123456789);
+                    j = j + 1;
+                }
+                zavrsi_igru;
+                """;
+        Budget budget = new Budget(Long.MAX_VALUE, 5000, Duration.ofMinutes(1));
+        Budget.Exceeded e = assertThrows(Budget.Exceeded.class,
+                () -> Slang.run(source, interpreter -> interpreter.setBudget(budget)));
+        assertEquals(Budget.Limit.MEMORY, e.limit);
+
+        Budget enough = new Budget(Long.MAX_VALUE, 1 << 20, Duration.ofMinutes(1));
+        Slang.run(source, interpreter -> interpreter.setBudget(enough));
+        assertEquals(1000 * (9 + System.lineSeparator().length()), enough.memoryUsed());
+    }
+}
@@ -0,0 +1,79 @@
+package runtime;
+
+import ir.IrModule;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mesto poziva razrešava cilj jednom i posle toga ga samo koristi, dok define ne promeni tabelu funkcija.
+class CallSiteTest {
+
+    private static final String PROGRAM = """
+            broj f(broj x) {
+                vrati x + 1;
+            }
+            zapocni_igru
+            moj broj j = 0;
+            moj broj s = 0;
+            radi (j < 100) {
+                s = s + f(j);
+                j = j + 1;
+            }
+            napisi(s);
+            zavrsi_igru;
+            """;
+
+    private static final String REDEFINED = """
+            broj f(broj x) {
+                vrati x + 2;
+            }
+            zapocni_igru
+            zavrsi_igru;
+            """;
+
+    // bez prolaza, da poziv ne bude umetnut
+    private static IrModule module(String source) {
+        return Slang.ir(source, false);
+    }
+
+    // RESOLUTIONS i HITS mesta poziva f iz glavnog bloka
+    private static long[] counts(Interpreter interpreter) {
+        String[] cells = interpreter.callSiteReport().lines()
+                .map(l -> l.split("\\|"))
+                .filter(c -> c.length == 5 && c[0].trim().equals("zapocni_igru") && c[2].trim().equals("f"))
+                .findFirst().orElseThrow();
+        return new long[] {Long.parseLong(cells[3].trim()), Long.parseLong(cells[4].trim())};
+    }
+
+    @Test
+    void resolvesOnceThenHits() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(module(PROGRAM), new ByteArrayInputStream(new byte[0]),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+        interpreter.run();
+
+        assertEquals("5050\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(1, counts(interpreter)[0]);
+        assertEquals(99, counts(interpreter)[1]);
+    }
+
+    @Test
+    void defineInvalidatesResolvedTarget() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(module(PROGRAM), new ByteArrayInputStream(new byte[0]),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+        interpreter.run();
+        interpreter.define(module(REDEFINED).function("f"));
+        interpreter.run();
+
+        assertEquals("5050\n5150\n", out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, counts(interpreter)[0]);
+        assertEquals(198, counts(interpreter)[1]);
+    }
+}
@@ -0,0 +1,100 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// enkriptuj i dekriptuj nad svakim tipom podatka koji prihvataju: povratak na isti podatak, pogrešan
+// ključ i podatak kraći od početnog brojača
+class CryptTest {
+
+    @Test
+    void textRoundTrip() {
+        String source = """
+                zapocni_igru
+                moj tekst t = "zdravo, svete ćđž";
+                moj tekst c = enkriptuj(t, "kljuc");
+                napisi(c == t);
+                napisi(dekriptuj(c, "kljuc"));
+                zavrsi_igru;
+                """;
+        assertEquals("netacno\nzdravo, svete ćđž\n", Slang.run(source));
+    }
+
+    @Test
+    void intArrayRoundTrip() {
+        String source = """
+                zapocni_igru
+                moj niz:broj a[5];
+                moj broj j = 0;
+                radi (j < 5) {
+                    a[j] = j * 1000 - 2;
+                    j = j + 1;
+                }
+                moj niz:broj c[] = enkriptuj(a, "kljuc");
+                moj niz:broj d[] = dekriptuj(c, "kljuc");
+                j = 0;
+                radi (j < 5) {
+                    napisi(d[j]);
+                    j = j + 1;
+                }
+                zavrsi_igru;
+                """;
+        assertEquals("-2\n998\n1998\n2998\n3998\n", Slang.run(source));
+    }
+
+    @Test
+    void realArrayRoundTrip() {
+        String source = """
+                zapocni_igru
+                moj niz:realan a[3];
+                a[0] = 1.5;
+                a[1] = -0.25;
+                a[2] = 1000000.125;
+                moj niz:realan d[] = dekriptuj(enkriptuj(a, "k"), "k");
+                napisi(d[0]);
+                napisi(d[1]);
+                napisi(d[2]);
+                zavrsi_igru;
+                """;
+        assertEquals("1.5\n-0.25\n1000000.125\n", Slang.run(source));
+    }
+
+    // CTR nema proveru autentičnosti, pa pogrešan ključ ne javlja grešku nego daje drugi tekst
+    @Test
+    void wrongKeyDoesNotRecoverText() {
+        String source = """
+                zapocni_igru
+                moj tekst t = "tajna poruka";
+                napisi(dekriptuj(enkriptuj(t, "dobar"), "los") == t);
+                zavrsi_igru;
+                """;
+        assertEquals("netacno\n", Slang.run(source));
+    }
+
+    // enkriptuj stavlja 16 bajtova brojača na početak (8 slova), a ovde ih ima samo 3
+    @Test
+    void decryptingTooShortDataFails() {
+        String source = """
+                zapocni_igru
+                napisi(dekriptuj("abc", "kljuc"));
+                zavrsi_igru;
+                """;
+        SlangRuntimeError e = assertThrows(SlangRuntimeError.class, () -> Slang.run(source));
+        assertEquals(2, e.line);
+        assertTrue(e.getMessage().contains("prekratak"), e.getMessage());
+    }
+
+    @Test
+    void equalInputsEncryptDifferently() {
+        String source = """
+                zapocni_igru
+                napisi(enkriptuj("isto", "k") == enkriptuj("isto", "k"));
+                zavrsi_igru;
+                """;
+        assertEquals("netacno\n", Slang.run(source));
+    }
+}
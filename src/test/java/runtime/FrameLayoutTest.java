@@ -0,0 +1,70 @@
+package runtime;
+
+import ir.BasicBlock;
+import ir.Instr;
+import ir.IrFunction;
+import ir.Op;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mesta tekstova i nizova u banci referenci brišu se posle poslednje upotrebe, da mrtva
+// međuvrednost ne ostane dostižna do povratka iz funkcije.
+class FrameLayoutTest {
+
+    // b0 ulaz, b1 zaglavlje petlje sa phi za s, b2 telo, b3 izlaz
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj tekst s = "ab";
+            moj broj j = 0;
+            radi (j < 3) {
+                napisi(s + "c");
+                j = j + 1;
+            }
+            napisi(j);
+            zavrsi_igru;
+            """;
+
+    private static boolean clearedBefore(FrameLayout layout, Instr at, Instr value) {
+        int[] dead = layout.dead[at.id];
+        return dead != null && Arrays.stream(dead).anyMatch(s -> s == layout.slot[value.id]);
+    }
+
+    @Test
+    void concatenationIsClearedAfterItsLastUse() {
+        IrFunction main = Slang.ir(PROGRAM, false).main();
+        FrameLayout layout = new FrameLayout(main);
+        BasicBlock body = main.blocks.get(2);
+        int print = 0;
+        while (body.instrs.get(print).op != Op.PRINT) print++;
+        Instr concat = body.instrs.get(print).operand(0);
+
+        assertEquals(FrameLayout.REFS, layout.bank[concat.id]);
+        assertTrue(clearedBefore(layout, body.instrs.get(print + 1), concat));
+    }
+
+    @Test
+    void loopValueIsClearedOnlyAtLoopExit() {
+        IrFunction main = Slang.ir(PROGRAM, false).main();
+        FrameLayout layout = new FrameLayout(main);
+        Instr s = main.blocks.get(1).instrs.stream()
+                .filter(i -> i.op == Op.PHI && layout.bank[i.id] == FrameLayout.REFS)
+                .findFirst().orElseThrow();
+
+        for (int b = 1; b <= 2; b++) {
+            for (Instr i : main.blocks.get(b).instrs) assertFalse(clearedBefore(layout, i, s), i.toString());
+        }
+        assertTrue(clearedBefore(layout, main.blocks.get(3).instrs.get(0), s));
+    }
+
+    @Test
+    void clearingDoesNotChangeOutput() {
+        assertEquals("abc\nabc\nabc\n3\n", Slang.run(Slang.ir(PROGRAM, false), "", interpreter -> {}));
+        assertEquals("abc\nabc\nabc\n3\n", Slang.run(PROGRAM));
+    }
+}
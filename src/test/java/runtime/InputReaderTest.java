@@ -0,0 +1,74 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InputReaderTest {
+
+    // interaktivan ulaz: svaki read vraća samo ono što je korisnik do tada otkucao
+    private static final class Typed extends InputStream {
+        final ArrayDeque<byte[]> chunks = new ArrayDeque<>();
+        int reads;
+
+        Typed(String... chunks) {
+            for (String c : chunks) this.chunks.add(c.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public int read() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            reads++;
+            byte[] c = chunks.poll();
+            if (c == null) return -1;
+            System.arraycopy(c, 0, b, off, c.length);
+            return c.length;
+        }
+    }
+
+    private static List<String> lines(InputReader reader) throws IOException {
+        List<String> lines = new ArrayList<>();
+        while (reader.next()) lines.add(reader.text());
+        return lines;
+    }
+
+    @Test
+    void lineEndingInCrDoesNotReadAhead() throws IOException {
+        Typed in = new Typed("12\r", "\n34\n");
+        InputReader reader = new InputReader(in);
+
+        assertTrue(reader.next());
+        assertEquals(1, in.reads);
+        assertTrue(reader.parseInt());
+        assertEquals(12, reader.value());
+
+        assertTrue(reader.next());
+        assertEquals("34", reader.text());
+        assertFalse(reader.next());
+    }
+
+    @Test
+    void acceptsEveryLineEnding() throws IOException {
+        InputReader reader = new InputReader(new ByteArrayInputStream("a\nb\r\nc\rd\r\r\ne".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(List.of("a", "b", "c", "d", "", "e"), lines(reader));
+    }
+
+    @Test
+    void crLfSplitAcrossReads() throws IOException {
+        assertEquals(List.of("a", "", "b"), lines(new InputReader(new Typed("a\r", "\n\r", "\nb"))));
+    }
+}
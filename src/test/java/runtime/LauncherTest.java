@@ -0,0 +1,34 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// izuzeci JVM-a iz prevedenog programa kao greške slang-a
+class LauncherTest {
+
+    // bez steka, da linija ne dođe iz okvira testa
+    private static String message(Throwable t) {
+        t.setStackTrace(new StackTraceElement[0]);
+        return Launcher.translate(t).getMessage();
+    }
+
+    @Test
+    void outOfMemoryIsNotBlamedOnArrays() {
+        // tekst ili duboka rekurzija mogu da potroše heap isto kao veliki niz
+        assertEquals("nema dovoljno memorije za izvršavanje",
+                message(new OutOfMemoryError("Java heap space")));
+    }
+
+    @Test
+    void indexOutOfBoundsKeepsIndexAndLength() {
+        assertEquals("indeks 5 van granica niza dužine 3",
+                message(new ArrayIndexOutOfBoundsException("Index 5 out of bounds for length 3")));
+    }
+
+    @Test
+    void unknownErrorIsNotTranslated() {
+        assertNull(Launcher.translate(new IllegalStateException()));
+    }
+}
@@ -0,0 +1,92 @@
+package runtime;
+
+import ir.IrModule;
+import org.junit.jupiter.api.Test;
+import semantic.Purity;
+import support.Slang;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class MemoCacheTest {
+
+    private static final String FIB = """
+            broj fib(broj n) {
+                ako (n < 2) {
+                    vrati n;
+                }
+                vrati fib(n - 1) + fib(n - 2);
+            }
+            zapocni_igru
+            """;
+
+    private static Object[] args(int... values) {
+        Object[] a = new Object[values.length];
+        for (int k = 0; k < values.length; k++) a[k] = values[k];
+        return a;
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        MemoCache cache = new MemoCache(2);
+        cache.put(args(1), 10);
+        cache.put(args(2), 20);
+        // čitanje osvežava 1, pa pri trećem unosu ispada 2
+        assertEquals(10, cache.get(args(1)));
+        cache.put(args(3), 30);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictions());
+        assertNull(cache.get(args(2)));
+        assertEquals(10, cache.get(args(1)));
+        assertEquals(30, cache.get(args(3)));
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void keysCompareByValue() {
+        MemoCache cache = new MemoCache(4);
+        Object[] key = args(1, 2);
+        cache.put(key, 3);
+        // unos čuva svoju kopiju argumenata
+        key[1] = 5;
+
+        assertEquals(3, cache.get(args(1, 2)));
+        assertNull(cache.get(args(1, 5)));
+        assertNull(cache.get(new Object[] {1.0, 2}));
+    }
+
+    // fib(40) bez keša pravi više od milijardu poziva; sa kešom svaki n se računa jednom
+    @Test
+    void interpreterCachesPureFunction() {
+        IrModule module = Slang.ir(FIB + "napisi(fib(40));\nzavrsi_igru;\n", true);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(module, new ByteArrayInputStream(new byte[0]),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+        interpreter.enableMemo(Map.of("fib", Purity.PURE), Interpreter.DEFAULT_MEMO_CAPACITY);
+        interpreter.run();
+
+        assertEquals("102334155\n", out.toString(StandardCharsets.UTF_8));
+        // fib | čista | 41 zapamćen | 38 pogodaka | 41 promašaj | 0 izbačenih
+        String row = interpreter.memoReport().lines().filter(l -> l.startsWith("fib ")).findFirst().orElseThrow();
+        String[] cells = row.split("\\|");
+        assertEquals("41", cells[2].trim());
+        assertEquals("38", cells[3].trim());
+        assertEquals("41", cells[4].trim());
+        assertEquals("0", cells[5].trim());
+    }
+
+    @Test
+    void smallCacheStillGivesCorrectResults() {
+        String out = Slang.run(Slang.ir(FIB + "napisi(fib(25));\nzavrsi_igru;\n", true), "",
+                interpreter -> interpreter.enableMemo(Map.of("fib", Purity.PURE), 2));
+        assertEquals("75025\n", out);
+    }
+}
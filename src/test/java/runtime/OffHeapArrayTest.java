@@ -0,0 +1,38 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OffHeapArrayTest {
+
+    // niz van heap-a napravljen u grani paralelno vraća se kroz izlaze grane
+    private static final String PARALLEL_OUTPUT = """
+            niz napravi(broj n) {
+                moj niz a[n];
+                a[n - 1] = 42;
+                vrati a;
+            }
+            zapocni_igru
+            moj niz m[1];
+            moj broj x = 0;
+            paralelno {
+                m = napravi(1000000);
+                x = 1;
+            }
+            napisi(m[999999]);
+            napisi(x);
+            zavrsi_igru;
+            """;
+
+    @Test
+    void parallelBranchReturnsOffHeapArray() {
+        assumeTrue(Interpreter.offHeapAvailable());
+        String onHeap = Slang.run(PARALLEL_OUTPUT);
+        String offHeap = Slang.run(PARALLEL_OUTPUT, interpreter -> interpreter.setOffHeapThreshold(1 << 20));
+        assertEquals("42\n1\n", onHeap);
+        assertEquals(onHeap, offHeap);
+    }
+}
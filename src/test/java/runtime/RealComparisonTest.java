@@ -0,0 +1,41 @@
+package runtime;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Poređenje realnih brojeva po IEEE pravilima, i kada ga SCCP izračuna unapred i kada se
+// izvršava nad realnom bankom okvira.
+class RealComparisonTest {
+
+    private static final String PROGRAM = """
+            zapocni_igru
+            moj realan z = 0.0;
+            moj realan n = z / z;
+            moj realan m = -z;
+            napisi(n == n);
+            napisi(n != n);
+            napisi(n > 1.0);
+            napisi(n <= 1.0);
+            napisi(z == m);
+            ako (n < 1.0) {
+                napisi(1);
+            } inace {
+                napisi(2);
+            }
+            zavrsi_igru;
+            """;
+
+    private static final String EXPECTED = "netacno\ntacno\nnetacno\nnetacno\ntacno\n2\n";
+
+    @Test
+    void foldedComparisonsFollowIeee() {
+        assertEquals(EXPECTED, Slang.run(PROGRAM));
+    }
+
+    @Test
+    void interpretedComparisonsFollowIeee() {
+        assertEquals(EXPECTED, Slang.run(Slang.ir(PROGRAM, false), "", interpreter -> {}));
+    }
+}
@@ -0,0 +1,85 @@
+package runtime;
+
+import ir.IrModule;
+import ir.pass.EscapeAnalysis;
+import ir.pass.PassManager;
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Repni poziv zauzima okvir pozivaoca. Od prolaza radi samo analiza bega, jer bi
+// TailRecursionElimination pretvorio ove funkcije u petlje.
+class TailCallTest {
+
+    // svaki korak pravi lokalan niz od 4000 bajtova, a granica memorije je mnogo manja od zbira
+    private static final String LOCAL_ARRAY = """
+            broj zbir(broj n, broj s) {
+                ako (n == 0) {
+                    vrati s;
+                }
+                moj niz a[1000];
+                a[999] = n;
+                vrati zbir(n - 1, s + a[999]);
+            }
+            zapocni_igru
+            napisi(zbir(20000, 0));
+            zavrsi_igru;
+            """;
+
+    // lokalan niz se predaje repnom pozivu, pa mora da preživi zauzimanje okvira
+    private static final String PASSED_ARRAY = """
+            broj zbir(niz b, broj n, broj s) {
+                ako (n == 0) {
+                    vrati s + b[0];
+                }
+                moj niz a[1000];
+                a[0] = n;
+                vrati zbir(a, n - 1, s + b[0]);
+            }
+            zapocni_igru
+            moj niz p[1];
+            napisi(zbir(p, 20000, 0));
+            zavrsi_igru;
+            """;
+
+    private static final String SUM = "200010000\n";
+
+    private static Budget budget() {
+        return new Budget(Long.MAX_VALUE, 64 << 10, Duration.ofMinutes(1));
+    }
+
+    private static String run(String source, Budget budget, long offHeapThreshold) {
+        IrModule module = Slang.ir(source, new PassManager().add(new EscapeAnalysis()));
+        return Slang.run(module, "", interpreter -> {
+            interpreter.setBudget(budget);
+            interpreter.setOffHeapThreshold(offHeapThreshold);
+        });
+    }
+
+    @Test
+    void tailCallFreesLocalArrays() {
+        Budget budget = budget();
+        assertEquals(SUM, run(LOCAL_ARRAY, budget, 0));
+        assertTrue(budget.memoryUsed() < 2 * 4000);
+    }
+
+    @Test
+    void tailCallKeepsArraysPassedAsArguments() {
+        Budget budget = budget();
+        assertEquals(SUM, run(PASSED_ARRAY, budget, 0));
+        assertTrue(budget.memoryUsed() < 3 * 4000);
+    }
+
+    @Test
+    void tailCallFreesOffHeapLocalArrays() {
+        assumeTrue(Interpreter.offHeapAvailable());
+        for (String source : new String[] {LOCAL_ARRAY, PASSED_ARRAY}) {
+            assertEquals(SUM, run(source, budget(), 1));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package semantic;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RaceCheckTest {
+
+    // brr pokazuje na isti niz kao arr, pa grane pišu isti element
+    private static final String REASSIGNED = """
+            zapocni_igru
+            moj niz arr[4];
+            moj niz brr[4];
+            brr = arr;
+            paralelno {
+                arr[0] = 1;
+                brr[0] = 2;
+            }
+            napisi(arr[0]);
+            zavrsi_igru;
+            """;
+
+    private static final String PARAMS = """
+            broj upisi_oba(niz a, niz b) {
+                paralelno {
+                    a[0] = 1;
+                    b[0] = 2;
+                }
+                vrati a[0];
+            }
+            zapocni_igru
+            moj niz arr[4];
+            napisi(upisi_oba(arr, arr));
+            zavrsi_igru;
+            """;
+
+    private static final String DISTINCT = """
+            zapocni_igru
+            moj niz arr[4];
+            moj niz brr[4];
+            paralelno {
+                arr[0] = 1;
+                brr[0] = 2;
+            }
+            napisi(arr[0] + brr[0]);
+            zavrsi_igru;
+            """;
+
+    @Test
+    void rejectsWritesThroughReassignedArray() {
+        SemanticError e = assertThrows(SemanticError.class, () -> Slang.parse(REASSIGNED));
+        assertTrue(e.getMessage().contains("'brr'"), e.getMessage());
+    }
+
+    @Test
+    void rejectsWritesThroughArrayParameters() {
+        assertThrows(SemanticError.class, () -> Slang.parse(PARAMS));
+    }
+
+    @Test
+    void acceptsWritesToDistinctArrays() {
+        assertDoesNotThrow(() -> Slang.parse(DISTINCT));
+    }
+}
@@ -0,0 +1,56 @@
+package semantic;
+
+import org.junit.jupiter.api.Test;
+import support.Slang;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TypeCheckerTest {
+
+    private static SemanticError reject(String body) {
+        return assertThrows(SemanticError.class, () -> Slang.parse("zapocni_igru\n" + body + "zavrsi_igru;\n"));
+    }
+
+    @Test
+    void rejectsIntPlusReal() {
+        SemanticError e = reject("""
+                moj broj a = 1;
+                moj realan b = 2.5;
+                napisi(a + b);
+                """);
+        assertEquals(1, e.errors.size());
+        assertEquals("linija 4, kolona 10: Operator '+' ne može da se primeni na 'broj' i 'realan'", e.errors.get(0));
+    }
+
+    @Test
+    void rejectsUndeclaredVariable() {
+        SemanticError e = reject("napisi(x);\n");
+        assertEquals("linija 2, kolona 8: Nedeklarisana promenljiva 'x'", e.errors.get(0));
+    }
+
+    @Test
+    void reportsEveryError() {
+        SemanticError e = reject("""
+                moj pogodak p = tacno;
+                napisi(p + 1);
+                napisi(p == 1);
+                """);
+        assertEquals(2, e.errors.size());
+    }
+
+    @Test
+    void acceptsWellTypedProgram() {
+        assertDoesNotThrow(() -> Slang.parse("""
+                realan pola(realan x) {
+                    vrati x / 2.0;
+                }
+                zapocni_igru
+                moj realan r = 1.5;
+                napisi(r + 2.0);
+                napisi(pola(3.0));
+                zavrsi_igru;
+                """));
+    }
+}
@@ -0,0 +1,46 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ExecutionServiceTest {
+
+    private static final ExecutionService.Limits SMALL = new ExecutionService.Limits(50_000_000, 1 << 20, Duration.ofSeconds(10), 1000);
+
+    @Test
+    void growingTextIsOutOfMemory() {
+        String source = """
+                zapocni_igru
+                moj tekst s = "ab";
+                moj broj j = 0;
+                radi (j < 40) {
+                    s = s + s;
+                    j = j + 1;
+                }
+                napisi(s);
+                zavrsi_igru;
+                """;
+        try (ExecutionService service = new ExecutionService(SMALL)) {
+            RunResult r = service.run(source, "", SMALL);
+            assertEquals(RunResult.Status.OUT_OF_MEMORY, r.status(), r.error());
+        }
+    }
+
+    @Test
+    void endlessOutputIsOutOfMemory() {
+        String source = """
+                zapocni_igru
+                radi (tacno) {
+                    napisi("jos");
+                }
+                zavrsi_igru;
+                """;
+        try (ExecutionService service = new ExecutionService(SMALL)) {
+            RunResult r = service.run(source, "", SMALL);
+            assertEquals(RunResult.Status.OUT_OF_MEMORY, r.status(), r.error());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package support;
+
+import ir.IrBuilder;
+import ir.IrModule;
+import ir.pass.PassManager;
+import lexer.Lexer;
+import parser.Ast;
+import parser.ParserAST;
+import runtime.Interpreter;
+import semantic.TypeChecker;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+// Put od izvornog koda do izlaza interpretera, zajednički za testove.
+public final class Slang {
+
+    private Slang() {}
+
+    // lekser, parser i provera tipova
+    public static Ast.Program parse(String source) {
+        Lexer lexer = new Lexer(source);
+        Ast.Program program = new ParserAST(lexer.scanTokens()).parseProgram();
+        new TypeChecker(lexer.symbols()).check(program);
+        return program;
+    }
+
+    public static IrModule ir(String source, boolean optimize) {
+        return ir(source, optimize ? PassManager.standard() : new PassManager());
+    }
+
+    public static IrModule ir(String source, PassManager passes) {
+        IrModule module = new IrBuilder().build(parse(source));
+        passes.run(module);
+        return module;
+    }
+
+    public static String run(String source) {
+        return run(ir(source, true), "", interpreter -> {});
+    }
+
+    public static String run(String source, Consumer<Interpreter> setup) {
+        return run(ir(source, true), "", setup);
+    }
+
+    public static String run(IrModule module, String input, Consumer<Interpreter> setup) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(module,
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+        setup.accept(interpreter);
+        interpreter.run();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}